@@ -0,0 +1,73 @@
+package com.library.management.benchmark;
+
+import com.library.management.batch.BookItemProcessor;
+import com.library.management.batch.GenreAnalyticsEngine;
+import com.library.management.dto.GenreAnalysis;
+import com.library.management.entity.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * バッチ処理ベンチマーク
+ * 書籍プロセッサーの処理件数あたりのスループットと、ジャンル分析の一括集計時間を計測する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class BatchProcessorBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int bookCount;
+
+    private BenchmarkContext context;
+    private BookItemProcessor bookItemProcessor;
+    private GenreAnalyticsEngine genreAnalyticsEngine;
+    private List<Book> books;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(bookCount);
+        bookItemProcessor = context.getBean(BookItemProcessor.class);
+        genreAnalyticsEngine = context.getBean(GenreAnalyticsEngine.class);
+        books = new SyntheticDataGenerator(BenchmarkContext.DATA_SEED).createBooks(bookCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 全件をプロセッサーに通す（1操作 = データセット全体）
+     */
+    @Benchmark
+    public void bookItemProcessor(Blackhole blackhole) throws Exception {
+        for (Book book : books) {
+            blackhole.consume(bookItemProcessor.process(book));
+        }
+    }
+
+    @Benchmark
+    public List<GenreAnalysis> genreAnalysis() {
+        return genreAnalyticsEngine.analyzeAllGenres(LocalDate.now());
+    }
+}
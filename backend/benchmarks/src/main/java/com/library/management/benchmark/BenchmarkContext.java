@@ -0,0 +1,106 @@
+package com.library.management.benchmark;
+
+import com.library.management.LibraryManagementApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ベンチマーク用アプリケーションコンテキスト
+ * 空のPostgreSQLコンテナに本番と同じマイグレーション（基本テーブルを含む）を適用してアプリケーションを起動し、指定件数の合成データを投入する。
+ * 計測結果に影響しないよう、スケジュール実行はbenchmarkプロファイルで無効化する
+ */
+public class BenchmarkContext implements AutoCloseable {
+
+    public static final long DATA_SEED = 20251017L;
+
+    private static final String POSTGRES_IMAGE = "postgres:15-alpine";
+
+    private final PostgreSQLContainer<?> database;
+    private final ConfigurableApplicationContext applicationContext;
+    private final Path reportDirectory;
+
+    private BenchmarkContext(PostgreSQLContainer<?> database, ConfigurableApplicationContext applicationContext,
+                             Path reportDirectory) {
+        this.database = database;
+        this.applicationContext = applicationContext;
+        this.reportDirectory = reportDirectory;
+    }
+
+    /**
+     * コンテナ・コンテキスト起動とデータ投入
+     *
+     * @param properties 追加の設定（--key=value 形式）
+     */
+    public static BenchmarkContext start(int bookCount, String... properties) {
+        PostgreSQLContainer<?> database = new PostgreSQLContainer<>(POSTGRES_IMAGE);
+        database.start();
+        try {
+            Path reportDirectory = Files.createTempDirectory("library-benchmark-reports");
+
+            List<String> args = new ArrayList<>();
+            args.add("--spring.datasource.url=" + database.getJdbcUrl());
+            args.add("--spring.datasource.username=" + database.getUsername());
+            args.add("--spring.datasource.password=" + database.getPassword());
+            args.add("--app.reports.storage-path=" + reportDirectory.toAbsolutePath());
+            args.addAll(Arrays.asList(properties));
+
+            ConfigurableApplicationContext applicationContext =
+                new SpringApplicationBuilder(LibraryManagementApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("benchmark")
+                    .run(args.toArray(new String[0]));
+
+            JdbcTemplate jdbcTemplate = applicationContext.getBean(JdbcTemplate.class);
+            new SyntheticDataGenerator(DATA_SEED).populate(jdbcTemplate, bookCount);
+            // 投入直後の統計情報で実行計画が決まらないよう更新してから計測する
+            jdbcTemplate.execute("ANALYZE");
+
+            return new BenchmarkContext(database, applicationContext, reportDirectory);
+        } catch (IOException e) {
+            database.stop();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            database.stop();
+            throw e;
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return applicationContext.getBean(type);
+    }
+
+    /**
+     * 生成された帳票ファイルの削除（計測対象外の後処理）
+     */
+    public void clearReportFiles() {
+        try (Stream<Path> files = Files.walk(reportDirectory)) {
+            files.filter(Files::isRegularFile).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        applicationContext.close();
+        database.stop();
+        try (Stream<Path> files = Files.walk(reportDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
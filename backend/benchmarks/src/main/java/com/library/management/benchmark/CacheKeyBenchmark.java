@@ -0,0 +1,88 @@
+package com.library.management.benchmark;
+
+import com.library.management.dto.ReportRequest;
+import com.library.management.service.report.cache.ReportCacheService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * キャッシュキー生成ベンチマーク
+ * 帳票生成のたびに実行されるキャッシュキー生成を、DBアクセスを伴わない生成開始登録（beginGeneration）経由で計測する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CacheKeyBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    private BenchmarkContext context;
+    private ReportCacheService reportCacheService;
+    private ReportRequest simpleRequest;
+    private ReportRequest filteredRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // キー生成は書籍件数に依存しないため最小のデータで起動する
+        context = BenchmarkContext.start(0);
+        reportCacheService = context.getBean(ReportCacheService.class);
+
+        simpleRequest = new ReportRequest("PERSONAL", "PDF");
+
+        filteredRequest = new ReportRequest("BOOK_LIST", "EXCEL");
+        ReportRequest.ReportFilters filters = new ReportRequest.ReportFilters();
+        filters.setReadStatus(Arrays.asList("読書中", "読了"));
+        filters.setPublisher("出版社1");
+        filters.setStartDate(LocalDate.of(2024, 1, 1));
+        filters.setEndDate(LocalDate.of(2024, 12, 31));
+        filteredRequest.setFilters(filters);
+
+        ReportRequest.ReportOptions options = new ReportRequest.ReportOptions();
+        options.setSortBy("title");
+        options.setSortOrder("ASC");
+        Map<String, Object> customOptions = new HashMap<>();
+        customOptions.put("includeStatistics", true);
+        options.setCustomOptions(customOptions);
+        filteredRequest.setOptions(options);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean simpleRequestKey() {
+        return beginAndRelease(simpleRequest);
+    }
+
+    @Benchmark
+    public boolean filteredRequestKey() {
+        return beginAndRelease(filteredRequest);
+    }
+
+    private boolean beginAndRelease(ReportRequest request) {
+        ReportCacheService.GenerationTicket ticket = reportCacheService.beginGeneration(USER_ID, request);
+        ticket.release();
+        return ticket.isLeader();
+    }
+}
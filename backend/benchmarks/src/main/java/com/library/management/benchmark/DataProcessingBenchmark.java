@@ -0,0 +1,74 @@
+package com.library.management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.dto.ReportRequest;
+import com.library.management.entity.Book;
+import com.library.management.service.report.optimization.DataProcessingOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帳票データ変換・統計集計ベンチマーク
+ * DataProcessingOptimizerのメモリ上の処理のみを計測する（DBアクセスなし）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class DataProcessingBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int bookCount;
+
+    private AnnotationConfigApplicationContext applicationContext;
+    private DataProcessingOptimizer optimizer;
+    private List<Book> books;
+    private ReportRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 依存はObjectMapperのみのため最小のコンテキストで構築する（設定値は@Valueの既定値）
+        applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.registerBean(ObjectMapper.class);
+        applicationContext.registerBean(DataProcessingOptimizer.class);
+        applicationContext.refresh();
+        optimizer = applicationContext.getBean(DataProcessingOptimizer.class);
+
+        books = new SyntheticDataGenerator(BenchmarkContext.DATA_SEED).createBooks(bookCount);
+        request = new ReportRequest("BOOK_LIST", "EXCEL");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        optimizer.shutdown();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public DataProcessingOptimizer.StatisticsResult statisticsCalculation() {
+        return optimizer.optimizeStatisticsCalculation(books);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> bookDataTransform() {
+        return optimizer.optimizeBookDataForReport(books, request);
+    }
+}
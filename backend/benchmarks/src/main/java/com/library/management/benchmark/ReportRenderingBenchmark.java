@@ -0,0 +1,80 @@
+package com.library.management.benchmark;
+
+import com.library.management.dto.ReportRequest;
+import com.library.management.service.report.ExcelReportService;
+import com.library.management.service.report.PDFReportService;
+import com.library.management.service.report.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel/PDF帳票生成ベンチマーク
+ * キャッシュを無効にして公開APIのgenerateReportを呼び出し、毎回の生成（履歴・ファイルストア登録を含む）を計測する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class ReportRenderingBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({ "1000", "100000", "1000000" })
+    private int bookCount;
+
+    private BenchmarkContext context;
+    private ExcelReportService excelReportService;
+    private PDFReportService pdfReportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(bookCount, "--app.report.cache.enabled=false");
+        excelReportService = context.getBean(ExcelReportService.class);
+        pdfReportService = context.getBean(PDFReportService.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearReportFiles() {
+        context.clearReportFiles();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReportService.ReportGenerationResult excelBookList() {
+        return excelReportService.generateReport(USER_ID, new ReportRequest("BOOK_LIST", "EXCEL"));
+    }
+
+    @Benchmark
+    public ReportService.ReportGenerationResult excelSystemStatistics() {
+        return excelReportService.generateReport(USER_ID, new ReportRequest("SYSTEM", "EXCEL"));
+    }
+
+    @Benchmark
+    public ReportService.ReportGenerationResult pdfBookList() {
+        return pdfReportService.generateReport(USER_ID, new ReportRequest("BOOK_LIST", "PDF"));
+    }
+
+    @Benchmark
+    public ReportService.ReportGenerationResult pdfSystemStatistics() {
+        return pdfReportService.generateReport(USER_ID, new ReportRequest("SYSTEM", "PDF"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.library.management.benchmark;
+
+import com.library.management.dto.ReportRequest;
+import com.library.management.service.report.data.ReportDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帳票用統計集計ベンチマーク
+ * ReportDataServiceのシステム・個人・ユーザー別統計をPostgreSQLコンテナに対して計測する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class StatisticsAggregationBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    @Param({ "1000", "100000", "1000000" })
+    private int bookCount;
+
+    private BenchmarkContext context;
+    private ReportDataService reportDataService;
+    private ReportRequest.ReportFilters filters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(bookCount);
+        reportDataService = context.getBean(ReportDataService.class);
+        filters = new ReportRequest.ReportFilters();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReportDataService.SystemStatistics systemStatistics() {
+        return reportDataService.getSystemStatistics(filters);
+    }
+
+    @Benchmark
+    public ReportDataService.BookStatistics personalStatistics() {
+        return reportDataService.getBookStatistics(USER_ID, filters);
+    }
+
+    @Benchmark
+    public List<ReportDataService.UserStatistics> userStatistics() {
+        return reportDataService.getUserStatistics(filters);
+    }
+}
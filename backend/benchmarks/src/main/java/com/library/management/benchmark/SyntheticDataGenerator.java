@@ -0,0 +1,214 @@
+package com.library.management.benchmark;
+
+import com.library.management.entity.Author;
+import com.library.management.entity.Book;
+import com.library.management.entity.BookAuthor;
+import com.library.management.entity.Genre;
+import com.library.management.entity.ReadStatus;
+import com.library.management.entity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ベンチマーク用合成データ生成
+ * 同じシードからは常に同じデータセットを生成し、計測結果をリリース間で比較できるようにする
+ */
+public class SyntheticDataGenerator {
+
+    public static final String[] READ_STATUSES = { "未読", "読書中", "読了" };
+
+    private static final int GENRE_COUNT = 20;
+    private static final int PUBLISHER_COUNT = 50;
+    private static final int BOOKS_PER_USER = 100;
+    private static final int BOOKS_PER_AUTHOR = 50;
+    private static final int INSERT_BATCH_SIZE = 5000;
+    private static final int CREATED_AT_RANGE_DAYS = 730;
+
+    private final long seed;
+
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public static int userCountFor(int bookCount) {
+        return Math.max(10, bookCount / BOOKS_PER_USER);
+    }
+
+    public static int authorCountFor(int bookCount) {
+        return Math.max(10, bookCount / BOOKS_PER_AUTHOR);
+    }
+
+    /**
+     * メモリ上の書籍エンティティを生成（DB不要の処理向け）
+     */
+    public List<Book> createBooks(int count) {
+        Random random = new Random(seed);
+
+        List<ReadStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < READ_STATUSES.length; i++) {
+            ReadStatus status = new ReadStatus(READ_STATUSES[i], READ_STATUSES[i]);
+            status.setId((long) i + 1);
+            statuses.add(status);
+        }
+
+        List<Genre> genres = new ArrayList<>();
+        for (int i = 0; i < GENRE_COUNT; i++) {
+            Genre genre = new Genre(genreName(i));
+            genre.setId((long) i + 1);
+            genres.add(genre);
+        }
+
+        int authorCount = authorCountFor(count);
+        List<Author> authors = new ArrayList<>(authorCount);
+        for (int i = 0; i < authorCount; i++) {
+            Author author = new Author(authorName(i));
+            author.setId((long) i + 1);
+            authors.add(author);
+        }
+
+        int userCount = userCountFor(count);
+        LocalDateTime now = LocalDateTime.now();
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book(title(i), publisherName(random.nextInt(PUBLISHER_COUNT)),
+                LocalDate.of(1990 + random.nextInt(35), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                isbn(i), statuses.get(random.nextInt(statuses.size())));
+            book.setId((long) i + 1);
+            book.setUserId((long) random.nextInt(userCount) + 1);
+            book.setGenre(genres.get(random.nextInt(GENRE_COUNT)));
+            book.setCreatedAt(now.minusMinutes(random.nextInt(CREATED_AT_RANGE_DAYS * 24 * 60)));
+
+            List<BookAuthor> bookAuthors = new ArrayList<>(1);
+            bookAuthors.add(new BookAuthor(book, authors.get(random.nextInt(authorCount))));
+            book.setBookAuthors(bookAuthors);
+
+            books.add(book);
+        }
+        return books;
+    }
+
+    /**
+     * メモリ上のユーザーエンティティを生成
+     */
+    public List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setUsername(username(i));
+            user.setEmail(username(i) + "@example.com");
+            user.setCreatedAt(now.minusDays(i % CREATED_AT_RANGE_DAYS));
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * データベースへの投入
+     * IDは1から連番で採番される前提（空のスキーマに対して実行する）
+     */
+    public void populate(JdbcTemplate jdbcTemplate, int bookCount) {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.update("INSERT INTO roles (name) VALUES ('user')");
+        Long roleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'user'", Long.class);
+
+        for (String status : READ_STATUSES) {
+            jdbcTemplate.update("INSERT INTO read_statuses (name, description) VALUES (?, ?)", status, status);
+        }
+
+        List<Object[]> genreArgs = new ArrayList<>();
+        for (int i = 0; i < GENRE_COUNT; i++) {
+            genreArgs.add(new Object[] { genreName(i) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO genres (name) VALUES (?)", genreArgs);
+
+        int userCount = userCountFor(bookCount);
+        List<Object[]> userArgs = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            userArgs.add(new Object[] { username(i), username(i) + "@example.com", "{noop}benchmark", roleId,
+                Timestamp.valueOf(now.minusDays(i % CREATED_AT_RANGE_DAYS)) });
+            flushIfFull(jdbcTemplate,
+                "INSERT INTO users (username, email, password_hash, role_id, created_at) VALUES (?, ?, ?, ?, ?)",
+                userArgs, false);
+        }
+        flushIfFull(jdbcTemplate,
+            "INSERT INTO users (username, email, password_hash, role_id, created_at) VALUES (?, ?, ?, ?, ?)",
+            userArgs, true);
+
+        int authorCount = authorCountFor(bookCount);
+        List<Object[]> authorArgs = new ArrayList<>();
+        for (int i = 0; i < authorCount; i++) {
+            authorArgs.add(new Object[] { authorName(i), Timestamp.valueOf(now) });
+            flushIfFull(jdbcTemplate, "INSERT INTO authors (name, created_at) VALUES (?, ?)", authorArgs, false);
+        }
+        flushIfFull(jdbcTemplate, "INSERT INTO authors (name, created_at) VALUES (?, ?)", authorArgs, true);
+
+        String bookSql = "INSERT INTO books (title, publisher, published_date, isbn, read_status_id, user_id, " +
+            "created_at, genre_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String bookAuthorSql = "INSERT INTO book_authors (book_id, author_id) VALUES (?, ?)";
+        List<Object[]> bookArgs = new ArrayList<>();
+        List<Object[]> bookAuthorArgs = new ArrayList<>();
+        for (int i = 0; i < bookCount; i++) {
+            bookArgs.add(new Object[] {
+                title(i),
+                publisherName(random.nextInt(PUBLISHER_COUNT)),
+                Date.valueOf(LocalDate.of(1990 + random.nextInt(35), 1 + random.nextInt(12), 1 + random.nextInt(28))),
+                isbn(i),
+                (long) random.nextInt(READ_STATUSES.length) + 1,
+                (long) random.nextInt(userCount) + 1,
+                Timestamp.valueOf(now.minusMinutes(random.nextInt(CREATED_AT_RANGE_DAYS * 24 * 60))),
+                (long) random.nextInt(GENRE_COUNT) + 1
+            });
+            bookAuthorArgs.add(new Object[] { (long) i + 1, (long) random.nextInt(authorCount) + 1 });
+
+            // 書籍を先に投入してから著者関連を投入する
+            if (bookArgs.size() >= INSERT_BATCH_SIZE) {
+                flushIfFull(jdbcTemplate, bookSql, bookArgs, true);
+                flushIfFull(jdbcTemplate, bookAuthorSql, bookAuthorArgs, true);
+            }
+        }
+        flushIfFull(jdbcTemplate, bookSql, bookArgs, true);
+        flushIfFull(jdbcTemplate, bookAuthorSql, bookAuthorArgs, true);
+    }
+
+    private void flushIfFull(JdbcTemplate jdbcTemplate, String sql, List<Object[]> args, boolean force) {
+        if (!args.isEmpty() && (force || args.size() >= INSERT_BATCH_SIZE)) {
+            jdbcTemplate.batchUpdate(sql, args);
+            args.clear();
+        }
+    }
+
+    private static String genreName(int index) {
+        return "ジャンル" + index;
+    }
+
+    private static String publisherName(int index) {
+        return "出版社" + index;
+    }
+
+    private static String authorName(int index) {
+        return "著者" + index;
+    }
+
+    private static String username(int index) {
+        return "bench_user_" + index;
+    }
+
+    private static String title(int index) {
+        return "ベンチマーク書籍 " + index;
+    }
+
+    private static String isbn(int index) {
+        return String.format("978%010d", index);
+    }
+}
@@ -22,6 +22,9 @@ public class BatchJobExecutionListener implements JobExecutionListener {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private BatchJobStatsStore batchJobStatsStore;
+
     @Override
     public void beforeJob(JobExecution jobExecution) {
         logger.info("バッチジョブ開始: {} - 実行ID: {}",
@@ -48,6 +51,28 @@ public class BatchJobExecutionListener implements JobExecutionListener {
 
         // batch_execution_logsテーブルに実行ログを保存
         saveExecutionLog(jobExecution);
+
+        // system_logsテーブルにジョブ名付きで記録（ログ一覧のジョブ名絞り込み用）
+        saveSystemLog(jobName, status, message);
+
+        // batch_job_daily_statsテーブルの日次集計に加算（管理画面の統計用）
+        try {
+            batchJobStatsStore.record(jobExecution);
+        } catch (Exception e) {
+            logger.error("バッチ日次集計更新エラー: {}", e.getMessage(), e);
+        }
+    }
+
+    private void saveSystemLog(String jobName, BatchStatus status, String message) {
+        try {
+            String level = status == BatchStatus.COMPLETED ? "INFO"
+                : status == BatchStatus.FAILED ? "ERROR" : "WARN";
+            jdbcTemplate.update(
+                "INSERT INTO system_logs (log_level, job_name, message, created_at) VALUES (?, ?, ?, NOW())",
+                level, jobName, message);
+        } catch (Exception e) {
+            logger.error("システムログ保存エラー: {}", e.getMessage(), e);
+        }
     }
 
     private void saveExecutionLog(JobExecution jobExecution) {
@@ -0,0 +1,209 @@
+package com.library.management.batch;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * バッチジョブ日次集計ストア
+ * ジョブ終了時に開始日・ジョブ名単位の実行数・失敗数・実行時間・読み書き件数をbatch_job_daily_statsへ加算し、
+ * 管理画面の統計は期間内の日次行（ジョブ数 × 日数）の合計で算出する。
+ * 算出結果は短時間スナップショットとして保持し、画面のポーリングではデータベースに問い合わせない
+ */
+@Component
+public class BatchJobStatsStore {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO batch_job_daily_stats
+            (stat_date, job_name, execution_count, completed_count, failed_count, timed_count,
+             total_duration_ms, max_duration_ms, read_count, write_count, last_execution)
+        VALUES (?, ?, 1, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (stat_date, job_name) DO UPDATE SET
+            execution_count = batch_job_daily_stats.execution_count + 1,
+            completed_count = batch_job_daily_stats.completed_count + EXCLUDED.completed_count,
+            failed_count = batch_job_daily_stats.failed_count + EXCLUDED.failed_count,
+            timed_count = batch_job_daily_stats.timed_count + EXCLUDED.timed_count,
+            total_duration_ms = batch_job_daily_stats.total_duration_ms + EXCLUDED.total_duration_ms,
+            max_duration_ms = GREATEST(batch_job_daily_stats.max_duration_ms, EXCLUDED.max_duration_ms),
+            read_count = batch_job_daily_stats.read_count + EXCLUDED.read_count,
+            write_count = batch_job_daily_stats.write_count + EXCLUDED.write_count,
+            last_execution = GREATEST(batch_job_daily_stats.last_execution, EXCLUDED.last_execution)
+        """;
+
+    private static final String BREAKDOWN_SQL = """
+        SELECT
+            job_name,
+            SUM(execution_count) as execution_count,
+            SUM(completed_count) as success_count,
+            SUM(failed_count) as failure_count,
+            SUM(timed_count) as timed_count,
+            SUM(total_duration_ms) as total_duration_ms,
+            MAX(max_duration_ms) as max_time_ms,
+            SUM(read_count) as read_count,
+            SUM(write_count) as write_count,
+            MAX(last_execution) as last_execution
+        FROM batch_job_daily_stats
+        WHERE stat_date >= ?
+        GROUP BY job_name
+        ORDER BY execution_count DESC
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.batch.job-stats.period-days:30}")
+    private int periodDays;
+
+    @Value("${app.batch.job-stats.snapshot-ttl-ms:10000}")
+    private long snapshotTtlMs;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * ジョブ実行結果の加算
+     */
+    public void record(JobExecution jobExecution) {
+        if (jobExecution.getStartTime() == null) {
+            return;
+        }
+
+        BatchStatus status = jobExecution.getStatus();
+        Long durationMs = jobExecution.getEndTime() != null
+            ? Duration.between(jobExecution.getStartTime(), jobExecution.getEndTime()).toMillis()
+            : null;
+        long readCount = 0;
+        long writeCount = 0;
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            readCount += stepExecution.getReadCount();
+            writeCount += stepExecution.getWriteCount();
+        }
+
+        jdbcTemplate.update(UPSERT_SQL,
+            Date.valueOf(jobExecution.getStartTime().toLocalDate()),
+            jobExecution.getJobInstance().getJobName(),
+            status == BatchStatus.COMPLETED ? 1 : 0,
+            status == BatchStatus.FAILED ? 1 : 0,
+            durationMs != null ? 1 : 0,
+            durationMs != null ? durationMs : 0L,
+            durationMs,
+            readCount,
+            writeCount,
+            Timestamp.valueOf(jobExecution.getStartTime()));
+
+        // 自ノードの画面には次のポーリングで反映する（他ノードはスナップショットの期限切れで反映）
+        snapshot = null;
+    }
+
+    /**
+     * 統計情報（スナップショットが有効な間はデータベースに問い合わせない）
+     *
+     * @return jobStatistics, jobBreakdown, availableReports
+     */
+    public Map<String, Object> getStatistics() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(snapshotTtlMs)) {
+            return current.getStatistics();
+        }
+
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.isExpired(snapshotTtlMs)) {
+                current = new Snapshot(loadStatistics());
+                snapshot = current;
+            }
+        }
+        return current.getStatistics();
+    }
+
+    private Map<String, Object> loadStatistics() {
+        LocalDate since = LocalDate.now().minusDays(periodDays);
+
+        List<Map<String, Object>> jobBreakdown = new ArrayList<>();
+        long totalExecutions = 0;
+        long completedExecutions = 0;
+        long failedExecutions = 0;
+        long timedExecutions = 0;
+        long totalDurationMs = 0;
+        long totalReadCount = 0;
+        long totalWriteCount = 0;
+
+        for (Map<String, Object> row : jdbcTemplate.queryForList(BREAKDOWN_SQL, Date.valueOf(since))) {
+            long timed = toLong(row.remove("timed_count"));
+            long duration = toLong(row.remove("total_duration_ms"));
+            row.put("avg_time_ms", timed > 0 ? Math.round((double) duration / timed) : null);
+            jobBreakdown.add(Collections.unmodifiableMap(row));
+
+            totalExecutions += toLong(row.get("execution_count"));
+            completedExecutions += toLong(row.get("success_count"));
+            failedExecutions += toLong(row.get("failure_count"));
+            timedExecutions += timed;
+            totalDurationMs += duration;
+            totalReadCount += toLong(row.get("read_count"));
+            totalWriteCount += toLong(row.get("write_count"));
+        }
+
+        // 実行中のジョブは集計対象外のため実行履歴から数える（状態の絞り込みはインデックスで解決）
+        Long runningExecutions = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM batch_execution_logs WHERE status = 'STARTED' AND start_time >= ?",
+            Long.class, Date.valueOf(since));
+
+        Map<String, Object> jobStatistics = new LinkedHashMap<>();
+        jobStatistics.put("total_executions", totalExecutions);
+        jobStatistics.put("completed_executions", completedExecutions);
+        jobStatistics.put("failed_executions", failedExecutions);
+        jobStatistics.put("running_executions", runningExecutions != null ? runningExecutions : 0L);
+        jobStatistics.put("avg_execution_time_ms",
+            timedExecutions > 0 ? Math.round((double) totalDurationMs / timedExecutions) : null);
+        jobStatistics.put("total_read_count", totalReadCount);
+        jobStatistics.put("total_write_count", totalWriteCount);
+
+        List<Map<String, Object>> availableReports = jdbcTemplate.queryForList("""
+            SELECT
+                report_type,
+                target_date,
+                created_at,
+                updated_at
+            FROM batch_statistics
+            WHERE target_date >= ?
+            ORDER BY updated_at DESC
+            """, Date.valueOf(since));
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("jobStatistics", Collections.unmodifiableMap(jobStatistics));
+        statistics.put("jobBreakdown", Collections.unmodifiableList(jobBreakdown));
+        statistics.put("availableReports", Collections.unmodifiableList(availableReports));
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * 統計スナップショットクラス
+     */
+    private static class Snapshot {
+        private final Map<String, Object> statistics;
+        private final long createdAt = System.currentTimeMillis();
+
+        Snapshot(Map<String, Object> statistics) {
+            this.statistics = statistics;
+        }
+
+        Map<String, Object> getStatistics() { return statistics; }
+
+        boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - createdAt > ttlMs;
+        }
+    }
+}
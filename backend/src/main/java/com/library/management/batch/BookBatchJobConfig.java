@@ -2,46 +2,67 @@ package com.library.management.batch;
 
 import com.library.management.entity.Book;
 import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobParameters;
-import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.Step;
-import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
 public class BookBatchJobConfig {
-    
+
     @Autowired
     private BookItemReader bookItemReader;
-    
+
     @Autowired
     private BookItemProcessor bookItemProcessor;
-    
+
     @Autowired
     private BookItemWriter bookItemWriter;
-    
+
+    @Autowired
+    private BookIdRangePartitioner bookIdRangePartitioner;
+
     @Autowired
     private BatchJobExecutionListener batchJobExecutionListener;
-    
+
+    @Value("${app.batch.book.chunk-size:10}")
+    private int chunkSize;
+
+    @Value("${app.batch.book.grid-size:4}")
+    private int gridSize;
+
     @Bean
-    public Job bookProcessingJob(JobRepository jobRepository, Step bookProcessingStep) {
+    public Job bookProcessingJob(JobRepository jobRepository, Step bookProcessingPartitionStep) {
         return new JobBuilder("bookProcessingJob", jobRepository)
                 .listener(batchJobExecutionListener)
-                .start(bookProcessingStep)
+                .start(bookProcessingPartitionStep)
                 .build();
     }
-    
+
+    // 書籍ID範囲で分割し、各範囲をワーカーステップで並列処理
+    @Bean
+    public Step bookProcessingPartitionStep(JobRepository jobRepository,
+                                            Step bookProcessingStep,
+                                            @Qualifier("partitionTaskExecutor") TaskExecutor partitionTaskExecutor) {
+        return new StepBuilder("bookProcessingPartitionStep", jobRepository)
+                .partitioner("bookProcessingStep", bookIdRangePartitioner)
+                .step(bookProcessingStep)
+                .gridSize(gridSize)
+                .taskExecutor(partitionTaskExecutor)
+                .build();
+    }
+
     @Bean
     public Step bookProcessingStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
         return new StepBuilder("bookProcessingStep", jobRepository)
-                .<Book, Book>chunk(10, transactionManager)
+                .<Book, Book>chunk(chunkSize, transactionManager)
                 .reader(bookItemReader)
                 .processor(bookItemProcessor)
                 .writer(bookItemWriter)
@@ -52,4 +73,4 @@ public class BookBatchJobConfig {
                 .skip(Exception.class)
                 .build();
     }
-}
\ No newline at end of file
+}
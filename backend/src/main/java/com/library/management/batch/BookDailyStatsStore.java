@@ -0,0 +1,222 @@
+package com.library.management.batch;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * 書籍日次集計ストア
+ * 書籍の登録日・ユーザー・ジャンル単位の件数をbook_daily_statsに保持し、定期統計は期間内の日次行の合計で算出する。
+ * 書籍の変更日はトリガーがbook_daily_stats_dirty_logに追記し、refresh()でその日付のみ再集計する。
+ * 再集計は取得した日付の束ごとに別トランザクションでコミットし、ロックを早く解放して途中までの結果を残す
+ */
+@Component
+public class BookDailyStatsStore {
+
+    // 古い順に最大refreshBatchDays日分の記録を取得する（他の集計処理が取得中の行は飛ばす）
+    private static final String CLAIM_DIRTY_SQL =
+        "WITH days AS (SELECT DISTINCT stat_date FROM book_daily_stats_dirty_log ORDER BY stat_date LIMIT ?) " +
+        "SELECT l.id, l.stat_date FROM book_daily_stats_dirty_log l JOIN days ON l.stat_date = days.stat_date " +
+        "FOR UPDATE OF l SKIP LOCKED";
+
+    private static final String DELETE_ROLLUP_SQL =
+        "DELETE FROM book_daily_stats WHERE stat_date IN (:days)";
+
+    // 登録日時の範囲条件でidx_books_created_atを使い、対象日以外は日付リストで除外する
+    private static final String INSERT_ROLLUP_SQL =
+        "INSERT INTO book_daily_stats (stat_date, user_id, genre_id, book_count, completed_count) " +
+        "SELECT CAST(b.created_at AS DATE), b.user_id, b.genre_id, COUNT(*), " +
+        "  COUNT(CASE WHEN rs.name IN ('読了', 'COMPLETED') THEN 1 END) " +
+        "FROM books b " +
+        "LEFT JOIN read_statuses rs ON b.read_status_id = rs.id " +
+        "WHERE b.created_at >= :fromTime AND b.created_at < :toTime " +
+        "  AND CAST(b.created_at AS DATE) IN (:days) AND b.user_id IS NOT NULL " +
+        "GROUP BY CAST(b.created_at AS DATE), b.user_id, b.genre_id";
+
+    // 取得した行のみ削除する（取得後にコミットされた変更の記録は次回の集計対象として残る）
+    private static final String DELETE_DIRTY_SQL =
+        "DELETE FROM book_daily_stats_dirty_log WHERE id = ANY(?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.batch.daily-stats.refresh-batch-days:366}")
+    private int refreshBatchDays;
+
+    /**
+     * 再集計待ちの日付を集計し直す（変更がなければ何もしない）
+     * 呼び出し元のトランザクションとは別に、取得した日付の束ごとにコミットする
+     *
+     * @return 再集計した日数
+     */
+    public int refresh() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int refreshedDays = 0;
+        while (true) {
+            Integer days = transactionTemplate.execute(status -> refreshBatch());
+            if (days == null || days == 0) {
+                break;
+            }
+            refreshedDays += days;
+        }
+
+        if (refreshedDays > 0) {
+            System.out.println("書籍日次集計更新: " + refreshedDays + "日分");
+        }
+        return refreshedDays;
+    }
+
+    /**
+     * 再集計待ちの記録を1束取得して集計し直す
+     *
+     * @return 再集計した日数（対象がなければ0）
+     */
+    private int refreshBatch() {
+        List<Long> ids = new ArrayList<>();
+        SortedSet<LocalDate> claimedDays = new TreeSet<>();
+        jdbcTemplate.query(CLAIM_DIRTY_SQL, rs -> {
+            ids.add(rs.getLong("id"));
+            claimedDays.add(rs.getObject("stat_date", LocalDate.class));
+        }, refreshBatchDays);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<LocalDate> days = new ArrayList<>(claimedDays);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("days", days.stream().map(Date::valueOf).toList())
+            .addValue("fromTime", days.get(0).atStartOfDay())
+            .addValue("toTime", days.get(days.size() - 1).plusDays(1).atStartOfDay());
+
+        namedParameterJdbcTemplate.update(DELETE_ROLLUP_SQL, params);
+        namedParameterJdbcTemplate.update(INSERT_ROLLUP_SQL, params);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_DIRTY_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+        return days.size();
+    }
+
+    /**
+     * 指定期間を再集計対象に登録（バックフィル・データ修正時用）
+     */
+    @Transactional
+    public int markDirty(LocalDate start, LocalDate end) {
+        return jdbcTemplate.update(
+            "INSERT INTO book_daily_stats_dirty_log (stat_date) " +
+            "SELECT CAST(d AS DATE) FROM generate_series(CAST(? AS DATE), CAST(? AS DATE), INTERVAL '1 day') d",
+            start, end);
+    }
+
+    /**
+     * 期間合計（登録数・読了数・アクティブユーザー数）
+     */
+    public PeriodTotals getPeriodTotals(LocalDate start, LocalDate end) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(book_count), 0) as total_books, " +
+            "  COALESCE(SUM(completed_count), 0) as completed_books, " +
+            "  COUNT(DISTINCT user_id) as active_users " +
+            "FROM book_daily_stats WHERE stat_date BETWEEN ? AND ?",
+            (rs, rowNum) -> new PeriodTotals(
+                rs.getInt("total_books"), rs.getInt("completed_books"), rs.getInt("active_users")),
+            start, end);
+    }
+
+    /**
+     * 期間内ジャンル別登録数（件数降順）
+     */
+    public Map<String, Integer> getGenreDistribution(LocalDate start, LocalDate end) {
+        return getTopGenres(start, end, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 期間内ジャンル別登録数の上位limit件（件数降順）
+     */
+    public Map<String, Integer> getTopGenres(LocalDate start, LocalDate end, int limit) {
+        Map<String, Integer> distribution = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT g.name as genre, SUM(s.book_count) as count FROM book_daily_stats s " +
+            "JOIN genres g ON s.genre_id = g.id " +
+            "WHERE s.stat_date BETWEEN ? AND ? " +
+            "GROUP BY g.name ORDER BY count DESC LIMIT ?",
+            rs -> {
+                distribution.put(rs.getString("genre"), rs.getInt("count"));
+            },
+            start, end, limit);
+        return distribution;
+    }
+
+    /**
+     * 期間内の日別登録数（登録のあった日のみ、日付昇順）
+     */
+    public Map<LocalDate, Integer> getDailyCounts(LocalDate start, LocalDate end) {
+        Map<LocalDate, Integer> dailyCounts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT stat_date, SUM(book_count) as count FROM book_daily_stats " +
+            "WHERE stat_date BETWEEN ? AND ? GROUP BY stat_date ORDER BY stat_date",
+            rs -> {
+                dailyCounts.put(rs.getObject("stat_date", LocalDate.class), rs.getInt("count"));
+            },
+            start, end);
+        return dailyCounts;
+    }
+
+    /**
+     * 期間内に登録のあったユーザーごとの読了率の平均（%）
+     */
+    public double getAverageUserCompletionRate(LocalDate start, LocalDate end) {
+        Double rate = jdbcTemplate.queryForObject(
+            "SELECT AVG(completion_rate) FROM (" +
+            "  SELECT SUM(completed_count) * 100.0 / SUM(book_count) as completion_rate " +
+            "  FROM book_daily_stats WHERE stat_date BETWEEN ? AND ? " +
+            "  GROUP BY user_id HAVING SUM(book_count) > 0" +
+            ") user_rates",
+            Double.class, start, end);
+        return rate != null ? rate : 0.0;
+    }
+
+    /**
+     * 期間合計クラス
+     */
+    public static class PeriodTotals {
+        private final int totalBooks;
+        private final int completedBooks;
+        private final int activeUsers;
+
+        public PeriodTotals(int totalBooks, int completedBooks, int activeUsers) {
+            this.totalBooks = totalBooks;
+            this.completedBooks = completedBooks;
+            this.activeUsers = activeUsers;
+        }
+
+        public int getTotalBooks() { return totalBooks; }
+        public int getCompletedBooks() { return completedBooks; }
+        public int getActiveUsers() { return activeUsers; }
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.management.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 書籍ID範囲パーティショナー
+ * 書籍IDの最小値〜最大値をgridSize個の連続範囲に分割し、minId/maxIdとしてBookItemReaderに渡す
+ */
+@Component
+public class BookIdRangePartitioner implements Partitioner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+            "SELECT MIN(id) as min_id, MAX(id) as max_id FROM books");
+        Number min = (Number) range.get("min_id");
+        Number max = (Number) range.get("max_id");
+
+        if (min == null || max == null) {
+            // 書籍なし: 空範囲の単一パーティション
+            partitions.put("partition0", createContext(0, 1L, 0L));
+            return partitions;
+        }
+
+        long minId = min.longValue();
+        long maxId = max.longValue();
+        int partitionCount = (int) Math.max(1, Math.min(gridSize, maxId - minId + 1));
+        long rangeSize = (maxId - minId + 1) / partitionCount;
+
+        for (int i = 0; i < partitionCount; i++) {
+            long startId = minId + i * rangeSize;
+            long endId = (i == partitionCount - 1) ? maxId : startId + rangeSize - 1;
+            partitions.put("partition" + i, createContext(i, startId, endId));
+        }
+
+        System.out.println("書籍パーティション設定: minId=" + minId + ", maxId=" + maxId
+            + ", パーティション数=" + partitionCount);
+        return partitions;
+    }
+
+    private ExecutionContext createContext(int partitionNumber, long minId, long maxId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putInt("partitionNumber", partitionNumber);
+        context.putLong("minId", minId);
+        context.putLong("maxId", maxId);
+        return context;
+    }
+}
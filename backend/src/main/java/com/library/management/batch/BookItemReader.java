@@ -2,35 +2,101 @@ package com.library.management.batch;
 
 import com.library.management.entity.Book;
 import com.library.management.repository.BookRepository;
-import org.springframework.batch.item.ItemReader;
-import org.springframework.batch.item.NonTransientResourceException;
-import org.springframework.batch.item.ParseException;
-import org.springframework.batch.item.UnexpectedInputException;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+/**
+ * 書籍リーダー
+ * IDのキーセットでページ単位に読み込み、最後に読んだIDを実行コンテキストに保存して再開に対応する。
+ * パーティション実行時はステップ実行コンテキストのminId/maxIdの範囲のみを読む
+ */
 @Component
-public class BookItemReader implements ItemReader<Book> {
-    
+@StepScope
+public class BookItemReader implements ItemStreamReader<Book> {
+
+    // 実行コンテキストのキー（リーダー名で修飾）
+    private static final String LAST_ID_KEY = "bookItemReader.lastId";
+
     @Autowired
     private BookRepository bookRepository;
-    
-    private Iterator<Book> bookIterator;
-    
+
+    @Value("#{stepExecutionContext['minId']}")
+    private Long minId;
+
+    @Value("#{stepExecutionContext['maxId']}")
+    private Long maxId;
+
+    @Value("${app.batch.book.page-size:100}")
+    private int pageSize;
+
+    private long lastReadId;
+    private long lastFetchedId;
+    private Iterator<Book> bookIterator = Collections.emptyIterator();
+    private boolean exhausted;
+
     @Override
-    public Book read() throws Exception, UnexpectedInputException, ParseException, NonTransientResourceException {
-        if (bookIterator == null) {
-            List<Book> books = bookRepository.findAll();
-            bookIterator = books.iterator();
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        if (executionContext.containsKey(LAST_ID_KEY)) {
+            // 前回実行の最終コミット位置から再開
+            lastReadId = executionContext.getLong(LAST_ID_KEY);
+        } else {
+            lastReadId = minId != null ? minId - 1 : 0L;
+        }
+        lastFetchedId = lastReadId;
+        bookIterator = Collections.emptyIterator();
+        exhausted = false;
+    }
+
+    @Override
+    public Book read() throws Exception {
+        if (!bookIterator.hasNext() && !exhausted) {
+            fetchNextPage();
         }
-        
+
         if (bookIterator.hasNext()) {
-            return bookIterator.next();
-        } else {
-            return null;
+            Book book = bookIterator.next();
+            lastReadId = book.getId();
+            return book;
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(LAST_ID_KEY, lastReadId);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        bookIterator = Collections.emptyIterator();
+    }
+
+    /**
+     * 次ページ取得
+     * IDのみをページングしてから関連込みで取得し、コレクションのJOIN FETCHでページングしない
+     */
+    private void fetchNextPage() {
+        long upperBound = maxId != null ? maxId : Long.MAX_VALUE;
+        List<Long> ids = bookRepository.findIdsAfter(lastFetchedId, upperBound, PageRequest.of(0, pageSize));
+        if (ids.isEmpty()) {
+            exhausted = true;
+            return;
+        }
+
+        lastFetchedId = ids.get(ids.size() - 1);
+        if (ids.size() < pageSize) {
+            exhausted = true;
         }
+        bookIterator = bookRepository.findAllWithAuthorsByIdIn(ids).iterator();
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import com.library.management.entity.User;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
@@ -17,9 +18,11 @@ import org.springframework.batch.item.database.Order;
 import org.springframework.batch.item.database.support.PostgresPagingQueryProvider;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -42,42 +45,54 @@ public class ComplexStatsBatchJobConfig {
     private BatchJobExecutionListener batchJobExecutionListener;
     
     // 複数テーブル結合での集計処理ジョブ
+    // 各ステップは互いの出力を読まないため並列に実行する（他のステップの結果を使うステップは依存先を指定して追加）
     @Bean
     public Job complexStatsJob(JobRepository jobRepository,
                               Step complexUserAnalysisStep,
                               Step complexGenreAnalysisStep,
-                              Step complexReadingPaceAnalysisStep) {
+                              Step complexReadingPaceAnalysisStep,
+                              @Qualifier("complexBatchTaskExecutor") TaskExecutor complexBatchTaskExecutor) {
+        Flow statsFlow = new StatsStepGraph("complexStatsFlow")
+                .add(complexUserAnalysisStep)
+                .add(complexGenreAnalysisStep)
+                .add(complexReadingPaceAnalysisStep)
+                .build(complexBatchTaskExecutor);
+
         return new JobBuilder("complexStatsJob", jobRepository)
                 .incrementer(new RunIdIncrementer())
-                .start(complexUserAnalysisStep)
-                .next(complexGenreAnalysisStep)
-                .next(complexReadingPaceAnalysisStep)
                 .listener(batchJobExecutionListener)
+                .start(statsFlow)
+                .end()
                 .build();
     }
     
-    // ユーザー別詳細統計Step
+    // ユーザー別詳細統計Step（チャンクを複数スレッドで並列処理）
     @Bean
     public Step complexUserAnalysisStep(JobRepository jobRepository,
                                 PlatformTransactionManager transactionManager,
                                 ItemReader<Map<String, Object>> complexUserReader,
                                 ItemProcessor<Map<String, Object>, UserStats> complexUserProcessor,
-                                ItemWriter<UserStats> complexUserWriter) {
+                                ItemWriter<UserStats> complexUserWriter,
+                                @Qualifier("complexChunkTaskExecutor") TaskExecutor complexChunkTaskExecutor) {
         return new StepBuilder("complexUserAnalysisStep", jobRepository)
                 .<Map<String, Object>, UserStats>chunk(50, transactionManager)
                 .reader(complexUserReader)
                 .processor(complexUserProcessor)
                 .writer(complexUserWriter)
+                .taskExecutor(complexChunkTaskExecutor)
                 .build();
     }
     
     // 複集ユーザーデータリーダー（複数テーブル結合）
+    // JdbcPagingItemReaderはページ取得を同期化しておりスレッドセーフ。並列処理では読み込み位置が
+    // 処理済み件数と一致しないため、再開用の状態は保存しない
     @Bean
     @StepScope
     public ItemReader<Map<String, Object>> complexUserReader(@Value("#{jobParameters[targetDate]}") String targetDate) {
         JdbcPagingItemReader<Map<String, Object>> reader = new JdbcPagingItemReader<>();
         reader.setDataSource(dataSource);
         reader.setPageSize(50);
+        reader.setSaveState(false);
         
         // 複集SQLクエリ（複数テーブル結合）
         PostgresPagingQueryProvider queryProvider = new PostgresPagingQueryProvider();
@@ -148,25 +163,11 @@ public class ComplexStatsBatchJobConfig {
     }
     
     // 複集ユーザーデータライター
+    // チャンクごとに当日の行を上書きすると並列実行時に最後のチャンクしか残らないため、ステップ完了時にまとめて保存する
     @Bean
-    public ItemWriter<UserStats> complexUserWriter() {
-        return items -> {
-            List<UserStats> statsList = new ArrayList<>();
-            items.forEach(statsList::add);
-            
-            // JSON形式で保存
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new JavaTimeModule());
-            String statsJson = mapper.writeValueAsString(statsList);
-            
-            // batch_statisticsテーブルに保存
-            jdbcTemplate.update(
-                "INSERT INTO batch_statistics (report_type, target_date, data_json) VALUES (?, ?, ?::jsonb) " +
-                "ON CONFLICT (report_type, target_date) DO UPDATE SET data_json = ?::jsonb, updated_at = NOW()",
-                "USER_ANALYSIS", LocalDate.now(), statsJson, statsJson);
-                
-            System.out.println("ユーザー統計保存完了: " + statsList.size() + "件");
-        };
+    @StepScope
+    public UserAnalysisStatsWriter complexUserWriter() {
+        return new UserAnalysisStatsWriter(jdbcTemplate);
     }
     
     // ジャンル別分析Step
@@ -6,7 +6,6 @@ import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,9 +24,6 @@ public class GenreAnalysisBatchJob {
     @Autowired
     private GenreReader genreReader;
 
-    @Autowired
-    private GenreAnalysisProcessor genreAnalysisProcessor;
-
     @Autowired
     private GenreAnalysisWriter genreAnalysisWriter;
 
@@ -46,13 +42,12 @@ public class GenreAnalysisBatchJob {
     @Bean(name = "genreAnalysisStep")
     public Step genreAnalysisStep(JobRepository jobRepository,
                                  PlatformTransactionManager transactionManager,
-                                 @Qualifier("genreItemReader") ItemReader<String> genreReader,
-                                 ItemProcessor<String, GenreAnalysis> genreAnalysisProcessor,
+                                 @Qualifier("genreItemReader") ItemReader<GenreAnalysis> genreReader,
                                  ItemWriter<GenreAnalysis> genreAnalysisWriter) {
+        // 集計はリーダーで全ジャンル一括実行するため、プロセッサーは不要
         return new StepBuilder("genreAnalysisStep", jobRepository)
-                .<String, GenreAnalysis>chunk(10, transactionManager)
+                .<GenreAnalysis, GenreAnalysis>chunk(10, transactionManager)
                 .reader(genreReader)
-                .processor(genreAnalysisProcessor)
                 .writer(genreAnalysisWriter)
                 .faultTolerant()
                 .retryLimit(3)
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -26,21 +27,24 @@ public class GenreAnalysisWriter implements ItemWriter<GenreAnalysis> {
     
     @Override
     public void write(Chunk<? extends GenreAnalysis> items) throws Exception {
+        // 個別ジャンル分析をJSON形式で一括保存
+        List<Object[]> batchArgs = new ArrayList<>();
         for (GenreAnalysis analysis : items.getItems()) {
-            // 個別ジャンル分析をJSON形式で保存
             String analysisJson = objectMapper.writeValueAsString(analysis);
-            
-            jdbcTemplate.update(
-                "INSERT INTO batch_statistics (report_type, target_date, data_json) " +
-                "VALUES (?, ?, ?::jsonb) " +
-                "ON CONFLICT (report_type, target_date) " +
-                "DO UPDATE SET data_json = ?::jsonb, updated_at = NOW()",
-                "GENRE_ANALYSIS_" + analysis.getGenre().replaceAll("\\s+", "_"), 
-                LocalDate.now(), 
-                analysisJson, 
+            batchArgs.add(new Object[] {
+                "GENRE_ANALYSIS_" + analysis.getGenre().replaceAll("\\s+", "_"),
+                LocalDate.now(),
+                analysisJson,
                 analysisJson
-            );
+            });
         }
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO batch_statistics (report_type, target_date, data_json) " +
+            "VALUES (?, ?, ?::jsonb) " +
+            "ON CONFLICT (report_type, target_date) " +
+            "DO UPDATE SET data_json = ?::jsonb, updated_at = NOW()",
+            batchArgs);
         
         // 全ジャンル統合レポート作成
         createGenreSummaryReport(items);
@@ -0,0 +1,494 @@
+package com.library.management.batch;
+
+import com.library.management.dto.GenreAnalysis;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ジャンル分析集計エンジン
+ * 季節性の集計期間（過去1年）の書籍を1回だけ走査し、全ジャンルの基本統計・トレンド・ユーザー分析・人気書籍・季節性を同時に集計する。
+ * それより前の書籍は、現在期間の登録ユーザーが期間開始前にも登録していたか（リピーター判定）のみ別途確認する
+ */
+@Component
+public class GenreAnalyticsEngine {
+
+    private static final int ANALYSIS_PERIOD_MONTHS = 3;
+    private static final int POPULAR_BOOK_LIMIT = 10;
+    private static final int TOP_USER_LIMIT = 5;
+
+    // 読書状態の分類
+    private static final int STATUS_OTHER = 0;
+    private static final int STATUS_COMPLETED = 1;
+    private static final int STATUS_READING = 2;
+    private static final int STATUS_ON_HOLD = 3;
+
+    // タイトル・著者名・出版社は現在期間の行のみ取得（人気書籍の集計にのみ使用）
+    private static final String SCAN_SQL =
+        "SELECT b.genre_id, g.name as genre_name, b.user_id, b.created_at, rs.name as status, " +
+        "  CASE WHEN b.created_at >= ? THEN b.title END as title, " +
+        "  CASE WHEN b.created_at >= ? THEN b.publisher END as publisher, " +
+        "  CASE WHEN b.created_at >= ? THEN (" +
+        "    SELECT MIN(a.name) FROM book_authors ba JOIN authors a ON ba.author_id = a.id " +
+        "    WHERE ba.book_id = b.id" +
+        "  ) END as author " +
+        "FROM books b " +
+        "JOIN genres g ON b.genre_id = g.id " +
+        "LEFT JOIN read_statuses rs ON b.read_status_id = rs.id " +
+        "WHERE b.created_at >= ? AND b.created_at < ?";
+
+    // 現在期間に登録したユーザーのうち、同じジャンルで期間開始前にも登録があるもの
+    private static final String RETURNING_USERS_SQL =
+        "SELECT DISTINCT b.genre_id, b.user_id FROM books b " +
+        "WHERE b.created_at >= ? AND b.created_at < ? AND b.user_id IS NOT NULL " +
+        "  AND EXISTS (" +
+        "    SELECT 1 FROM books p " +
+        "    WHERE p.user_id = b.user_id AND p.genre_id = b.genre_id AND p.created_at < ?" +
+        "  )";
+
+    private static final String USERNAME_SQL =
+        "SELECT id, username FROM users WHERE id IN (:userIds)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.batch.genre-analysis.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * 全ジャンル分析
+     * 過去3ヶ月に登録があったジャンルのみを対象とし、ジャンル名順で返す
+     */
+    @Transactional(readOnly = true)
+    public List<GenreAnalysis> analyzeAllGenres(LocalDate analysisDate) {
+        AnalysisWindow window = new AnalysisWindow(analysisDate);
+        Map<Long, GenreAccumulator> accumulators = new HashMap<>();
+
+        // カーソルで逐次取得するため専用のフェッチサイズを設定
+        JdbcTemplate scanTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        scanTemplate.setFetchSize(fetchSize);
+
+        scanTemplate.query(SCAN_SQL, rs -> {
+            long genreId = rs.getLong("genre_id");
+            GenreAccumulator accumulator = accumulators.get(genreId);
+            if (accumulator == null) {
+                accumulator = new GenreAccumulator(rs.getString("genre_name"), window);
+                accumulators.put(genreId, accumulator);
+            }
+            accumulator.accept(rs, window);
+        }, Timestamp.valueOf(window.periodStart), Timestamp.valueOf(window.periodStart), Timestamp.valueOf(window.periodStart),
+            Timestamp.valueOf(window.scanStart), Timestamp.valueOf(window.periodEndExclusive));
+
+        jdbcTemplate.query(RETURNING_USERS_SQL, rs -> {
+            GenreAccumulator accumulator = accumulators.get(rs.getLong("genre_id"));
+            if (accumulator != null) {
+                accumulator.usersBeforePeriod.add(rs.getLong("user_id"));
+            }
+        }, Timestamp.valueOf(window.periodStart), Timestamp.valueOf(window.periodEndExclusive),
+            Timestamp.valueOf(window.periodStart));
+
+        List<GenreAccumulator> activeGenres = new ArrayList<>();
+        Set<Long> topUserIds = new HashSet<>();
+        for (GenreAccumulator accumulator : accumulators.values()) {
+            if (accumulator.totalBooks > 0) {
+                activeGenres.add(accumulator);
+                topUserIds.addAll(accumulator.getTopUserIds());
+            }
+        }
+        activeGenres.sort(Comparator.comparing(a -> a.genreName));
+
+        Map<Long, String> usernames = findUsernames(topUserIds);
+
+        List<GenreAnalysis> results = new ArrayList<>(activeGenres.size());
+        for (GenreAccumulator accumulator : activeGenres) {
+            results.add(accumulator.toAnalysis(analysisDate, window, usernames));
+        }
+
+        System.out.println("ジャンル分析集計完了: 対象ジャンル数=" + results.size()
+            + ", 走査ジャンル数=" + accumulators.size());
+        return results;
+    }
+
+    /**
+     * 上位読者のユーザー名を一括取得
+     */
+    private Map<Long, String> findUsernames(Set<Long> userIds) {
+        Map<Long, String> usernames = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return usernames;
+        }
+        namedParameterJdbcTemplate.query(USERNAME_SQL,
+            new MapSqlParameterSource("userIds", userIds),
+            rs -> {
+                usernames.put(rs.getLong("id"), rs.getString("username"));
+            });
+        return usernames;
+    }
+
+    /**
+     * 読書状態の分類（日本語名と英語コードの両方に対応）
+     */
+    private static int classifyStatus(String status) {
+        if (status == null) {
+            return STATUS_OTHER;
+        }
+        switch (status) {
+            case "読了":
+            case "COMPLETED":
+                return STATUS_COMPLETED;
+            case "読書中":
+            case "READING":
+                return STATUS_READING;
+            case "中断":
+            case "ON_HOLD":
+                return STATUS_ON_HOLD;
+            default:
+                return STATUS_OTHER;
+        }
+    }
+
+    /**
+     * 分析対象期間
+     * 現在期間・前期（3ヶ月前の同期間）・季節性（過去1年）の境界
+     */
+    private static class AnalysisWindow {
+        private final LocalDateTime periodStart;
+        private final LocalDateTime periodEndExclusive;
+        private final LocalDateTime previousStart;
+        private final LocalDateTime previousEndExclusive;
+        private final LocalDateTime seasonalityStart;
+        // 走査範囲の開始（各期間の開始のうち最も古いもの）
+        private final LocalDateTime scanStart;
+        private final int firstMonthIndex;
+        private final int monthCount;
+
+        AnalysisWindow(LocalDate analysisDate) {
+            LocalDate start = analysisDate.minusMonths(ANALYSIS_PERIOD_MONTHS);
+            this.periodStart = start.atStartOfDay();
+            this.periodEndExclusive = analysisDate.plusDays(1).atStartOfDay();
+            this.previousStart = start.minusMonths(ANALYSIS_PERIOD_MONTHS).atStartOfDay();
+            this.previousEndExclusive = analysisDate.minusMonths(ANALYSIS_PERIOD_MONTHS).plusDays(1).atStartOfDay();
+            this.seasonalityStart = analysisDate.minusYears(1).atStartOfDay();
+            this.scanStart = previousStart.isBefore(seasonalityStart) ? previousStart : seasonalityStart;
+            this.firstMonthIndex = monthIndex(periodStart);
+            this.monthCount = monthIndex(periodEndExclusive) - firstMonthIndex + 1;
+        }
+
+        private static int monthIndex(LocalDateTime dateTime) {
+            return dateTime.getYear() * 12 + dateTime.getMonthValue() - 1;
+        }
+
+        boolean inPeriod(LocalDateTime createdAt) {
+            return !createdAt.isBefore(periodStart);
+        }
+
+        boolean inPreviousPeriod(LocalDateTime createdAt) {
+            return !createdAt.isBefore(previousStart) && createdAt.isBefore(previousEndExclusive);
+        }
+
+        boolean inSeasonalityPeriod(LocalDateTime createdAt) {
+            return !createdAt.isBefore(seasonalityStart);
+        }
+    }
+
+    /**
+     * ジャンル単位の集計値
+     */
+    private static class GenreAccumulator {
+        private final String genreName;
+
+        // 基本統計（現在期間）
+        private int totalBooks;
+        private int completedBooks;
+        private int readingBooks;
+        private int onHoldBooks;
+
+        // トレンド
+        private int previousPeriodBooks;
+        private final int[] monthlyCounts;
+
+        // ユーザー分析（現在期間の登録数と、期間開始前に登録があったユーザー（RETURNING_USERS_SQLで設定））
+        private final Map<Long, int[]> userBookCounts = new HashMap<>();
+        private final Set<Long> usersBeforePeriod = new HashSet<>();
+
+        // 人気書籍（タイトル・著者・出版社単位）
+        private final Map<String, BookGroup> bookGroups = new HashMap<>();
+
+        // 季節性（過去1年の四半期別）
+        private final int[] quarterlyCounts = new int[4];
+
+        GenreAccumulator(String genreName, AnalysisWindow window) {
+            this.genreName = genreName;
+            this.monthlyCounts = new int[window.monthCount];
+        }
+
+        void accept(ResultSet rs, AnalysisWindow window) throws SQLException {
+            LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+            long userId = rs.getLong("user_id");
+            boolean hasUser = !rs.wasNull();
+
+            if (window.inSeasonalityPeriod(createdAt)) {
+                quarterlyCounts[(createdAt.getMonthValue() - 1) / 3]++;
+            }
+            if (window.inPreviousPeriod(createdAt)) {
+                previousPeriodBooks++;
+            }
+            if (!window.inPeriod(createdAt)) {
+                return;
+            }
+
+            totalBooks++;
+            int status = classifyStatus(rs.getString("status"));
+            switch (status) {
+                case STATUS_COMPLETED:
+                    completedBooks++;
+                    break;
+                case STATUS_READING:
+                    readingBooks++;
+                    break;
+                case STATUS_ON_HOLD:
+                    onHoldBooks++;
+                    break;
+                default:
+                    break;
+            }
+
+            monthlyCounts[AnalysisWindow.monthIndex(createdAt) - window.firstMonthIndex]++;
+
+            if (hasUser) {
+                userBookCounts.computeIfAbsent(userId, k -> new int[1])[0]++;
+            }
+
+            String title = rs.getString("title");
+            String author = rs.getString("author");
+            String publisher = rs.getString("publisher");
+            String groupKey = title + '\u0000' + author + '\u0000' + publisher;
+            BookGroup group = bookGroups.get(groupKey);
+            if (group == null) {
+                group = new BookGroup(title, author != null ? author : "不明", publisher);
+                bookGroups.put(groupKey, group);
+            }
+            group.registrationCount++;
+            if (status == STATUS_COMPLETED) {
+                group.completionCount++;
+            }
+        }
+
+        List<Long> getTopUserIds() {
+            List<Map.Entry<Long, int[]>> entries = new ArrayList<>(userBookCounts.entrySet());
+            entries.sort((a, b) -> {
+                int compare = Integer.compare(b.getValue()[0], a.getValue()[0]);
+                return compare != 0 ? compare : Long.compare(a.getKey(), b.getKey());
+            });
+
+            List<Long> userIds = new ArrayList<>();
+            for (int i = 0; i < entries.size() && i < TOP_USER_LIMIT; i++) {
+                userIds.add(entries.get(i).getKey());
+            }
+            return userIds;
+        }
+
+        GenreAnalysis toAnalysis(LocalDate analysisDate, AnalysisWindow window, Map<Long, String> usernames) {
+            GenreAnalysis analysis = new GenreAnalysis();
+            analysis.setGenre(genreName);
+            analysis.setAnalysisDate(analysisDate);
+            analysis.setPeriodStart(window.periodStart.toLocalDate());
+            analysis.setPeriodEnd(analysisDate);
+            analysis.setBasicStats(buildBasicStats());
+            analysis.setTrendAnalysis(buildTrendAnalysis(window));
+            analysis.setUserDemographics(buildUserDemographics(usernames));
+            analysis.setPopularBooks(buildPopularBooks());
+            analysis.setSeasonality(buildSeasonality());
+            return analysis;
+        }
+
+        private GenreAnalysis.GenreBasicStats buildBasicStats() {
+            GenreAnalysis.GenreBasicStats stats = new GenreAnalysis.GenreBasicStats();
+            stats.setTotalBooks(totalBooks);
+            stats.setCompletedBooks(completedBooks);
+            stats.setReadingBooks(readingBooks);
+            stats.setOnHoldBooks(onHoldBooks);
+            stats.setCompletionRate(totalBooks > 0 ? (completedBooks / (double) totalBooks) * 100 : 0.0);
+            stats.setUniqueUsers(userBookCounts.size());
+            // 読了日時を保持していないため平均読書日数は算出しない
+            stats.setAverageReadingDays(0.0);
+            return stats;
+        }
+
+        private GenreAnalysis.GenreTrendAnalysis buildTrendAnalysis(AnalysisWindow window) {
+            GenreAnalysis.GenreTrendAnalysis trend = new GenreAnalysis.GenreTrendAnalysis();
+
+            double growthRate = previousPeriodBooks > 0
+                ? ((totalBooks - previousPeriodBooks) / (double) previousPeriodBooks) * 100 : 0.0;
+            trend.setGrowthRate(growthRate);
+
+            if (growthRate > 5.0) {
+                trend.setTrendDirection("INCREASING");
+            } else if (growthRate < -5.0) {
+                trend.setTrendDirection("DECREASING");
+            } else {
+                trend.setTrendDirection("STABLE");
+            }
+
+            // 月別推移（登録がある月のみ、年月順）
+            List<Map<String, Object>> monthlyTrend = new ArrayList<>();
+            int peakIndex = -1;
+            int lowIndex = -1;
+            for (int i = 0; i < monthlyCounts.length; i++) {
+                if (monthlyCounts[i] == 0) {
+                    continue;
+                }
+                int monthIndex = window.firstMonthIndex + i;
+                Map<String, Object> month = new LinkedHashMap<>();
+                month.put("month", monthIndex % 12 + 1);
+                month.put("year", monthIndex / 12);
+                month.put("count", monthlyCounts[i]);
+                monthlyTrend.add(month);
+
+                if (peakIndex < 0 || monthlyCounts[i] > monthlyCounts[peakIndex]) {
+                    peakIndex = i;
+                }
+                if (lowIndex < 0 || monthlyCounts[i] < monthlyCounts[lowIndex]) {
+                    lowIndex = i;
+                }
+            }
+            trend.setMonthlyTrend(monthlyTrend);
+            if (peakIndex >= 0) {
+                trend.setPeakMonth((window.firstMonthIndex + peakIndex) % 12 + 1);
+                trend.setLowMonth((window.firstMonthIndex + lowIndex) % 12 + 1);
+            }
+
+            return trend;
+        }
+
+        private GenreAnalysis.GenreUserDemographics buildUserDemographics(Map<Long, String> usernames) {
+            GenreAnalysis.GenreUserDemographics demographics = new GenreAnalysis.GenreUserDemographics();
+
+            int returningUsers = 0;
+            for (Long userId : userBookCounts.keySet()) {
+                if (usersBeforePeriod.contains(userId)) {
+                    returningUsers++;
+                }
+            }
+            demographics.setNewUsersCount(userBookCounts.size() - returningUsers);
+            demographics.setReturningUsersCount(returningUsers);
+
+            List<String> topUsers = new ArrayList<>();
+            for (Long userId : getTopUserIds()) {
+                String username = usernames.get(userId);
+                if (username != null) {
+                    topUsers.add(username);
+                }
+            }
+            demographics.setTopUsers(topUsers);
+
+            return demographics;
+        }
+
+        private List<GenreAnalysis.PopularBookInGenre> buildPopularBooks() {
+            List<BookGroup> groups = new ArrayList<>(bookGroups.values());
+            groups.sort(Comparator.comparingInt((BookGroup g) -> g.registrationCount).reversed()
+                .thenComparing(Comparator.comparingDouble(BookGroup::getCompletionRate).reversed()));
+
+            List<GenreAnalysis.PopularBookInGenre> popularBooks = new ArrayList<>();
+            for (int i = 0; i < groups.size() && i < POPULAR_BOOK_LIMIT; i++) {
+                BookGroup group = groups.get(i);
+                GenreAnalysis.PopularBookInGenre book = new GenreAnalysis.PopularBookInGenre();
+                book.setTitle(group.title);
+                book.setAuthor(group.author);
+                book.setPublisher(group.publisher);
+                book.setRegistrationCount(group.registrationCount);
+                book.setCompletionRate(group.getCompletionRate());
+
+                // 人気スコア計算（登録数 + 読了率の重み付け）
+                book.setPopularityScore(group.registrationCount * 1.0 + (group.getCompletionRate() / 100.0) * 10.0);
+
+                popularBooks.add(book);
+            }
+            return popularBooks;
+        }
+
+        private GenreAnalysis.GenreSeasonality buildSeasonality() {
+            GenreAnalysis.GenreSeasonality seasonality = new GenreAnalysis.GenreSeasonality();
+
+            int totalCount = 0;
+            for (int count : quarterlyCounts) {
+                totalCount += count;
+            }
+
+            // 登録がある四半期のみをパーセンテージで保持
+            Map<String, Double> quarterlyDistribution = new HashMap<>();
+            String peakSeason = "不明";
+            double peakValue = -1;
+            for (int i = 0; i < quarterlyCounts.length; i++) {
+                if (quarterlyCounts[i] == 0) {
+                    continue;
+                }
+                double percentage = (quarterlyCounts[i] / (double) totalCount) * 100;
+                quarterlyDistribution.put("Q" + (i + 1), percentage);
+                if (percentage > peakValue) {
+                    peakValue = percentage;
+                    peakSeason = "Q" + (i + 1);
+                }
+            }
+            seasonality.setQuarterlyDistribution(quarterlyDistribution);
+            seasonality.setPeakSeason(peakSeason);
+
+            // 季節性指数計算（標準偏差ベース）
+            double mean = quarterlyDistribution.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .average().orElse(0.0);
+            double variance = quarterlyDistribution.values().stream()
+                .mapToDouble(v -> Math.pow(v - mean, 2))
+                .average().orElse(0.0);
+            seasonality.setSeasonalityIndex(Math.sqrt(variance));
+
+            return seasonality;
+        }
+    }
+
+    /**
+     * 人気書籍集計単位
+     */
+    private static class BookGroup {
+        private final String title;
+        private final String author;
+        private final String publisher;
+        private int registrationCount;
+        private int completionCount;
+
+        BookGroup(String title, String author, String publisher) {
+            this.title = title;
+            this.author = author;
+            this.publisher = publisher;
+        }
+
+        double getCompletionRate() {
+            if (registrationCount == 0) {
+                return 0.0;
+            }
+            return Math.round(completionCount * 10000.0 / registrationCount) / 100.0;
+        }
+    }
+}
@@ -1,43 +1,55 @@
 package com.library.management.batch;
 
-import org.springframework.batch.item.ItemReader;
+import com.library.management.dto.GenreAnalysis;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import jakarta.annotation.PostConstruct;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * ジャンル分析リーダー
+ * ステップ開始時に全ジャンルを一括集計し、完成した分析結果を順に返す
+ */
 @Component("genreItemReader")
-public class GenreReader implements ItemReader<String> {
-    
+public class GenreReader implements ItemStreamReader<GenreAnalysis> {
+
+    private static final String CURRENT_INDEX_KEY = "genreReader.currentIndex";
+
     @Autowired
-    private JdbcTemplate jdbcTemplate;
-    
-    private List<String> genres;
+    private GenreAnalyticsEngine genreAnalyticsEngine;
+
+    private List<GenreAnalysis> analyses = new ArrayList<>();
     private int currentIndex = 0;
-    
-    @PostConstruct
-    public void initialize() {
-        // 過去3ヶ月で登録があったジャンルを取得
-        LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
-        
-        genres = jdbcTemplate.queryForList(
-            "SELECT DISTINCT g.name FROM genres g " +
-            "JOIN books b ON g.id = b.genre_id " +
-            "WHERE b.created_at >= ? " +
-            "ORDER BY g.name",
-            String.class, threeMonthsAgo);
-        
-        System.out.println("分析対象ジャンル数: " + genres.size());
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        analyses = genreAnalyticsEngine.analyzeAllGenres(LocalDate.now());
+        currentIndex = executionContext.getInt(CURRENT_INDEX_KEY, 0);
+
+        System.out.println("分析対象ジャンル数: " + analyses.size());
     }
-    
+
     @Override
-    public String read() throws Exception {
-        if (currentIndex < genres.size()) {
-            return genres.get(currentIndex++);
+    public GenreAnalysis read() throws Exception {
+        if (currentIndex < analyses.size()) {
+            return analyses.get(currentIndex++);
         }
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putInt(CURRENT_INDEX_KEY, currentIndex);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        analyses = new ArrayList<>();
+        currentIndex = 0;
+    }
+}
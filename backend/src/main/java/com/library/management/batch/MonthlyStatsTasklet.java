@@ -11,9 +11,12 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @Component
 public class MonthlyStatsTasklet implements Tasklet {
@@ -27,6 +30,9 @@ public class MonthlyStatsTasklet implements Tasklet {
     @Autowired
     private WeeklyStatsTasklet weeklyStatsTasklet;
     
+    @Autowired
+    private BookDailyStatsStore bookDailyStatsStore;
+    
     @Override
     public RepeatStatus execute(StepContribution contribution, 
                                ChunkContext chunkContext) throws Exception {
@@ -41,6 +47,9 @@ public class MonthlyStatsTasklet implements Tasklet {
         monthlyStats.setPeriodStart(monthStart);
         monthlyStats.setPeriodEnd(monthEnd);
         
+        // 前回以降に変更のあった日の日次集計を更新
+        bookDailyStatsStore.refresh();
+        
         // 統計計算の共通ロジックを再利用
         weeklyStatsTasklet.calculateBasicStats(monthStart, monthEnd, monthlyStats);
         weeklyStatsTasklet.calculateGenreDistribution(monthStart, monthEnd, monthlyStats);
@@ -61,37 +70,33 @@ public class MonthlyStatsTasklet implements Tasklet {
                                                PeriodicalStats stats) {
         Map<String, Object> monthlyMetrics = new HashMap<>();
         
-        // 週別の登録数推移
-        try {
-            List<Map<String, Object>> weeklyTrend = jdbcTemplate.queryForList(
-                "SELECT " +
-                "  EXTRACT(week FROM created_at) as week_num, " +
-                "  COUNT(*) as count " +
-                "FROM books " +
-                "WHERE created_at BETWEEN ? AND ? " +
-                "GROUP BY EXTRACT(week FROM created_at) " +
-                "ORDER BY week_num",
-                start, end.plusDays(1));
-            
-            monthlyMetrics.put("weeklyTrend", weeklyTrend);
-        } catch (Exception e) {
-            monthlyMetrics.put("weeklyTrend", null);
-        }
+        Map<LocalDate, Integer> dailyCounts = bookDailyStatsStore.getDailyCounts(start, end);
+        
+        // 週別の登録数推移（ISO週番号）
+        Map<Integer, Integer> countsByWeek = new TreeMap<>();
+        dailyCounts.forEach((date, count) ->
+            countsByWeek.merge(date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR), count, Integer::sum));
+        
+        List<Map<String, Object>> weeklyTrend = new ArrayList<>();
+        countsByWeek.forEach((weekNum, count) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("week_num", weekNum);
+            row.put("count", count);
+            weeklyTrend.add(row);
+        });
+        monthlyMetrics.put("weeklyTrend", weeklyTrend);
         
         // 月内の最高登録日
-        try {
-            Map<String, Object> peakDay = jdbcTemplate.queryForMap(
-                "SELECT DATE(created_at) as peak_date, COUNT(*) as peak_count " +
-                "FROM books " +
-                "WHERE created_at BETWEEN ? AND ? " +
-                "GROUP BY DATE(created_at) " +
-                "ORDER BY peak_count DESC LIMIT 1",
-                start, end.plusDays(1));
-            
-            monthlyMetrics.put("peakDay", peakDay);
-        } catch (Exception e) {
-            monthlyMetrics.put("peakDay", null);
-        }
+        Map<String, Object> peakDay = dailyCounts.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(entry -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("peak_date", entry.getKey());
+                row.put("peak_count", entry.getValue());
+                return row;
+            })
+            .orElse(null);
+        monthlyMetrics.put("peakDay", peakDay);
         
         // 既存のgrowthMetricsに追加
         Map<String, Object> existingMetrics = stats.getGrowthMetrics();
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,61 +25,41 @@ public class OverallStatsTasklet implements Tasklet {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private BookDailyStatsStore bookDailyStatsStore;
+    
     @Override
     public RepeatStatus execute(StepContribution contribution, 
                                ChunkContext chunkContext) throws Exception {
         
         LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate today = LocalDate.now();
+        
+        // 前回以降に変更のあった日の日次集計を更新
+        bookDailyStatsStore.refresh();
         
         // 全体統計データ収集
         Map<String, Object> overallStats = new HashMap<>();
         
-        // 今月の総登録書籍数
-        Integer totalBooksThisMonth = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE created_at >= ?",
-            Integer.class, startOfMonth);
-        overallStats.put("totalBooksThisMonth", totalBooksThisMonth);
-        
-        // 今月の総読了書籍数
-        Integer totalCompletedThisMonth = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books b JOIN read_status rs ON b.id = rs.book_id " +
-            "WHERE rs.status = 'COMPLETED' AND rs.updated_at >= ?",
-            Integer.class, startOfMonth);
-        overallStats.put("totalCompletedThisMonth", totalCompletedThisMonth);
-        
-        // アクティブユーザー数（今月書籍を登録したユーザー）
-        Integer activeUsers = jdbcTemplate.queryForObject(
-            "SELECT COUNT(DISTINCT user_id) FROM books WHERE created_at >= ?",
-            Integer.class, startOfMonth);
-        overallStats.put("activeUsers", activeUsers);
+        // 今月の総登録書籍数・総読了書籍数・アクティブユーザー数（今月書籍を登録したユーザー）
+        BookDailyStatsStore.PeriodTotals totals = bookDailyStatsStore.getPeriodTotals(startOfMonth, today);
+        overallStats.put("totalBooksThisMonth", totals.getTotalBooks());
+        overallStats.put("totalCompletedThisMonth", totals.getCompletedBooks());
+        overallStats.put("activeUsers", totals.getActiveUsers());
         
         // 人気ジャンルTOP5
-        List<Map<String, Object>> popularGenres = jdbcTemplate.queryForList(
-            "SELECT g.name as genre, COUNT(*) as count FROM books b " +
-            "JOIN genres g ON b.genre_id = g.id " +
-            "WHERE b.created_at >= ? " +
-            "GROUP BY g.name ORDER BY count DESC LIMIT 5",
-            startOfMonth);
+        List<Map<String, Object>> popularGenres = new ArrayList<>();
+        bookDailyStatsStore.getTopGenres(startOfMonth, today, 5).forEach((genre, count) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("genre", genre);
+            row.put("count", count);
+            popularGenres.add(row);
+        });
         overallStats.put("popularGenres", popularGenres);
         
         // 平均読了率
-        try {
-            Double averageCompletionRate = jdbcTemplate.queryForObject(
-                "SELECT AVG(completion_rate) FROM (" +
-                "  SELECT " +
-                "    CASE WHEN COUNT(*) > 0 THEN " +
-                "      COUNT(CASE WHEN rs.status = 'COMPLETED' THEN 1 END) * 100.0 / COUNT(*) " +
-                "    ELSE 0 END as completion_rate" +
-                "  FROM books b " +
-                "  LEFT JOIN read_status rs ON b.id = rs.book_id " +
-                "  WHERE b.created_at >= ? " +
-                "  GROUP BY b.user_id" +
-                ") user_rates",
-                Double.class, startOfMonth);
-            overallStats.put("averageCompletionRate", averageCompletionRate != null ? averageCompletionRate : 0.0);
-        } catch (Exception e) {
-            overallStats.put("averageCompletionRate", 0.0);
-        }
+        overallStats.put("averageCompletionRate",
+            bookDailyStatsStore.getAverageUserCompletionRate(startOfMonth, today));
         
         overallStats.put("generatedAt", LocalDateTime.now());
         overallStats.put("targetMonth", startOfMonth);
@@ -7,7 +7,6 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ExecutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,9 +14,6 @@ import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Configuration
 public class ParallelBatchJobConfig {
     
@@ -30,6 +26,9 @@ public class ParallelBatchJobConfig {
     @Autowired
     private BookItemWriter bookItemWriter;
     
+    @Autowired
+    private BookIdRangePartitioner bookIdRangePartitioner;
+    
     @Bean
     public Job parallelBookProcessingJob(JobRepository jobRepository, Step managerStep) {
         return new JobBuilder("parallelBookProcessingJob", jobRepository)
@@ -64,21 +63,8 @@ public class ParallelBatchJobConfig {
     
     @Bean
     public Partitioner bookPartitioner() {
-        return new Partitioner() {
-            @Override
-            public Map<String, ExecutionContext> partition(int gridSize) {
-                Map<String, ExecutionContext> partitions = new HashMap<>();
-                
-                for (int i = 0; i < gridSize; i++) {
-                    ExecutionContext context = new ExecutionContext();
-                    context.putInt("partitionNumber", i);
-                    context.putInt("gridSize", gridSize);
-                    partitions.put("partition" + i, context);
-                }
-                
-                return partitions;
-            }
-        };
+        // 各パーティションにID範囲を割り当て、BookItemReaderが範囲内のみを読む
+        return bookIdRangePartitioner;
     }
     
     @Bean
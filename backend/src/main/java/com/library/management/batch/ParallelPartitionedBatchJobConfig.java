@@ -8,7 +8,6 @@ import org.springframework.batch.core.*;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
-import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.*;
@@ -43,6 +42,9 @@ public class ParallelPartitionedBatchJobConfig {
     @Autowired
     private BatchJobExecutionListener batchJobExecutionListener;
 
+    @Autowired
+    private UserWorkloadPartitioner userWorkloadPartitioner;
+
     // 並列パーティション処理ジョブ
     @Bean
     public Job parallelPartitionedJob(JobRepository jobRepository,
@@ -205,61 +207,16 @@ public class ParallelPartitionedBatchJobConfig {
     @Bean
     public Step masterStep(JobRepository jobRepository,
                           PlatformTransactionManager transactionManager,
-                          Partitioner userPartitioner,
                           Step partitionedWorkerStep,
                           @Qualifier("partitionTaskExecutor") TaskExecutor partitionTaskExecutor) {
         return new StepBuilder("masterStep", jobRepository)
-                .partitioner("partitionedWorkerStep", userPartitioner)
+                .partitioner("partitionedWorkerStep", userWorkloadPartitioner)
                 .step(partitionedWorkerStep)
-                .gridSize(4)  // 4つのパーティションで並列処理
+                .gridSize(userWorkloadPartitioner.resolveGridSize(partitionTaskExecutor))  // 処理量が均等な範囲をワーカー数より多めに作成
                 .taskExecutor(partitionTaskExecutor)
                 .build();
     }
     
-    // ユーザーID範囲でパーティション分割
-    @Bean
-    public Partitioner userPartitioner() {
-        return gridSize -> {
-            Map<String, ExecutionContext> partitions = new HashMap<>();
-            
-            try {
-                // ユーザーIDの範囲を取得
-                Integer minUserId = jdbcTemplate.queryForObject(
-                    "SELECT COALESCE(MIN(id), 1) FROM users", Integer.class);
-                Integer maxUserId = jdbcTemplate.queryForObject(
-                    "SELECT COALESCE(MAX(id), 1) FROM users", Integer.class);
-                
-                int range = Math.max(1, (maxUserId - minUserId + 1) / gridSize);
-                
-                System.out.println("パーティション設定: minUserId=" + minUserId + ", maxUserId=" + maxUserId + ", gridSize=" + gridSize);
-                
-                for (int i = 0; i < gridSize; i++) {
-                    ExecutionContext context = new ExecutionContext();
-                    int startId = minUserId + (i * range);
-                    int endId = (i == gridSize - 1) ? maxUserId : startId + range - 1;
-                    
-                    context.put("startUserId", startId);
-                    context.put("endUserId", endId);
-                    context.put("partitionNumber", i);
-                    
-                    partitions.put("partition" + i, context);
-                    System.out.println("パーティション" + i + ": userId " + startId + " to " + endId);
-                }
-                
-            } catch (Exception e) {
-                System.err.println("パーティション作成エラー: " + e.getMessage());
-                // フォールバック: 単一パーティション
-                ExecutionContext fallbackContext = new ExecutionContext();
-                fallbackContext.put("startUserId", 1);
-                fallbackContext.put("endUserId", Integer.MAX_VALUE);
-                fallbackContext.put("partitionNumber", 0);
-                partitions.put("partition0", fallbackContext);
-            }
-            
-            return partitions;
-        };
-    }
-    
     // Worker Step（パーティション毎の処理）
     @Bean
     public Step partitionedWorkerStep(JobRepository jobRepository,
@@ -282,8 +239,8 @@ public class ParallelPartitionedBatchJobConfig {
     // パーティション範囲内のユーザーデータリーダー
     @Bean
     @StepScope
-    public ItemReader<User> partitionedUserReader(@Value("#{stepExecutionContext[startUserId]}") Integer startUserId,
-                                                  @Value("#{stepExecutionContext[endUserId]}") Integer endUserId,
+    public ItemReader<User> partitionedUserReader(@Value("#{stepExecutionContext[startUserId]}") Long startUserId,
+                                                  @Value("#{stepExecutionContext[endUserId]}") Long endUserId,
                                                   @Value("#{stepExecutionContext[partitionNumber]}") Integer partitionNumber) {
         System.out.println("パーティション" + partitionNumber + "用リーダー開始: userId " + startUserId + " to " + endUserId);
 
@@ -25,6 +25,9 @@ public class QuarterlyStatsTasklet implements Tasklet {
     @Autowired
     private WeeklyStatsTasklet weeklyStatsTasklet;
     
+    @Autowired
+    private BookDailyStatsStore bookDailyStatsStore;
+    
     @Override
     public RepeatStatus execute(StepContribution contribution, 
                                ChunkContext chunkContext) throws Exception {
@@ -39,6 +42,9 @@ public class QuarterlyStatsTasklet implements Tasklet {
         quarterlyStats.setPeriodStart(quarterStart);
         quarterlyStats.setPeriodEnd(quarterEnd);
         
+        // 前回以降に変更のあった日の日次集計を更新
+        bookDailyStatsStore.refresh();
+        
         // 統計計算の共通ロジックを再利用
         weeklyStatsTasklet.calculateBasicStats(quarterStart, quarterEnd, quarterlyStats);
         weeklyStatsTasklet.calculateGenreDistribution(quarterStart, quarterEnd, quarterlyStats);
@@ -11,6 +11,7 @@ import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -32,6 +33,10 @@ public class ReadingPaceAnalysisBatchJob {
     @Autowired
     private BatchJobExecutionListener batchJobExecutionListener;
 
+    // 分析はチャンク単位の集約SQLで行うため、チャンクを大きくするほどクエリ数が減る
+    @Value("${app.batch.reading-pace.chunk-size:200}")
+    private int chunkSize;
+
     @Bean(name = "readingPaceAnalysisJob")
     public Job readingPaceAnalysisJob(JobRepository jobRepository,
                                      Step paceAnalysisStep) {
@@ -48,7 +53,7 @@ public class ReadingPaceAnalysisBatchJob {
                                 ItemProcessor<User, ReadingPaceAnalysis> paceAnalysisProcessor,
                                 ItemWriter<ReadingPaceAnalysis> paceAnalysisWriter) {
         return new StepBuilder("paceAnalysisStep", jobRepository)
-                .<User, ReadingPaceAnalysis>chunk(25, transactionManager)
+                .<User, ReadingPaceAnalysis>chunk(chunkSize, transactionManager)
                 .reader(userReader)
                 .processor(paceAnalysisProcessor)
                 .writer(paceAnalysisWriter)
@@ -2,115 +2,291 @@ package com.library.management.batch;
 
 import com.library.management.dto.ReadingPaceAnalysis;
 import com.library.management.entity.User;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+/**
+ * 読書ペース分析プロセッサー
+ * チャンクは全件読み込んでから処理されるため、読み込んだユーザーをItemReadListenerで集めておき、
+ * チャンク最初のprocess()で集約SQLにまとめて先読みする（ユーザーごとのクエリ発行を避けるため）。
+ * process()は先読みした集計から完成した分析結果を返す。先読みにないユーザー（先読みの失敗後・リトライ時）は
+ * そのユーザーのみ集計するため、失敗したユーザーのみステップのリトライ・スキップ設定の対象になる。
+ * リーダー・チャンクのリスナーはステップ構築時にプロセッサーから自動で登録される
+ */
 @Component
-public class ReadingPaceAnalysisProcessor implements ItemProcessor<User, ReadingPaceAnalysis> {
+public class ReadingPaceAnalysisProcessor implements ItemProcessor<User, ReadingPaceAnalysis>,
+        ItemReadListener<User>, ChunkListener {
+    
+    // 期間別の登録数
+    private static final String BOOK_COUNTS_SQL =
+        "SELECT user_id, " +
+        "  COUNT(*) FILTER (WHERE created_at >= :oneMonthAgo) as books_last_month, " +
+        "  COUNT(*) FILTER (WHERE created_at BETWEEN :twoMonthsAgo AND :oneMonthAgo) as books_previous_month, " +
+        "  COUNT(*) FILTER (WHERE created_at >= :threeMonthsAgo) as books_last_3_months, " +
+        "  COUNT(*) FILTER (WHERE created_at >= :monthStart) as books_this_month " +
+        "FROM books " +
+        "WHERE user_id IN (:userIds) AND created_at >= :threeMonthsAgo " +
+        "GROUP BY user_id";
+    
+    // 読了統計（過去1ヶ月に登録した書籍のうち読了済みの数）
+    // 書籍は読了日時を保持していないため、平均読了日数は算出しない
+    private static final String COMPLETION_STATS_SQL =
+        "SELECT b.user_id, COUNT(*) as completed_last_month " +
+        "FROM books b JOIN read_statuses rs ON b.read_status_id = rs.id " +
+        "WHERE b.user_id IN (:userIds) AND rs.name IN ('読了', 'COMPLETED') AND b.created_at >= :oneMonthAgo " +
+        "GROUP BY b.user_id";
+    
+    // 最長連続読書日数（連続日のグループ化）
+    private static final String LONGEST_STREAK_SQL =
+        "SELECT user_id, MAX(streak_length) as longest_streak FROM ( " +
+        "  SELECT user_id, COUNT(*) as streak_length FROM ( " +
+        "    SELECT user_id, reading_date, " +
+        "      reading_date - CAST(ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY reading_date) AS INTEGER) as streak_group " +
+        "    FROM (SELECT DISTINCT user_id, DATE(created_at) as reading_date FROM books WHERE user_id IN (:userIds)) days " +
+        "  ) grouped_days " +
+        "  GROUP BY user_id, streak_group " +
+        ") streaks " +
+        "GROUP BY user_id";
+    
+    // 過去6ヶ月の月別進捗
+    private static final String MONTHLY_PROGRESS_SQL =
+        "SELECT " +
+        "  user_id, " +
+        "  EXTRACT(year FROM created_at) as year, " +
+        "  EXTRACT(month FROM created_at) as month, " +
+        "  COUNT(*) as count " +
+        "FROM books " +
+        "WHERE user_id IN (:userIds) AND created_at >= :sixMonthsAgo " +
+        "GROUP BY user_id, EXTRACT(year FROM created_at), EXTRACT(month FROM created_at) " +
+        "ORDER BY user_id, year, month";
+    
+    // ジャンル別読了ペース（過去3ヶ月に登録し読了した書籍の月平均冊数）
+    private static final String GENRE_PACE_SQL =
+        "SELECT " +
+        "  b.user_id, " +
+        "  g.name as genre, " +
+        "  COUNT(*) as book_count, " +
+        "  COUNT(*) / 3.0 as books_per_month " +
+        "FROM books b " +
+        "JOIN read_statuses rs ON b.read_status_id = rs.id " +
+        "JOIN genres g ON b.genre_id = g.id " +
+        "WHERE b.user_id IN (:userIds) AND rs.name IN ('読了', 'COMPLETED') AND b.created_at >= :threeMonthsAgo " +
+        "GROUP BY b.user_id, g.name " +
+        "HAVING COUNT(*) >= 2";
+    
+    // 時間帯別分布
+    private static final String TIME_PERIOD_SQL =
+        "SELECT user_id, time_period, COUNT(*) as count FROM ( " +
+        "  SELECT user_id, " +
+        "    CASE " +
+        "      WHEN EXTRACT(hour FROM created_at) BETWEEN 6 AND 11 THEN '朝' " +
+        "      WHEN EXTRACT(hour FROM created_at) BETWEEN 12 AND 17 THEN '昼' " +
+        "      WHEN EXTRACT(hour FROM created_at) BETWEEN 18 AND 22 THEN '夜' " +
+        "      ELSE '深夜・早朝' " +
+        "    END as time_period " +
+        "  FROM books " +
+        "  WHERE user_id IN (:userIds) AND created_at >= :threeMonthsAgo " +
+        ") periods " +
+        "GROUP BY user_id, time_period";
+    
+    // 曜日別分布
+    private static final String WEEKDAY_SQL =
+        "SELECT " +
+        "  user_id, " +
+        "  CASE EXTRACT(dow FROM created_at) " +
+        "    WHEN 0 THEN '日曜日' WHEN 1 THEN '月曜日' WHEN 2 THEN '火曜日' " +
+        "    WHEN 3 THEN '水曜日' WHEN 4 THEN '木曜日' WHEN 5 THEN '金曜日' " +
+        "    WHEN 6 THEN '土曜日' " +
+        "  END as day_name, " +
+        "  COUNT(*) as count " +
+        "FROM books " +
+        "WHERE user_id IN (:userIds) AND created_at >= :threeMonthsAgo " +
+        "GROUP BY user_id, EXTRACT(dow FROM created_at)";
+    
+    // 過去3ヶ月の読書日（一貫性スコア・現在の連続日数用）
+    private static final String READING_DATES_SQL =
+        "SELECT DISTINCT user_id, DATE(created_at) as reading_date " +
+        "FROM books WHERE user_id IN (:userIds) AND created_at >= :threeMonthsAgo " +
+        "ORDER BY user_id, reading_date";
     
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    // チャンク内で読み込まれ、まだ先読みしていないユーザー
+    private final Set<Long> pendingUserIds = new LinkedHashSet<>();
+    
+    // 先読みしたユーザーごとの集計（チャンク完了時に破棄。ロールバック後の再処理では再利用する）
+    private final Map<Long, UserPaceData> prefetched = new HashMap<>();
+    
+    @Override
+    public void afterRead(User user) {
+        pendingUserIds.add(user.getId());
+    }
+    
+    @Override
+    public void afterChunk(ChunkContext context) {
+        pendingUserIds.clear();
+        prefetched.clear();
+    }
     
     @Override
     public ReadingPaceAnalysis process(User user) throws Exception {
-        System.out.println("読書ペース分析処理中: " + user.getUsername());
+        UserPaceData data = prefetched.get(user.getId());
+        if (data == null) {
+            pendingUserIds.add(user.getId());
+            prefetch();
+            data = prefetched.get(user.getId());
+        }
         
         ReadingPaceAnalysis analysis = new ReadingPaceAnalysis();
         analysis.setUserId(user.getId());
         analysis.setUsername(user.getUsername());
         analysis.setAnalysisDate(LocalDate.now());
         
-        // 現在の読書ペース指標計算
-        ReadingPaceAnalysis.ReadingPaceMetrics metrics = calculateCurrentMetrics(user.getId());
+        // 現在の読書ペース指標
+        ReadingPaceAnalysis.ReadingPaceMetrics metrics = buildMetrics(data.counts, data.completion,
+            calculateCurrentStreak(data.readingDates, data.today), data.longestStreak, data.today);
         analysis.setCurrentMetrics(metrics);
         
         // ペーストレンド分析
-        ReadingPaceAnalysis.ReadingPaceTrends trends = calculateTrends(user.getId());
-        analysis.setTrends(trends);
+        analysis.setTrends(buildTrends(data.counts, data.monthlyProgress, data.genrePace));
         
         // 読書習慣分析
-        ReadingPaceAnalysis.ReadingHabits habits = analyzeHabits(user.getId());
-        analysis.setHabits(habits);
+        analysis.setHabits(buildHabits(data.timePeriods, data.weekdays, data.readingDates));
         
         // 読書目標設定・進捗
-        ReadingPaceAnalysis.ReadingGoals goals = calculateGoals(user.getId(), metrics);
-        analysis.setGoals(goals);
+        analysis.setGoals(calculateGoals(getCount(data.counts, "books_this_month"), metrics));
         
         // 将来予測
-        List<ReadingPaceAnalysis.ReadingPrediction> predictions = generatePredictions(user.getId(), metrics, trends);
-        analysis.setPredictions(predictions);
+        analysis.setPredictions(generatePredictions(metrics, analysis.getTrends()));
         
         return analysis;
     }
     
-    private ReadingPaceAnalysis.ReadingPaceMetrics calculateCurrentMetrics(Long userId) {
-        ReadingPaceAnalysis.ReadingPaceMetrics metrics = new ReadingPaceAnalysis.ReadingPaceMetrics();
+    /**
+     * 読み込み済みで未集計のユーザーの集計を集約SQLでまとめて取得
+     * ユーザーごとに発行していた約15クエリを、チャンク全体で8クエリに置き換える
+     */
+    private void prefetch() {
+        List<Long> userIds = new ArrayList<>(pendingUserIds);
+        pendingUserIds.clear();
+        if (userIds.size() > 1) {
+            System.out.println("読書ペース分析処理中: " + userIds.size() + "ユーザー");
+        }
         
         LocalDate today = LocalDate.now();
-        LocalDate oneMonthAgo = today.minusMonths(1);
-        LocalDate threeMonthsAgo = today.minusMonths(3);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("userIds", userIds)
+            .addValue("monthStart", today.withDayOfMonth(1))
+            .addValue("oneMonthAgo", today.minusMonths(1))
+            .addValue("twoMonthsAgo", today.minusMonths(2))
+            .addValue("threeMonthsAgo", today.minusMonths(3))
+            .addValue("sixMonthsAgo", today.minusMonths(6));
+        
+        Map<Long, Map<String, Object>> bookCounts = queryByUser(BOOK_COUNTS_SQL, params);
+        Map<Long, Map<String, Object>> completionStats = queryByUser(COMPLETION_STATS_SQL, params);
+        Map<Long, Map<String, Object>> longestStreaks = queryByUser(LONGEST_STREAK_SQL, params);
+        Map<Long, List<Map<String, Object>>> monthlyProgress = queryListByUser(MONTHLY_PROGRESS_SQL, params);
+        Map<Long, List<Map<String, Object>>> genrePace = queryListByUser(GENRE_PACE_SQL, params);
+        Map<Long, List<Map<String, Object>>> timePeriods = queryListByUser(TIME_PERIOD_SQL, params);
+        Map<Long, List<Map<String, Object>>> weekdays = queryListByUser(WEEKDAY_SQL, params);
+        Map<Long, List<LocalDate>> readingDates = new HashMap<>();
+        namedParameterJdbcTemplate.query(READING_DATES_SQL, params, rs -> {
+            readingDates.computeIfAbsent(rs.getLong("user_id"), id -> new ArrayList<>())
+                .add(rs.getDate("reading_date").toLocalDate());
+        });
+        
+        for (Long userId : userIds) {
+            UserPaceData data = new UserPaceData();
+            data.today = today;
+            data.counts = bookCounts.getOrDefault(userId, Collections.emptyMap());
+            data.completion = completionStats.getOrDefault(userId, Collections.emptyMap());
+            data.longestStreak = getCount(longestStreaks.getOrDefault(userId, Collections.emptyMap()), "longest_streak");
+            data.monthlyProgress = monthlyProgress.getOrDefault(userId, new ArrayList<>());
+            data.genrePace = genrePace.getOrDefault(userId, Collections.emptyList());
+            data.timePeriods = timePeriods.getOrDefault(userId, Collections.emptyList());
+            data.weekdays = weekdays.getOrDefault(userId, Collections.emptyList());
+            data.readingDates = readingDates.getOrDefault(userId, Collections.emptyList());
+            prefetched.put(userId, data);
+        }
+    }
+    
+    /**
+     * ユーザー単位の集計（1ユーザー1行）
+     */
+    private Map<Long, Map<String, Object>> queryByUser(String sql, MapSqlParameterSource params) {
+        Map<Long, Map<String, Object>> result = new HashMap<>();
+        for (Map<String, Object> row : namedParameterJdbcTemplate.queryForList(sql, params)) {
+            result.put(((Number) row.remove("user_id")).longValue(), row);
+        }
+        return result;
+    }
+    
+    /**
+     * ユーザー単位の集計（1ユーザー複数行）
+     */
+    private Map<Long, List<Map<String, Object>>> queryListByUser(String sql, MapSqlParameterSource params) {
+        Map<Long, List<Map<String, Object>>> result = new HashMap<>();
+        for (Map<String, Object> row : namedParameterJdbcTemplate.queryForList(sql, params)) {
+            Long userId = ((Number) row.remove("user_id")).longValue();
+            result.computeIfAbsent(userId, id -> new ArrayList<>()).add(row);
+        }
+        return result;
+    }
+    
+    private int getCount(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+    
+    private ReadingPaceAnalysis.ReadingPaceMetrics buildMetrics(Map<String, Object> counts,
+                                                                 Map<String, Object> completion,
+                                                                 int currentStreak, int longestStreak,
+                                                                 LocalDate today) {
+        ReadingPaceAnalysis.ReadingPaceMetrics metrics = new ReadingPaceAnalysis.ReadingPaceMetrics();
         
-        // 過去1ヶ月の読書数
-        Integer booksLastMonth = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE user_id = ? AND created_at >= ?",
-            Integer.class, userId, oneMonthAgo);
+        int booksLastMonth = getCount(counts, "books_last_month");
+        int booksLast3Months = getCount(counts, "books_last_3_months");
         
         // 日平均読書数（過去1ヶ月）
-        long daysInPeriod = ChronoUnit.DAYS.between(oneMonthAgo, today);
-        Double dailyAverage = daysInPeriod > 0 ? booksLastMonth.doubleValue() / daysInPeriod : 0.0;
+        long daysInPeriod = ChronoUnit.DAYS.between(today.minusMonths(1), today);
+        Double dailyAverage = daysInPeriod > 0 ? (double) booksLastMonth / daysInPeriod : 0.0;
         metrics.setDailyAverageBooks(dailyAverage);
         
         // 週平均読書数
-        Double weeklyAverage = dailyAverage * 7;
-        metrics.setWeeklyAverageBooks(weeklyAverage);
+        metrics.setWeeklyAverageBooks(dailyAverage * 7);
         
         // 月平均読書数（過去3ヶ月基準）
-        Integer booksLast3Months = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE user_id = ? AND created_at >= ?",
-            Integer.class, userId, threeMonthsAgo);
-        Double monthlyAverage = booksLast3Months.doubleValue() / 3;
-        metrics.setMonthlyAverageBooks(monthlyAverage);
-        
-        // 平均読了日数
-        try {
-            Double avgCompletionDays = jdbcTemplate.queryForObject(
-                "SELECT AVG(EXTRACT(epoch FROM (rs.updated_at - b.created_at))/86400) " +
-                "FROM books b JOIN read_status rs ON b.id = rs.book_id " +
-                "WHERE b.user_id = ? AND rs.status = 'COMPLETED' AND b.created_at >= ?",
-                Double.class, userId, threeMonthsAgo);
-            metrics.setAverageCompletionDays(avgCompletionDays != null ? avgCompletionDays : 0.0);
-        } catch (Exception e) {
-            metrics.setAverageCompletionDays(0.0);
-        }
+        metrics.setMonthlyAverageBooks(booksLast3Months / 3.0);
         
-        // 連続読書日数計算
-        Integer currentStreak = calculateCurrentStreak(userId);
-        metrics.setCurrentStreak(currentStreak);
+        // 平均読了日数（読了日時を保持していないため算出不可）
+        metrics.setAverageCompletionDays(0.0);
         
-        Integer longestStreak = calculateLongestStreak(userId);
+        // 連続読書日数
+        metrics.setCurrentStreak(currentStreak);
         metrics.setLongestStreak(longestStreak);
         
         // 読書速度スコア（登録数と読了率の組み合わせ）
-        Integer completedBooks = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books b JOIN read_status rs ON b.id = rs.book_id " +
-            "WHERE b.user_id = ? AND rs.status = 'COMPLETED' AND b.created_at >= ?",
-            Integer.class, userId, oneMonthAgo);
-        
-        Double completionRate = booksLastMonth > 0 ? 
-            (completedBooks.doubleValue() / booksLastMonth) * 100 : 0.0;
-        
-        Double readingVelocity = (dailyAverage * 10) + (completionRate / 10);
-        metrics.setReadingVelocity(readingVelocity);
+        int completedBooks = getCount(completion, "completed_last_month");
+        Double completionRate = booksLastMonth > 0 ?
+            ((double) completedBooks / booksLastMonth) * 100 : 0.0;
+        metrics.setReadingVelocity((dailyAverage * 10) + (completionRate / 10));
         
         // ペースレベル判定
         String paceLevel;
@@ -128,25 +304,18 @@ public class ReadingPaceAnalysisProcessor implements ItemProcessor<User, Reading
         return metrics;
     }
     
-    private ReadingPaceAnalysis.ReadingPaceTrends calculateTrends(Long userId) {
+    private ReadingPaceAnalysis.ReadingPaceTrends buildTrends(Map<String, Object> counts,
+                                                               List<Map<String, Object>> monthlyProgress,
+                                                               List<Map<String, Object>> genrePaceData) {
         ReadingPaceAnalysis.ReadingPaceTrends trends = new ReadingPaceAnalysis.ReadingPaceTrends();
         
-        LocalDate today = LocalDate.now();
-        LocalDate oneMonthAgo = today.minusMonths(1);
-        LocalDate twoMonthsAgo = today.minusMonths(2);
-        
         // 今月と先月の比較
-        Integer thisMonth = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE user_id = ? AND created_at >= ?",
-            Integer.class, userId, oneMonthAgo);
-        
-        Integer lastMonth = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE user_id = ? AND created_at BETWEEN ? AND ?",
-            Integer.class, userId, twoMonthsAgo, oneMonthAgo);
+        int thisMonth = getCount(counts, "books_last_month");
+        int lastMonth = getCount(counts, "books_previous_month");
         
         // ペース変化率
-        Double paceChangeRate = lastMonth > 0 ? 
-            ((thisMonth.intValue() - lastMonth.intValue()) / (double) lastMonth.intValue()) * 100 : 0.0;
+        Double paceChangeRate = lastMonth > 0 ?
+            ((thisMonth - lastMonth) / (double) lastMonth) * 100 : 0.0;
         trends.setPaceChangeRate(paceChangeRate);
         
         // トレンド方向
@@ -161,142 +330,56 @@ public class ReadingPaceAnalysisProcessor implements ItemProcessor<User, Reading
         trends.setTrendDirection(trendDirection);
         
         // 過去6ヶ月の月別進捗
-        try {
-            List<Map<String, Object>> monthlyProgress = jdbcTemplate.queryForList(
-                "SELECT " +
-                "  EXTRACT(year FROM created_at) as year, " +
-                "  EXTRACT(month FROM created_at) as month, " +
-                "  COUNT(*) as count " +
-                "FROM books " +
-                "WHERE user_id = ? AND created_at >= ? " +
-                "GROUP BY EXTRACT(year FROM created_at), EXTRACT(month FROM created_at) " +
-                "ORDER BY year, month",
-                userId, today.minusMonths(6));
-            trends.setMonthlyProgress(monthlyProgress);
-        } catch (Exception e) {
-            trends.setMonthlyProgress(new ArrayList<>());
-        }
+        trends.setMonthlyProgress(monthlyProgress);
         
         // ジャンル別ペース比較
-        try {
-            List<Map<String, Object>> genrePaceData = jdbcTemplate.queryForList(
-                "SELECT " +
-                "  genre, " +
-                "  COUNT(*) as book_count, " +
-                "  AVG(EXTRACT(epoch FROM (rs.updated_at - b.created_at))/86400) as avg_days " +
-                "FROM books b " +
-                "LEFT JOIN read_status rs ON b.id = rs.book_id " +
-                "WHERE b.user_id = ? AND rs.status = 'COMPLETED' AND b.created_at >= ? " +
-                "GROUP BY genre " +
-                "HAVING COUNT(*) >= 2",
-                userId, today.minusMonths(3));
-            
-            Map<String, Double> genrePaceComparison = genrePaceData.stream()
-                .collect(Collectors.toMap(
-                    row -> (String) row.get("genre"),
-                    row -> ((Number) row.get("avg_days")).doubleValue()
-                ));
-            trends.setGenrePaceComparison(genrePaceComparison);
-        } catch (Exception e) {
-            trends.setGenrePaceComparison(new HashMap<>());
+        Map<String, Double> genrePaceComparison = new HashMap<>();
+        for (Map<String, Object> row : genrePaceData) {
+            genrePaceComparison.put((String) row.get("genre"), ((Number) row.get("books_per_month")).doubleValue());
         }
+        trends.setGenrePaceComparison(genrePaceComparison);
         
         return trends;
     }
     
-    private ReadingPaceAnalysis.ReadingHabits analyzeHabits(Long userId) {
+    private ReadingPaceAnalysis.ReadingHabits buildHabits(List<Map<String, Object>> hourlyData,
+                                                           List<Map<String, Object>> weekdayData,
+                                                           List<LocalDate> readingDates) {
         ReadingPaceAnalysis.ReadingHabits habits = new ReadingPaceAnalysis.ReadingHabits();
         
-        LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
-        
         // 時間帯別分布
-        try {
-            List<Map<String, Object>> hourlyData = jdbcTemplate.queryForList(
-                "SELECT " +
-                "  CASE " +
-                "    WHEN EXTRACT(hour FROM created_at) BETWEEN 6 AND 11 THEN '朝' " +
-                "    WHEN EXTRACT(hour FROM created_at) BETWEEN 12 AND 17 THEN '昼' " +
-                "    WHEN EXTRACT(hour FROM created_at) BETWEEN 18 AND 22 THEN '夜' " +
-                "    ELSE '深夜・早朝' " +
-                "  END as time_period, " +
-                "  COUNT(*) as count " +
-                "FROM books " +
-                "WHERE user_id = ? AND created_at >= ? " +
-                "GROUP BY " +
-                "  CASE " +
-                "    WHEN EXTRACT(hour FROM created_at) BETWEEN 6 AND 11 THEN '朝' " +
-                "    WHEN EXTRACT(hour FROM created_at) BETWEEN 12 AND 17 THEN '昼' " +
-                "    WHEN EXTRACT(hour FROM created_at) BETWEEN 18 AND 22 THEN '夜' " +
-                "    ELSE '深夜・早朝' " +
-                "  END",
-                userId, threeMonthsAgo);
-            
-            Map<String, Integer> timeDistribution = hourlyData.stream()
-                .collect(Collectors.toMap(
-                    row -> (String) row.get("time_period"),
-                    row -> ((Number) row.get("count")).intValue()
-                ));
-            habits.setTimeDistribution(timeDistribution);
-            
-            // 好みの読書時間
-            String preferredTime = timeDistribution.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("不明");
-            habits.setPreferredReadingTime(preferredTime);
-        } catch (Exception e) {
-            habits.setTimeDistribution(new HashMap<>());
-            habits.setPreferredReadingTime("不明");
+        Map<String, Integer> timeDistribution = new HashMap<>();
+        for (Map<String, Object> row : hourlyData) {
+            timeDistribution.put((String) row.get("time_period"), ((Number) row.get("count")).intValue());
         }
+        habits.setTimeDistribution(timeDistribution);
+        
+        // 好みの読書時間
+        habits.setPreferredReadingTime(timeDistribution.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse("不明"));
         
         // 曜日別分布
-        try {
-            List<Map<String, Object>> weekdayData = jdbcTemplate.queryForList(
-                "SELECT " +
-                "  CASE EXTRACT(dow FROM created_at) " +
-                "    WHEN 0 THEN '日曜日' WHEN 1 THEN '月曜日' WHEN 2 THEN '火曜日' " +
-                "    WHEN 3 THEN '水曜日' WHEN 4 THEN '木曜日' WHEN 5 THEN '金曜日' " +
-                "    WHEN 6 THEN '土曜日' " +
-                "  END as day_name, " +
-                "  COUNT(*) as count " +
-                "FROM books " +
-                "WHERE user_id = ? AND created_at >= ? " +
-                "GROUP BY EXTRACT(dow FROM created_at) " +
-                "ORDER BY EXTRACT(dow FROM created_at)",
-                userId, threeMonthsAgo);
-            
-            Map<String, Integer> dayDistribution = weekdayData.stream()
-                .collect(Collectors.toMap(
-                    row -> (String) row.get("day_name"),
-                    row -> ((Number) row.get("count")).intValue()
-                ));
-            habits.setDayOfWeekDistribution(dayDistribution);
-            
-            // 最も活発な曜日
-            String mostActiveDay = dayDistribution.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("不明");
-            habits.setMostActiveDay(mostActiveDay);
-        } catch (Exception e) {
-            habits.setDayOfWeekDistribution(new HashMap<>());
-            habits.setMostActiveDay("不明");
+        Map<String, Integer> dayDistribution = new HashMap<>();
+        for (Map<String, Object> row : weekdayData) {
+            dayDistribution.put((String) row.get("day_name"), ((Number) row.get("count")).intValue());
         }
+        habits.setDayOfWeekDistribution(dayDistribution);
         
-        // 一貫性スコア計算（読書日の分散具合）
-        List<LocalDate> readingDates = jdbcTemplate.queryForList(
-            "SELECT DISTINCT DATE(created_at) as reading_date " +
-            "FROM books WHERE user_id = ? AND created_at >= ? " +
-            "ORDER BY reading_date",
-            LocalDate.class, userId, threeMonthsAgo);
+        // 最も活発な曜日
+        habits.setMostActiveDay(dayDistribution.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse("不明"));
         
-        Double consistencyScore = calculateConsistencyScore(readingDates);
-        habits.setConsistencyScore(consistencyScore);
+        // 一貫性スコア計算（読書日の分散具合）
+        habits.setConsistencyScore(calculateConsistencyScore(readingDates));
         
         return habits;
     }
     
-    private ReadingPaceAnalysis.ReadingGoals calculateGoals(Long userId, ReadingPaceAnalysis.ReadingPaceMetrics metrics) {
+    private ReadingPaceAnalysis.ReadingGoals calculateGoals(Integer currentProgress, ReadingPaceAnalysis.ReadingPaceMetrics metrics) {
         ReadingPaceAnalysis.ReadingGoals goals = new ReadingPaceAnalysis.ReadingGoals();
         
         // 現在のペースベースで月間目標を算出
@@ -304,10 +387,6 @@ public class ReadingPaceAnalysisProcessor implements ItemProcessor<User, Reading
         goals.setMonthlyGoal(monthlyGoal);
         
         // 今月の進捗
-        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
-        Integer currentProgress = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE user_id = ? AND created_at >= ?",
-            Integer.class, userId, monthStart);
         goals.setCurrentMonthProgress(currentProgress);
         
         // 目標達成率
@@ -339,8 +418,7 @@ public class ReadingPaceAnalysisProcessor implements ItemProcessor<User, Reading
         return goals;
     }
     
-    private List<ReadingPaceAnalysis.ReadingPrediction> generatePredictions(Long userId, 
-                                                       ReadingPaceAnalysis.ReadingPaceMetrics metrics, 
+    private List<ReadingPaceAnalysis.ReadingPrediction> generatePredictions(ReadingPaceAnalysis.ReadingPaceMetrics metrics, 
                                                        ReadingPaceAnalysis.ReadingPaceTrends trends) {
         List<ReadingPaceAnalysis.ReadingPrediction> predictions = new ArrayList<>();
         
@@ -375,60 +453,45 @@ public class ReadingPaceAnalysisProcessor implements ItemProcessor<User, Reading
         return predictions;
     }
     
-    private Integer calculateCurrentStreak(Long userId) {
-        try {
-            List<LocalDate> recentDates = jdbcTemplate.queryForList(
-                "SELECT DISTINCT DATE(created_at) as reading_date " +
-                "FROM books WHERE user_id = ? AND created_at >= ? " +
-                "ORDER BY reading_date DESC",
-                LocalDate.class, userId, LocalDate.now().minusDays(30));
-            
-            if (recentDates.isEmpty()) return 0;
-            
-            int streak = 0;
-            LocalDate expectedDate = LocalDate.now();
-            
-            for (LocalDate date : recentDates) {
-                if (date.equals(expectedDate) || date.equals(expectedDate.minusDays(1))) {
-                    streak++;
-                    expectedDate = date.minusDays(1);
-                } else {
-                    break;
-                }
+    /**
+     * 現在の連続読書日数（過去30日、1日の空きまで許容）
+     *
+     * @param readingDates 読書日（昇順）
+     */
+    private Integer calculateCurrentStreak(List<LocalDate> readingDates, LocalDate today) {
+        LocalDate from = today.minusDays(30);
+        int streak = 0;
+        LocalDate expectedDate = today;
+        
+        for (int i = readingDates.size() - 1; i >= 0; i--) {
+            LocalDate date = readingDates.get(i);
+            if (date.isBefore(from)) {
+                break;
+            }
+            if (date.equals(expectedDate) || date.equals(expectedDate.minusDays(1))) {
+                streak++;
+                expectedDate = date.minusDays(1);
+            } else {
+                break;
             }
-            
-            return streak;
-        } catch (Exception e) {
-            return 0;
         }
+        
+        return streak;
     }
     
-    private Integer calculateLongestStreak(Long userId) {
-        try {
-            List<LocalDate> allDates = jdbcTemplate.queryForList(
-                "SELECT DISTINCT DATE(created_at) as reading_date " +
-                "FROM books WHERE user_id = ? " +
-                "ORDER BY reading_date",
-                LocalDate.class, userId);
-            
-            if (allDates.isEmpty()) return 0;
-            
-            int maxStreak = 1;
-            int currentStreak = 1;
-            
-            for (int i = 1; i < allDates.size(); i++) {
-                if (allDates.get(i).equals(allDates.get(i-1).plusDays(1))) {
-                    currentStreak++;
-                    maxStreak = Math.max(maxStreak, currentStreak);
-                } else {
-                    currentStreak = 1;
-                }
-            }
-            
-            return maxStreak;
-        } catch (Exception e) {
-            return 0;
-        }
+    /**
+     * 先読みしたユーザー単位の集計
+     */
+    private static class UserPaceData {
+        private LocalDate today;
+        private Map<String, Object> counts;
+        private Map<String, Object> completion;
+        private int longestStreak;
+        private List<Map<String, Object>> monthlyProgress;
+        private List<Map<String, Object>> genrePace;
+        private List<Map<String, Object>> timePeriods;
+        private List<Map<String, Object>> weekdays;
+        private List<LocalDate> readingDates;
     }
     
     private Double calculateConsistencyScore(List<LocalDate> readingDates) {
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -27,22 +28,26 @@ public class ReadingPaceAnalysisWriter implements ItemWriter<ReadingPaceAnalysis
     
     @Override
     public void write(Chunk<? extends ReadingPaceAnalysis> items) throws Exception {
+        // 個別ユーザーの分析をJSON形式で一括保存
+        List<Object[]> batchArgs = new ArrayList<>();
         for (ReadingPaceAnalysis analysis : items.getItems()) {
-            // 個別ユーザーの分析をJSON形式で保存
             String analysisJson = objectMapper.writeValueAsString(analysis);
-            
-            jdbcTemplate.update(
-                "INSERT INTO batch_statistics (report_type, target_date, data_json) " +
-                "VALUES (?, ?, ?::jsonb) " +
-                "ON CONFLICT (report_type, target_date) " +
-                "DO UPDATE SET data_json = ?::jsonb, updated_at = NOW()",
-                "READING_PACE_ANALYSIS_" + analysis.getUserId(), 
-                LocalDate.now(), 
-                analysisJson, 
+            batchArgs.add(new Object[] {
+                "READING_PACE_ANALYSIS_" + analysis.getUserId(),
+                LocalDate.now(),
+                analysisJson,
                 analysisJson
-            );
+            });
         }
         
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO batch_statistics (report_type, target_date, data_json) " +
+            "VALUES (?, ?, ?::jsonb) " +
+            "ON CONFLICT (report_type, target_date) " +
+            "DO UPDATE SET data_json = ?::jsonb, updated_at = NOW()",
+            batchArgs
+        );
+        
         // 全ユーザー統計レポート作成
         createPaceSummaryReport(items);
         
@@ -0,0 +1,130 @@
+package com.library.management.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.job.flow.support.SimpleFlow;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.*;
+
+/**
+ * 統計ステップの依存グラフ
+ * ステップごとに依存するステップ名を宣言して登録すると、依存の深さごとの段に分け、
+ * 段内のステップはsplitで並列に、段同士は順に実行するフローを組み立てる。
+ * 新しい統計ステップは依存先を指定してaddするだけで並列実行の対象になる
+ */
+public class StatsStepGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsStepGraph.class);
+
+    private final String name;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+    private final Map<String, List<String>> dependencies = new HashMap<>();
+
+    public StatsStepGraph(String name) {
+        this.name = name;
+    }
+
+    /**
+     * ステップ登録
+     *
+     * @param dependsOn 先に完了している必要があるステップ名（出力を読むステップ）
+     */
+    public StatsStepGraph add(Step step, String... dependsOn) {
+        if (steps.putIfAbsent(step.getName(), step) != null) {
+            throw new IllegalStateException("ステップが重複しています: " + step.getName());
+        }
+        dependencies.put(step.getName(), Arrays.asList(dependsOn));
+        return this;
+    }
+
+    /**
+     * 段ごとのステップ名一覧（同じ段のステップは互いに依存しない）
+     */
+    public List<List<String>> getStages() {
+        Map<String, Integer> levels = new HashMap<>();
+        for (String stepName : steps.keySet()) {
+            resolveLevel(stepName, levels, new LinkedHashSet<>());
+        }
+
+        List<List<String>> stages = new ArrayList<>();
+        for (String stepName : steps.keySet()) {
+            int level = levels.get(stepName);
+            while (stages.size() <= level) {
+                stages.add(new ArrayList<>());
+            }
+            stages.get(level).add(stepName);
+        }
+        return stages;
+    }
+
+    /**
+     * フロー作成
+     *
+     * @param taskExecutor 同じ段のステップを並列実行するエグゼキューター
+     */
+    public Flow build(TaskExecutor taskExecutor) {
+        if (steps.isEmpty()) {
+            throw new IllegalStateException("ステップが登録されていません: " + name);
+        }
+
+        List<List<String>> stages = getStages();
+        FlowBuilder<SimpleFlow> builder = new FlowBuilder<>(name);
+        for (int i = 0; i < stages.size(); i++) {
+            Flow stage = createStageFlow(name + ".stage" + i, stages.get(i), taskExecutor);
+            if (i == 0) {
+                builder.start(stage);
+            } else {
+                builder.next(stage);
+            }
+        }
+
+        logger.info("統計ステップ構成: {} {}", name, stages);
+        return builder.build();
+    }
+
+    private Flow createStageFlow(String stageName, List<String> stepNames, TaskExecutor taskExecutor) {
+        if (stepNames.size() == 1) {
+            return createStepFlow(stepNames.get(0));
+        }
+
+        Flow[] flows = new Flow[stepNames.size()];
+        for (int i = 0; i < stepNames.size(); i++) {
+            flows[i] = createStepFlow(stepNames.get(i));
+        }
+        return new FlowBuilder<SimpleFlow>(stageName)
+                .split(taskExecutor)
+                .add(flows)
+                .build();
+    }
+
+    private Flow createStepFlow(String stepName) {
+        return new FlowBuilder<SimpleFlow>(stepName + ".flow")
+                .start(steps.get(stepName))
+                .build();
+    }
+
+    private int resolveLevel(String stepName, Map<String, Integer> levels, Set<String> visiting) {
+        Integer resolved = levels.get(stepName);
+        if (resolved != null) {
+            return resolved;
+        }
+        if (!steps.containsKey(stepName)) {
+            throw new IllegalStateException("依存先のステップが登録されていません: " + stepName);
+        }
+        if (!visiting.add(stepName)) {
+            throw new IllegalStateException("ステップの依存関係が循環しています: " + visiting);
+        }
+
+        int level = 0;
+        for (String dependency : dependencies.get(stepName)) {
+            level = Math.max(level, resolveLevel(dependency, levels, visiting) + 1);
+        }
+        visiting.remove(stepName);
+        levels.put(stepName, level);
+        return level;
+    }
+}
@@ -0,0 +1,82 @@
+package com.library.management.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.management.dto.UserStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * ユーザー別詳細統計ライター
+ * チャンクは複数スレッドで並列に書き込まれるため、各チャンクの結果はメモリ上に集め、
+ * ステップ完了時に当日分のUSER_ANALYSISとして全ユーザーをまとめて1回で保存する
+ */
+public class UserAnalysisStatsWriter implements ItemWriter<UserStats>, StepExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAnalysisStatsWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Queue<UserStats> results = new ConcurrentLinkedQueue<>();
+
+    public UserAnalysisStatsWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        results.clear();
+    }
+
+    @Override
+    public void write(Chunk<? extends UserStats> chunk) {
+        results.addAll(chunk.getItems());
+    }
+
+    /**
+     * 集めた結果の保存（失敗したステップの途中結果では前回の統計を上書きしない）
+     */
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() == BatchStatus.FAILED || !stepExecution.getFailureExceptions().isEmpty()) {
+            logger.warn("ユーザー統計の保存を見送りました（ステップ失敗）: 集計済み={}件", results.size());
+            results.clear();
+            return null;
+        }
+
+        List<UserStats> statsList = new ArrayList<>(results);
+        results.clear();
+        statsList.sort(Comparator.comparing(UserStats::getUserId));
+
+        try {
+            // JSON形式で保存
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.registerModule(new JavaTimeModule());
+            String statsJson = mapper.writeValueAsString(statsList);
+
+            jdbcTemplate.update(
+                "INSERT INTO batch_statistics (report_type, target_date, data_json) VALUES (?, ?, ?::jsonb) " +
+                "ON CONFLICT (report_type, target_date) DO UPDATE SET data_json = ?::jsonb, updated_at = NOW()",
+                "USER_ANALYSIS", LocalDate.now(), statsJson, statsJson);
+        } catch (Exception e) {
+            logger.error("ユーザー統計の保存に失敗しました: {}件", statsList.size(), e);
+            return ExitStatus.FAILED;
+        }
+
+        logger.info("ユーザー統計保存完了: {}件", statsList.size());
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.library.management.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ユーザー処理量パーティショナー
+ * ユーザーごとの処理量（1 + 所有書籍数）の累積値でユーザーIDを分位点に分け、
+ * 各パーティションの処理量がほぼ等しくなるようstartUserId/endUserIdを決める。
+ * パーティション数はワーカー数の数倍とし、先に終わったワーカーが残りの範囲を順に引き取る
+ */
+@Component
+public class UserWorkloadPartitioner implements Partitioner {
+
+    private static final String BUCKET_SQL = """
+        WITH weights AS (
+            SELECT u.id, 1 + COALESCE(b.book_count, 0) AS weight
+            FROM users u
+            LEFT JOIN (SELECT user_id, COUNT(*) AS book_count FROM books GROUP BY user_id) b ON b.user_id = u.id
+        ), cumulative AS (
+            SELECT id, weight,
+                   SUM(weight) OVER (ORDER BY id) - weight AS preceding_weight,
+                   SUM(weight) OVER () AS total_weight
+            FROM weights
+        )
+        SELECT CAST(FLOOR(preceding_weight * ? / total_weight) AS INTEGER) AS bucket,
+               MIN(id) AS start_id, MAX(id) AS end_id, COUNT(*) AS user_count, SUM(weight) AS weight
+        FROM cumulative
+        GROUP BY 1
+        ORDER BY 1
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 0の場合はワーカー数から自動決定
+    @Value("${app.batch.user-partition.grid-size:0}")
+    private int configuredGridSize;
+
+    @Value("${app.batch.user-partition.partitions-per-worker:4}")
+    private int partitionsPerWorker;
+
+    @Value("${app.batch.user-partition.max-partitions:64}")
+    private int maxPartitions;
+
+    /**
+     * パーティション数の決定
+     * パーティション用スレッドプールのワーカー数（CPUコア数が上限）に partitionsPerWorker を掛けた数
+     */
+    public int resolveGridSize(TaskExecutor taskExecutor) {
+        if (configuredGridSize > 0) {
+            return Math.min(configuredGridSize, maxPartitions);
+        }
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        if (taskExecutor instanceof ThreadPoolTaskExecutor) {
+            workers = Math.min(workers, ((ThreadPoolTaskExecutor) taskExecutor).getCorePoolSize());
+        }
+        int gridSize = Math.max(1, workers) * Math.max(1, partitionsPerWorker);
+        return Math.min(gridSize, maxPartitions);
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+
+        try {
+            List<Map<String, Object>> buckets = jdbcTemplate.queryForList(BUCKET_SQL, Math.max(1, gridSize));
+            if (buckets.isEmpty()) {
+                // ユーザーなし: 空範囲の単一パーティション
+                partitions.put("partition0", createContext(0, 1L, 0L));
+                return partitions;
+            }
+
+            System.out.println("ユーザーパーティション設定: gridSize=" + gridSize + ", パーティション数=" + buckets.size());
+
+            // 範囲の間に隙間を作らないよう、各パーティションの開始は直前の終了+1とする
+            long nextStartId = ((Number) buckets.get(0).get("start_id")).longValue();
+            for (int i = 0; i < buckets.size(); i++) {
+                Map<String, Object> bucket = buckets.get(i);
+                long endId = ((Number) bucket.get("end_id")).longValue();
+
+                partitions.put("partition" + i, createContext(i, nextStartId, endId));
+                System.out.println("パーティション" + i + ": userId " + nextStartId + " to " + endId
+                    + ", ユーザー数=" + bucket.get("user_count") + ", 処理量=" + bucket.get("weight"));
+                nextStartId = endId + 1;
+            }
+
+        } catch (Exception e) {
+            System.err.println("パーティション作成エラー: " + e.getMessage());
+            // フォールバック: 単一パーティション
+            partitions.clear();
+            partitions.put("partition0", createContext(0, 1L, Long.MAX_VALUE));
+        }
+
+        return partitions;
+    }
+
+    private ExecutionContext createContext(int partitionNumber, long startUserId, long endUserId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putInt("partitionNumber", partitionNumber);
+        context.putLong("startUserId", startUserId);
+        context.putLong("endUserId", endUserId);
+        return context;
+    }
+}
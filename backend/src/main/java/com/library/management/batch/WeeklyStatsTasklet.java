@@ -14,10 +14,9 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Component
 public class WeeklyStatsTasklet implements Tasklet {
@@ -28,6 +27,9 @@ public class WeeklyStatsTasklet implements Tasklet {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private BookDailyStatsStore bookDailyStatsStore;
+    
     @Override
     public RepeatStatus execute(StepContribution contribution, 
                                ChunkContext chunkContext) throws Exception {
@@ -42,6 +44,9 @@ public class WeeklyStatsTasklet implements Tasklet {
         weeklyStats.setPeriodStart(weekStart);
         weeklyStats.setPeriodEnd(weekEnd);
         
+        // 前回以降に変更のあった日の日次集計を更新
+        bookDailyStatsStore.refresh();
+        
         // 基本統計データ収集
         calculateBasicStats(weekStart, weekEnd, weeklyStats);
         
@@ -62,24 +67,13 @@ public class WeeklyStatsTasklet implements Tasklet {
     }
     
     public void calculateBasicStats(LocalDate start, LocalDate end, PeriodicalStats stats) {
-        // 期間内総登録書籍数
-        Integer totalBooks = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE created_at BETWEEN ? AND ?",
-            Integer.class, start, end.plusDays(1));
+        // 期間内総登録書籍数・読了書籍数・アクティブユーザー数（日次集計の合計）
+        BookDailyStatsStore.PeriodTotals totals = bookDailyStatsStore.getPeriodTotals(start, end);
+        Integer totalBooks = totals.getTotalBooks();
+        Integer completedBooks = totals.getCompletedBooks();
         stats.setTotalBooks(totalBooks);
-        
-        // 期間内読了書籍数
-        Integer completedBooks = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books b JOIN read_status rs ON b.id = rs.book_id " +
-            "WHERE rs.status = 'COMPLETED' AND rs.updated_at BETWEEN ? AND ?",
-            Integer.class, start, end.plusDays(1));
         stats.setCompletedBooks(completedBooks);
-        
-        // アクティブユーザー数
-        Integer activeUsers = jdbcTemplate.queryForObject(
-            "SELECT COUNT(DISTINCT user_id) FROM books WHERE created_at BETWEEN ? AND ?",
-            Integer.class, start, end.plusDays(1));
-        stats.setActiveUsers(activeUsers);
+        stats.setActiveUsers(totals.getActiveUsers());
         
         // 読了率
         Double completionRate = totalBooks > 0 ? 
@@ -88,19 +82,7 @@ public class WeeklyStatsTasklet implements Tasklet {
     }
     
     public void calculateGenreDistribution(LocalDate start, LocalDate end, PeriodicalStats stats) {
-        List<Map<String, Object>> genreData = jdbcTemplate.queryForList(
-            "SELECT g.name as genre, COUNT(*) as count FROM books b " +
-            "JOIN genres g ON b.genre_id = g.id " +
-            "WHERE b.created_at BETWEEN ? AND ? " +
-            "GROUP BY g.name ORDER BY count DESC",
-            start, end.plusDays(1));
-        
-        Map<String, Integer> distribution = genreData.stream()
-            .collect(Collectors.toMap(
-                row -> (String) row.get("genre"),
-                row -> ((Number) row.get("count")).intValue()
-            ));
-        stats.setGenreDistribution(distribution);
+        stats.setGenreDistribution(bookDailyStatsStore.getGenreDistribution(start, end));
     }
     
     public void calculateTrendComparison(LocalDate start, LocalDate end, 
@@ -131,16 +113,10 @@ public class WeeklyStatsTasklet implements Tasklet {
                 prevEnd = end.minusWeeks(1);
         }
         
-        // 前期間の登録数
-        Integer prevTotalBooks = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books WHERE created_at BETWEEN ? AND ?",
-            Integer.class, prevStart, prevEnd.plusDays(1));
-        
-        // 前期間の読了数
-        Integer prevCompletedBooks = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM books b JOIN read_status rs ON b.id = rs.book_id " +
-            "WHERE rs.status = 'COMPLETED' AND rs.updated_at BETWEEN ? AND ?",
-            Integer.class, prevStart, prevEnd.plusDays(1));
+        // 前期間の登録数・読了数
+        BookDailyStatsStore.PeriodTotals prevTotals = bookDailyStatsStore.getPeriodTotals(prevStart, prevEnd);
+        Integer prevTotalBooks = prevTotals.getTotalBooks();
+        Integer prevCompletedBooks = prevTotals.getCompletedBooks();
         
         // 増減率計算
         Double bookGrowthRate = prevTotalBooks > 0 ? 
@@ -173,23 +149,16 @@ public class WeeklyStatsTasklet implements Tasklet {
         
         // 最も活発な曜日（週次の場合）
         if ("WEEKLY".equals(periodType)) {
-            try {
-                List<Map<String, Object>> dailyActivity = jdbcTemplate.queryForList(
-                    "SELECT EXTRACT(dow FROM created_at) as day_of_week, COUNT(*) as count " +
-                    "FROM books WHERE created_at BETWEEN ? AND ? " +
-                    "GROUP BY EXTRACT(dow FROM created_at) " +
-                    "ORDER BY count DESC LIMIT 1",
-                    start, end.plusDays(1));
-                
-                if (!dailyActivity.isEmpty()) {
-                    Integer mostActiveDow = ((Number) dailyActivity.get(0).get("day_of_week")).intValue();
+            Map<DayOfWeek, Integer> countsByDay = new EnumMap<>(DayOfWeek.class);
+            bookDailyStatsStore.getDailyCounts(start, end)
+                .forEach((date, count) -> countsByDay.merge(date.getDayOfWeek(), count, Integer::sum));
+            
+            countsByDay.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .ifPresent(entry -> {
                     String[] dayNames = {"日曜日", "月曜日", "火曜日", "水曜日", "木曜日", "金曜日", "土曜日"};
-                    String dayName = dayNames[mostActiveDow];
-                    growthMetrics.put("mostActiveDay", dayName);
-                }
-            } catch (Exception e) {
-                growthMetrics.put("mostActiveDay", "不明");
-            }
+                    growthMetrics.put("mostActiveDay", dayNames[entry.getKey().getValue() % 7]);
+                });
         }
         
         stats.setGrowthMetrics(growthMetrics);
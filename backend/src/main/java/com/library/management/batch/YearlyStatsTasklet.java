@@ -24,6 +24,9 @@ public class YearlyStatsTasklet implements Tasklet {
     @Autowired
     private WeeklyStatsTasklet weeklyStatsTasklet;
     
+    @Autowired
+    private BookDailyStatsStore bookDailyStatsStore;
+    
     @Override
     public RepeatStatus execute(StepContribution contribution, 
                                ChunkContext chunkContext) throws Exception {
@@ -38,6 +41,9 @@ public class YearlyStatsTasklet implements Tasklet {
         yearlyStats.setPeriodStart(yearStart);
         yearlyStats.setPeriodEnd(yearEnd);
         
+        // 前回以降に変更のあった日の日次集計を更新
+        bookDailyStatsStore.refresh();
+        
         // 統計計算の共通ロジックを再利用
         weeklyStatsTasklet.calculateBasicStats(yearStart, yearEnd, yearlyStats);
         weeklyStatsTasklet.calculateGenreDistribution(yearStart, yearEnd, yearlyStats);
@@ -11,11 +11,19 @@ import org.springframework.scheduling.annotation.EnableAsync;
  * 非同期処理も有効化
  */
 @Configuration
-@EnableScheduling
 @EnableAsync
-@ConditionalOnProperty(name = "app.reports.cleanup.enabled", havingValue = "true", matchIfMissing = true)
 public class SchedulingConfig {
-    // @EnableSchedulingアノテーションにより、@Scheduledアノテーションが有効になる
     // @EnableAsyncアノテーションにより、@Asyncアノテーションが有効になる
-    // スケジュールタスクはReportFileServiceで定義済み
-}
\ No newline at end of file
+
+    /**
+     * スケジュール実行の有効化
+     * app.scheduling.enabled=false の場合は全ての@Scheduledタスク（キャッシュ更新・ジャーナル反映・統計更新・配信スケジュールなど）を起動しない
+     */
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+    static class ScheduledTasksConfig {
+        // @EnableSchedulingアノテーションにより、@Scheduledアノテーションが有効になる
+        // 帳票ファイルのクリーンアップはapp.reports.cleanup.enabledでも個別に無効化できる（ReportFileService）
+    }
+}
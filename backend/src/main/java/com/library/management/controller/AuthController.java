@@ -5,6 +5,7 @@ import com.library.management.entity.User;
 import com.library.management.repository.RoleRepository;
 import com.library.management.repository.UserRepository;
 import com.library.management.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +18,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
 import com.library.management.dto.UserRegistrationRequest;
+import com.library.management.security.JwtAuthenticationCache;
 import com.library.management.security.UserPrincipal;
 import jakarta.validation.Valid;
 import java.util.HashMap;
@@ -42,6 +44,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
@@ -125,8 +130,10 @@ public class AuthController {
         try {
             String refreshToken = refreshRequest.getRefreshToken();
             
-            if (jwtUtil.validateJwtToken(refreshToken) && jwtUtil.isRefreshToken(refreshToken)) {
-                String username = jwtUtil.getUsernameFromJwtToken(refreshToken);
+            Claims claims = jwtUtil.getValidatedClaims(refreshToken);
+            if (claims != null && "REFRESH".equals(claims.get("tokenType"))
+                    && !authenticationCache.isRevoked(claims.getSubject(), jwtUtil.getIssuedAtMillis(claims))) {
+                String username = claims.getSubject();
                 
                 // ユーザーが存在するか確認し、UserDetailsを取得
                 User user = userRepository.findByUsername(username)
@@ -152,9 +159,15 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
-        // JWT認証では、クライアント側でトークンを削除するだけで十分
-        // サーバー側では特別な処理は不要（ステートレス）
+    public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+        // 認証キャッシュを破棄し、ログアウト以前に発行されたアクセス・リフレッシュトークンを失効させる
+        String headerAuth = request.getHeader("Authorization");
+        if (headerAuth != null && headerAuth.startsWith("Bearer ")) {
+            Claims claims = jwtUtil.getValidatedClaims(headerAuth.substring(7));
+            if (claims != null) {
+                authenticationCache.revokeUser(claims.getSubject());
+            }
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(Map.of("message", "Logout successful"));
     }
@@ -2,6 +2,9 @@ package com.library.management.controller;
 
 import com.library.management.batch.BatchMonitoringService;
 import com.library.management.batch.BatchErrorRecoveryService;
+import com.library.management.batch.BatchJobStatsStore;
+import com.library.management.repository.BatchExecutionRepository;
+import com.library.management.repository.KeysetCursor;
 import com.library.management.service.BatchParameterService;
 import com.library.management.service.BatchScheduleService;
 import com.library.management.service.BatchNotificationService;
@@ -18,12 +21,18 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.LongSupplier;
 
 @RestController
 @RequestMapping("/api/batch")
 @CrossOrigin(origins = "http://localhost:3000")
 public class BatchController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String COUNT_EXACT = "exact";
+    private static final String COUNT_ESTIMATE = "estimate";
+    private static final String COUNT_NONE = "none";
+
     @Autowired
     private BatchMonitoringService batchMonitoringService;
 
@@ -33,6 +42,12 @@ public class BatchController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private BatchExecutionRepository batchExecutionRepository;
+
+    @Autowired
+    private BatchJobStatsStore batchJobStatsStore;
+
     @Autowired
     private JobExplorer jobExplorer;
 
@@ -112,53 +127,8 @@ public class BatchController {
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getBatchStatistics() {
         try {
-            // ジョブ実行統計
-            Map<String, Object> jobStats = jdbcTemplate.queryForMap("""
-                SELECT
-                    COUNT(*) as total_executions,
-                    COUNT(CASE WHEN status = 'COMPLETED' THEN 1 END) as completed_executions,
-                    COUNT(CASE WHEN status = 'FAILED' THEN 1 END) as failed_executions,
-                    COUNT(CASE WHEN status = 'STARTED' THEN 1 END) as running_executions,
-                    ROUND(AVG(CASE WHEN end_time IS NOT NULL AND start_time IS NOT NULL
-                        THEN EXTRACT(EPOCH FROM (end_time - start_time)) * 1000 END)) as avg_execution_time_ms,
-                    COALESCE(SUM(read_count), 0) as total_read_count,
-                    COALESCE(SUM(write_count), 0) as total_write_count
-                FROM batch_execution_logs
-                WHERE start_time >= CURRENT_DATE - CAST('30 days' AS INTERVAL)
-                """);
-            
-            // ジョブ別統計
-            List<Map<String, Object>> jobBreakdown = jdbcTemplate.queryForList("""
-                SELECT
-                    job_name,
-                    COUNT(*) as execution_count,
-                    COUNT(CASE WHEN status = 'COMPLETED' THEN 1 END) as success_count,
-                    COUNT(CASE WHEN status = 'FAILED' THEN 1 END) as failure_count,
-                    ROUND(AVG(CASE WHEN end_time IS NOT NULL AND start_time IS NOT NULL
-                        THEN EXTRACT(EPOCH FROM (end_time - start_time)) * 1000 END)) as avg_time_ms,
-                    MAX(start_time) as last_execution
-                FROM batch_execution_logs
-                WHERE start_time >= CURRENT_DATE - CAST('30 days' AS INTERVAL)
-                GROUP BY job_name
-                ORDER BY execution_count DESC
-                """);
-            
-            // 統計データの可用性
-            List<Map<String, Object>> availableReports = jdbcTemplate.queryForList("""
-                SELECT
-                    report_type,
-                    target_date,
-                    created_at,
-                    updated_at
-                FROM batch_statistics
-                WHERE target_date >= CURRENT_DATE - CAST('30 days' AS INTERVAL)
-                ORDER BY updated_at DESC
-                """);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("jobStatistics", jobStats);
-            response.put("jobBreakdown", jobBreakdown);
-            response.put("availableReports", availableReports);
+            // ジョブ実行統計・ジョブ別統計・統計データの可用性（日次集計のスナップショット）
+            Map<String, Object> response = new HashMap<>(batchJobStatsStore.getStatistics());
 
             Map<String, String> availableJobs = batchManagementService.getAvailableJobs();
             System.out.println("[DEBUG] Available jobs: " + availableJobs);
@@ -221,56 +191,31 @@ public class BatchController {
         }
     }
 
-    // バッチ実行履歴取得
+    // バッチ実行履歴取得（カーソルページング）
     @GetMapping("/executions")
     public ResponseEntity<Map<String, Object>> getExecutionHistory(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String jobName,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = COUNT_ESTIMATE) String count) {
 
         try {
-            StringBuilder sql = new StringBuilder(
-                "SELECT job_name, job_execution_id, start_time, end_time, status, " +
-                "exit_code, exit_message, read_count, write_count, execution_time_ms, " +
-                "error_message, created_at FROM batch_execution_logs WHERE 1=1");
+            int pageSize = normalizePageSize(size);
+            List<Map<String, Object>> executions = batchExecutionRepository.findExecutions(
+                jobName, status, KeysetCursor.decode(cursor), pageSize + 1);
 
-            List<Object> params = new ArrayList<>();
-
-            if (jobName != null && !jobName.trim().isEmpty()) {
-                sql.append(" AND job_name = ?");
-                params.add(jobName);
-            }
-
-            if (status != null && !status.trim().isEmpty()) {
-                sql.append(" AND status = ?");
-                params.add(status);
-            }
-
-            // 総件数取得
-            String countSql = sql.toString().replace(
-                "SELECT job_name, job_execution_id, start_time, end_time, status, " +
-                "exit_code, exit_message, read_count, write_count, execution_time_ms, " +
-                "error_message, created_at", "SELECT COUNT(*)");
-
-            Integer totalCount = jdbcTemplate.queryForObject(countSql, params.toArray(), Integer.class);
-
-            // ページング適用
-            sql.append(" ORDER BY start_time DESC LIMIT ? OFFSET ?");
-            params.add(size);
-            params.add(page * size);
-
-            List<Map<String, Object>> executions = jdbcTemplate.queryForList(sql.toString(), params.toArray());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("executions", executions);
-            response.put("totalCount", totalCount);
-            response.put("currentPage", page);
-            response.put("pageSize", size);
-            response.put("totalPages", (int) Math.ceil((double) totalCount / size));
+            Map<String, Object> response = createPageResponse(executions, pageSize, count,
+                () -> batchExecutionRepository.countExecutions(jobName, status),
+                () -> batchExecutionRepository.estimateExecutions(jobName, status));
+            response.put("executions", executions.subList(0, Math.min(executions.size(), pageSize)));
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "実行履歴取得エラー: " + e.getMessage());
@@ -324,53 +269,31 @@ public class BatchController {
         }
     }
 
-    // バッチログ取得
+    // バッチログ取得（カーソルページング）
     @GetMapping("/logs")
     public ResponseEntity<Map<String, Object>> getBatchLogs(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int size,
             @RequestParam(required = false) String jobName,
-            @RequestParam(required = false) String level) {
+            @RequestParam(required = false) String level,
+            @RequestParam(defaultValue = COUNT_ESTIMATE) String count) {
 
         try {
-            StringBuilder sql = new StringBuilder(
-                "SELECT id, log_level, message, user_id, ip_address, created_at " +
-                "FROM system_logs WHERE 1=1");
+            int pageSize = normalizePageSize(size);
+            List<Map<String, Object>> logs = batchExecutionRepository.findSystemLogs(
+                jobName, level, KeysetCursor.decode(cursor), pageSize + 1);
 
-            List<Object> params = new ArrayList<>();
-
-            if (jobName != null && !jobName.trim().isEmpty()) {
-                sql.append(" AND message LIKE ?");
-                params.add("%" + jobName + "%");
-            }
-
-            if (level != null && !level.trim().isEmpty()) {
-                sql.append(" AND log_level = ?");
-                params.add(level);
-            }
-
-            // 総件数取得
-            String countSql = sql.toString().replace(
-                "SELECT id, log_level, message, user_id, ip_address, created_at", "SELECT COUNT(*)");
-
-            Integer totalCount = jdbcTemplate.queryForObject(countSql, params.toArray(), Integer.class);
-
-            // ページング適用
-            sql.append(" ORDER BY created_at DESC LIMIT ? OFFSET ?");
-            params.add(size);
-            params.add(page * size);
-
-            List<Map<String, Object>> logs = jdbcTemplate.queryForList(sql.toString(), params.toArray());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("logs", logs);
-            response.put("totalCount", totalCount);
-            response.put("currentPage", page);
-            response.put("pageSize", size);
-            response.put("totalPages", (int) Math.ceil((double) totalCount / size));
+            Map<String, Object> response = createPageResponse(logs, pageSize, count,
+                () -> batchExecutionRepository.countSystemLogs(jobName, level),
+                () -> batchExecutionRepository.estimateSystemLogs(jobName, level));
+            response.put("logs", logs.subList(0, Math.min(logs.size(), pageSize)));
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "ログ取得エラー: " + e.getMessage());
@@ -378,6 +301,39 @@ public class BatchController {
         }
     }
 
+    private int normalizePageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * カーソルページングの共通レスポンス作成
+     * 件数は count=exact で正確な件数、estimate で実行計画の推定件数を返し、none では数えない
+     */
+    private Map<String, Object> createPageResponse(List<Map<String, Object>> rows, int pageSize, String count,
+                                                   LongSupplier exactCount, LongSupplier estimatedCount) {
+        KeysetCursor nextCursor = KeysetCursor.next(rows, pageSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("pageSize", pageSize);
+        response.put("hasMore", nextCursor != null);
+        response.put("nextCursor", nextCursor != null ? nextCursor.encode() : null);
+
+        switch (count) {
+            case COUNT_EXACT -> {
+                response.put("totalCount", exactCount.getAsLong());
+                response.put("countType", COUNT_EXACT);
+            }
+            case COUNT_ESTIMATE -> {
+                response.put("totalCount", estimatedCount.getAsLong());
+                response.put("countType", COUNT_ESTIMATE);
+            }
+            case COUNT_NONE -> {
+            }
+            default -> throw new IllegalArgumentException("countの指定が正しくありません（exact / estimate / none）: " + count);
+        }
+        return response;
+    }
+
     // バッチパラメータ管理API
     @GetMapping("/parameters")
     public ResponseEntity<List<BatchParameterService.JobParameter>> getAllParameters() {
@@ -53,6 +53,16 @@ public class ReportCacheController {
             statsMap.put("averageHitCount", statistics.getAverageHitCount());
             statsMap.put("hitRate", statistics.getHitRate());
             statsMap.put("typeStatistics", statistics.getTypeStatistics());
+            statsMap.put("memoryCacheWeightBytes", statistics.getMemoryCacheWeightBytes());
+            statsMap.put("memoryHitCount", statistics.getMemoryHitCount());
+            statsMap.put("databaseHitCount", statistics.getDatabaseHitCount());
+            statsMap.put("missCount", statistics.getMissCount());
+            statsMap.put("requestHitRate", statistics.getRequestHitRate());
+            statsMap.put("evictionCount", statistics.getEvictionCount());
+            statsMap.put("expirationCount", statistics.getExpirationCount());
+            statsMap.put("loadCount", statistics.getLoadCount());
+            statsMap.put("averageLoadTimeMs", statistics.getAverageLoadTimeMs());
+            statsMap.put("coalescedCount", statistics.getCoalescedCount());
 
             response.put("success", true);
             response.put("statistics", statsMap);
@@ -4,9 +4,12 @@ import com.library.management.dto.ReportRequest;
 import com.library.management.entity.ReportHistory;
 import com.library.management.service.report.ExcelReportService;
 import com.library.management.service.report.PDFReportService;
+import com.library.management.service.report.ReportDownloadService;
 import com.library.management.service.report.ReportFileService;
 import com.library.management.service.report.ReportService;
 import com.library.management.service.report.data.ReportDataService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +48,9 @@ public class ReportController {
     @Autowired
     private ReportFileService reportFileService;
 
+    @Autowired
+    private ReportDownloadService reportDownloadService;
+
     @Autowired
     private ReportDataService reportDataService;
 
@@ -152,55 +158,57 @@ public class ReportController {
     }
 
     /**
-     * 帳票ダウンロード
+     * 帳票ダウンロード（Range・条件付きGET対応）
      */
     @GetMapping("/download/{reportId}")
-    public ResponseEntity<Resource> downloadReport(
+    public void downloadReport(
             @PathVariable Long reportId,
-            Authentication authentication) {
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         try {
             // ユーザーID取得
             Long userId = getUserId(authentication);
 
-            // ファイル取得
-            Resource resource = reportFileService.getReportFile(userId, reportId);
-
             // ファイル情報取得
-            ReportFileService.FileInfo fileInfo = reportFileService.getFileInfo(resource.getFile().getAbsolutePath());
+            ReportFileService.DownloadTarget target = reportFileService.getDownloadTarget(userId, reportId);
 
-            // レスポンスヘッダー設定
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION,
-                "attachment; filename=\"" + fileInfo.getFileName() + "\"");
-            headers.add(HttpHeaders.CONTENT_TYPE, fileInfo.getContentType());
+            // ファイル送信
+            int status = reportDownloadService.send(target, "attachment", request, response);
 
-            logger.info("帳票ダウンロード: userId={}, reportId={}, fileName={}",
-                userId, reportId, fileInfo.getFileName());
-
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(resource);
+            logger.info("帳票ダウンロード: userId={}, reportId={}, fileName={}, status={}",
+                userId, reportId, target.getFileName(), status);
 
         } catch (IllegalArgumentException e) {
             logger.warn("帳票ダウンロードエラー: userId={}, reportId={}, error={}",
                 getUserId(authentication), reportId, e.getMessage());
-            return ResponseEntity.notFound().build();
+            sendErrorStatus(response, HttpStatus.NOT_FOUND);
 
         } catch (IllegalStateException e) {
             logger.warn("帳票状態エラー: userId={}, reportId={}, error={}",
                 getUserId(authentication), reportId, e.getMessage());
-            return ResponseEntity.status(HttpStatus.GONE).build();
+            sendErrorStatus(response, HttpStatus.GONE);
 
         } catch (IOException e) {
             logger.error("帳票ファイル読み取りエラー: userId={}, reportId={}",
                 getUserId(authentication), reportId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            sendErrorStatus(response, HttpStatus.INTERNAL_SERVER_ERROR);
 
         } catch (Exception e) {
             logger.error("帳票ダウンロード予期しないエラー: userId={}, reportId={}",
                 getUserId(authentication), reportId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            sendErrorStatus(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * エラーステータス設定（送信開始後は変更できないため何もしない）
+     */
+    private void sendErrorStatus(HttpServletResponse response, HttpStatus status) {
+        if (!response.isCommitted()) {
+            response.reset();
+            response.setStatus(status.value());
         }
     }
 
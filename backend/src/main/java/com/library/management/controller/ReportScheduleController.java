@@ -1,6 +1,7 @@
 package com.library.management.controller;
 
 import com.library.management.entity.ReportSchedule;
+import com.library.management.service.report.schedule.ReportScheduleDispatcher;
 import com.library.management.service.report.schedule.ReportScheduleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +28,9 @@ public class ReportScheduleController {
     @Autowired
     private ReportScheduleService scheduleService;
 
+    @Autowired
+    private ReportScheduleDispatcher scheduleDispatcher;
+
     /**
      * スケジュール一覧取得
      */
@@ -210,8 +214,10 @@ public class ReportScheduleController {
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("スケジュールが見つかりません"));
 
-            // 非同期実行
-            scheduleService.executeSchedule(schedule);
+            // 実行キューへ投入（同時実行数の制限内で非同期実行）
+            if (!scheduleDispatcher.submit(schedule)) {
+                throw new IllegalArgumentException("スケジュールは実行中です");
+            }
 
             response.put("success", true);
             response.put("message", "スケジュールの実行を開始しました");
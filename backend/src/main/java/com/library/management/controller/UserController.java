@@ -3,6 +3,8 @@ package com.library.management.controller;
 import com.library.management.entity.User;
 import com.library.management.repository.UserRepository;
 import com.library.management.dto.UserUpdateRequest;
+import com.library.management.security.JwtAuthenticationCache;
+import com.library.management.service.report.cache.ReportDataVersionTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -28,6 +30,12 @@ public class UserController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
+    @Autowired
+    private ReportDataVersionTracker reportDataVersionTracker;
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
@@ -103,6 +111,7 @@ public class UserController {
         }
 
         User updatedUser = userRepository.save(user);
+        authenticationCache.evictUser(updatedUser.getUsername());
 
         Map<String, Object> response = new HashMap<>();
         response.put("id", updatedUser.getId());
@@ -138,6 +147,7 @@ public class UserController {
         }
         
         User updatedUser = userRepository.save(user);
+        authenticationCache.evictUser(updatedUser.getUsername());
         
         Map<String, Object> response = new HashMap<>();
         response.put("id", updatedUser.getId());
@@ -160,11 +170,14 @@ public class UserController {
                 .body(Map.of("error", "Cannot delete your own account"));
         }
         
-        if (!userRepository.existsById(id)) {
+        Optional<User> targetUser = userRepository.findById(id);
+        if (!targetUser.isPresent()) {
             return ResponseEntity.notFound().build();
         }
         
         userRepository.deleteById(id);
+        authenticationCache.revokeUser(targetUser.get().getUsername());
+        reportDataVersionTracker.notifyChanged();
         return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
     }
 }
\ No newline at end of file
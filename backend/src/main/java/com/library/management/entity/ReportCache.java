@@ -32,6 +32,9 @@ public class ReportCache {
     @Column
     private Long fileSizeBytes;
 
+    @Column(length = 64)
+    private String contentHash;
+
     @Column
     private Integer recordCount;
 
@@ -56,6 +59,9 @@ public class ReportCache {
     @Column(columnDefinition = "TEXT")
     private String metadata;
 
+    @Column(name = "data_version")
+    private Long dataVersion;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -104,6 +110,12 @@ public class ReportCache {
     public Long getFileSizeBytes() { return fileSizeBytes; }
     public void setFileSizeBytes(Long fileSizeBytes) { this.fileSizeBytes = fileSizeBytes; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public Long getDataVersion() { return dataVersion; }
+    public void setDataVersion(Long dataVersion) { this.dataVersion = dataVersion; }
+
     public Integer getRecordCount() { return recordCount; }
     public void setRecordCount(Integer recordCount) { this.recordCount = recordCount; }
 
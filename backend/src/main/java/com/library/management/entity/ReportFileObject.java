@@ -0,0 +1,70 @@
+package com.library.management.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 帳票ファイル実体（コンテンツアドレス）
+ * 出力内容のSHA-256をキーに実ファイルを1つだけ保持し、参照数を管理する
+ */
+@Entity
+@Table(name = "report_file_objects")
+public class ReportFileObject {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 500)
+    private String objectPath;
+
+    @Column
+    private Long fileSize;
+
+    @Column(nullable = false)
+    private Integer refCount = 0;
+
+    @Column
+    private LocalDateTime unreferencedSince;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public ReportFileObject() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getObjectPath() { return objectPath; }
+    public void setObjectPath(String objectPath) { this.objectPath = objectPath; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public Integer getRefCount() { return refCount; }
+    public void setRefCount(Integer refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getUnreferencedSince() { return unreferencedSince; }
+    public void setUnreferencedSince(LocalDateTime unreferencedSince) { this.unreferencedSince = unreferencedSince; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -28,6 +28,9 @@ public class ReportHistory {
     @Column(name = "file_size")
     private Long fileSize;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "status", length = 20, nullable = false)
     private String status;
 
@@ -75,6 +78,9 @@ public class ReportHistory {
     public Long getFileSize() { return fileSize; }
     public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
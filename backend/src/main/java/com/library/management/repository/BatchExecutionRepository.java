@@ -4,11 +4,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * バッチ実行履歴のリポジトリ
@@ -17,48 +21,100 @@ import java.util.Optional;
 @Repository
 public class BatchExecutionRepository {
 
+    // 実行計画（JSON）の最上位ノードの推定行数
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
     /**
-     * バッチ実行履歴を取得（ページング、フィルタリング対応）
+     * バッチ実行履歴を取得（キーセットページング、フィルタリング対応）
+     *
+     * @param cursor 前ページのカーソル（先頭ページはnull）
+     * @param limit 取得件数（次ページ有無の判定用に1件多く指定する）
      */
     public List<Map<String, Object>> findExecutions(
-            int page, int size, String jobName, String status) {
+            String jobName, String status, KeysetCursor cursor, int limit) {
 
         StringBuilder sql = new StringBuilder("""
-            SELECT job_name, job_execution_id, start_time, end_time, status,
+            SELECT id, job_name, job_execution_id, start_time, end_time, status,
                    exit_code, exit_message, read_count, write_count, execution_time_ms,
                    error_message, created_at
             FROM batch_execution_logs
-            WHERE 1=1
             """);
+        List<Object> params = new ArrayList<>();
+        appendExecutionFilters(sql, params, jobName, status);
+        appendKeyset(sql, params, cursor, limit);
 
-        var params = new java.util.ArrayList<Object>();
+        return jdbcTemplate.queryForList(sql.toString(), params.toArray());
+    }
 
-        if (jobName != null && !jobName.trim().isEmpty()) {
-            sql.append(" AND job_name = ?");
-            params.add(jobName);
-        }
+    /**
+     * 実行履歴の総数を取得
+     */
+    public long countExecutions(String jobName, String status) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM batch_execution_logs");
+        List<Object> params = new ArrayList<>();
+        appendExecutionFilters(sql, params, jobName, status);
 
-        if (status != null && !status.trim().isEmpty()) {
-            sql.append(" AND status = ?");
-            params.add(status);
-        }
+        return jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+    }
+
+    /**
+     * 実行履歴の概算件数を取得（実行計画の推定行数）
+     */
+    public long estimateExecutions(String jobName, String status) {
+        StringBuilder sql = new StringBuilder("SELECT 1 FROM batch_execution_logs");
+        List<Object> params = new ArrayList<>();
+        appendExecutionFilters(sql, params, jobName, status);
 
-        sql.append(" ORDER BY start_time DESC LIMIT ? OFFSET ?");
-        params.add(size);
-        params.add(page * size);
+        return estimateRows(sql.toString(), params);
+    }
+
+    /**
+     * システムログを取得（キーセットページング、ジョブ名・ログレベルで絞り込み）
+     *
+     * @param cursor 前ページのカーソル（先頭ページはnull）
+     * @param limit 取得件数（次ページ有無の判定用に1件多く指定する）
+     */
+    public List<Map<String, Object>> findSystemLogs(
+            String jobName, String level, KeysetCursor cursor, int limit) {
+
+        StringBuilder sql = new StringBuilder("""
+            SELECT id, log_level, job_name, message, user_id, ip_address, created_at
+            FROM system_logs
+            """);
+        List<Object> params = new ArrayList<>();
+        appendSystemLogFilters(sql, params, jobName, level);
+        appendKeyset(sql, params, cursor, limit);
 
         return jdbcTemplate.queryForList(sql.toString(), params.toArray());
     }
 
     /**
-     * 実行履歴の総数を取得
+     * システムログの総数を取得
+     */
+    public long countSystemLogs(String jobName, String level) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM system_logs");
+        List<Object> params = new ArrayList<>();
+        appendSystemLogFilters(sql, params, jobName, level);
+
+        return jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+    }
+
+    /**
+     * システムログの概算件数を取得（実行計画の推定行数）
      */
-    public int countExecutions(String jobName, String status) {
-        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM batch_execution_logs WHERE 1=1");
-        var params = new java.util.ArrayList<Object>();
+    public long estimateSystemLogs(String jobName, String level) {
+        StringBuilder sql = new StringBuilder("SELECT 1 FROM system_logs");
+        List<Object> params = new ArrayList<>();
+        appendSystemLogFilters(sql, params, jobName, level);
+
+        return estimateRows(sql.toString(), params);
+    }
+
+    private void appendExecutionFilters(StringBuilder sql, List<Object> params, String jobName, String status) {
+        sql.append(" WHERE 1=1");
 
         if (jobName != null && !jobName.trim().isEmpty()) {
             sql.append(" AND job_name = ?");
@@ -69,8 +125,40 @@ public class BatchExecutionRepository {
             sql.append(" AND status = ?");
             params.add(status);
         }
+    }
+
+    private void appendSystemLogFilters(StringBuilder sql, List<Object> params, String jobName, String level) {
+        sql.append(" WHERE 1=1");
+
+        if (jobName != null && !jobName.trim().isEmpty()) {
+            sql.append(" AND job_name = ?");
+            params.add(jobName);
+        }
+
+        if (level != null && !level.trim().isEmpty()) {
+            sql.append(" AND log_level = ?");
+            params.add(level);
+        }
+    }
+
+    /**
+     * (created_at, id) の降順で、カーソル位置より後ろの行に絞り込む
+     * 行値比較にすることで (絞り込み列, created_at, id) のインデックスを範囲スキャンでき、深いページでも読み飛ばしが発生しない
+     */
+    private void appendKeyset(StringBuilder sql, List<Object> params, KeysetCursor cursor, int limit) {
+        if (cursor != null) {
+            sql.append(" AND (created_at, id) < (?, ?)");
+            params.add(Timestamp.valueOf(cursor.getCreatedAt()));
+            params.add(cursor.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        params.add(limit);
+    }
 
-        return jdbcTemplate.queryForObject(sql.toString(), params.toArray(), Integer.class);
+    private long estimateRows(String sql, List<Object> params) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, params.toArray());
+        Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
     }
 
     /**
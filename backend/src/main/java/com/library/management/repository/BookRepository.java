@@ -2,6 +2,7 @@ package com.library.management.repository;
 
 import com.library.management.entity.Book;
 import com.library.management.entity.ReadStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -25,6 +26,19 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
     @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.bookAuthors ba LEFT JOIN FETCH ba.author")
     List<Book> findAllWithAuthors();
     
+    /**
+     * ID範囲内のキーセットページ（IDのみ）
+     */
+    @Query("SELECT b.id FROM Book b WHERE b.id > :lastId AND b.id <= :maxId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, @Param("maxId") Long maxId, Pageable pageable);
+
+    /**
+     * 指定IDの書籍を関連込みで取得（ID昇順）
+     */
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.readStatus LEFT JOIN FETCH b.genre " +
+           "LEFT JOIN FETCH b.bookAuthors ba LEFT JOIN FETCH ba.author WHERE b.id IN :ids ORDER BY b.id")
+    List<Book> findAllWithAuthorsByIdIn(@Param("ids") List<Long> ids);
+    
     @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.bookAuthors ba LEFT JOIN FETCH ba.author WHERE b.id = :id")
     Optional<Book> findByIdWithAuthors(@Param("id") Long id);
     
@@ -57,14 +71,23 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
     /**
      * ユーザー別統計取得
      */
-    @Query("SELECT b.userId, u.username, COUNT(b) FROM Book b " +
+    @Query("SELECT b.userId AS userId, u.username AS username, COUNT(b) AS bookCount FROM Book b " +
            "LEFT JOIN User u ON b.userId = u.id " +
            "GROUP BY b.userId, u.username " +
            "ORDER BY COUNT(b) DESC")
-    List<Object[]> findUserStatistics();
+    List<UserBookCount> findUserBookCounts();
 
     /**
      * ユーザー別書籍数をカウント
      */
     long countByUserId(Long userId);
+
+    /**
+     * ユーザー別書籍数の射影
+     */
+    interface UserBookCount {
+        Long getUserId();
+        String getUsername();
+        Long getBookCount();
+    }
 }
\ No newline at end of file
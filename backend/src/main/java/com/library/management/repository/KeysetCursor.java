@@ -0,0 +1,77 @@
+package com.library.management.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * キーセットページングのカーソル
+ * 前ページ末尾の行の (created_at, id) を保持し、次ページは (created_at, id) がそれより小さい行から読む。
+ * API上は不透明な文字列としてやり取りする
+ */
+public class KeysetCursor {
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public KeysetCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public long getId() { return id; }
+
+    /**
+     * 文字列化
+     */
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 文字列からの復元
+     *
+     * @return カーソル（未指定の場合はnull）
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("カーソルの形式が正しくありません: " + cursor, e);
+        }
+    }
+
+    /**
+     * 取得行の末尾から次ページのカーソルを作成
+     *
+     * @param rows created_at, id 列を含む取得行（ページサイズ + 1件まで）
+     * @return カーソル（次ページがない場合はnull）
+     * @throws IllegalStateException created_at が未設定の場合（NOT NULL 制約により通常は発生しない）
+     */
+    public static KeysetCursor next(List<Map<String, Object>> rows, int size) {
+        if (rows.size() <= size) {
+            return null;
+        }
+        Map<String, Object> last = rows.get(size - 1);
+        Object createdAt = last.get("created_at");
+        if (createdAt == null) {
+            // NULLは行値比較で常に除外され、以降のページが返らなくなるため続けない
+            throw new IllegalStateException("created_atが未設定の行はカーソルにできません: id=" + last.get("id"));
+        }
+        LocalDateTime lastCreatedAt = createdAt instanceof java.sql.Timestamp
+            ? ((java.sql.Timestamp) createdAt).toLocalDateTime()
+            : (LocalDateTime) createdAt;
+        return new KeysetCursor(lastCreatedAt, ((Number) last.get("id")).longValue());
+    }
+}
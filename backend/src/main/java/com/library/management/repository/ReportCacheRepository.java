@@ -1,6 +1,7 @@
 package com.library.management.repository;
 
 import com.library.management.entity.ReportCache;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -53,6 +54,9 @@ public interface ReportCacheRepository extends JpaRepository<ReportCache, Long>
     @Query("SELECT AVG(rc.hitCount) FROM ReportCache rc WHERE rc.isValid = true")
     Double getAverageHitCount();
 
+    @Query("SELECT COUNT(rc) FROM ReportCache rc WHERE rc.isValid = true")
+    long countValidCaches();
+
     @Modifying
     @Query("UPDATE ReportCache rc SET rc.isValid = false WHERE rc.id IN :ids")
     void invalidateCaches(@Param("ids") List<Long> ids);
@@ -66,6 +70,15 @@ public interface ReportCacheRepository extends JpaRepository<ReportCache, Long>
            "ORDER BY rc.hitCount DESC, rc.lastAccessTime DESC")
     List<ReportCache> findPopularCaches();
 
+    @Query("SELECT rc FROM ReportCache rc WHERE rc.isValid = true AND rc.cacheStatus = 'COMPLETED' " +
+           "ORDER BY rc.hitCount DESC, rc.lastAccessTime DESC")
+    List<ReportCache> findPopularCaches(Pageable pageable);
+
+    @Query("SELECT rc FROM ReportCache rc WHERE rc.isValid = true AND rc.cacheStatus = 'COMPLETED' " +
+           "AND rc.expiresAt IS NOT NULL AND rc.expiresAt > :currentTime AND rc.expiresAt <= :expiresBefore")
+    List<ReportCache> findExpiringCaches(@Param("currentTime") LocalDateTime currentTime,
+                                         @Param("expiresBefore") LocalDateTime expiresBefore);
+
     @Query("SELECT rc FROM ReportCache rc WHERE rc.reportType = :reportType " +
            "AND rc.isValid = true AND rc.userId = :userId " +
            "ORDER BY rc.createdAt DESC")
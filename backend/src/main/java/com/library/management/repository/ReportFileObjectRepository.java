@@ -0,0 +1,66 @@
+package com.library.management.repository;
+
+import com.library.management.entity.ReportFileObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportFileObjectRepository extends JpaRepository<ReportFileObject, Long> {
+
+    Optional<ReportFileObject> findByContentHash(String contentHash);
+
+    /**
+     * 参照追加（未登録の場合は参照数1で登録）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO report_file_objects (content_hash, object_path, file_size, ref_count, created_at, updated_at) " +
+                   "VALUES (:contentHash, :objectPath, :fileSize, 1, :now, :now) " +
+                   "ON CONFLICT (content_hash) DO UPDATE SET ref_count = report_file_objects.ref_count + 1, " +
+                   "unreferenced_since = NULL, updated_at = :now", nativeQuery = true)
+    int upsertReference(@Param("contentHash") String contentHash,
+                        @Param("objectPath") String objectPath,
+                        @Param("fileSize") Long fileSize,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * 参照追加（登録済みの実体のみ）
+     */
+    @Modifying
+    @Query("UPDATE ReportFileObject o SET o.refCount = o.refCount + 1, o.unreferencedSince = null, " +
+           "o.updatedAt = :now WHERE o.contentHash = :contentHash")
+    int incrementReference(@Param("contentHash") String contentHash, @Param("now") LocalDateTime now);
+
+    /**
+     * 参照解除（参照数が0になった時刻を記録）
+     */
+    @Modifying
+    @Query("UPDATE ReportFileObject o SET o.refCount = o.refCount - 1, " +
+           "o.unreferencedSince = CASE WHEN o.refCount <= 1 THEN :now ELSE o.unreferencedSince END, " +
+           "o.updatedAt = :now WHERE o.contentHash = :contentHash AND o.refCount > 0")
+    int decrementReference(@Param("contentHash") String contentHash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT o FROM ReportFileObject o WHERE o.refCount <= 0 AND o.unreferencedSince < :cutoff " +
+           "ORDER BY o.unreferencedSince")
+    List<ReportFileObject> findUnreferencedObjects(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * 未参照の実体のみ削除（削除判定と参照追加の競合対策）
+     */
+    @Modifying
+    @Query("DELETE FROM ReportFileObject o WHERE o.id = :id AND o.refCount <= 0")
+    int deleteIfUnreferenced(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(SUM(o.fileSize), 0) FROM ReportFileObject o")
+    Long getTotalObjectSize();
+
+    @Query("SELECT COUNT(o) FROM ReportFileObject o WHERE o.refCount > 1")
+    long countSharedObjects();
+}
@@ -2,11 +2,13 @@ package com.library.management.repository;
 
 import com.library.management.entity.ReportSchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,4 +44,50 @@ public interface ReportScheduleRepository extends JpaRepository<ReportSchedule,
            "AND rs.status = 'ACTIVE' AND rs.isActive = true ORDER BY rs.nextRunTime ASC")
     List<ReportSchedule> findSchedulesInTimeRange(@Param("startTime") LocalDateTime startTime,
                                                  @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 実行対象かつ未リース（またはリース期限切れ）のスケジュールIDを行ロック付きで取得（次回実行時刻順）
+     * 他ノードがロック中の行は読み飛ばす
+     */
+    @Query(value = "SELECT id FROM report_schedules WHERE next_run_time <= :currentTime " +
+                   "AND status = 'ACTIVE' AND is_active = true " +
+                   "AND (lease_expires_at IS NULL OR lease_expires_at < :currentTime) " +
+                   "ORDER BY next_run_time ASC LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueScheduleIds(@Param("currentTime") LocalDateTime currentTime, @Param("limit") int limit);
+
+    /**
+     * 実行リース取得
+     */
+    @Modifying
+    @Query("UPDATE ReportSchedule rs SET rs.leaseOwner = :owner, rs.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE rs.id IN :ids")
+    int acquireLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                      @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * 単一スケジュールの実行リース取得（手動実行用、未リース時のみ）
+     */
+    @Modifying
+    @Query("UPDATE ReportSchedule rs SET rs.leaseOwner = :owner, rs.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE rs.id = :id AND (rs.leaseExpiresAt IS NULL OR rs.leaseExpiresAt < :currentTime)")
+    int acquireLease(@Param("id") Long id, @Param("owner") String owner,
+                     @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                     @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * 保持中リースの延長
+     */
+    @Modifying
+    @Query("UPDATE ReportSchedule rs SET rs.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE rs.id IN :ids AND rs.leaseOwner = :owner")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                    @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * 保持中リースの解放
+     */
+    @Modifying
+    @Query("UPDATE ReportSchedule rs SET rs.leaseOwner = null, rs.leaseExpiresAt = null " +
+           "WHERE rs.id IN :ids AND rs.leaseOwner = :owner")
+    int releaseLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
 }
\ No newline at end of file
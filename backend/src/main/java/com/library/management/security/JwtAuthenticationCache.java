@@ -0,0 +1,148 @@
+package com.library.management.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JWT認証キャッシュ
+ * 検証済みトークンとユーザー情報の対応をトークン有効期限まで保持し、リクエストごとの署名検証とDB参照を省略する。
+ * ログアウト時はユーザー単位で失効時刻を記録し、それ以前に発行されたトークンを拒否する。
+ * 失効記録はこのノードのメモリにのみ保持するため、複数ノード構成では他ノードへ反映されず、
+ * 再起動でも失われる（他ノードではキャッシュTTL経過後もトークン有効期限まで受け付ける）
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationCache.class);
+
+    // キーはトークン文字列そのもの（署名部分のみをキーにすると改ざんされたペイロードが一致してしまうため）
+    private final Map<String, CachedAuthentication> entries = new ConcurrentHashMap<>();
+
+    // ユーザー名 → 失効時刻（ミリ秒）
+    private final Map<String, Long> revocations = new ConcurrentHashMap<>();
+
+    @Value("${app.security.jwt-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.jwt-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.security.jwt-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.jwtRefreshExpirationMs:604800000}")
+    private long revocationRetentionMs;
+
+    /**
+     * キャッシュ済み認証情報取得（期限切れ・失効済みの場合はnull）
+     */
+    public UserDetails get(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        CachedAuthentication cached = entries.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt <= System.currentTimeMillis()
+                || isRevoked(cached.userDetails.getUsername(), cached.issuedAt)) {
+            entries.remove(token, cached);
+            return null;
+        }
+        return cached.userDetails;
+    }
+
+    /**
+     * 検証済みトークンの認証情報を登録
+     * 保持期限はトークン有効期限と設定TTLの早い方とする
+     */
+    public void put(String token, UserDetails userDetails, long issuedAt, Date expiration) {
+        if (!enabled || expiration == null) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            purgeExpiredEntries();
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+
+        long expiresAt = Math.min(expiration.getTime(), System.currentTimeMillis() + ttlSeconds * 1000);
+        entries.put(token, new CachedAuthentication(userDetails, issuedAt, expiresAt));
+    }
+
+    /**
+     * ユーザーのキャッシュを破棄（次回リクエストで再構築）
+     * パスワード・メールアドレス等、トークン自体は有効なままでよい変更時に使用
+     */
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        entries.values().removeIf(cached -> username.equals(cached.userDetails.getUsername()));
+    }
+
+    /**
+     * ユーザーの発行済みトークンを失効
+     * ログアウト・ロール変更・ユーザー削除時に使用し、現時点以前に発行されたトークンを拒否する
+     */
+    public void revokeUser(String username) {
+        if (username == null) {
+            return;
+        }
+        revocations.put(username, System.currentTimeMillis());
+        evictUser(username);
+        logger.debug("ユーザーのトークンを失効しました: {}", username);
+    }
+
+    /**
+     * トークンが失効済みかどうか
+     * 失効と同時刻に発行されたトークンも失効済みとする（秒精度の旧形式トークンは失効と同一秒内の発行を拒否する）
+     *
+     * @param issuedAt 発行時刻（エポックミリ秒）
+     */
+    public boolean isRevoked(String username, long issuedAt) {
+        Long revokedAt = revocations.get(username);
+        return revokedAt != null && issuedAt <= revokedAt;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 期限切れエントリと保持期間を過ぎた失効記録の削除（5分毎）
+     */
+    @Scheduled(fixedDelay = 300000)
+    public void purgeExpiredEntries() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(cached -> cached.expiresAt <= now);
+        // リフレッシュトークンの有効期限を過ぎれば失効前のトークンは残っていない
+        revocations.values().removeIf(revokedAt -> revokedAt + revocationRetentionMs <= now);
+    }
+
+    /**
+     * キャッシュエントリクラス
+     */
+    private static class CachedAuthentication {
+        private final UserDetails userDetails;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        CachedAuthentication(UserDetails userDetails, long issuedAt, long expiresAt) {
+            this.userDetails = userDetails;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
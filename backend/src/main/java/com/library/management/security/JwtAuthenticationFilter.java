@@ -1,11 +1,13 @@
 package com.library.management.security;
 
 import com.library.management.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -20,7 +22,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 /**
  * JWT認証フィルター
@@ -35,6 +36,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+    
+    @Value("${app.security.jwt.authorities-from-claims:false}")
+    private boolean authoritiesFromClaims;
+    
     /**
      * JWTトークンによる認証処理を実行
      */
@@ -47,35 +54,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // HTTPリクエストからJWTトークンを抽出
             String jwt = parseJwt(request);
             
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                // トークンからユーザー名を抽出
-                String username = jwtUtil.getUsernameFromJwtToken(jwt);
-                
-                // ユーザー詳細情報を取得
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                // 認証オブジェクトを作成
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(
-                        userDetails, 
-                        null, 
-                        userDetails.getAuthorities()
-                    );
-                
-                // リクエストの詳細情報を設定
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                // Spring Securityコンテキストに認証情報を設定
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (jwt != null) {
+                UserDetails userDetails = resolveUserDetails(jwt);
                 
-                System.out.println("=== JWT Authentication Success ===");
-                System.out.println("User: " + username);
-                System.out.println("Authorities: " + userDetails.getAuthorities());
-                logger.debug("Set Authentication in security context for user: " + username);
+                if (userDetails != null) {
+                    // 認証オブジェクトを作成
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(
+                            userDetails, 
+                            null, 
+                            userDetails.getAuthorities()
+                        );
+                    
+                    // リクエストの詳細情報を設定
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    // Spring Securityコンテキストに認証情報を設定
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Set Authentication in security context for user: " + userDetails.getUsername());
+                    }
+                }
             }
         } catch (Exception e) {
-            System.out.println("=== JWT Authentication Failed ===");
-            System.out.println("Error: " + e.getMessage());
             logger.error("Cannot set user authentication: " + e.getMessage(), e);
             
             // エラー時はコンテキストをクリア
@@ -86,6 +88,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * トークンからユーザー情報を解決
+     * キャッシュ済みのトークンは検証済みのため再解析しない。
+     * 未キャッシュの場合は署名検証後、設定に応じてクレームまたはDBからユーザー情報を構築する
+     * @param jwt JWTトークン
+     * @return ユーザー情報（無効・失効済みトークンの場合null）
+     */
+    private UserDetails resolveUserDetails(String jwt) {
+        UserDetails cached = authenticationCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = jwtUtil.getValidatedClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+        
+        String username = claims.getSubject();
+        long issuedAt = jwtUtil.getIssuedAtMillis(claims);
+        if (authenticationCache.isRevoked(username, issuedAt)) {
+            logger.debug("Rejected revoked token for user: " + username);
+            return null;
+        }
+        
+        UserDetails userDetails = authoritiesFromClaims ? createUserDetailsFromClaims(claims) : null;
+        if (userDetails == null) {
+            // ユーザー詳細情報を取得
+            userDetails = userDetailsService.loadUserByUsername(username);
+        }
+        
+        authenticationCache.put(jwt, userDetails, issuedAt, claims.getExpiration());
+        return userDetails;
+    }
+    
+    /**
+     * 署名済みクレームからユーザー情報を構築（DB参照なし）
+     * ユーザーIDまたはロールを含まない旧形式のトークンはnullを返し、DBから取得させる
+     * @param claims 検証済みクレーム
+     * @return ユーザー情報
+     */
+    private UserDetails createUserDetailsFromClaims(Claims claims) {
+        Object userId = claims.get("userId");
+        Object role = claims.get("role");
+        if (!(userId instanceof Number) || !(role instanceof String)) {
+            return null;
+        }
+        
+        Collection<? extends GrantedAuthority> authorities = Collections.singletonList(
+            new SimpleGrantedAuthority("ROLE_" + ((String) role).toUpperCase()));
+        return new UserPrincipal(((Number) userId).longValue(), claims.getSubject(), null, null, authorities);
+    }
+    
     /**
      * HTTPリクエストのHeaderからJWTトークンを抽出
      * @param request HTTPリクエスト
@@ -3,6 +3,7 @@ package com.library.management.service;
 import com.library.management.entity.Author;
 import com.library.management.repository.AuthorRepository;
 import com.library.management.repository.BookAuthorRepository;
+import com.library.management.service.report.cache.ReportDataVersionTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +20,9 @@ public class AuthorService {
     
     @Autowired
     private BookAuthorRepository bookAuthorRepository;
+
+    @Autowired
+    private ReportDataVersionTracker reportDataVersionTracker;
     
     public List<Author> getAllAuthors() {
         return authorRepository.findAll();
@@ -36,7 +40,9 @@ public class AuthorService {
     }
     
     public Author saveAuthor(Author author) {
-        return authorRepository.save(author);
+        Author savedAuthor = authorRepository.save(author);
+        reportDataVersionTracker.notifyChanged();
+        return savedAuthor;
     }
     
     public Author updateAuthor(Long id, Author authorDetails) {
@@ -44,7 +50,9 @@ public class AuthorService {
         if (optionalAuthor.isPresent()) {
             Author author = optionalAuthor.get();
             author.setName(authorDetails.getName());
-            return authorRepository.save(author);
+            Author savedAuthor = authorRepository.save(author);
+            reportDataVersionTracker.notifyChanged();
+            return savedAuthor;
         }
         throw new RuntimeException("Author not found with id: " + id);
     }
@@ -53,6 +61,7 @@ public class AuthorService {
         if (authorRepository.existsById(id)) {
             bookAuthorRepository.deleteByAuthorId(id);
             authorRepository.deleteById(id);
+            reportDataVersionTracker.notifyChanged();
         } else {
             throw new RuntimeException("Author not found with id: " + id);
         }
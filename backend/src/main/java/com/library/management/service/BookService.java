@@ -13,6 +13,7 @@ import com.library.management.repository.UserRepository;
 import com.library.management.repository.ReadStatusRepository;
 import com.library.management.exception.BookNotFoundException;
 import com.library.management.exception.UserNotFoundException;
+import com.library.management.service.report.cache.ReportDataVersionTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,6 +45,9 @@ public class BookService {
     
     @Autowired
     private GenreService genreService;
+
+    @Autowired
+    private ReportDataVersionTracker reportDataVersionTracker;
     
     public List<Book> getAllBooks() {
         try {
@@ -147,6 +151,7 @@ public class BookService {
         }
         
         Book savedBook = bookRepository.save(book);
+        reportDataVersionTracker.notifyChanged();
         
         if (authorNames != null && !authorNames.isEmpty()) {
             bookAuthorRepository.deleteByBookId(savedBook.getId());
@@ -190,6 +195,7 @@ public class BookService {
         if (bookRepository.existsById(id)) {
             bookAuthorRepository.deleteByBookId(id);
             bookRepository.deleteById(id);
+            reportDataVersionTracker.notifyChanged();
         } else {
             throw new BookNotFoundException("Book not found with id: " + id);
         }
@@ -223,7 +229,9 @@ public class BookService {
             .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
         
         book.setUserId(currentUser.getId());
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        reportDataVersionTracker.notifyChanged();
+        return savedBook;
     }
     
     public Book createBookWithAuthors(Book book, List<String> authorNames, String username) {
@@ -2,6 +2,7 @@ package com.library.management.service;
 
 import com.library.management.entity.Genre;
 import com.library.management.repository.GenreRepository;
+import com.library.management.service.report.cache.ReportDataVersionTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +16,9 @@ public class GenreService {
     
     @Autowired
     private GenreRepository genreRepository;
+
+    @Autowired
+    private ReportDataVersionTracker reportDataVersionTracker;
     
     public List<Genre> getAllGenres() {
         return genreRepository.findAllOrderByName();
@@ -45,7 +49,9 @@ public class GenreService {
         }
         
         existingGenre.setName(genre.getName());
-        return genreRepository.save(existingGenre);
+        Genre savedGenre = genreRepository.save(existingGenre);
+        reportDataVersionTracker.notifyChanged();
+        return savedGenre;
     }
     
     public void deleteGenre(Long id) {
@@ -57,6 +63,7 @@ public class GenreService {
         }
         
         genreRepository.delete(genre);
+        reportDataVersionTracker.notifyChanged();
     }
     
     public List<Genre> searchGenres(String name) {
@@ -2,6 +2,7 @@ package com.library.management.service;
 
 import com.library.management.entity.ReadStatus;
 import com.library.management.repository.ReadStatusRepository;
+import com.library.management.service.report.cache.ReportDataVersionTracker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +16,9 @@ public class ReadStatusService {
     
     @Autowired
     private ReadStatusRepository readStatusRepository;
+
+    @Autowired
+    private ReportDataVersionTracker reportDataVersionTracker;
     
     public List<ReadStatus> getAllReadStatuses() {
         return readStatusRepository.findAll();
@@ -29,11 +33,14 @@ public class ReadStatusService {
     }
     
     public ReadStatus saveReadStatus(ReadStatus readStatus) {
-        return readStatusRepository.save(readStatus);
+        ReadStatus savedStatus = readStatusRepository.save(readStatus);
+        reportDataVersionTracker.notifyChanged();
+        return savedStatus;
     }
     
     public void deleteReadStatus(Long id) {
         readStatusRepository.deleteById(id);
+        reportDataVersionTracker.notifyChanged();
     }
     
     public ReadStatus getDefaultReadStatus() {
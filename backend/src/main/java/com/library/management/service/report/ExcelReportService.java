@@ -4,8 +4,10 @@ import com.library.management.dto.ReportRequest;
 import com.library.management.entity.Book;
 import com.library.management.entity.ReportHistory;
 import com.library.management.service.report.data.ReportDataService;
+import com.library.management.service.report.optimization.ReportOptimizationService;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.*;
 import org.apache.poi.xddf.usermodel.chart.*;
 import org.apache.poi.xddf.usermodel.XDDFColor;
@@ -13,6 +15,7 @@ import org.apache.poi.xddf.usermodel.XDDFShapeProperties;
 import org.apache.poi.xddf.usermodel.XDDFSolidFillProperties;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTPlotArea;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +34,9 @@ public class ExcelReportService extends ReportService {
     @Autowired
     private ReportDataService reportDataService;
 
+    @Autowired
+    private ReportOptimizationService reportOptimizationService;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy年MM月dd日 HH:mm");
     private static final DateTimeFormatter DATE_CELL_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
 
@@ -42,6 +48,22 @@ public class ExcelReportService extends ReportService {
     private static final String DETAILED_SHEET_NAME = "📈 詳細統計";
     private static final String BOOKLIST_SHEET_NAME = "📚 書籍一覧";
 
+    // ストリーミング生成設定
+    private static final int STREAMING_MAX_ROWS_PER_SHEET = 1000000; // xlsxの上限(1,048,576行)より少なめに設定
+    private static final int[] STREAMING_COLUMN_WIDTHS = {8, 40, 25, 20, 12, 12}; // 文字数
+
+    @Value("${app.reports.excel.streaming-threshold:5000}")
+    private int streamingThreshold;
+
+    @Value("${app.reports.excel.streaming-window-size:200}")
+    private int streamingWindowSize;
+
+    @Value("${app.reports.excel.streaming-max-rows:1000000}")
+    private int streamingMaxRows;
+
+    @Value("${app.reports.excel.compress-temp-files:true}")
+    private boolean compressTempFiles;
+
     @Override
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRED)
     protected String doGenerateReport(Long userId, ReportRequest request, ReportHistory history) throws Exception {
@@ -84,8 +106,12 @@ public class ExcelReportService extends ReportService {
      * 個人統計Excelレポート生成
      */
     private void generatePersonalStatisticsExcel(Long userId, ReportRequest request, String filePath) throws Exception {
-        List<Book> books = reportDataService.getFilteredBooks(userId, request);
         ReportDataService.BookStatistics statistics = reportDataService.getBookStatistics(userId, request.getFilters());
+        if (isStreamingRequired(reportDataService.countFilteredBooks(userId, request))) {
+            generateStreamingStatisticsExcel(userId, statistics, request, filePath, "個人統計レポート");
+            return;
+        }
+        List<Book> books = reportDataService.getFilteredBooks(userId, request);
         generateStatisticsExcel(books, statistics, request, filePath, "個人統計レポート");
     }
 
@@ -93,8 +119,12 @@ public class ExcelReportService extends ReportService {
      * 全体統計Excelレポート生成
      */
     private void generateSystemStatisticsExcel(Long userId, ReportRequest request, String filePath) throws Exception {
-        List<Book> books = reportDataService.getFilteredBooks(null, request);
         ReportDataService.BookStatistics statistics = reportDataService.getBookStatistics(null, request.getFilters());
+        if (isStreamingRequired(reportDataService.countFilteredBooks(null, request))) {
+            generateStreamingStatisticsExcel(null, statistics, request, filePath, "全体統計レポート");
+            return;
+        }
+        List<Book> books = reportDataService.getFilteredBooks(null, request);
         generateStatisticsExcel(books, statistics, request, filePath, "全体統計レポート");
     }
 
@@ -102,6 +132,12 @@ public class ExcelReportService extends ReportService {
      * 書籍一覧Excelレポート生成
      */
     private void generateBookListExcel(Long userId, ReportRequest request, String filePath) throws Exception {
+        long totalCount = reportDataService.countFilteredBooks(userId, request);
+        if (isStreamingRequired(totalCount)) {
+            generateStreamingBookListExcel(userId, request, filePath, totalCount);
+            return;
+        }
+
         // データ取得
         List<Book> books = reportDataService.getFilteredBooks(userId, request);
 
@@ -127,7 +163,7 @@ public class ExcelReportService extends ReportService {
             rowIndex = addGenerationDate(sheet, rowIndex, dataStyle);
 
             // サマリー情報
-            rowIndex = addSummaryInfo(sheet, rowIndex, dataStyle, books, request);
+            rowIndex = addSummaryInfo(sheet, rowIndex, dataStyle, books.size());
 
             // フィルター情報
             if (request.getFilters() != null) {
@@ -153,6 +189,152 @@ public class ExcelReportService extends ReportService {
         }
     }
 
+    /**
+     * ストリーミング生成モード判定
+     */
+    private boolean isStreamingRequired(long totalCount) {
+        if (totalCount > streamingThreshold) {
+            logger.info("ストリーミング生成モードを使用: 対象件数={}, 閾値={}", totalCount, streamingThreshold);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * ストリーミング用ワークブック作成
+     * 行ウィンドウを超えた行は（圧縮した）テンポラリファイルへ書き出されるため、メモリ使用量は件数に依存しない。
+     * テンポラリファイルは使用後にdispose()で削除する
+     */
+    private SXSSFWorkbook createStreamingWorkbook(XSSFWorkbook template) {
+        return new SXSSFWorkbook(template, streamingWindowSize, compressTempFiles);
+    }
+
+    /**
+     * 書籍一覧Excelレポート生成（ストリーミング版）
+     */
+    private void generateStreamingBookListExcel(Long userId, ReportRequest request, String filePath,
+                                                long totalCount) throws Exception {
+        SXSSFWorkbook workbook = createStreamingWorkbook(new XSSFWorkbook());
+        try (workbook; FileOutputStream fos = new FileOutputStream(filePath)) {
+
+            // スタイル設定（ワークブック全体で共有）
+            ExcelStyleHelper styleHelper = new ExcelStyleHelper(workbook);
+            Sheet sheet = workbook.createSheet("書籍一覧");
+
+            int rowIndex = 0;
+            rowIndex = addTitle(sheet, rowIndex, styleHelper.getTitleStyle(), "書籍一覧レポート");
+            rowIndex = addGenerationDate(sheet, rowIndex, styleHelper.getDataStyle());
+            // 行は書き出し後に更新できないため、出力件数は上限から先に確定して記載する
+            int rowLimit = reportDataService.getStreamingMaxRows(request, streamingMaxRows);
+            rowIndex = addSummaryInfo(sheet, rowIndex, styleHelper.getDataStyle(), Math.min(totalCount, rowLimit));
+            if (totalCount > rowLimit) {
+                rowIndex = addTruncationInfo(sheet, rowIndex, styleHelper.getDataStyle(), totalCount, rowLimit);
+            }
+            if (request.getFilters() != null) {
+                rowIndex = addFilterInfo(sheet, rowIndex, styleHelper.getDataStyle(), request.getFilters());
+            }
+            rowIndex++;
+
+            // データ行（カーソルから直接書き込み、出力件数の上限はstreamOptimizedDataで同じ値を適用）
+            StreamingBookListWriter writer = new StreamingBookListWriter(workbook, sheet, rowIndex, "書籍一覧", styleHelper);
+            reportOptimizationService.streamOptimizedData(userId, request, streamingMaxRows, writer::write);
+
+            workbook.write(fos);
+
+            logger.info("ストリーミングExcel帳票生成完了: filePath={}, 書籍数={}, シート数={}",
+                       filePath, writer.getBookCount(), writer.getSheetCount());
+        } finally {
+            // close()ではテンポラリファイルが削除されないため明示的に破棄する
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * 統計Excelレポート生成（ストリーミング版）
+     * 集計シート・グラフシートは通常のXSSFで作成し、それをテンプレートとして書籍一覧シートのみストリーミング出力する
+     */
+    private void generateStreamingStatisticsExcel(Long userId, ReportDataService.BookStatistics statistics,
+                                                  ReportRequest request, String filePath, String title) throws Exception {
+        XSSFWorkbook template = new XSSFWorkbook();
+        optimizeWorkbookSettings(template);
+        ExcelStyleHelper styleHelper = new ExcelStyleHelper(template);
+
+        createOptimizedSummarySheet(template, title, statistics, styleHelper);
+        createOptimizedDetailedStatisticsSheet(template, statistics, styleHelper);
+        createOptimizedChartsSheet(template, statistics, styleHelper);
+
+        SXSSFWorkbook workbook = createStreamingWorkbook(template);
+        try (workbook; FileOutputStream fos = new FileOutputStream(filePath)) {
+
+            Sheet sheet = workbook.createSheet(BOOKLIST_SHEET_NAME);
+            int rowIndex = addTitle(sheet, 0, styleHelper.getTitleStyle(), "📚 書籍一覧詳細");
+            rowIndex++;
+
+            StreamingBookListWriter writer = new StreamingBookListWriter(workbook, sheet, rowIndex, BOOKLIST_SHEET_NAME, styleHelper);
+            reportOptimizationService.streamOptimizedData(userId, request, streamingMaxRows, writer::write);
+
+            // シート順をサマリー → 詳細統計 → 書籍一覧 → グラフに揃える
+            workbook.setSheetOrder(CHART_SHEET_NAME, workbook.getNumberOfSheets() - 1);
+            finalizeWorkbook(template);
+
+            workbook.write(fos);
+
+            logger.info("ストリーミング統計Excel生成完了: filePath={}, 書籍数={}, ファイルサイズ={}bytes",
+                       filePath, writer.getBookCount(), new java.io.File(filePath).length());
+        } finally {
+            // close()ではテンポラリファイルが削除されないため明示的に破棄する
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * ストリーミング書籍一覧ライター
+     * 1件ずつ行を追加し、シートの行数上限に達した場合は続きのシートを作成する
+     */
+    private class StreamingBookListWriter {
+        private final Workbook workbook;
+        private final String baseSheetName;
+        private final ExcelStyleHelper styleHelper;
+        private Sheet sheet;
+        private int rowIndex;
+        private int sheetCount = 1;
+        private int bookCount = 0;
+
+        StreamingBookListWriter(Workbook workbook, Sheet sheet, int rowIndex, String baseSheetName,
+                                ExcelStyleHelper styleHelper) {
+            this.workbook = workbook;
+            this.baseSheetName = baseSheetName;
+            this.styleHelper = styleHelper;
+            this.sheet = sheet;
+            // 列幅はウィンドウ外の行を参照できないため固定値で設定
+            setStreamingColumnWidths(sheet);
+            this.rowIndex = addHeader(sheet, rowIndex, styleHelper.getHeaderStyle());
+        }
+
+        void write(Book book) {
+            if (rowIndex >= STREAMING_MAX_ROWS_PER_SHEET) {
+                sheetCount++;
+                sheet = workbook.createSheet(baseSheetName + " (" + sheetCount + ")");
+                setStreamingColumnWidths(sheet);
+                rowIndex = addHeader(sheet, 0, styleHelper.getHeaderStyle());
+            }
+            addDataRow(sheet, rowIndex++, ++bookCount, book, styleHelper.getDataStyle(),
+                       styleHelper.getDateCellStyle(), styleHelper.getCenterStyle());
+        }
+
+        int getBookCount() { return bookCount; }
+        int getSheetCount() { return sheetCount; }
+    }
+
+    /**
+     * ストリーミング用列幅設定
+     */
+    private void setStreamingColumnWidths(Sheet sheet) {
+        for (int i = 0; i < STREAMING_COLUMN_WIDTHS.length; i++) {
+            sheet.setColumnWidth(i, STREAMING_COLUMN_WIDTHS[i] * 256);
+        }
+    }
+
     /**
      * タイトル行追加
      */
@@ -183,16 +365,27 @@ public class ExcelReportService extends ReportService {
     /**
      * サマリー情報追加
      */
-    private int addSummaryInfo(Sheet sheet, int rowIndex, CellStyle dataStyle,
-                              List<Book> books, ReportRequest request) {
+    private int addSummaryInfo(Sheet sheet, int rowIndex, CellStyle dataStyle, long totalCount) {
         Row summaryRow = sheet.createRow(rowIndex++);
         Cell summaryCell = summaryRow.createCell(0);
-        summaryCell.setCellValue("総件数: " + books.size() + "件");
+        summaryCell.setCellValue("総件数: " + totalCount + "件");
         summaryCell.setCellStyle(dataStyle);
 
         return rowIndex;
     }
 
+    /**
+     * 出力件数上限による打ち切りの注記追加
+     */
+    private int addTruncationInfo(Sheet sheet, int rowIndex, CellStyle dataStyle, long totalCount, int rowLimit) {
+        Row noteRow = sheet.createRow(rowIndex++);
+        Cell noteCell = noteRow.createCell(0);
+        noteCell.setCellValue("※ 該当" + totalCount + "件のうち、出力上限により先頭" + rowLimit + "件のみ出力しています");
+        noteCell.setCellStyle(dataStyle);
+
+        return rowIndex;
+    }
+
     /**
      * フィルター情報追加
      */
@@ -266,45 +459,52 @@ public class ExcelReportService extends ReportService {
         }
 
         for (int i = 0; i < books.size(); i++) {
-            Book book = books.get(i);
-            Row dataRow = sheet.createRow(rowIndex++);
-
-            // No.
-            Cell noCell = dataRow.createCell(0);
-            noCell.setCellValue(i + 1);
-            noCell.setCellStyle(centerStyle);
-
-            // タイトル
-            Cell titleCell = dataRow.createCell(1);
-            titleCell.setCellValue(book.getTitle());
-            titleCell.setCellStyle(dataStyle);
-
-            // 著者
-            Cell authorCell = dataRow.createCell(2);
-            authorCell.setCellValue(getAuthorsString(book));
-            authorCell.setCellStyle(dataStyle);
-
-            // 出版社
-            Cell publisherCell = dataRow.createCell(3);
-            publisherCell.setCellValue(book.getPublisher() != null ? book.getPublisher() : "");
-            publisherCell.setCellStyle(dataStyle);
-
-            // 読書状況
-            Cell statusCell = dataRow.createCell(4);
-            statusCell.setCellValue(book.getReadStatus() != null ? book.getReadStatus().getName() : "");
-            statusCell.setCellStyle(centerStyle);
-
-            // 登録日
-            Cell dateCell = dataRow.createCell(5);
-            if (book.getCreatedAt() != null) {
-                dateCell.setCellValue(book.getCreatedAt().format(DATE_CELL_FORMATTER));
-            }
-            dateCell.setCellStyle(dateCellStyle);
+            addDataRow(sheet, rowIndex++, i + 1, books.get(i), dataStyle, dateCellStyle, centerStyle);
         }
 
         return rowIndex;
     }
 
+    /**
+     * データ行1件追加
+     */
+    private void addDataRow(Sheet sheet, int rowIndex, int no, Book book, CellStyle dataStyle,
+                            CellStyle dateCellStyle, CellStyle centerStyle) {
+        Row dataRow = sheet.createRow(rowIndex);
+
+        // No.
+        Cell noCell = dataRow.createCell(0);
+        noCell.setCellValue(no);
+        noCell.setCellStyle(centerStyle);
+
+        // タイトル
+        Cell titleCell = dataRow.createCell(1);
+        titleCell.setCellValue(book.getTitle());
+        titleCell.setCellStyle(dataStyle);
+
+        // 著者
+        Cell authorCell = dataRow.createCell(2);
+        authorCell.setCellValue(getAuthorsString(book));
+        authorCell.setCellStyle(dataStyle);
+
+        // 出版社
+        Cell publisherCell = dataRow.createCell(3);
+        publisherCell.setCellValue(book.getPublisher() != null ? book.getPublisher() : "");
+        publisherCell.setCellStyle(dataStyle);
+
+        // 読書状況
+        Cell statusCell = dataRow.createCell(4);
+        statusCell.setCellValue(book.getReadStatus() != null ? book.getReadStatus().getName() : "");
+        statusCell.setCellStyle(centerStyle);
+
+        // 登録日
+        Cell dateCell = dataRow.createCell(5);
+        if (book.getCreatedAt() != null) {
+            dateCell.setCellValue(book.getCreatedAt().format(DATE_CELL_FORMATTER));
+        }
+        dateCell.setCellStyle(dateCellStyle);
+    }
+
     /**
      * 著者名文字列取得
      */
@@ -2,9 +2,7 @@ package com.library.management.service.report;
 
 import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
-import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.*;
 import com.itextpdf.layout.Document;
@@ -15,7 +13,9 @@ import com.library.management.dto.ReportRequest;
 import com.library.management.entity.Book;
 import com.library.management.entity.ReportHistory;
 import com.library.management.service.report.data.ReportDataService;
+import com.library.management.service.report.optimization.ReportOptimizationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +26,7 @@ import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,8 +45,29 @@ public class PDFReportService extends ReportService {
     @Autowired
     private TemplateEngine templateEngine;
 
-    private static final String FONT_PATH = "fonts/NotoSansCJK-Regular.ttc,0";
+    @Autowired
+    private PdfResourceManager pdfResourceManager;
+
+    @Autowired
+    private ReportOptimizationService reportOptimizationService;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy年MM月dd日 HH:mm");
+    private static final DateTimeFormatter DATE_CELL_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final float[] BOOK_LIST_COLUMN_WIDTHS = {1, 4, 3, 2, 1.5f, 1.5f};
+    private static final float PAGE_MARGIN = 56.7f; // 2cm（テンプレートの@page設定と合わせる）
+
+    // ストリーミング生成設定
+    @Value("${app.reports.pdf.streaming-threshold:5000}")
+    private int streamingThreshold;
+
+    @Value("${app.reports.pdf.streaming-max-rows:1000000}")
+    private int streamingMaxRows;
+
+    @Value("${app.reports.pdf.table-flush-rows:200}")
+    private int tableFlushRows;
+
+    @Value("${app.reports.pdf.html-chunk-rows:100}")
+    private int htmlChunkRows;
 
     @Override
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRED)
@@ -106,6 +128,17 @@ public class PDFReportService extends ReportService {
      * 書籍一覧PDFレポート生成
      */
     private void generateBookListPDF(Long userId, ReportRequest request, String filePath) throws Exception {
+        long totalCount = reportDataService.countFilteredBooks(userId, request);
+        if (totalCount > streamingThreshold) {
+            logger.info("ストリーミング生成モードを使用: 対象件数={}, 閾値={}", totalCount, streamingThreshold);
+            if (useHtmlTemplate(request)) {
+                generateStreamingFromHtmlTemplate(userId, request, filePath, totalCount);
+            } else {
+                generateStreamingDirectPDF(userId, request, filePath, totalCount);
+            }
+            return;
+        }
+
         // データ取得
         List<Book> books = reportDataService.getFilteredBooks(userId, request);
 
@@ -133,23 +166,123 @@ public class PDFReportService extends ReportService {
         // HTMLレンダリング
         String htmlContent = templateEngine.process("reports/book-list", context);
 
-        // PDF変換設定
-        ConverterProperties properties = new ConverterProperties();
-        try {
-            PdfFont font = PdfFontFactory.createFont(FONT_PATH, PdfEncodings.IDENTITY_H);
-            properties.setFontProvider(new com.itextpdf.html2pdf.resolver.font.DefaultFontProvider(true, false, false));
-        } catch (Exception e) {
-            logger.warn("日本語フォントの読み込みに失敗、デフォルトフォントを使用: {}", e.getMessage());
-        }
+        // PDF変換設定（日本語フォント登録済みのFontProviderを借りる）
+        ConverterProperties properties = pdfResourceManager.createConverterProperties();
 
         // PDF生成
         try (FileOutputStream fos = new FileOutputStream(filePath)) {
             HtmlConverter.convertToPdf(htmlContent, fos, properties);
+        } finally {
+            pdfResourceManager.release(properties);
         }
 
         logger.info("HTMLテンプレートからPDF生成完了: {}", filePath);
     }
 
+    /**
+     * HTMLテンプレートからPDF生成（ストリーミング版）
+     * 書籍をhtmlChunkRows件ずつテンプレートに流し込んで要素に変換し、文書へ追加する。
+     * 追加済みのページは順次書き出されるため、メモリ上に保持するのは1分割分のHTMLと要素のみ
+     */
+    private void generateStreamingFromHtmlTemplate(Long userId, ReportRequest request, String filePath,
+                                                   long totalCount) throws Exception {
+        ConverterProperties properties = pdfResourceManager.createConverterProperties();
+        try (PdfWriter writer = new PdfWriter(filePath);
+             PdfDocument pdfDoc = new PdfDocument(writer);
+             Document document = new Document(pdfDoc, PageSize.A4)) {
+
+            setPDFMetadata(pdfDoc);
+            document.setMargins(PAGE_MARGIN, PAGE_MARGIN, PAGE_MARGIN, PAGE_MARGIN);
+            document.setFontProvider(properties.getFontProvider());
+
+            String generatedDate = LocalDateTime.now().format(DATE_FORMATTER);
+            // 先頭の分割でサマリーを出力するため、出力件数は上限から先に確定して記載する
+            int rowLimit = reportDataService.getStreamingMaxRows(request, streamingMaxRows);
+            HtmlChunkWriter chunkWriter = new HtmlChunkWriter(document, properties, request, generatedDate,
+                Math.min(totalCount, rowLimit), totalCount);
+            reportOptimizationService.streamOptimizedData(userId, request, streamingMaxRows, chunkWriter::write);
+            chunkWriter.finish();
+
+            logger.info("ストリーミングHTMLテンプレートPDF生成完了: filePath={}, 書籍数={}, 分割数={}",
+                filePath, chunkWriter.getBookCount(), chunkWriter.getChunkCount());
+        } finally {
+            pdfResourceManager.release(properties);
+        }
+    }
+
+    /**
+     * 書籍一覧の分割レンダリング
+     */
+    private class HtmlChunkWriter {
+        private final Document document;
+        private final ConverterProperties properties;
+        private final ReportRequest request;
+        private final String generatedDate;
+        private final long totalCount;
+        private final long matchedCount;
+        private final List<Book> chunk = new ArrayList<>();
+        private int bookCount;
+        private int chunkCount;
+
+        HtmlChunkWriter(Document document, ConverterProperties properties, ReportRequest request,
+                        String generatedDate, long totalCount, long matchedCount) {
+            this.document = document;
+            this.properties = properties;
+            this.request = request;
+            this.generatedDate = generatedDate;
+            this.totalCount = totalCount;
+            this.matchedCount = matchedCount;
+        }
+
+        void write(Book book) {
+            chunk.add(book);
+            if (chunk.size() >= htmlChunkRows) {
+                render(false);
+            }
+        }
+
+        void finish() {
+            render(true);
+        }
+
+        private void render(boolean last) {
+            Context context = new Context();
+            context.setVariable("books", chunk);
+            context.setVariable("reportTitle", "書籍一覧レポート");
+            context.setVariable("generatedDate", generatedDate);
+            context.setVariable("totalCount", totalCount);
+            if (matchedCount > totalCount) {
+                context.setVariable("matchedCount", matchedCount);
+            }
+            context.setVariable("filters", request.getFilters());
+            context.setVariable("showHeader", chunkCount == 0);
+            context.setVariable("showFooter", last);
+            context.setVariable("rowOffset", bookCount);
+            // 件数集計後に対象の書籍が増減した場合は、実際の出力件数を末尾に記載する
+            if (last && bookCount + chunk.size() != totalCount) {
+                context.setVariable("writtenCount", bookCount + chunk.size());
+            }
+
+            String htmlContent = templateEngine.process("reports/book-list", context);
+            for (IElement element : HtmlConverter.convertToElements(htmlContent, properties)) {
+                if (element instanceof IBlockElement) {
+                    document.add((IBlockElement) element);
+                } else if (element instanceof AreaBreak) {
+                    document.add((AreaBreak) element);
+                } else if (element instanceof Image) {
+                    document.add((Image) element);
+                }
+            }
+
+            bookCount += chunk.size();
+            chunkCount++;
+            chunk.clear();
+        }
+
+        int getBookCount() { return bookCount; }
+        int getChunkCount() { return chunkCount; }
+    }
+
     /**
      * 直接PDF生成（iTextを使用）
      */
@@ -172,7 +305,7 @@ public class PDFReportService extends ReportService {
             addHeader(document, "書籍一覧レポート");
 
             // サマリー情報
-            addSummaryInfo(document, books, request);
+            addSummaryInfo(document, books.size(), request);
 
             // 書籍一覧テーブル
             addBookListTable(document, books);
@@ -184,6 +317,52 @@ public class PDFReportService extends ReportService {
         }
     }
 
+    /**
+     * 直接PDF生成（ストリーミング版）
+     * 大きな表として文書に追加した表へ行を書き足し、tableFlushRows行ごとにページへ書き出すため
+     * 表全体をメモリ上に構築しない
+     */
+    private void generateStreamingDirectPDF(Long userId, ReportRequest request, String filePath,
+                                            long totalCount) throws Exception {
+        try (PdfWriter writer = new PdfWriter(filePath);
+             PdfDocument pdfDoc = new PdfDocument(writer);
+             Document document = new Document(pdfDoc, PageSize.A4)) {
+
+            setPDFMetadata(pdfDoc);
+
+            PdfFont font = getJapaneseFont();
+            if (font != null) {
+                document.setFont(font);
+            }
+
+            addHeader(document, "書籍一覧レポート");
+            // 表より前にサマリーを出力するため、出力件数は上限から先に確定して記載する
+            int rowLimit = reportDataService.getStreamingMaxRows(request, streamingMaxRows);
+            long outputCount = Math.min(totalCount, rowLimit);
+            addSummaryInfo(document, outputCount, totalCount, request);
+
+            Table table = createBookListTable(true);
+            document.add(table);
+
+            int[] rowCount = {0};
+            reportOptimizationService.streamOptimizedData(userId, request, streamingMaxRows, book -> {
+                rowCount[0]++;
+                addBookRow(table, book, rowCount[0]);
+                if (rowCount[0] % tableFlushRows == 0) {
+                    table.flush();
+                }
+            });
+            table.complete();
+
+            if (rowCount[0] != outputCount) {
+                addWrittenCountInfo(document, rowCount[0]);
+            }
+            addFooter(document);
+
+            logger.info("ストリーミング直接PDF生成完了: filePath={}, 書籍数={}", filePath, rowCount[0]);
+        }
+    }
+
     /**
      * PDFメタデータ設定
      */
@@ -198,20 +377,10 @@ public class PDFReportService extends ReportService {
     }
 
     /**
-     * 日本語フォント取得
+     * 日本語フォント取得（読み込み済みのフォントから文書用に作成）
      */
     private PdfFont getJapaneseFont() {
-        try {
-            return PdfFontFactory.createFont(FONT_PATH, PdfEncodings.IDENTITY_H);
-        } catch (Exception e) {
-            logger.warn("日本語フォントの読み込みに失敗、システムフォントを試行");
-            try {
-                return PdfFontFactory.createFont("HeiseiKakuGo-W5", "UniJIS-UCS2-H");
-            } catch (Exception ex) {
-                logger.warn("システムフォントも失敗、デフォルトフォントを使用");
-                return null;
-            }
-        }
+        return pdfResourceManager.createJapaneseFont();
     }
 
     /**
@@ -235,19 +404,46 @@ public class PDFReportService extends ReportService {
     /**
      * サマリー情報追加
      */
-    private void addSummaryInfo(Document document, List<Book> books, ReportRequest request) {
-        Paragraph summary = new Paragraph("総件数: " + books.size() + "件")
+    private void addSummaryInfo(Document document, long totalCount, ReportRequest request) {
+        addSummaryInfo(document, totalCount, totalCount, request);
+    }
+
+    /**
+     * サマリー情報追加（出力上限で打ち切る場合は該当件数を併記）
+     *
+     * @param totalCount   出力件数
+     * @param matchedCount 条件に該当する件数
+     */
+    private void addSummaryInfo(Document document, long totalCount, long matchedCount, ReportRequest request) {
+        Paragraph summary = new Paragraph("総件数: " + totalCount + "件")
             .setFontSize(12)
             .setBold()
             .setMarginBottom(15);
         document.add(summary);
 
+        if (matchedCount > totalCount) {
+            Paragraph note = new Paragraph("※ 該当" + matchedCount + "件のうち、出力上限により先頭" + totalCount + "件のみ出力しています")
+                .setFontSize(10)
+                .setMarginBottom(15);
+            document.add(note);
+        }
+
         // フィルター情報
         if (request.getFilters() != null) {
             addFilterInfo(document, request.getFilters());
         }
     }
 
+    /**
+     * 実際の出力件数追加（件数集計後に対象の書籍が増減し、サマリーの件数と異なる場合）
+     */
+    private void addWrittenCountInfo(Document document, int writtenCount) {
+        Paragraph note = new Paragraph("※ 出力件数: " + writtenCount + "件（件数集計後に対象の書籍が変更されたため、総件数と異なります）")
+            .setFontSize(10)
+            .setMarginTop(10);
+        document.add(note);
+    }
+
     /**
      * フィルター情報追加
      */
@@ -301,38 +497,43 @@ public class PDFReportService extends ReportService {
             return;
         }
 
-        // テーブル作成（列幅指定）
-        float[] columnWidths = {1, 4, 3, 2, 1.5f, 1.5f};
-        Table table = new Table(UnitValue.createPercentArray(columnWidths))
+        Table table = createBookListTable(false);
+
+        // データ行
+        for (int i = 0; i < books.size(); i++) {
+            addBookRow(table, books.get(i), i + 1);
+        }
+
+        document.add(table);
+    }
+
+    /**
+     * 書籍一覧テーブル作成（列幅・ヘッダー行設定済み）
+     *
+     * @param largeTable 文書に追加した後に行を書き足す大きな表として作成する場合true
+     */
+    private Table createBookListTable(boolean largeTable) {
+        Table table = new Table(UnitValue.createPercentArray(BOOK_LIST_COLUMN_WIDTHS), largeTable)
             .setWidth(UnitValue.createPercentValue(100))
             .setMarginBottom(20);
 
-        // ヘッダー行
         String[] headers = {"No.", "タイトル", "著者", "出版社", "読書状況", "登録日"};
         for (String header : headers) {
-            Cell cell = new Cell()
-                .add(new Paragraph(header))
-                .setBackgroundColor(com.itextpdf.kernel.colors.ColorConstants.LIGHT_GRAY)
-                .setBold()
-                .setTextAlignment(TextAlignment.CENTER)
-                .setPadding(5);
-            table.addHeaderCell(cell);
-        }
-
-        // データ行
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy/MM/dd");
-        for (int i = 0; i < books.size(); i++) {
-            Book book = books.get(i);
-
-            table.addCell(createCell(String.valueOf(i + 1), TextAlignment.CENTER));
-            table.addCell(createCell(book.getTitle(), TextAlignment.LEFT));
-            table.addCell(createCell(getAuthorsString(book), TextAlignment.LEFT));
-            table.addCell(createCell(book.getPublisher() != null ? book.getPublisher() : "", TextAlignment.LEFT));
-            table.addCell(createCell(book.getReadStatus() != null ? book.getReadStatus().getName() : "", TextAlignment.CENTER));
-            table.addCell(createCell(book.getCreatedAt() != null ? book.getCreatedAt().format(dateFormatter) : "", TextAlignment.CENTER));
+            table.addHeaderCell(createHeaderCell(header));
         }
+        return table;
+    }
 
-        document.add(table);
+    /**
+     * 書籍一覧テーブルの行追加
+     */
+    private void addBookRow(Table table, Book book, int rowNumber) {
+        table.addCell(createCell(String.valueOf(rowNumber), TextAlignment.CENTER));
+        table.addCell(createCell(book.getTitle(), TextAlignment.LEFT));
+        table.addCell(createCell(getAuthorsString(book), TextAlignment.LEFT));
+        table.addCell(createCell(book.getPublisher() != null ? book.getPublisher() : "", TextAlignment.LEFT));
+        table.addCell(createCell(book.getReadStatus() != null ? book.getReadStatus().getName() : "", TextAlignment.CENTER));
+        table.addCell(createCell(book.getCreatedAt() != null ? book.getCreatedAt().format(DATE_CELL_FORMATTER) : "", TextAlignment.CENTER));
     }
 
     /**
@@ -0,0 +1,187 @@
+package com.library.management.service.report;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.layout.font.FontProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PDF生成リソース管理
+ * 日本語フォントのFontProgramを一度だけ読み込んで保持し、文書ごとのPdfFontはそこから作成する。
+ * HTML変換用のFontProviderは読み込み済みフォントを登録した状態でプールして再利用し、
+ * テンプレートは起動時に一度処理してThymeleafのキャッシュに載せておく
+ */
+@Component
+public class PdfResourceManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfResourceManager.class);
+
+    private static final String FALLBACK_FONT = "HeiseiKakuGo-W5";
+    private static final String FALLBACK_ENCODING = "UniJIS-UCS2-H";
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Value("${app.reports.pdf.font-path:fonts/NotoSansCJK-Regular.ttc,0}")
+    private String fontPath;
+
+    @Value("${app.reports.pdf.font-provider-pool-size:8}")
+    private int fontProviderPoolSize;
+
+    @Value("${app.reports.pdf.warm-up-templates:reports/book-list}")
+    private List<String> warmUpTemplates;
+
+    // 読み込み済みフォント（読み込み失敗時もnullのFontResourceを保持し、再読み込みしない）
+    private volatile FontResource fontResource;
+
+    // 貸出可能なFontProvider（FontProviderは文書単位のPdfFontを保持するため同時に共有しない）
+    private final ConcurrentLinkedQueue<FontProvider> fontProviders = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleFontProviders = new AtomicInteger();
+
+    /**
+     * 起動時にフォント読み込みとテンプレートの解析を済ませる
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        getFontResource();
+        releaseFontProvider(acquireFontProvider());
+
+        int templates = 0;
+        for (String template : warmUpTemplates) {
+            try {
+                templateEngine.process(template, new Context());
+                templates++;
+            } catch (Exception e) {
+                logger.warn("帳票テンプレートの事前読み込みに失敗しました: template={}", template, e);
+            }
+        }
+        logger.info("PDF生成リソース読み込み完了: font={}, templates={}, time={}ms",
+            fontResource.getName(), templates, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 文書用の日本語フォント作成（読み込み済みのFontProgramから作成するため解析は行わない）
+     *
+     * @return フォント（日本語フォントが利用できない場合はnull）
+     */
+    public PdfFont createJapaneseFont() {
+        FontResource resource = getFontResource();
+        if (resource.getProgram() == null) {
+            return null;
+        }
+        return PdfFontFactory.createFont(resource.getProgram(), resource.getEncoding());
+    }
+
+    /**
+     * HTML変換設定作成
+     * 設定に含まれるFontProviderはプールから貸し出したもので、変換後にreleaseで返却する
+     */
+    public ConverterProperties createConverterProperties() {
+        ConverterProperties properties = new ConverterProperties();
+        properties.setFontProvider(acquireFontProvider());
+        return properties;
+    }
+
+    /**
+     * HTML変換設定のFontProviderを返却
+     */
+    public void release(ConverterProperties properties) {
+        if (properties != null) {
+            releaseFontProvider(properties.getFontProvider());
+        }
+    }
+
+    private FontProvider acquireFontProvider() {
+        FontProvider provider = fontProviders.poll();
+        if (provider != null) {
+            idleFontProviders.decrementAndGet();
+            return provider;
+        }
+
+        // システムフォントは走査せず、標準フォントと読み込み済みの日本語フォントのみ登録する
+        provider = new DefaultFontProvider(true, false, false);
+        FontResource resource = getFontResource();
+        if (resource.getProgram() != null) {
+            provider.addFont(resource.getProgram(), resource.getEncoding());
+        }
+        return provider;
+    }
+
+    private void releaseFontProvider(FontProvider provider) {
+        if (provider == null) {
+            return;
+        }
+        // 前の文書に紐づいたPdfFontを破棄してから返却
+        provider.reset();
+        if (idleFontProviders.incrementAndGet() <= fontProviderPoolSize) {
+            fontProviders.offer(provider);
+        } else {
+            idleFontProviders.decrementAndGet();
+        }
+    }
+
+    private FontResource getFontResource() {
+        FontResource resource = fontResource;
+        if (resource == null) {
+            synchronized (this) {
+                resource = fontResource;
+                if (resource == null) {
+                    resource = loadFont();
+                    fontResource = resource;
+                }
+            }
+        }
+        return resource;
+    }
+
+    private FontResource loadFont() {
+        try {
+            return new FontResource(fontPath, FontProgramFactory.createFont(fontPath), PdfEncodings.IDENTITY_H);
+        } catch (Exception e) {
+            logger.warn("日本語フォントの読み込みに失敗、システムフォントを試行: path={}", fontPath);
+        }
+        try {
+            return new FontResource(FALLBACK_FONT, FontProgramFactory.createFont(FALLBACK_FONT), FALLBACK_ENCODING);
+        } catch (Exception e) {
+            logger.warn("システムフォントも失敗、デフォルトフォントを使用");
+            return new FontResource("default", null, null);
+        }
+    }
+
+    /**
+     * 読み込み済みフォントクラス
+     */
+    private static class FontResource {
+        private final String name;
+        private final FontProgram program;
+        private final String encoding;
+
+        FontResource(String name, FontProgram program, String encoding) {
+            this.name = name;
+            this.program = program;
+            this.encoding = encoding;
+        }
+
+        String getName() { return name; }
+        FontProgram getProgram() { return program; }
+        String getEncoding() { return encoding; }
+    }
+}
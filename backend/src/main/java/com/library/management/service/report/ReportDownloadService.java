@@ -0,0 +1,248 @@
+package com.library.management.service.report;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 帳票ファイル送信サービス
+ * 条件付きGET（ETag/Last-Modified）とRange要求に対応し、ファイル内容をヒープに載せずに送信する
+ */
+@Service
+public class ReportDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportDownloadService.class);
+
+    // Tomcatのsendfile連携用リクエスト属性
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL_VALUE = "private, no-cache";
+
+    @Value("${app.reports.download.sendfile-enabled:true}")
+    private boolean sendfileEnabled;
+
+    /**
+     * 帳票ファイル送信
+     *
+     * @param dispositionType attachment または inline
+     * @return 送信したHTTPステータス
+     */
+    public int send(ReportFileService.DownloadTarget target, String dispositionType,
+                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long fileSize = target.getFileSize();
+
+        response.setHeader(HttpHeaders.ETAG, target.getETag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, target.getLastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_VALUE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // 条件付きGET
+        if (isNotModified(target, request)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return HttpServletResponse.SC_NOT_MODIFIED;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            dispositionType + "; filename=\"" + target.getFileName() + "\"");
+        response.setContentType(target.getContentType());
+
+        // Range要求
+        long start = 0;
+        long length = fileSize;
+        int status = HttpServletResponse.SC_OK;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && isRangeApplicable(target, request)) {
+            long[] range = parseRange(rangeHeader, fileSize);
+            if (range == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+            }
+            if (range.length == 2) {
+                start = range[0];
+                length = range[1] - range[0] + 1;
+                status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range[0] + "-" + range[1] + "/" + fileSize);
+            }
+        }
+
+        response.setStatus(status);
+        response.setContentLengthLong(length);
+
+        if (!"HEAD".equalsIgnoreCase(request.getMethod())) {
+            transfer(target.getPath(), start, length, request, response);
+        }
+        return status;
+    }
+
+    /**
+     * 条件付きGET判定（If-None-MatchがあればIf-Modified-Sinceより優先）
+     */
+    private boolean isNotModified(ReportFileService.DownloadTarget target, HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesETag(ifNoneMatch, target.getETag());
+        }
+
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP日付は秒精度のため比較前に丸める
+        return ifModifiedSince >= 0 && target.getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * If-Range判定（一致しない場合は全体を返す）
+     */
+    private boolean isRangeApplicable(ReportFileService.DownloadTarget target, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Range要求には強いETagのみ使用可能
+            return !target.getETag().startsWith("W/") && ifRange.trim().equals(target.getETag());
+        }
+        long ifRangeDate = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return ifRangeDate >= 0 && target.getLastModified() / 1000 <= ifRangeDate / 1000;
+    }
+
+    /**
+     * If-None-Matchとの照合（弱い比較）
+     */
+    private boolean matchesETag(String ifNoneMatch, String eTag) {
+        String normalizedETag = stripWeakPrefix(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if ("*".equals(value) || stripWeakPrefix(value).equals(normalizedETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String stripWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * Rangeヘッダー解析
+     * 単一範囲のみ対応し、複数範囲や不正な形式（bytes=5-3 等）の場合はヘッダーを無視して全体送信（空配列）とする。
+     * 416は形式が正しくファイルの範囲外の指定に限る（RFC 7233）
+     *
+     * @return {開始, 終了}、全体送信の場合は空配列、範囲外の場合はnull
+     */
+    private long[] parseRange(String rangeHeader, long fileSize) {
+        if (!rangeHeader.startsWith("bytes=") || rangeHeader.indexOf(',') >= 0) {
+            return new long[0];
+        }
+
+        String spec = rangeHeader.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+
+        try {
+            String startPart = spec.substring(0, dash).trim();
+            String endPart = spec.substring(dash + 1).trim();
+
+            boolean wellFormed = startPart.isEmpty()
+                ? isDigits(endPart)
+                : isDigits(startPart) && (endPart.isEmpty() || isDigits(endPart));
+            if (!wellFormed) {
+                return new long[0];
+            }
+
+            long start;
+            long end;
+            if (startPart.isEmpty()) {
+                // 末尾からのバイト数指定（bytes=-500）
+                long suffixLength = Long.parseLong(endPart);
+                if (suffixLength == 0) {
+                    return null;
+                }
+                start = Math.max(0, fileSize - suffixLength);
+                end = fileSize - 1;
+            } else {
+                start = Long.parseLong(startPart);
+                end = endPart.isEmpty() ? Long.MAX_VALUE : Long.parseLong(endPart);
+                if (end < start) {
+                    // 終了位置が開始位置より前の指定は不正な形式のためRangeヘッダーを無視する
+                    return new long[0];
+                }
+                end = Math.min(end, fileSize - 1);
+            }
+
+            // 形式は正しいがファイルの範囲外（416）
+            if (start >= fileSize) {
+                return null;
+            }
+            return new long[] { start, end };
+
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private boolean isDigits(String value) {
+        return !value.isEmpty() && value.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+    /**
+     * ファイル送信
+     * Tomcatのsendfileが使える場合はコンテナに委譲し、それ以外はFileChannel.transferToで送信する
+     */
+    private void transfer(Path file, long start, long length,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+
+        if (sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            if (remaining > 0) {
+                logger.warn("帳票ファイル送信が途中で終了しました: file={}, remaining={}", file, remaining);
+            }
+        }
+    }
+
+    private long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +33,12 @@ public class ReportFileService {
     @Autowired
     private ReportHistoryRepository reportHistoryRepository;
 
+    @Autowired
+    private ReportFileStore reportFileStore;
+
+    @Autowired
+    private ReportWriteJournal reportWriteJournal;
+
     @Value("${app.reports.storage-path:./reports}")
     private String reportsStoragePath;
 
@@ -41,21 +48,65 @@ public class ReportFileService {
     @Value("${app.reports.max-file-size:104857600}") // 100MB
     private long maxFileSize;
 
+    @Value("${app.reports.cleanup.enabled:true}")
+    private boolean cleanupEnabled;
+
     /**
      * 帳票ファイル取得
      */
     public Resource getReportFile(Long userId, Long reportId) throws IOException {
-        // レポート履歴確認
+        return new UrlResource(resolveReportFile(getDownloadableReport(userId, reportId)).toUri());
+    }
+
+    /**
+     * ダウンロード対象ファイル情報取得（条件付きGET・Range対応用）
+     */
+    public DownloadTarget getDownloadTarget(Long userId, Long reportId) throws IOException {
+        ReportHistory report = getDownloadableReport(userId, reportId);
+        Path file = resolveReportFile(report);
+
+        DownloadTarget target = new DownloadTarget();
+        target.setPath(file);
+        target.setFileName(file.getFileName().toString());
+        target.setContentType(getMimeType(getFileExtension(target.getFileName())));
+        target.setFileSize(Files.size(file));
+        target.setLastModified(Files.getLastModifiedTime(file).toMillis());
+
+        // ファイルストアのハッシュを強いETagとし、未登録ファイルはサイズと更新日時から弱いETagを作成
+        if (report.getContentHash() != null) {
+            target.setETag("\"" + report.getContentHash() + "\"");
+        } else {
+            target.setETag("W/\"" + Long.toHexString(target.getFileSize()) + "-"
+                + Long.toHexString(target.getLastModified()) + "\"");
+        }
+
+        return target;
+    }
+
+    /**
+     * ダウンロード可能な帳票履歴取得
+     */
+    private ReportHistory getDownloadableReport(Long userId, Long reportId) {
+        // レポート履歴確認（生成直後で未反映の場合は先に反映）
+        if (reportWriteJournal.isHistoryPending(reportId)) {
+            reportWriteJournal.flush();
+        }
         Optional<ReportHistory> reportOpt = reportHistoryRepository.findByIdAndUserId(reportId, userId);
         if (reportOpt.isEmpty()) {
             throw new IllegalArgumentException("指定されたレポートが見つかりません");
         }
 
         ReportHistory report = reportOpt.get();
-        if (!"COMPLETED".equals(report.getStatus())) {
+        if (!"COMPLETED".equals(report.getStatus()) && !"CACHED".equals(report.getStatus())) {
             throw new IllegalStateException("レポートが生成中または失敗しています");
         }
+        return report;
+    }
 
+    /**
+     * 帳票ファイルパス解決（存在・期限確認）
+     */
+    private Path resolveReportFile(ReportHistory report) throws IOException {
         // ファイル存在確認
         String filePath = report.getFilePath();
         if (filePath == null || filePath.trim().isEmpty()) {
@@ -74,7 +125,7 @@ public class ReportFileService {
             throw new IllegalStateException("ファイルの有効期限が切れています");
         }
 
-        return new UrlResource(file.toUri());
+        return file;
     }
 
     /**
@@ -166,24 +217,27 @@ public class ReportFileService {
      */
     @Scheduled(cron = "0 0 2 * * ?")
     public void cleanupExpiredFiles() {
+        if (!cleanupEnabled) {
+            return;
+        }
         logger.info("期限切れファイルのクリーンアップを開始します");
 
         int deletedCount = 0;
         int errorCount = 0;
 
         try {
-            // 期限切れレポート取得
-            List<ReportHistory> expiredReports = reportHistoryRepository
-                .findByExpiresAtBeforeAndStatus(LocalDateTime.now(), "COMPLETED");
+            // 期限切れレポート取得（キャッシュ利用分はファイルストア登録済みのもののみファイルを持つ）
+            List<ReportHistory> expiredReports = new ArrayList<>(reportHistoryRepository
+                .findByExpiresAtBeforeAndStatus(LocalDateTime.now(), "COMPLETED"));
+            expiredReports.addAll(reportHistoryRepository
+                .findByExpiresAtBeforeAndStatus(LocalDateTime.now(), "CACHED"));
 
             for (ReportHistory report : expiredReports) {
                 try {
-                    // ファイル削除
-                    if (report.getFilePath() != null) {
-                        File file = new File(report.getFilePath());
-                        if (file.exists() && file.delete()) {
-                            logger.debug("ファイル削除成功: {}", report.getFilePath());
-                        }
+                    // ファイル削除（共有実体の場合は参照解除のみ）
+                    if ("COMPLETED".equals(report.getStatus()) || report.getContentHash() != null) {
+                        reportFileStore.release(report.getContentHash(), report.getFilePath());
+                        logger.debug("ファイル削除成功: {}", report.getFilePath());
                     }
 
                     // 履歴削除
@@ -205,42 +259,18 @@ public class ReportFileService {
     }
 
     /**
-     * 孤立ファイルのクリーンアップ（毎週日曜日午前3時実行）
+     * 参照されなくなったファイル実体のクリーンアップ（毎時30分実行）
+     * ファイルストアの参照数が0の実体のみを対象とし、ディレクトリ全体は走査しない
      */
-    @Scheduled(cron = "0 0 3 * * SUN")
+    @Scheduled(cron = "0 30 * * * ?")
     public void cleanupOrphanedFiles() {
+        if (!cleanupEnabled) {
+            return;
+        }
         logger.info("孤立ファイルのクリーンアップを開始します");
 
         try {
-            Path reportDir = Paths.get(reportsStoragePath);
-            if (!Files.exists(reportDir)) {
-                return;
-            }
-
-            // DBに登録されているファイルパス一覧取得
-            List<ReportHistory> allReports = reportHistoryRepository.findAll();
-            java.util.Set<String> registeredFiles = allReports.stream()
-                .map(ReportHistory::getFilePath)
-                .filter(path -> path != null && !path.trim().isEmpty())
-                .collect(java.util.stream.Collectors.toSet());
-
-            int deletedCount = 0;
-
-            // ディレクトリ内のファイルをチェック
-            Files.walk(reportDir)
-                .filter(Files::isRegularFile)
-                .forEach(filePath -> {
-                    String pathStr = filePath.toString();
-                    if (!registeredFiles.contains(pathStr)) {
-                        try {
-                            Files.delete(filePath);
-                            logger.debug("孤立ファイル削除: {}", pathStr);
-                        } catch (IOException e) {
-                            logger.warn("孤立ファイル削除失敗: {}", pathStr, e);
-                        }
-                    }
-                });
-
+            int deletedCount = reportFileStore.purgeUnreferencedObjects();
             logger.info("孤立ファイルのクリーンアップ完了: 削除数={}", deletedCount);
 
         } catch (Exception e) {
@@ -281,6 +311,36 @@ public class ReportFileService {
         }
     }
 
+    /**
+     * ダウンロード対象ファイル情報クラス
+     */
+    public static class DownloadTarget {
+        private Path path;
+        private String fileName;
+        private String contentType;
+        private long fileSize;
+        private long lastModified;
+        private String eTag;
+
+        public Path getPath() { return path; }
+        public void setPath(Path path) { this.path = path; }
+
+        public String getFileName() { return fileName; }
+        public void setFileName(String fileName) { this.fileName = fileName; }
+
+        public String getContentType() { return contentType; }
+        public void setContentType(String contentType) { this.contentType = contentType; }
+
+        public long getFileSize() { return fileSize; }
+        public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+        public long getLastModified() { return lastModified; }
+        public void setLastModified(long lastModified) { this.lastModified = lastModified; }
+
+        public String getETag() { return eTag; }
+        public void setETag(String eTag) { this.eTag = eTag; }
+    }
+
     /**
      * ファイル情報クラス
      */
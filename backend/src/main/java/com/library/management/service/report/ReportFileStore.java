@@ -0,0 +1,288 @@
+package com.library.management.service.report;
+
+import com.library.management.entity.ReportFileObject;
+import com.library.management.repository.ReportFileObjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 帳票ファイルストア
+ * 出力内容のSHA-256で実体ファイルを一元管理し、履歴・キャッシュのファイルはその実体へのハードリンクとする。
+ * 参照数が0になった実体のみを回収するため、クリーンアップでディレクトリ全体を走査しない
+ */
+@Service
+public class ReportFileStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportFileStore.class);
+
+    private static final String OBJECTS_DIRECTORY = "objects";
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ReportFileObjectRepository fileObjectRepository;
+
+    @Value("${app.reports.storage-path:./reports}")
+    private String reportsStoragePath;
+
+    @Value("${app.reports.object-store.enabled:true}")
+    private boolean objectStoreEnabled;
+
+    @Value("${app.reports.object-store.unreferenced-grace-minutes:60}")
+    private int unreferencedGraceMinutes;
+
+    @Value("${app.reports.object-store.purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    /**
+     * 生成済みファイルを登録
+     * 実体ファイルをディスクへ確定させてから参照を登録する。参照の登録は呼び出し元（履歴レコードを更新する
+     * トランザクション）に参加するため、履歴がロールバックされた場合は参照数も戻る。
+     * 同一内容の実体が既にある場合、生成ファイルは実体へのハードリンクに置き換える
+     *
+     * @return コンテンツハッシュ（登録しなかった場合はnull）
+     */
+    @Transactional
+    public String store(String filePath) {
+        if (!objectStoreEnabled || filePath == null) {
+            return null;
+        }
+
+        String contentHash = null;
+        boolean referenced = false;
+        try {
+            Path source = Paths.get(filePath);
+            contentHash = computeHash(source);
+            Path objectPath = resolveObjectPath(contentHash);
+
+            boolean shared = Files.exists(objectPath);
+            if (!shared) {
+                createObject(objectPath, source);
+            }
+
+            fileObjectRepository.upsertReference(contentHash, objectPath.toString(),
+                Files.size(source), LocalDateTime.now());
+            referenced = true;
+
+            // 参照登録前に回収処理が実体を削除していた場合は作り直す（登録後は参照数が1以上のため削除されない）
+            if (!Files.exists(objectPath)) {
+                createObject(objectPath, source);
+                shared = false;
+            }
+
+            if (shared) {
+                replaceWithLink(source, objectPath);
+                logger.debug("既存の帳票ファイル実体を共有: hash={}, path={}", contentHash, filePath);
+            } else {
+                logger.debug("帳票ファイル実体を登録: hash={}, path={}", contentHash, objectPath);
+            }
+
+            return contentHash;
+
+        } catch (Exception e) {
+            logger.warn("帳票ファイルの登録に失敗しました: path={}, error={}", filePath, e.getMessage());
+            if (referenced) {
+                // 呼び出し元にはハッシュを返さないため、加算した参照を戻す
+                fileObjectRepository.decrementReference(contentHash, LocalDateTime.now());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 登録済み実体への新しいリンクを作成し参照数を加算
+     *
+     * @return 作成できた場合true
+     */
+    @Transactional
+    public boolean link(String contentHash, String linkPath) {
+        if (!objectStoreEnabled || contentHash == null || linkPath == null) {
+            return false;
+        }
+
+        Path objectPath = resolveObjectPath(contentHash);
+        if (!Files.exists(objectPath)) {
+            return false;
+        }
+
+        if (fileObjectRepository.incrementReference(contentHash, LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        try {
+            Path link = Paths.get(linkPath);
+            Files.createDirectories(link.toAbsolutePath().getParent());
+            createLinkOrCopy(link, objectPath);
+            return true;
+        } catch (Exception e) {
+            logger.warn("帳票ファイルのリンク作成に失敗しました: hash={}, path={}, error={}",
+                contentHash, linkPath, e.getMessage());
+            fileObjectRepository.decrementReference(contentHash, LocalDateTime.now());
+            return false;
+        }
+    }
+
+    /**
+     * リンクを削除し参照数を減算
+     * ハッシュ未登録（ファイルストア導入前）のファイルは従来どおり削除のみ行う
+     */
+    @Transactional
+    public void release(String contentHash, String linkPath) {
+        if (linkPath != null) {
+            try {
+                Files.deleteIfExists(Paths.get(linkPath));
+            } catch (IOException e) {
+                logger.warn("帳票ファイル削除失敗: {}", linkPath, e);
+            }
+        }
+
+        if (contentHash != null) {
+            fileObjectRepository.decrementReference(contentHash, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 参照されなくなった実体の回収
+     * 参照数0の行のみを対象とするため、処理量は回収対象の件数に比例する
+     *
+     * @return 削除件数
+     */
+    @Transactional
+    public int purgeUnreferencedObjects() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(unreferencedGraceMinutes);
+        List<ReportFileObject> candidates = fileObjectRepository.findUnreferencedObjects(
+            cutoff, PageRequest.of(0, purgeBatchSize));
+
+        int deletedCount = 0;
+        for (ReportFileObject object : candidates) {
+            // 判定後に参照が追加された実体は削除しない
+            if (fileObjectRepository.deleteIfUnreferenced(object.getId()) == 0) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(Paths.get(object.getObjectPath()));
+                deletedCount++;
+            } catch (IOException e) {
+                logger.warn("帳票ファイル実体の削除失敗: {}", object.getObjectPath(), e);
+            }
+        }
+
+        return deletedCount;
+    }
+
+    /**
+     * 実体ファイルの合計サイズ
+     */
+    public long getTotalStoredBytes() {
+        Long total = fileObjectRepository.getTotalObjectSize();
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * 実体ファイルパス（ハッシュ先頭4文字で2階層に分散）
+     */
+    private Path resolveObjectPath(String contentHash) {
+        return Paths.get(reportsStoragePath, OBJECTS_DIRECTORY,
+            contentHash.substring(0, 2), contentHash.substring(2, 4), contentHash);
+    }
+
+    /**
+     * ファイル内容のSHA-256計算
+     */
+    private String computeHash(Path file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 既存ファイルを実体へのハードリンクに置き換え
+     * ハードリンク非対応の場合は内容が同一のためそのまま残す
+     */
+    private void replaceWithLink(Path file, Path objectPath) throws IOException {
+        Path tempLink = file.resolveSibling(file.getFileName() + ".link");
+        try {
+            Files.createLink(tempLink, objectPath);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.deleteIfExists(tempLink);
+            logger.debug("ハードリンク作成不可のため複製を保持: {}", file);
+            return;
+        }
+        Files.move(tempLink, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 実体ファイル作成
+     * 生成ファイルの内容をディスクへ同期してから実体としてリンクする。ハードリンク非対応の場合は
+     * 一時ファイルへ複製・同期してから移動するため、実体のパスに書きかけの内容が現れることはない
+     */
+    private void createObject(Path objectPath, Path source) throws IOException {
+        Files.createDirectories(objectPath.getParent());
+        force(source);
+        try {
+            Files.createLink(objectPath, source);
+            return;
+        } catch (FileAlreadyExistsException e) {
+            // 同一内容の同時登録
+            return;
+        } catch (UnsupportedOperationException | IOException e) {
+            logger.debug("ハードリンク作成不可のため実体を複製: {}", objectPath);
+        }
+
+        Path tempPath = objectPath.resolveSibling(objectPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.copy(source, tempPath);
+            force(tempPath);
+            Files.move(tempPath, objectPath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * ファイル内容のディスク同期
+     */
+    private void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * ハードリンク作成（非対応の場合は複製）
+     */
+    private void createLinkOrCopy(Path link, Path existing) throws IOException {
+        try {
+            Files.createLink(link, existing);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(existing, link);
+        }
+    }
+}
@@ -42,6 +42,12 @@ public abstract class ReportService {
     @Autowired
     protected ReportCacheService reportCacheService;
 
+    @Autowired
+    protected ReportFileStore reportFileStore;
+
+    @Autowired
+    protected ReportWriteJournal reportWriteJournal;
+
     @Autowired
     protected ObjectMapper objectMapper;
 
@@ -65,6 +71,7 @@ public abstract class ReportService {
     public ReportGenerationResult generateReport(Long userId, ReportRequest request, jakarta.servlet.http.HttpServletRequest httpRequest) {
         ReportHistory history = null;
         ReportLog reportLog = null;
+        ReportCacheService.GenerationTicket generationTicket = null;
         Long generationStartTime = System.currentTimeMillis();
 
         try {
@@ -74,17 +81,23 @@ public abstract class ReportService {
             logger.debug("ステップ0: キャッシュ確認");
             ReportCacheService.CacheResult cacheResult = reportCacheService.getCachedReport(userId, request);
             if (cacheResult.isHit()) {
-                logger.info("キャッシュヒット: userId={}, reportType={}, filePath={}",
-                    userId, request.getReportType(), cacheResult.getFilePath());
-
-                // キャッシュヒット時も履歴レコードは作成（トラッキング用）
-                history = createReportHistory(userId, request);
-                updateReportHistory(history, cacheResult.getFilePath(), "CACHED");
-
-                return ReportGenerationResult.successWithCache(history.getId(), cacheResult.getFilePath());
+                return createCachedResult(userId, request, cacheResult);
             }
             logger.debug("キャッシュミス: {}", cacheResult.getMessage());
 
+            // 同一帳票が生成中の場合は完了を待ってキャッシュを利用
+            generationTicket = reportCacheService.beginGeneration(userId, request);
+            if (!generationTicket.isLeader()) {
+                if (generationTicket.awaitLeader()) {
+                    cacheResult = reportCacheService.getCachedReport(userId, request);
+                    if (cacheResult.isHit()) {
+                        return createCachedResult(userId, request, cacheResult);
+                    }
+                }
+                logger.info("先行する帳票生成の結果を利用できないため個別に生成します: userId={}, reportType={}",
+                    userId, request.getReportType());
+            }
+
             // 1. ログ記録開始
             logger.debug("ステップ1: ログ記録開始");
             reportLog = reportLogService.startReportGeneration(userId, getUsernameById(userId), request, httpRequest);
@@ -102,6 +115,7 @@ public abstract class ReportService {
 
             // 4. 帳票生成処理（実装クラスで定義）
             logger.debug("ステップ4: 帳票生成処理開始");
+            Long dataVersion = reportCacheService.getDataVersion(userId, request);
             String filePath = doGenerateReport(userId, request, history);
             logger.debug("帳票生成処理完了: filePath={}", filePath);
 
@@ -111,10 +125,14 @@ public abstract class ReportService {
             // レコード数取得
             Integer recordCount = getRecordCount(userId, request);
 
+            // ファイルストア登録（同一内容のファイルは実体を共有）
+            history.setContentHash(reportFileStore.store(filePath));
+
             // 5. キャッシュ保存（エラーが起きても処理を継続）
             logger.debug("ステップ5: キャッシュ保存");
             try {
-                reportCacheService.cacheReport(userId, request, filePath, recordCount, generationTime);
+                cacheGeneratedReport(userId, request, filePath, history.getContentHash(), recordCount, generationTime,
+                    dataVersion);
                 logger.debug("キャッシュ保存完了");
             } catch (Exception cacheException) {
                 logger.warn("キャッシュ保存でエラーが発生しましたが、帳票生成は継続します: {}", cacheException.getMessage());
@@ -129,7 +147,7 @@ public abstract class ReportService {
             logger.debug("ステップ7: ログ記録完了");
             File reportFile = new File(filePath);
             reportLogService.completeReportGenerationSuccess(
-                reportLog.getId(),
+                reportLog,
                 reportFile.getName(),
                 filePath,
                 recordCount,
@@ -149,7 +167,7 @@ public abstract class ReportService {
             // ログ記録エラー
             if (reportLog != null) {
                 try {
-                    reportLogService.completeReportGenerationError(reportLog.getId(), e);
+                    reportLogService.completeReportGenerationError(reportLog, e);
                 } catch (Exception logException) {
                     logger.error("エラーログ記録中にエラー", logException);
                 }
@@ -165,6 +183,130 @@ public abstract class ReportService {
             }
 
             return ReportGenerationResult.failure(e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            if (generationTicket != null) {
+                generationTicket.release();
+            }
+        }
+    }
+
+    /**
+     * キャッシュヒット時の結果作成
+     */
+    private ReportGenerationResult createCachedResult(Long userId, ReportRequest request,
+                                                      ReportCacheService.CacheResult cacheResult) {
+        logger.info("キャッシュヒット: userId={}, reportType={}, filePath={}",
+            userId, request.getReportType(), cacheResult.getFilePath());
+
+        // キャッシュヒット時も履歴レコードは作成（トラッキング用）
+        ReportHistory history = createReportHistory(userId, request);
+        String filePath = linkCachedFile(request, history, cacheResult);
+        updateReportHistory(history, filePath, "CACHED");
+
+        return ReportGenerationResult.successWithCache(history.getId(), filePath);
+    }
+
+    /**
+     * キャッシュ済みファイルへの履歴用リンク作成
+     * 履歴とキャッシュが別々に削除されても互いのファイルに影響しないようにする
+     */
+    private String linkCachedFile(ReportRequest request, ReportHistory history,
+                                  ReportCacheService.CacheResult cacheResult) {
+        if (cacheResult.getContentHash() != null) {
+            String linkPath = generateFilePath(request.getFormat(), request.getReportType());
+            if (reportFileStore.link(cacheResult.getContentHash(), linkPath)) {
+                history.setContentHash(cacheResult.getContentHash());
+                return linkPath;
+            }
+        }
+        return cacheResult.getFilePath();
+    }
+
+    /**
+     * 生成ファイルのキャッシュ保存
+     * ファイルストア登録済みの場合はキャッシュ用のリンクを作成して保存する
+     */
+    private void cacheGeneratedReport(Long userId, ReportRequest request, String filePath, String contentHash,
+                                      Integer recordCount, Long generationTime, Long dataVersion) {
+        if (contentHash == null) {
+            reportCacheService.cacheReport(userId, request, filePath, null, recordCount, generationTime, dataVersion);
+            return;
+        }
+
+        String cachePath = generateFilePath(request.getFormat(), request.getReportType());
+        if (!reportFileStore.link(contentHash, cachePath)) {
+            logger.warn("キャッシュ用ファイルリンクを作成できないため保存をスキップ: hash={}", contentHash);
+            return;
+        }
+
+        if (reportCacheService.cacheReport(userId, request, cachePath, contentHash, recordCount, generationTime,
+                dataVersion) == null) {
+            reportFileStore.release(contentHash, cachePath);
+        }
+    }
+
+    /**
+     * キャッシュ済み帳票の先行再生成
+     * 有効期限前にバックグラウンドで生成し直してキャッシュを置き換える。履歴・ログは作成しない
+     *
+     * @return 置き換えた場合true（同一帳票を生成中・失敗の場合false）
+     */
+    public boolean refreshCachedReport(Long userId, ReportRequest request) {
+        ReportCacheService.GenerationTicket generationTicket = reportCacheService.beginGeneration(userId, request);
+        if (!generationTicket.isLeader()) {
+            logger.debug("同一帳票を生成中のため先行再生成をスキップ: userId={}, reportType={}",
+                userId, request.getReportType());
+            return false;
+        }
+
+        String filePath = null;
+        try {
+            long generationStartTime = System.currentTimeMillis();
+            validateRequest(request);
+            Long dataVersion = reportCacheService.getDataVersion(userId, request);
+            filePath = doGenerateReport(userId, request, null);
+            long generationTime = System.currentTimeMillis() - generationStartTime;
+
+            Integer recordCount = getRecordCount(userId, request);
+            String contentHash = reportFileStore.store(filePath);
+            if (contentHash == null) {
+                // ファイルストア無効時は生成ファイルをそのままキャッシュに使う
+                boolean refreshed = reportCacheService.refreshReport(userId, request, filePath, null,
+                    recordCount, generationTime, dataVersion) != null;
+                if (refreshed) {
+                    filePath = null;
+                }
+                return refreshed;
+            }
+
+            String cachePath = generateFilePath(request.getFormat(), request.getReportType());
+            if (!reportFileStore.link(contentHash, cachePath)) {
+                reportFileStore.release(contentHash, filePath);
+                filePath = null;
+                return false;
+            }
+            // 生成ファイルはキャッシュ用リンクに置き換えて参照を解除する
+            reportFileStore.release(contentHash, filePath);
+            filePath = null;
+
+            if (reportCacheService.refreshReport(userId, request, cachePath, contentHash, recordCount, generationTime,
+                    dataVersion) == null) {
+                reportFileStore.release(contentHash, cachePath);
+                return false;
+            }
+
+            logger.info("帳票キャッシュ先行再生成完了: userId={}, reportType={}, generationTime={}ms",
+                userId, request.getReportType(), generationTime);
+            return true;
+
+        } catch (Exception e) {
+            logger.warn("帳票キャッシュ先行再生成エラー: userId={}, reportType={}", userId, request.getReportType(), e);
+            return false;
+        } finally {
+            if (filePath != null) {
+                new File(filePath).delete();
+            }
+            generationTicket.release();
         }
     }
 
@@ -188,8 +330,8 @@ public abstract class ReportService {
 
     /**
      * 帳票履歴レコード作成
+     * 書き込みジャーナル経由で登録し、idは採番済みのものを即時に返す
      */
-    @Transactional
     protected ReportHistory createReportHistory(Long userId, ReportRequest request) {
         try {
             logger.info("帳票履歴作成開始: userId={}, reportType={}, format={}", userId, request.getReportType(), request.getFormat());
@@ -207,14 +349,16 @@ public abstract class ReportService {
 
             ReportHistory history = new ReportHistory(userId, request.getReportType(),
                 request.getFormat(), parametersJson);
-            history.setExpiresAt(LocalDateTime.now().plusDays(expiryDays));
+            history.setId(reportWriteJournal.nextHistoryId());
+            history.setCreatedAt(LocalDateTime.now());
+            history.setExpiresAt(history.getCreatedAt().plusDays(expiryDays));
 
             logger.debug("ReportHistoryエンティティ作成成功");
 
-            ReportHistory savedHistory = reportHistoryRepository.save(history);
-            logger.info("帳票履歴保存成功: id={}", savedHistory.getId());
+            reportWriteJournal.recordHistory(history);
+            logger.info("帳票履歴保存成功: id={}", history.getId());
 
-            return savedHistory;
+            return history;
         } catch (Exception e) {
             logger.error("帳票履歴の作成に失敗しました: userId={}, error={}", userId, e.getMessage(), e);
             throw new RuntimeException("帳票履歴の作成に失敗しました: " + e.getMessage(), e);
@@ -222,9 +366,8 @@ public abstract class ReportService {
     }
 
     /**
-     * 帳票履歴更新
+     * 帳票履歴更新（書き込みジャーナル経由）
      */
-    @Transactional
     protected void updateReportHistory(ReportHistory history, String filePath, String status) {
         try {
             history.setFilePath(filePath);
@@ -237,7 +380,7 @@ public abstract class ReportService {
                 }
             }
 
-            reportHistoryRepository.save(history);
+            reportWriteJournal.recordHistory(history);
         } catch (Exception e) {
             logger.error("帳票履歴の更新に失敗しました: {}", e.getMessage());
         }
@@ -311,22 +454,25 @@ public abstract class ReportService {
             if (cacheResult.isHit()) {
                 logger.info("非同期処理でキャッシュヒット: userId={}, reportId={}, filePath={}",
                     userId, history.getId(), cacheResult.getFilePath());
-                updateReportHistory(history, cacheResult.getFilePath(), "CACHED");
+                updateReportHistory(history, linkCachedFile(request, history, cacheResult), "CACHED");
                 return CompletableFuture.completedFuture(null);
             }
 
             // リクエスト検証
             validateRequest(request);
 
-            // 帳票生成処理
+            // 帳票生成処理（生成前のデータバージョンを記録し、生成中の変更は次回取得時に検知する）
+            Long dataVersion = reportCacheService.getDataVersion(userId, request);
             String filePath = doGenerateReport(userId, request, history);
 
             Long generationEndTime = System.currentTimeMillis();
             Long generationTime = generationEndTime - generationStartTime;
 
-            // キャッシュ保存
+            // ファイルストア登録・キャッシュ保存
             Integer recordCount = getRecordCount(userId, request);
-            reportCacheService.cacheReport(userId, request, filePath, recordCount, generationTime);
+            history.setContentHash(reportFileStore.store(filePath));
+            cacheGeneratedReport(userId, request, filePath, history.getContentHash(), recordCount, generationTime,
+                dataVersion);
 
             // 履歴更新
             updateReportHistory(history, filePath, "COMPLETED");
@@ -363,6 +509,9 @@ public abstract class ReportService {
      * ユーザーの帳票履歴取得
      */
     public List<ReportHistory> getUserReportHistory(Long userId, int limit) {
+        if (reportWriteJournal.hasPendingHistories()) {
+            reportWriteJournal.flush();
+        }
         return reportHistoryRepository.findByUserIdOrderByCreatedAtDesc(userId,
             org.springframework.data.domain.PageRequest.of(0, limit));
     }
@@ -371,6 +520,9 @@ public abstract class ReportService {
      * レポートIDとユーザーIDでレポート取得
      */
     public Optional<ReportHistory> getReportById(Long reportId, Long userId) {
+        if (reportWriteJournal.isHistoryPending(reportId)) {
+            reportWriteJournal.flush();
+        }
         return reportHistoryRepository.findByIdAndUserId(reportId, userId);
     }
 
@@ -384,13 +536,8 @@ public abstract class ReportService {
 
             for (ReportHistory report : expiredReports) {
                 try {
-                    // ファイル削除
-                    if (report.getFilePath() != null) {
-                        File file = new File(report.getFilePath());
-                        if (file.exists()) {
-                            file.delete();
-                        }
-                    }
+                    // ファイル削除（共有実体の場合は参照解除のみ）
+                    reportFileStore.release(report.getContentHash(), report.getFilePath());
 
                     // 履歴削除
                     reportHistoryRepository.delete(report);
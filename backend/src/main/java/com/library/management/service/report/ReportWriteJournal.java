@@ -0,0 +1,547 @@
+package com.library.management.service.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.entity.ReportHistory;
+import com.library.management.entity.ReportLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 帳票書き込みジャーナル
+ * 帳票履歴・生成ログの登録・更新をリクエストスレッドでDBに書かず、メモリ上に溜めて
+ * 一定間隔でバッチ更新（履歴・ログはidをキーにしたUPSERT）する。
+ * 履歴・ログのidはシーケンスからまとめて先取りするため、登録直後からidを返せる。
+ *
+ * 各更新はローカルのジャーナルファイルに追記してから受け付け、DBへの反映が成功したセグメントのみ削除する。
+ * プロセスが異常終了しても次回起動時にジャーナルから再適用される（OSごと停止した場合も保護するにはfsyncを有効にする）。
+ * 行の最新状態を書き込むため、DB反映後・セグメント削除前に停止して再適用しても結果は変わらない。
+ *
+ * 制約違反など特定の行が原因の失敗は、バッチを二分して原因の行を切り分け、他の行は反映する。
+ * 原因の行は次回に再試行し、上限回数失敗した行はデッドレターファイルに移して以降の反映を妨げないようにする
+ */
+@Component
+public class ReportWriteJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportWriteJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+    private static final String TYPE_HISTORY = "HISTORY";
+    private static final String TYPE_LOG = "LOG";
+
+    private static final String UPSERT_HISTORY_SQL =
+        "INSERT INTO report_history (id, user_id, report_type, format, parameters, file_path, file_size, " +
+        "  content_hash, status, created_at, expires_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET file_path = EXCLUDED.file_path, file_size = EXCLUDED.file_size, " +
+        "  content_hash = EXCLUDED.content_hash, status = EXCLUDED.status, expires_at = EXCLUDED.expires_at";
+
+    private static final String UPSERT_LOG_SQL =
+        "INSERT INTO report_logs (id, user_id, username, report_type, format, template_id, schedule_id, " +
+        "  distribution_id, status, start_time, end_time, processing_time_ms, record_count, file_size_bytes, " +
+        "  file_name, file_path, parameters, error_message, error_stack_trace, execution_context, " +
+        "  client_ip_address, user_agent, additional_info, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET status = EXCLUDED.status, end_time = EXCLUDED.end_time, " +
+        "  processing_time_ms = EXCLUDED.processing_time_ms, record_count = EXCLUDED.record_count, " +
+        "  file_size_bytes = EXCLUDED.file_size_bytes, file_name = EXCLUDED.file_name, " +
+        "  file_path = EXCLUDED.file_path, error_message = EXCLUDED.error_message, " +
+        "  error_stack_trace = EXCLUDED.error_stack_trace, additional_info = EXCLUDED.additional_info";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reports.journal.directory:./reports/journal}")
+    private String journalDirectory;
+
+    @Value("${app.reports.journal.fsync:false}")
+    private boolean fsync;
+
+    @Value("${app.reports.journal.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${app.reports.journal.id-block-size:50}")
+    private int idBlockSize;
+
+    @Value("${app.reports.journal.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.reports.journal.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    // 未反映の更新（履歴・ログはidごとの最新状態のJSON）
+    private Map<Long, String> pendingHistories = new LinkedHashMap<>();
+    private Map<Long, String> pendingLogs = new LinkedHashMap<>();
+
+    // 先取りしたid
+    private final Deque<Long> historyIds = new ArrayDeque<>();
+    private final Deque<Long> logIds = new ArrayDeque<>();
+
+    private Path directory;
+    private FileChannel activeSegment;
+    private Path activeSegmentPath;
+    private long segmentSequence;
+
+    // DB反映待ちの更新を含む、書き込みを終えたセグメント
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    // 反映処理の排他（記録処理はthisで排他し、反映中のDB書き込みとは並行して受け付ける）
+    private final Object flushLock = new Object();
+
+    // 行が原因で反映に失敗した回数（"種別:id"ごと）
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+
+    // DB障害で反映に失敗した後、呼び出し元での同期反映を見送る期限（エポックミリ秒）
+    private volatile long syncFlushSuspendedUntil;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        directory = Paths.get(journalDirectory);
+        Files.createDirectories(directory);
+
+        List<Path> segments = listSegments();
+        int recovered = 0;
+        for (Path segment : segments) {
+            recovered += replay(segment);
+            segmentSequence = Math.max(segmentSequence, segmentNumber(segment));
+            sealedSegments.add(segment);
+        }
+        openSegment();
+
+        logger.info("帳票書き込みジャーナル初期化: directory={}, fsync={}, recovered={}", directory, fsync, recovered);
+        if (recovered > 0) {
+            flush();
+        }
+    }
+
+    /**
+     * 帳票履歴のid採番
+     */
+    public Long nextHistoryId() {
+        return nextId(historyIds, "report_history_id_seq");
+    }
+
+    /**
+     * 帳票生成ログのid採番
+     */
+    public Long nextLogId() {
+        return nextId(logIds, "report_logs_id_seq");
+    }
+
+    /**
+     * 帳票履歴の現在の状態を記録（id採番済みであること）
+     */
+    public void recordHistory(ReportHistory history) {
+        String json = toJson(history);
+        synchronized (this) {
+            writeRecord(TYPE_HISTORY, history.getId(), json);
+            pendingHistories.remove(history.getId());
+            pendingHistories.put(history.getId(), json);
+        }
+        flushIfBacklogged();
+    }
+
+    /**
+     * 帳票生成ログの現在の状態を記録（id採番済みであること）
+     */
+    public void recordLog(ReportLog reportLog) {
+        String json = toJson(reportLog);
+        synchronized (this) {
+            writeRecord(TYPE_LOG, reportLog.getId(), json);
+            pendingLogs.remove(reportLog.getId());
+            pendingLogs.put(reportLog.getId(), json);
+        }
+        flushIfBacklogged();
+    }
+
+    /**
+     * 帳票履歴が未反映かどうか（参照前に反映が必要かの判定用）
+     */
+    public synchronized boolean isHistoryPending(Long historyId) {
+        return historyId != null && pendingHistories.containsKey(historyId);
+    }
+
+    public synchronized boolean hasPendingHistories() {
+        return !pendingHistories.isEmpty();
+    }
+
+    public synchronized boolean hasPendingLogs() {
+        return !pendingLogs.isEmpty();
+    }
+
+    public synchronized int pendingCount() {
+        return pendingHistories.size() + pendingLogs.size();
+    }
+
+    private String toJson(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (IOException e) {
+            throw new IllegalStateException("帳票書き込みジャーナルのレコード変換に失敗しました", e);
+        }
+    }
+
+    /**
+     * ジャーナルへの追記（呼び出し元でthisを排他していること）
+     */
+    private void writeRecord(String type, Long id, String json) {
+        try {
+            writeLine("{\"type\":\"" + type + "\",\"id\":" + id + ",\"data\":" + json + "}");
+        } catch (IOException e) {
+            throw new IllegalStateException("帳票書き込みジャーナルへの記録に失敗しました: type=" + type + ", id=" + id, e);
+        }
+    }
+
+    /**
+     * 反映が追いつかない場合は呼び出し元で反映して滞留を抑える
+     * DB障害で失敗した直後は、リクエストごとに再試行しないよう一定時間は定期反映に任せる
+     */
+    private void flushIfBacklogged() {
+        int pending = pendingCount();
+        if (pending >= maxPending && System.currentTimeMillis() >= syncFlushSuspendedUntil) {
+            logger.warn("帳票書き込みジャーナルの未反映件数が上限に達したため同期的に反映します: pending={}", pending);
+            flush();
+        }
+    }
+
+    /**
+     * 起動時の再適用
+     */
+    private void apply(String type, Long id, String json) {
+        switch (type) {
+            case TYPE_HISTORY:
+                pendingHistories.remove(id);
+                pendingHistories.put(id, json);
+                break;
+            case TYPE_LOG:
+                pendingLogs.remove(id);
+                pendingLogs.put(id, json);
+                break;
+            default:
+                logger.warn("不明なジャーナルレコードをスキップ: type={}, id={}", type, id);
+        }
+    }
+
+    /**
+     * 未反映の更新をDBへ反映（短い間隔で定期実行、停止時にも実行）
+     *
+     * @return 反映した件数（失敗時は0、未反映分は次回に再試行）
+     */
+    @Scheduled(fixedDelayString = "${app.reports.journal.flush-interval-ms:500}")
+    public int flush() {
+        synchronized (flushLock) {
+            Map<Long, String> histories;
+            Map<Long, String> logs;
+            List<Path> coveredSegments;
+
+            synchronized (this) {
+                if (pendingHistories.isEmpty() && pendingLogs.isEmpty() && sealedSegments.isEmpty()) {
+                    return 0;
+                }
+                histories = pendingHistories;
+                logs = pendingLogs;
+                pendingHistories = new LinkedHashMap<>();
+                pendingLogs = new LinkedHashMap<>();
+
+                // 以降の更新は新しいセグメントに記録する
+                try {
+                    rotateSegment();
+                } catch (IOException e) {
+                    requeue(histories, logs);
+                    logger.error("帳票書き込みジャーナルのセグメント切り替えに失敗しました", e);
+                    return 0;
+                }
+                coveredSegments = new ArrayList<>(sealedSegments);
+            }
+
+            Map<Long, String> failedHistories = new LinkedHashMap<>();
+            Map<Long, String> failedLogs = new LinkedHashMap<>();
+            Map<String, String> errors = new HashMap<>();
+            try {
+                writeIsolating(TYPE_HISTORY, new ArrayList<>(histories.entrySet()), failedHistories, errors);
+                writeIsolating(TYPE_LOG, new ArrayList<>(logs.entrySet()), failedLogs, errors);
+            } catch (Exception e) {
+                synchronized (this) {
+                    requeue(histories, logs);
+                }
+                syncFlushSuspendedUntil = System.currentTimeMillis() + retryBackoffMs;
+                logger.error("帳票書き込みジャーナルのDB反映に失敗しました（次回再試行）: count={}",
+                    histories.size() + logs.size(), e);
+                return 0;
+            }
+
+            synchronized (this) {
+                // 失敗した行は新しいセグメントに記録し直してから、反映済みのセグメントを削除する
+                retryOrDeadLetter(TYPE_HISTORY, failedHistories, pendingHistories, errors);
+                retryOrDeadLetter(TYPE_LOG, failedLogs, pendingLogs, errors);
+                sealedSegments.removeAll(coveredSegments);
+            }
+            for (Path segment : coveredSegments) {
+                try {
+                    Files.deleteIfExists(segment);
+                } catch (IOException e) {
+                    logger.warn("反映済みジャーナルセグメントの削除に失敗: {}", segment, e);
+                }
+            }
+
+            int count = histories.size() + logs.size() - failedHistories.size() - failedLogs.size();
+            if (count > 0) {
+                logger.debug("帳票書き込みジャーナル反映: histories={}, logs={}",
+                    histories.size() - failedHistories.size(), logs.size() - failedLogs.size());
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 行単位の失敗を切り分けながら反映
+     * 行が原因の失敗はバッチを二分して再試行し、1行まで絞り込んだ行をfailedに集める。
+     * DB障害など行に依らない失敗はそのまま送出する（反映全体を次回に再試行）
+     */
+    private void writeIsolating(String type, List<Map.Entry<Long, String>> rows,
+                                Map<Long, String> failed, Map<String, String> errors) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(type, rows));
+            for (Map.Entry<Long, String> row : rows) {
+                failedAttempts.remove(type + ":" + row.getKey());
+            }
+        } catch (DataIntegrityViolationException | IllegalArgumentException e) {
+            if (rows.size() == 1) {
+                Map.Entry<Long, String> row = rows.get(0);
+                failed.put(row.getKey(), row.getValue());
+                errors.put(type + ":" + row.getKey(), String.valueOf(e.getMessage()));
+                return;
+            }
+            int middle = rows.size() / 2;
+            writeIsolating(type, rows.subList(0, middle), failed, errors);
+            writeIsolating(type, rows.subList(middle, rows.size()), failed, errors);
+        }
+    }
+
+    private void write(String type, List<Map.Entry<Long, String>> rows) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        try {
+            for (Map.Entry<Long, String> row : rows) {
+                if (TYPE_HISTORY.equals(type)) {
+                    ReportHistory history = objectMapper.readValue(row.getValue(), ReportHistory.class);
+                    args.add(new Object[] {
+                        history.getId(), history.getUserId(), history.getReportType(), history.getFormat(),
+                        history.getParameters(), history.getFilePath(), history.getFileSize(),
+                        history.getContentHash(), history.getStatus(), history.getCreatedAt(), history.getExpiresAt()
+                    });
+                } else {
+                    ReportLog log = objectMapper.readValue(row.getValue(), ReportLog.class);
+                    args.add(new Object[] {
+                        log.getId(), log.getUserId(), log.getUsername(), log.getReportType(), log.getFormat(),
+                        log.getTemplateId(), log.getScheduleId(), log.getDistributionId(), log.getStatus(),
+                        log.getStartTime(), log.getEndTime(), log.getProcessingTimeMs(), log.getRecordCount(),
+                        log.getFileSizeBytes(), log.getFileName(), log.getFilePath(), log.getParameters(),
+                        log.getErrorMessage(), log.getErrorStackTrace(), log.getExecutionContext(),
+                        log.getClientIpAddress(), log.getUserAgent(), log.getAdditionalInfo(), log.getCreatedAt()
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("ジャーナルレコードの読み込みに失敗しました: type=" + type, e);
+        }
+        jdbcTemplate.batchUpdate(TYPE_HISTORY.equals(type) ? UPSERT_HISTORY_SQL : UPSERT_LOG_SQL, args);
+    }
+
+    /**
+     * 行が原因で失敗した更新を次回に再試行、上限回数に達した場合はデッドレターに移す（thisを排他していること）
+     * 反映中に新しい状態が記録されていれば、そちらを優先して失敗回数も数え直す
+     */
+    private void retryOrDeadLetter(String type, Map<Long, String> failed, Map<Long, String> pending,
+                                   Map<String, String> errors) {
+        for (Map.Entry<Long, String> row : failed.entrySet()) {
+            String key = type + ":" + row.getKey();
+            if (pending.containsKey(row.getKey())) {
+                failedAttempts.remove(key);
+                continue;
+            }
+            int attempts = failedAttempts.merge(key, 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                failedAttempts.remove(key);
+                deadLetter(type, row.getKey(), row.getValue(), errors.get(key));
+                continue;
+            }
+            writeRecord(type, row.getKey(), row.getValue());
+            pending.put(row.getKey(), row.getValue());
+            logger.warn("帳票書き込みジャーナルの行を反映できませんでした（次回再試行）: type={}, id={}, attempts={}, error={}",
+                type, row.getKey(), attempts, errors.get(key));
+        }
+    }
+
+    /**
+     * 反映できない行をデッドレターファイルに退避（ジャーナルのセグメントとしては再適用されない）
+     */
+    private void deadLetter(String type, Long id, String json, String error) {
+        try {
+            String line = "{\"type\":\"" + type + "\",\"id\":" + id + ",\"error\":"
+                + objectMapper.writeValueAsString(error) + ",\"data\":" + json + "}\n";
+            Files.writeString(directory.resolve(DEAD_LETTER_FILE), line, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            logger.error("帳票書き込みジャーナルの行をデッドレターに移しました: type={}, id={}, error={}", type, id, error);
+        } catch (IOException e) {
+            // 退避できない場合は記録し直して次回に再試行する
+            writeRecord(type, id, json);
+            (TYPE_HISTORY.equals(type) ? pendingHistories : pendingLogs).put(id, json);
+            logger.error("デッドレターへの退避に失敗しました: type={}, id={}", type, id, e);
+        }
+    }
+
+    /**
+     * 反映に失敗した更新を戻す（反映中に記録された新しい状態を優先する）
+     */
+    private void requeue(Map<Long, String> histories, Map<Long, String> logs) {
+        histories.forEach(pendingHistories::putIfAbsent);
+        logs.forEach(pendingLogs::putIfAbsent);
+    }
+
+    private Long nextId(Deque<Long> ids, String sequenceName) {
+        synchronized (ids) {
+            if (ids.isEmpty()) {
+                ids.addAll(jdbcTemplate.queryForList(
+                    "SELECT nextval('" + sequenceName + "') FROM generate_series(1, ?)", Long.class, idBlockSize));
+            }
+            return ids.poll();
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            activeSegment.write(buffer);
+        }
+        if (fsync) {
+            activeSegment.force(false);
+        }
+    }
+
+    private int replay(Path segment) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode entry = objectMapper.readTree(line);
+                    apply(entry.get("type").asText(), entry.get("id").asLong(),
+                        objectMapper.writeValueAsString(entry.get("data")));
+                    count++;
+                } catch (Exception e) {
+                    // 書き込み途中で停止した末尾の行
+                    logger.warn("読み込めないジャーナルレコードをスキップ: segment={}", segment.getFileName());
+                }
+            }
+        }
+        return count;
+    }
+
+    private void rotateSegment() throws IOException {
+        if (activeSegment != null) {
+            activeSegment.close();
+            sealedSegments.add(activeSegmentPath);
+        }
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        segmentSequence++;
+        activeSegmentPath = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, segmentSequence, SEGMENT_SUFFIX));
+        activeSegment = FileChannel.open(activeSegmentPath,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        segments.sort(Comparator.comparingLong(ReportWriteJournal::segmentNumber));
+        return segments;
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 停止時に未反映の更新を反映（失敗した場合はジャーナルに残し次回起動時に再適用）
+     */
+    @PreDestroy
+    public void shutdown() {
+        int flushed = flush();
+        synchronized (this) {
+            try {
+                if (activeSegment != null) {
+                    activeSegment.close();
+                    activeSegment = null;
+                    // 最後の反映後に記録がなければ空のセグメントは不要
+                    if (Files.size(activeSegmentPath) == 0) {
+                        Files.deleteIfExists(activeSegmentPath);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("ジャーナルセグメントのクローズに失敗: {}", activeSegmentPath, e);
+            }
+        }
+        logger.info("帳票書き込みジャーナル停止: flushed={}, remaining={}", flushed, pendingCount());
+    }
+}
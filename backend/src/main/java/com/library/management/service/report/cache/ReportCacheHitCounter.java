@@ -0,0 +1,186 @@
+package com.library.management.service.report.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 帳票キャッシュのヒット数カウンタ
+ * ヒットごとに行を更新せず、キャッシュエントリ単位のLongAdderに加算しておき、
+ * 定期的に1つのUPDATE ... FROM (VALUES ...)でまとめて反映する。
+ * 同じシステム帳票へのヒットが集中しても行ロックの競合が起きない
+ */
+@Component
+public class ReportCacheHitCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheHitCounter.class);
+
+    private static final String UPDATE_PREFIX =
+        "UPDATE report_cache AS rc SET hit_count = COALESCE(rc.hit_count, 0) + v.hits, " +
+        "  last_access_time = GREATEST(COALESCE(rc.last_access_time, v.access_time), v.access_time) " +
+        "FROM (VALUES ";
+
+    private static final String UPDATE_ROW = "(CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))";
+
+    private static final String UPDATE_SUFFIX = ") AS v(id, hits, access_time) WHERE rc.id = v.id";
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.report.cache.hit-flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    // キャッシュID → 未反映のヒット数・最終アクセス時刻（エントリは無効化時に破棄）
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * ヒットを記録
+     */
+    public void record(Long cacheId, LocalDateTime accessTime) {
+        if (cacheId == null) {
+            return;
+        }
+        Counter counter = counters.computeIfAbsent(cacheId, id -> new Counter());
+        counter.hits.increment();
+        counter.lastAccessMillis.accumulate(toMillis(accessTime));
+    }
+
+    /**
+     * 未反映のヒット数
+     */
+    public long getPendingHits(Long cacheId) {
+        Counter counter = cacheId != null ? counters.get(cacheId) : null;
+        return counter != null ? counter.hits.sum() : 0L;
+    }
+
+    /**
+     * 全エントリの未反映ヒット数合計
+     */
+    public long getTotalPendingHits() {
+        long total = 0;
+        for (Counter counter : counters.values()) {
+            total += counter.hits.sum();
+        }
+        return total;
+    }
+
+    /**
+     * 未反映分を含めた最終アクセス時刻（DB値と新しい方）
+     */
+    public LocalDateTime getLastAccessTime(Long cacheId, LocalDateTime persistedTime) {
+        Counter counter = cacheId != null ? counters.get(cacheId) : null;
+        long pendingMillis = counter != null ? counter.lastAccessMillis.get() : Long.MIN_VALUE;
+        if (pendingMillis == Long.MIN_VALUE) {
+            return persistedTime;
+        }
+        LocalDateTime pendingTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(pendingMillis), ZONE);
+        return persistedTime == null || pendingTime.isAfter(persistedTime) ? pendingTime : persistedTime;
+    }
+
+    /**
+     * 無効化したエントリのカウンタを破棄
+     */
+    public void discard(Long cacheId) {
+        if (cacheId != null) {
+            counters.remove(cacheId);
+        }
+    }
+
+    /**
+     * 未反映のヒット数をDBへ反映
+     *
+     * @return 更新したエントリ数
+     */
+    @Scheduled(fixedDelayString = "${app.report.cache.hit-flush-interval-ms:10000}")
+    public int flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> hits = new ArrayList<>();
+        List<Long> accessTimes = new ArrayList<>();
+
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long count = counter.hits.sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            ids.add(entry.getKey());
+            hits.add(count);
+            accessTimes.add(counter.lastAccessMillis.get());
+        }
+
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += flushBatchSize) {
+            int to = Math.min(from + flushBatchSize, ids.size());
+            try {
+                updated += update(ids.subList(from, to), hits.subList(from, to), accessTimes.subList(from, to));
+            } catch (Exception e) {
+                // 反映できなかった分は戻して次回再試行
+                for (int i = from; i < to; i++) {
+                    Counter counter = counters.computeIfAbsent(ids.get(i), id -> new Counter());
+                    counter.hits.add(hits.get(i));
+                    counter.lastAccessMillis.accumulate(accessTimes.get(i));
+                }
+                logger.error("キャッシュヒット数の反映に失敗しました（次回再試行）: count={}", to - from, e);
+            }
+        }
+
+        if (updated > 0) {
+            logger.debug("キャッシュヒット数反映: entries={}", updated);
+        }
+        return updated;
+    }
+
+    private int update(List<Long> ids, List<Long> hits, List<Long> accessTimes) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        Object[] args = new Object[ids.size() * 3];
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(UPDATE_ROW);
+            args[i * 3] = ids.get(i);
+            args[i * 3 + 1] = hits.get(i);
+            args[i * 3 + 2] = LocalDateTime.ofInstant(Instant.ofEpochMilli(accessTimes.get(i)), ZONE);
+        }
+        sql.append(UPDATE_SUFFIX);
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /**
+     * 停止時に未反映分を反映
+     */
+    @PreDestroy
+    public void shutdown() {
+        int updated = flush();
+        logger.info("キャッシュヒット数カウンタ停止: flushed={}", updated);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return (time != null ? time : LocalDateTime.now()).atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * エントリ単位のカウンタクラス
+     */
+    private static class Counter {
+        private final LongAdder hits = new LongAdder();
+        private final LongAccumulator lastAccessMillis = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    }
+}
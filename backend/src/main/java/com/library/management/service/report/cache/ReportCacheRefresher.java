@@ -0,0 +1,188 @@
+package com.library.management.service.report.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.dto.ReportRequest;
+import com.library.management.entity.ReportCache;
+import com.library.management.service.report.ExcelReportService;
+import com.library.management.service.report.PDFReportService;
+import com.library.management.service.report.ReportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 帳票キャッシュの先行再生成
+ * 有効期限が近く、ヒット数・最終アクセス時刻から今後も利用される見込みのエントリを
+ * 期限切れ前にバックグラウンドで再生成して置き換え、利用者のリクエストで生成が走らないようにする。
+ * 起動時にはヒット数上位のエントリをインメモリキャッシュに読み込み、期限切れ・期限間近のものは再生成する
+ */
+@Component
+public class ReportCacheRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheRefresher.class);
+
+    @Autowired
+    private ReportCacheService cacheService;
+
+    @Autowired
+    private PDFReportService pdfReportService;
+
+    @Autowired
+    private ExcelReportService excelReportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.report.cache.refresh-ahead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.report.cache.refresh-ahead.lead-minutes:10}")
+    private int leadMinutes;
+
+    @Value("${app.report.cache.refresh-ahead.min-hits:3}")
+    private long minHits;
+
+    @Value("${app.report.cache.refresh-ahead.recent-access-minutes:60}")
+    private int recentAccessMinutes;
+
+    @Value("${app.report.cache.refresh-ahead.max-per-run:20}")
+    private int maxPerRun;
+
+    @Value("${app.report.cache.refresh-ahead.threads:2}")
+    private int threads;
+
+    @Value("${app.report.cache.refresh-ahead.warm-up-top-n:20}")
+    private int warmUpTopN;
+
+    private ThreadPoolTaskExecutor refreshPool;
+
+    // 再生成中・待機中のキャッシュID
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        refreshPool = new ThreadPoolTaskExecutor();
+        refreshPool.setCorePoolSize(threads);
+        refreshPool.setMaxPoolSize(threads);
+        refreshPool.setQueueCapacity(Math.max(maxPerRun, warmUpTopN));
+        refreshPool.setThreadNamePrefix("ReportCacheRefresh-");
+        refreshPool.setWaitForTasksToCompleteOnShutdown(false);
+        refreshPool.initialize();
+    }
+
+    /**
+     * 起動時のウォームアップ
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || warmUpTopN <= 0) {
+            return;
+        }
+
+        try {
+            LocalDateTime refreshBefore = LocalDateTime.now().plusMinutes(leadMinutes);
+            int loaded = 0;
+            int scheduled = 0;
+            for (ReportCache cache : cacheService.findPopularCaches(warmUpTopN)) {
+                boolean expiring = cache.getExpiresAt() != null && cache.getExpiresAt().isBefore(refreshBefore);
+                if (!expiring && cacheService.warmMemoryCache(cache)) {
+                    loaded++;
+                } else if (submit(cache)) {
+                    scheduled++;
+                }
+            }
+            logger.info("帳票キャッシュウォームアップ: loaded={}, regenerating={}", loaded, scheduled);
+        } catch (Exception e) {
+            logger.error("帳票キャッシュウォームアップエラー", e);
+        }
+    }
+
+    /**
+     * 期限間近の利用中エントリを再生成（定期実行）
+     *
+     * @return 再生成を投入した件数
+     */
+    @Scheduled(fixedDelayString = "${app.report.cache.refresh-ahead.interval-ms:60000}")
+    public int refreshExpiring() {
+        if (!enabled) {
+            return 0;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<ReportCache> candidates = cacheService.findRefreshCandidates(
+                now.plusMinutes(leadMinutes), now.minusMinutes(recentAccessMinutes), minHits, maxPerRun);
+
+            int scheduled = 0;
+            for (ReportCache cache : candidates) {
+                if (submit(cache)) {
+                    scheduled++;
+                }
+            }
+            if (scheduled > 0) {
+                logger.info("帳票キャッシュ先行再生成を投入: candidates={}, scheduled={}", candidates.size(), scheduled);
+            }
+            return scheduled;
+        } catch (Exception e) {
+            logger.error("帳票キャッシュ先行再生成の対象取得エラー", e);
+            return 0;
+        }
+    }
+
+    private boolean submit(ReportCache cache) {
+        if (!inFlight.add(cache.getId())) {
+            return false;
+        }
+
+        try {
+            refreshPool.execute(() -> refresh(cache));
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlight.remove(cache.getId());
+            logger.debug("先行再生成の投入上限のため次回に持ち越し: cacheId={}", cache.getId());
+            return false;
+        }
+    }
+
+    private void refresh(ReportCache cache) {
+        try {
+            ReportRequest request = objectMapper.readValue(cache.getParameters(), ReportRequest.class);
+            ReportService reportService = getReportService(cache.getFormat());
+            reportService.refreshCachedReport(cache.getUserId(), request);
+        } catch (Exception e) {
+            logger.warn("帳票キャッシュ先行再生成エラー: cacheId={}, reportType={}", cache.getId(), cache.getReportType(), e);
+        } finally {
+            inFlight.remove(cache.getId());
+        }
+    }
+
+    private ReportService getReportService(String format) {
+        switch (format.toUpperCase()) {
+            case "PDF":
+                return pdfReportService;
+            case "EXCEL":
+                return excelReportService;
+            default:
+                throw new IllegalArgumentException("サポートされていないフォーマット: " + format);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshPool.shutdown();
+    }
+}
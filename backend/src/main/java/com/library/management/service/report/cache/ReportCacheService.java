@@ -3,6 +3,7 @@ package com.library.management.service.report.cache;
 import com.library.management.dto.ReportRequest;
 import com.library.management.entity.ReportCache;
 import com.library.management.repository.ReportCacheRepository;
+import com.library.management.service.report.ReportFileStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,12 +13,17 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PostConstruct;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 帳票キャッシュサービス
@@ -35,6 +41,15 @@ public class ReportCacheService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ReportFileStore reportFileStore;
+
+    @Autowired
+    private ReportCacheHitCounter hitCounter;
+
+    @Autowired
+    private ReportDataVersionTracker dataVersionTracker;
+
     @Value("${app.report.cache.enabled:true}")
     private boolean cacheEnabled;
 
@@ -53,8 +68,37 @@ public class ReportCacheService {
     @Value("${app.report.cache.system-report-ttl-minutes:60}")
     private int systemReportTtlMinutes;
 
-    // インメモリキャッシュ（高速アクセス用）
-    private final Map<String, CacheEntry> memoryCache = new ConcurrentHashMap<>();
+    @Value("${app.report.cache.memory.max-entries:1000}")
+    private int memoryMaxEntries = 1000;
+
+    @Value("${app.report.cache.memory.max-weight-kb:1024}")
+    private long memoryMaxWeightKb = 1024;
+
+    // データ変更検知が有効な場合のTTL上限（レポートタイプのTTLの方が短い場合はそちらを使う）
+    @Value("${app.report.cache.data-version.ttl-minutes:4320}")
+    private int dataVersionTtlMinutes = 4320;
+
+    @Value("${app.report.cache.coalescing-timeout-seconds:300}")
+    private long coalescingTimeoutSeconds = 300;
+
+    // インメモリキャッシュ（L1、エントリ数・重量上限付きLRU）
+    private final ReportMemoryCache memoryCache = new ReportMemoryCache(1000, 1024L * 1024);
+
+    // 生成中リクエスト（同一キャッシュキーの同時生成を1回にまとめる）
+    private final Map<String, CompletableFuture<Void>> inFlightGenerations = new ConcurrentHashMap<>();
+
+    // 統計カウンタ
+    private final LongAdder databaseHitCount = new LongAdder();
+    private final LongAdder requestMissCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder totalLoadTimeMs = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    @PostConstruct
+    public void initializeMemoryCache() {
+        memoryCache.configure(memoryMaxEntries, memoryMaxWeightKb * 1024);
+        logger.info("インメモリキャッシュ設定: maxEntries={}, maxWeightKb={}", memoryMaxEntries, memoryMaxWeightKb);
+    }
 
     /**
      * キャッシュから帳票取得
@@ -68,12 +112,19 @@ public class ReportCacheService {
             String cacheKey = generateCacheKey(userId, request);
             logger.debug("キャッシュ検索開始: key={}", cacheKey);
 
-            // インメモリキャッシュをまず確認
-            CacheEntry memoryEntry = memoryCache.get(cacheKey);
-            if (memoryEntry != null && memoryEntry.isValid()) {
-                logger.debug("インメモリキャッシュヒット: key={}", cacheKey);
-                memoryEntry.recordHit();
-                return CacheResult.hit(memoryEntry.getFilePath(), memoryEntry);
+            // インメモリキャッシュをまず確認（ファイルが消えている場合はDBキャッシュ側で無効化する）
+            ReportMemoryCache.Entry memoryEntry = memoryCache.get(cacheKey);
+            if (memoryEntry != null) {
+                if (dataVersionTracker.isStale(memoryEntry.getDataVersion(), userId, isAllUsersReport(request))) {
+                    // 生成後にデータが変更されている場合はDBキャッシュ側で無効化する
+                    memoryCache.remove(cacheKey);
+                } else if (memoryEntry.getFilePath() != null && new File(memoryEntry.getFilePath()).exists()) {
+                    hitCounter.record(memoryEntry.getCacheId(), LocalDateTime.now());
+                    logger.debug("インメモリキャッシュヒット: key={}", cacheKey);
+                    return CacheResult.hit(memoryEntry.getFilePath(), memoryEntry.getContentHash(), memoryEntry);
+                } else {
+                    memoryCache.remove(cacheKey);
+                }
             }
 
             // データベースキャッシュ確認
@@ -86,19 +137,30 @@ public class ReportCacheService {
             if (cacheOpt.isPresent()) {
                 ReportCache cache = cacheOpt.get();
 
+                // データ変更確認
+                if (dataVersionTracker.isStale(cache.getDataVersion(), userId, isAllUsersReport(request))) {
+                    invalidateCache(cache);
+                    requestMissCount.increment();
+                    logger.info("データ変更によりキャッシュ無効化: key={}, cachedVersion={}", cacheKey, cache.getDataVersion());
+                    return CacheResult.miss("対象データが変更されています");
+                }
+
                 // ファイル存在確認
                 if (cache.getFilePath() != null && new File(cache.getFilePath()).exists()) {
-                    // キャッシュヒット記録
-                    cache.recordHit();
-                    cacheRepository.save(cache);
+                    // キャッシュヒット記録（ヒット数はカウンタからまとめて反映し、エンティティは変更しない）
+                    hitCounter.record(cache.getId(), LocalDateTime.now());
 
                     // インメモリキャッシュに追加
-                    memoryCache.put(cacheKey, new CacheEntry(cache));
+                    ReportMemoryCache.Entry entry = new ReportMemoryCache.Entry(cache);
+                    entry.recordHit();
+                    memoryCache.put(cacheKey, entry);
+                    databaseHitCount.increment();
 
-                    logger.info("キャッシュヒット: key={}, hitCount={}", cacheKey, cache.getHitCount());
-                    return CacheResult.hit(cache.getFilePath(), cache);
+                    logger.info("キャッシュヒット: key={}, hitCount={}", cacheKey, entry.getHitCount());
+                    return CacheResult.hit(cache.getFilePath(), cache.getContentHash(), cache);
                 } else {
                     // ファイルが存在しない場合はキャッシュ無効化
+                    reportFileStore.release(cache.getContentHash(), null);
                     cache.invalidate();
                     cacheRepository.save(cache);
                     memoryCache.remove(cacheKey);
@@ -106,6 +168,7 @@ public class ReportCacheService {
                 }
             }
 
+            requestMissCount.increment();
             logger.debug("キャッシュミス: key={}", cacheKey);
             return CacheResult.miss("該当するキャッシュが見つかりません");
 
@@ -121,6 +184,40 @@ public class ReportCacheService {
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
     public ReportCache cacheReport(Long userId, ReportRequest request, String filePath,
                                   Integer recordCount, Long generationTimeMs) {
+        return cacheReport(userId, request, filePath, null, recordCount, generationTimeMs);
+    }
+
+    /**
+     * 帳票をキャッシュに保存（ファイルストアのハッシュ付き）
+     */
+    @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
+    public ReportCache cacheReport(Long userId, ReportRequest request, String filePath, String contentHash,
+                                  Integer recordCount, Long generationTimeMs) {
+        return cacheReport(userId, request, filePath, contentHash, recordCount, generationTimeMs, null);
+    }
+
+    /**
+     * 帳票をキャッシュに保存（生成時点のデータバージョン付き）
+     */
+    @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
+    public ReportCache cacheReport(Long userId, ReportRequest request, String filePath, String contentHash,
+                                  Integer recordCount, Long generationTimeMs, Long dataVersion) {
+        return storeReport(userId, request, filePath, contentHash, recordCount, generationTimeMs, dataVersion, false);
+    }
+
+    /**
+     * 先行再生成した帳票でキャッシュを置き換え
+     * 既存エントリの行を更新するため、利用者から見て無効な期間はない。
+     * 最終アクセス時刻は置き換え前の値を引き継ぎ、再生成をアクセスとして数えない
+     */
+    @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
+    public ReportCache refreshReport(Long userId, ReportRequest request, String filePath, String contentHash,
+                                     Integer recordCount, Long generationTimeMs, Long dataVersion) {
+        return storeReport(userId, request, filePath, contentHash, recordCount, generationTimeMs, dataVersion, true);
+    }
+
+    private ReportCache storeReport(Long userId, ReportRequest request, String filePath, String contentHash,
+                                    Integer recordCount, Long generationTimeMs, Long dataVersion, boolean refresh) {
         if (!cacheEnabled) {
             return null;
         }
@@ -129,8 +226,8 @@ public class ReportCacheService {
             String cacheKey = generateCacheKey(userId, request);
             logger.debug("キャッシュ保存開始: key={}, filePath={}", cacheKey, filePath);
 
-            // キャッシュ容量チェック
-            if (!checkCacheCapacity(userId)) {
+            // キャッシュ容量チェック（既存エントリの置き換えは対象外）
+            if (!refresh && !checkCacheCapacity(userId)) {
                 logger.warn("キャッシュ容量制限のため保存をスキップ: userId={}", userId);
                 return null;
             }
@@ -145,6 +242,11 @@ public class ReportCacheService {
                 // 既存エントリ更新
                 cache = existingOpt.get();
                 logger.debug("既存キャッシュエントリ更新: id={}, cacheKey={}", cache.getId(), cacheKey);
+
+                // 置き換え前のファイル参照を解除
+                if (cache.getFilePath() != null && !cache.getFilePath().equals(filePath)) {
+                    reportFileStore.release(cache.getContentHash(), cache.getFilePath());
+                }
             } else {
                 // 新規エントリ作成
                 cache = new ReportCache(cacheKey, userId, request.getReportType(),
@@ -153,8 +255,14 @@ public class ReportCacheService {
             }
 
             // ファイル情報設定
+            LocalDateTime previousAccessTime = cache.getLastAccessTime();
             File file = new File(filePath);
             cache.markCompleted(filePath, file.length(), recordCount, generationTimeMs);
+            cache.setContentHash(contentHash);
+            cache.setDataVersion(dataVersion);
+            if (refresh && previousAccessTime != null) {
+                cache.setLastAccessTime(previousAccessTime);
+            }
 
             // 有効期限設定
             cache.setExpiresAt(LocalDateTime.now().plusMinutes(getTtlMinutes(request)));
@@ -166,7 +274,13 @@ public class ReportCacheService {
             ReportCache savedCache = cacheRepository.save(cache);
 
             // インメモリキャッシュに追加
-            memoryCache.put(cacheKey, new CacheEntry(savedCache));
+            memoryCache.put(cacheKey, new ReportMemoryCache.Entry(savedCache));
+
+            // 生成時間統計
+            loadCount.increment();
+            if (generationTimeMs != null) {
+                totalLoadTimeMs.add(generationTimeMs);
+            }
 
             logger.info("キャッシュ保存完了: key={}, id={}, fileSize={}",
                 cacheKey, savedCache.getId(), file.length());
@@ -183,6 +297,8 @@ public class ReportCacheService {
                     ReportCache cache = existingOpt.get();
                     File file = new File(filePath);
                     cache.markCompleted(filePath, file.length(), recordCount, generationTimeMs);
+                    cache.setContentHash(contentHash);
+                    cache.setDataVersion(dataVersion);
                     cache.setExpiresAt(LocalDateTime.now().plusMinutes(getTtlMinutes(request)));
                     return cacheRepository.save(cache);
                 }
@@ -196,6 +312,75 @@ public class ReportCacheService {
         }
     }
 
+    /**
+     * 先行再生成の対象取得
+     * 有効期限が近いエントリのうち、未反映分を含めたヒット数・最終アクセス時刻から
+     * 今後も利用される見込みのものをヒット数の多い順に返す
+     */
+    @Transactional(readOnly = true)
+    public List<ReportCache> findRefreshCandidates(LocalDateTime expiresBefore, LocalDateTime accessedAfter,
+                                                   long minHits, int limit) {
+        List<ReportCache> candidates = new ArrayList<>();
+        Map<Long, Long> hitCounts = new HashMap<>();
+        for (ReportCache cache : cacheRepository.findExpiringCaches(LocalDateTime.now(), expiresBefore)) {
+            long hits = (cache.getHitCount() != null ? cache.getHitCount() : 0) + hitCounter.getPendingHits(cache.getId());
+            LocalDateTime lastAccessTime = hitCounter.getLastAccessTime(cache.getId(), cache.getLastAccessTime());
+            if (hits >= minHits && lastAccessTime != null && lastAccessTime.isAfter(accessedAfter)) {
+                candidates.add(cache);
+                hitCounts.put(cache.getId(), hits);
+            }
+        }
+        candidates.sort(Comparator.comparingLong((ReportCache cache) -> hitCounts.get(cache.getId())).reversed());
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    /**
+     * ヒット数上位のエントリ取得（起動時のウォームアップ用）
+     */
+    @Transactional(readOnly = true)
+    public List<ReportCache> findPopularCaches(int limit) {
+        return cacheRepository.findPopularCaches(org.springframework.data.domain.PageRequest.of(0, limit));
+    }
+
+    /**
+     * 有効なエントリをインメモリキャッシュに読み込む
+     *
+     * @return 読み込んだ場合true（期限切れ・ファイルなしの場合false）
+     */
+    public boolean warmMemoryCache(ReportCache cache) {
+        if (!cacheEnabled || cache.isExpired() || cache.getFilePath() == null
+                || !new File(cache.getFilePath()).exists()) {
+            return false;
+        }
+        memoryCache.put(cache.getCacheKey(), new ReportMemoryCache.Entry(cache));
+        return true;
+    }
+
+    /**
+     * 帳票生成の開始登録（シングルフライト制御）
+     * 同一キャッシュキーの生成が既に進行中の場合は後続扱いのチケットを返す
+     */
+    public GenerationTicket beginGeneration(Long userId, ReportRequest request) {
+        if (!cacheEnabled) {
+            return GenerationTicket.untracked();
+        }
+
+        String cacheKey = generateCacheKey(userId, request);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlightGenerations.putIfAbsent(cacheKey, future);
+
+        if (existing != null) {
+            coalescedCount.increment();
+            logger.debug("同一帳票の生成待機: key={}", cacheKey);
+            return new GenerationTicket(false, existing, () -> { }, coalescingTimeoutSeconds);
+        }
+
+        return new GenerationTicket(true, future, () -> {
+            inFlightGenerations.remove(cacheKey, future);
+            future.complete(null);
+        }, coalescingTimeoutSeconds);
+    }
+
     /**
      * キャッシュキー生成
      */
@@ -268,11 +453,37 @@ public class ReportCacheService {
         return relevant;
     }
 
+    /**
+     * 帳票の対象データの現在のバージョン（生成前に取得してキャッシュ保存時に渡す）
+     */
+    public Long getDataVersion(Long userId, ReportRequest request) {
+        return dataVersionTracker.getVersion(userId, isAllUsersReport(request));
+    }
+
+    /**
+     * 全ユーザーのデータを対象とする帳票かどうか
+     */
+    private boolean isAllUsersReport(ReportRequest request) {
+        return "SYSTEM".equalsIgnoreCase(request.getReportType());
+    }
+
     /**
      * TTL取得
      */
     private int getTtlMinutes(ReportRequest request) {
-        // レポートタイプに応じたTTL設定
+        int ttlMinutes = getReportTypeTtlMinutes(request);
+
+        // 期間集計など日時で内容が変わる帳票もあるため、変更検知が有効でもレポートタイプのTTLを上限とする
+        if (dataVersionTracker.isEnabled()) {
+            return Math.min(ttlMinutes, dataVersionTtlMinutes);
+        }
+        return ttlMinutes;
+    }
+
+    /**
+     * レポートタイプに応じたTTL設定
+     */
+    private int getReportTypeTtlMinutes(ReportRequest request) {
         switch (request.getReportType().toUpperCase()) {
             case "READING_STATS":
                 return 120; // 2時間
@@ -355,7 +566,7 @@ public class ReportCacheService {
         try {
             // アクセス頻度の低いキャッシュから削除
             LocalDateTime cutoffTime = LocalDateTime.now().minusHours(2);
-            List<ReportCache> unusedCaches = cacheRepository.findUnusedCaches(cutoffTime);
+            List<ReportCache> unusedCaches = findUnusedCaches(cutoffTime);
 
             for (ReportCache cache : unusedCaches) {
                 invalidateCache(cache);
@@ -368,6 +579,19 @@ public class ReportCacheService {
         }
     }
 
+    /**
+     * 未使用キャッシュ取得
+     * DBの最終アクセス時刻が古くても、未反映のヒットで期限内にアクセスされたものは除外する
+     */
+    private List<ReportCache> findUnusedCaches(LocalDateTime cutoffTime) {
+        List<ReportCache> unusedCaches = new ArrayList<>(cacheRepository.findUnusedCaches(cutoffTime));
+        unusedCaches.removeIf(cache -> {
+            LocalDateTime lastAccessTime = hitCounter.getLastAccessTime(cache.getId(), cache.getLastAccessTime());
+            return lastAccessTime != null && !lastAccessTime.isBefore(cutoffTime);
+        });
+        return unusedCaches;
+    }
+
     /**
      * キャッシュ無効化
      */
@@ -388,20 +612,16 @@ public class ReportCacheService {
      */
     private void invalidateCache(ReportCache cache) {
         try {
-            // ファイル削除
-            if (cache.getFilePath() != null) {
-                File file = new File(cache.getFilePath());
-                if (file.exists()) {
-                    file.delete();
-                }
-            }
+            // ファイル削除（共有実体の場合は参照解除のみ）
+            reportFileStore.release(cache.getContentHash(), cache.getFilePath());
 
             // データベース更新
             cache.invalidate();
             cacheRepository.save(cache);
 
-            // インメモリキャッシュから削除
+            // インメモリキャッシュ・ヒット数カウンタから削除
             memoryCache.remove(cache.getCacheKey());
+            hitCounter.discard(cache.getId());
 
         } catch (Exception e) {
             logger.error("キャッシュエントリ無効化エラー: id={}", cache.getId(), e);
@@ -460,7 +680,7 @@ public class ReportCacheService {
 
             // 長期間未使用キャッシュ削除
             LocalDateTime unusedCutoff = LocalDateTime.now().minusHours(24);
-            List<ReportCache> unusedCaches = cacheRepository.findUnusedCaches(unusedCutoff);
+            List<ReportCache> unusedCaches = findUnusedCaches(unusedCutoff);
             for (ReportCache cache : unusedCaches) {
                 invalidateCache(cache);
             }
@@ -482,10 +702,10 @@ public class ReportCacheService {
     private void cleanupMemoryCache() {
         LocalDateTime cutoff = LocalDateTime.now().minusMinutes(30);
 
-        memoryCache.entrySet().removeIf(entry -> {
-            CacheEntry cacheEntry = entry.getValue();
-            return !cacheEntry.isValid() || cacheEntry.getLastAccessTime().isBefore(cutoff);
-        });
+        int removed = memoryCache.removeIf(entry ->
+            !entry.isValid() || entry.getLastAccessTime() == null || entry.getLastAccessTime().isBefore(cutoff));
+
+        logger.debug("インメモリキャッシュクリーンアップ: removed={}, remaining={}", removed, memoryCache.size());
     }
 
     /**
@@ -500,10 +720,30 @@ public class ReportCacheService {
             stats.setValidEntries(cacheRepository.findByStatus("COMPLETED").size());
             stats.setTotalSizeBytes(cacheRepository.getTotalCacheSize());
             stats.setMemoryCacheSize(memoryCache.size());
-
-            // ヒット率統計
+            stats.setMemoryCacheWeightBytes(memoryCache.getWeightBytes());
+
+            // アクセス統計（起動後累計）
+            stats.setMemoryHitCount(memoryCache.getHitCount());
+            stats.setDatabaseHitCount(databaseHitCount.sum());
+            stats.setMissCount(requestMissCount.sum());
+            stats.setEvictionCount(memoryCache.getEvictionCount());
+            stats.setExpirationCount(memoryCache.getExpirationCount());
+            stats.setLoadCount(loadCount.sum());
+            stats.setTotalLoadTimeMs(totalLoadTimeMs.sum());
+            stats.setCoalescedCount(coalescedCount.sum());
+
+            // ヒット率統計（DB反映前のヒット数を含める）
             Double avgHitCount = cacheRepository.getAverageHitCount();
-            stats.setAverageHitCount(avgHitCount != null ? avgHitCount : 0.0);
+            long pendingHits = hitCounter.getTotalPendingHits();
+            double averageHitCount = avgHitCount != null ? avgHitCount : 0.0;
+            if (pendingHits > 0) {
+                long validCaches = cacheRepository.countValidCaches();
+                if (validCaches > 0) {
+                    averageHitCount += (double) pendingHits / validCaches;
+                }
+            }
+            stats.setAverageHitCount(averageHitCount);
+            stats.setPendingHitCount(pendingHits);
 
             // タイプ別統計
             List<Object[]> typeStats = cacheRepository.getCacheStatsByReportType();
@@ -527,59 +767,92 @@ public class ReportCacheService {
     public static class CacheResult {
         private final boolean hit;
         private final String filePath;
+        private final String contentHash;
         private final String message;
         private final Object cacheInfo;
 
-        private CacheResult(boolean hit, String filePath, String message, Object cacheInfo) {
+        private CacheResult(boolean hit, String filePath, String contentHash, String message, Object cacheInfo) {
             this.hit = hit;
             this.filePath = filePath;
+            this.contentHash = contentHash;
             this.message = message;
             this.cacheInfo = cacheInfo;
         }
 
         public static CacheResult hit(String filePath, Object cacheInfo) {
-            return new CacheResult(true, filePath, "キャッシュヒット", cacheInfo);
+            return hit(filePath, null, cacheInfo);
+        }
+
+        public static CacheResult hit(String filePath, String contentHash, Object cacheInfo) {
+            return new CacheResult(true, filePath, contentHash, "キャッシュヒット", cacheInfo);
         }
 
         public static CacheResult miss(String message) {
-            return new CacheResult(false, null, message, null);
+            return new CacheResult(false, null, null, message, null);
         }
 
         // Getters
         public boolean isHit() { return hit; }
         public String getFilePath() { return filePath; }
+        public String getContentHash() { return contentHash; }
         public String getMessage() { return message; }
         public Object getCacheInfo() { return cacheInfo; }
     }
 
     /**
-     * インメモリキャッシュエントリクラス
+     * 帳票生成チケットクラス
+     * 先行リクエストは生成完了時にrelease()し、後続リクエストはawaitLeader()で完了を待つ
      */
-    private static class CacheEntry {
-        private final String filePath;
-        private final LocalDateTime expiresAt;
-        private LocalDateTime lastAccessTime;
-        private int hitCount;
-
-        public CacheEntry(ReportCache cache) {
-            this.filePath = cache.getFilePath();
-            this.expiresAt = cache.getExpiresAt();
-            this.lastAccessTime = cache.getLastAccessTime();
-            this.hitCount = cache.getHitCount();
+    public static class GenerationTicket {
+        private final boolean leader;
+        private final CompletableFuture<Void> future;
+        private final Runnable releaseAction;
+        private final long timeoutSeconds;
+
+        private GenerationTicket(boolean leader, CompletableFuture<Void> future,
+                                 Runnable releaseAction, long timeoutSeconds) {
+            this.leader = leader;
+            this.future = future;
+            this.releaseAction = releaseAction;
+            this.timeoutSeconds = timeoutSeconds;
         }
 
-        public boolean isValid() {
-            return expiresAt == null || LocalDateTime.now().isBefore(expiresAt);
+        static GenerationTicket untracked() {
+            return new GenerationTicket(true, CompletableFuture.completedFuture(null), () -> { }, 0);
         }
 
-        public void recordHit() {
-            this.hitCount++;
-            this.lastAccessTime = LocalDateTime.now();
+        public boolean isLeader() { return leader; }
+
+        /**
+         * 先行リクエストの生成完了を待機
+         *
+         * @return タイムアウトせずに完了した場合true
+         */
+        public boolean awaitLeader() {
+            if (leader) {
+                return true;
+            }
+            try {
+                future.get(timeoutSeconds, TimeUnit.SECONDS);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (TimeoutException e) {
+                return false;
+            } catch (Exception e) {
+                return true;
+            }
         }
 
-        // Getters
-        public String getFilePath() { return filePath; }
-        public LocalDateTime getLastAccessTime() { return lastAccessTime; }
+        /**
+         * 生成完了通知（先行リクエストのみ有効、複数回呼び出し可）
+         */
+        public void release() {
+            if (leader) {
+                releaseAction.run();
+            }
+        }
     }
 
     /**
@@ -590,8 +863,18 @@ public class ReportCacheService {
         private long validEntries;
         private Long totalSizeBytes;
         private int memoryCacheSize;
+        private long memoryCacheWeightBytes;
         private double averageHitCount;
         private Map<String, Long> typeStatistics = new HashMap<>();
+        private long memoryHitCount;
+        private long databaseHitCount;
+        private long missCount;
+        private long evictionCount;
+        private long expirationCount;
+        private long loadCount;
+        private long totalLoadTimeMs;
+        private long coalescedCount;
+        private long pendingHitCount;
 
         // Getters and Setters
         public long getTotalEntries() { return totalEntries; }
@@ -606,12 +889,52 @@ public class ReportCacheService {
         public int getMemoryCacheSize() { return memoryCacheSize; }
         public void setMemoryCacheSize(int memoryCacheSize) { this.memoryCacheSize = memoryCacheSize; }
 
+        public long getMemoryCacheWeightBytes() { return memoryCacheWeightBytes; }
+        public void setMemoryCacheWeightBytes(long memoryCacheWeightBytes) { this.memoryCacheWeightBytes = memoryCacheWeightBytes; }
+
         public double getAverageHitCount() { return averageHitCount; }
         public void setAverageHitCount(double averageHitCount) { this.averageHitCount = averageHitCount; }
 
         public Map<String, Long> getTypeStatistics() { return typeStatistics; }
         public void setTypeStatistics(Map<String, Long> typeStatistics) { this.typeStatistics = typeStatistics; }
 
+        public long getMemoryHitCount() { return memoryHitCount; }
+        public void setMemoryHitCount(long memoryHitCount) { this.memoryHitCount = memoryHitCount; }
+
+        public long getDatabaseHitCount() { return databaseHitCount; }
+        public void setDatabaseHitCount(long databaseHitCount) { this.databaseHitCount = databaseHitCount; }
+
+        public long getMissCount() { return missCount; }
+        public void setMissCount(long missCount) { this.missCount = missCount; }
+
+        public long getEvictionCount() { return evictionCount; }
+        public void setEvictionCount(long evictionCount) { this.evictionCount = evictionCount; }
+
+        public long getExpirationCount() { return expirationCount; }
+        public void setExpirationCount(long expirationCount) { this.expirationCount = expirationCount; }
+
+        public long getLoadCount() { return loadCount; }
+        public void setLoadCount(long loadCount) { this.loadCount = loadCount; }
+
+        public long getTotalLoadTimeMs() { return totalLoadTimeMs; }
+        public void setTotalLoadTimeMs(long totalLoadTimeMs) { this.totalLoadTimeMs = totalLoadTimeMs; }
+
+        public long getCoalescedCount() { return coalescedCount; }
+        public void setCoalescedCount(long coalescedCount) { this.coalescedCount = coalescedCount; }
+
+        public long getPendingHitCount() { return pendingHitCount; }
+        public void setPendingHitCount(long pendingHitCount) { this.pendingHitCount = pendingHitCount; }
+
+        public double getAverageLoadTimeMs() {
+            return loadCount > 0 ? (double) totalLoadTimeMs / loadCount : 0.0;
+        }
+
+        public double getRequestHitRate() {
+            long hits = memoryHitCount + databaseHitCount;
+            long requests = hits + missCount;
+            return requests > 0 ? (double) hits / requests : 0.0;
+        }
+
         public double getHitRate() {
             return totalEntries > 0 ? (averageHitCount / totalEntries) : 0.0;
         }
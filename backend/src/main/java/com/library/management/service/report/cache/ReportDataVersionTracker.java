@@ -0,0 +1,220 @@
+package com.library.management.service.report.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 帳票データバージョン管理
+ * 書籍・著者関連・ジャンル・読書ステータス・ユーザーの変更でトリガーが追記するreport_data_changesを
+ * スコープごとの変更件数としてメモリ上に保持し、帳票キャッシュの生成時点のバージョンと比較して変更のあったエントリのみを無効と判定する。
+ * スコープのバージョンは集約済みのカウンタ（report_data_versions）と未集約の変更ログの件数の合計で、
+ * 帳票のバージョンは対象スコープのバージョンの合計とする。
+ * 自ノードでの変更はコミット直後に、他ノードでの変更は定期ポーリングで取り込む
+ */
+@Component
+public class ReportDataVersionTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportDataVersionTracker.class);
+
+    // 全ユーザー共通のマスタデータ（ジャンル・読書ステータス・著者）
+    public static final long SHARED_SCOPE = 0L;
+
+    // 集約済みのカウンタと変更ログを1文（同じスナップショット）で読む
+    private static final String RELOAD_SQL = """
+        SELECT user_id, version, NULL::BIGINT AS id, NULL::TIMESTAMP AS changed_at FROM report_data_versions
+        UNION ALL
+        SELECT user_id, 1, id, changed_at FROM report_data_changes
+        """;
+
+    private static final String POLL_SQL =
+        "SELECT id, user_id, changed_at FROM report_data_changes WHERE changed_at >= ?";
+
+    // 変更ログの削除と集約済みカウンタへの加算を1文で行う（集約処理同士は削除する行のロックで直列化される）
+    private static final String COMPACT_SQL = """
+        WITH moved AS (
+            DELETE FROM report_data_changes
+            WHERE changed_at < LOCALTIMESTAMP - make_interval(secs => ?)
+            RETURNING user_id
+        )
+        INSERT INTO report_data_versions (user_id, version, updated_at)
+        SELECT user_id, COUNT(*), clock_timestamp() FROM moved GROUP BY user_id
+        ON CONFLICT (user_id) DO UPDATE
+        SET version = report_data_versions.version + EXCLUDED.version, updated_at = EXCLUDED.updated_at
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.report.cache.data-version.enabled:true}")
+    private boolean enabled;
+
+    // コミット処理中に記録されたupdated_atを取りこぼさないよう、前回ポーリング時刻から遡る秒数
+    @Value("${app.report.cache.data-version.poll-overlap-seconds:300}")
+    private long pollOverlapSeconds;
+
+    // ユーザーID → バージョン
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    // 全スコープのバージョンの合計（更新はrefreshでのみ行う）
+    private volatile long globalVersion;
+    private LocalDateTime lastPolledAt;
+
+    // 取り込み済みの変更ログ（ID → 変更日時、次回ポーリングの対象範囲内のもののみ保持）
+    private final Map<Long, LocalDateTime> seenChanges = new HashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+            logger.info("帳票データバージョン読み込み: scopes={}, globalVersion={}", versions.size(), globalVersion);
+        } catch (Exception e) {
+            logger.warn("帳票データバージョンの初期読み込みに失敗しました（次回ポーリングで再試行）", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 帳票の対象データのバージョン
+     * 全ユーザー対象の帳票は全スコープの合計、それ以外はユーザーと共通マスタのバージョンの合計
+     *
+     * @return バージョン（変更検知無効時はnull）
+     */
+    public Long getVersion(Long userId, boolean allUsers) {
+        if (!enabled) {
+            return null;
+        }
+        if (allUsers) {
+            return globalVersion;
+        }
+        long shared = versions.getOrDefault(SHARED_SCOPE, 0L);
+        long user = userId != null ? versions.getOrDefault(userId, 0L) : 0L;
+        return shared + user;
+    }
+
+    /**
+     * キャッシュ生成後に対象データが変更されたかどうか（バージョン未記録のエントリはTTLのみで判定）
+     */
+    public boolean isStale(Long cachedVersion, Long userId, boolean allUsers) {
+        if (!enabled || cachedVersion == null) {
+            return false;
+        }
+        return cachedVersion < getVersion(userId, allUsers);
+    }
+
+    /**
+     * データ変更の通知
+     * トランザクション中の場合はコミット後に、それ以外は即座に最新のバージョンを取り込む
+     */
+    public void notifyChanged() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshQuietly();
+                }
+            });
+        } else {
+            refreshQuietly();
+        }
+    }
+
+    /**
+     * 変更されたバージョンの取り込み（定期実行）
+     * 前回時刻から遡った範囲の変更ログのうち未取り込みのものを1件ずつ加算する。
+     * 前回のポーリングから遡る秒数以上経過している場合は、その間に集約された変更ログを取りこぼさないよう全件を読み直す
+     */
+    @Scheduled(fixedDelayString = "${app.report.cache.data-version.poll-interval-ms:2000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime polledAt = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        if (lastPolledAt == null || lastPolledAt.isBefore(polledAt.minusSeconds(pollOverlapSeconds))) {
+            reload(polledAt);
+        } else {
+            LocalDateTime from = lastPolledAt.minusSeconds(pollOverlapSeconds);
+            jdbcTemplate.query(POLL_SQL, rs -> {
+                long id = rs.getLong("id");
+                if (seenChanges.putIfAbsent(id, rs.getTimestamp("changed_at").toLocalDateTime()) == null) {
+                    versions.merge(rs.getLong("user_id"), 1L, Long::sum);
+                    globalVersion++;
+                }
+            }, Timestamp.valueOf(from));
+            seenChanges.values().removeIf(changedAt -> changedAt.isBefore(from));
+        }
+        lastPolledAt = polledAt;
+    }
+
+    /**
+     * 集約済みのカウンタと変更ログの全件読み込み
+     */
+    private void reload(LocalDateTime polledAt) {
+        LocalDateTime from = polledAt.minusSeconds(pollOverlapSeconds);
+        Map<Long, Long> loaded = new HashMap<>();
+        Map<Long, LocalDateTime> loadedChanges = new HashMap<>();
+        jdbcTemplate.query(RELOAD_SQL, rs -> {
+            loaded.merge(rs.getLong("user_id"), rs.getLong("version"), Long::sum);
+            Timestamp changedAt = rs.getTimestamp("changed_at");
+            if (changedAt != null && !changedAt.toLocalDateTime().isBefore(from)) {
+                loadedChanges.put(rs.getLong("id"), changedAt.toLocalDateTime());
+            }
+        });
+
+        loaded.forEach((userId, version) -> versions.merge(userId, version, Math::max));
+        globalVersion = versions.values().stream().mapToLong(Long::longValue).sum();
+        seenChanges.clear();
+        seenChanges.putAll(loadedChanges);
+    }
+
+    /**
+     * 変更ログの集約（定期実行）
+     * 取り込みの対象範囲（遡る秒数）の2倍より古い変更ログをカウンタへ移す。
+     * ポーリングが遡る秒数以上途切れたノードは全件を読み直すため、集約済みの変更を取りこぼさない
+     */
+    @Scheduled(fixedDelayString = "${app.report.cache.data-version.compact-interval-ms:60000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int scopes = jdbcTemplate.update(COMPACT_SQL, (double) (pollOverlapSeconds * 2));
+            if (scopes > 0) {
+                logger.debug("帳票データ変更ログ集約: scopes={}", scopes);
+            }
+        } catch (Exception e) {
+            logger.warn("帳票データ変更ログの集約に失敗しました（次回再試行）", e);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("帳票データバージョンの取り込みに失敗しました（次回ポーリングで再試行）", e);
+        }
+    }
+}
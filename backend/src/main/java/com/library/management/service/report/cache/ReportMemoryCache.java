@@ -0,0 +1,200 @@
+package com.library.management.service.report.cache;
+
+import com.library.management.entity.ReportCache;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 帳票キャッシュのインメモリ層（L1）
+ * エントリ数と推定重量（メタデータのバイト数）の両方に上限を持つLRUキャッシュ。
+ * エントリごとの有効期限はDBキャッシュ（L2）のexpiresAtに従う
+ */
+class ReportMemoryCache {
+
+    // エントリ1件あたりの固定オーバーヘッド推定値（オブジェクトヘッダ・参照・日時フィールド等）
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    // アクセス順LinkedHashMap（先頭が最も長くアクセスされていないエントリ）
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int maxEntries;
+    private long maxWeightBytes;
+    private long currentWeightBytes = 0;
+
+    // 統計カウンタ
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    ReportMemoryCache(int maxEntries, long maxWeightBytes) {
+        configure(maxEntries, maxWeightBytes);
+    }
+
+    /**
+     * 上限設定（縮小した場合は即座に追い出す）
+     */
+    synchronized void configure(int maxEntries, long maxWeightBytes) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxWeightBytes = Math.max(ENTRY_OVERHEAD_BYTES, maxWeightBytes);
+        evictIfNecessary();
+    }
+
+    /**
+     * エントリ取得（期限切れの場合は削除してnullを返す）
+     */
+    synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (!entry.isValid()) {
+            removeEntry(key);
+            expirationCount.increment();
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        entry.recordHit();
+        return entry;
+    }
+
+    /**
+     * エントリ追加（同一キーは置き換え）
+     */
+    synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            currentWeightBytes -= previous.getWeightBytes();
+        }
+        currentWeightBytes += entry.getWeightBytes();
+        evictIfNecessary();
+    }
+
+    /**
+     * エントリ削除
+     */
+    synchronized void remove(String key) {
+        removeEntry(key);
+    }
+
+    /**
+     * 条件に一致するエントリを削除
+     *
+     * @return 削除件数
+     */
+    synchronized int removeIf(Predicate<Entry> predicate) {
+        int removed = 0;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (predicate.test(entry)) {
+                currentWeightBytes -= entry.getWeightBytes();
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getWeightBytes() {
+        return currentWeightBytes;
+    }
+
+    long getHitCount() { return hitCount.sum(); }
+    long getMissCount() { return missCount.sum(); }
+    long getEvictionCount() { return evictionCount.sum(); }
+    long getExpirationCount() { return expirationCount.sum(); }
+
+    private void removeEntry(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            currentWeightBytes -= removed.getWeightBytes();
+        }
+    }
+
+    /**
+     * 上限超過時にLRU順で追い出し（期限切れエントリは追い出し件数に含めない）
+     */
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || currentWeightBytes > maxWeightBytes) && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            currentWeightBytes -= entry.getWeightBytes();
+            iterator.remove();
+            if (entry.isValid()) {
+                evictionCount.increment();
+            } else {
+                expirationCount.increment();
+            }
+        }
+    }
+
+    /**
+     * インメモリキャッシュエントリクラス
+     */
+    static class Entry {
+        private final Long cacheId;
+        private final Long dataVersion;
+        private final String filePath;
+        private final String contentHash;
+        private final Long fileSizeBytes;
+        private final LocalDateTime expiresAt;
+        private final int weightBytes;
+        private LocalDateTime lastAccessTime;
+        private int hitCount;
+
+        Entry(ReportCache cache) {
+            this.cacheId = cache.getId();
+            this.dataVersion = cache.getDataVersion();
+            this.filePath = cache.getFilePath();
+            this.contentHash = cache.getContentHash();
+            this.fileSizeBytes = cache.getFileSizeBytes();
+            this.expiresAt = cache.getExpiresAt();
+            this.lastAccessTime = cache.getLastAccessTime();
+            this.hitCount = cache.getHitCount() != null ? cache.getHitCount() : 0;
+            this.weightBytes = estimateWeight(cache);
+        }
+
+        private static int estimateWeight(ReportCache cache) {
+            int weight = ENTRY_OVERHEAD_BYTES;
+            if (cache.getCacheKey() != null) {
+                weight += cache.getCacheKey().length() * 2;
+            }
+            if (cache.getFilePath() != null) {
+                weight += cache.getFilePath().length() * 2;
+            }
+            return weight;
+        }
+
+        boolean isValid() {
+            return expiresAt == null || LocalDateTime.now().isBefore(expiresAt);
+        }
+
+        synchronized void recordHit() {
+            this.hitCount++;
+            this.lastAccessTime = LocalDateTime.now();
+        }
+
+        // Getters
+        Long getCacheId() { return cacheId; }
+        Long getDataVersion() { return dataVersion; }
+        String getFilePath() { return filePath; }
+        String getContentHash() { return contentHash; }
+        Long getFileSizeBytes() { return fileSizeBytes; }
+        LocalDateTime getExpiresAt() { return expiresAt; }
+        int getWeightBytes() { return weightBytes; }
+        synchronized LocalDateTime getLastAccessTime() { return lastAccessTime; }
+        synchronized int getHitCount() { return hitCount; }
+    }
+}
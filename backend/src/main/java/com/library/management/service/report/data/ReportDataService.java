@@ -7,20 +7,28 @@ import com.library.management.repository.BookRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 帳票用データ取得サービス
@@ -34,6 +42,20 @@ public class ReportDataService {
     @Autowired
     private BookRepository bookRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.reports.statistics.top-publishers:10}")
+    private int topPublisherLimit;
+
+    private static final String OTHER_PUBLISHERS = "その他";
+
+    // 一括取得（リストに保持）時のメモリ保護用の上限
+    private static final int IN_MEMORY_MAX_RECORDS = 10000;
+
+    // システム統計レポートの出力件数上限
+    private static final int SYSTEM_REPORT_MAX_RECORDS = 1000;
+
     /**
      * フィルター条件に基づく書籍データ取得
      */
@@ -59,6 +81,158 @@ public class ReportDataService {
         }
     }
 
+    /**
+     * フィルター条件に基づく書籍データ件数取得
+     */
+    @Transactional(readOnly = true)
+    public long countFilteredBooks(Long userId, ReportRequest request) {
+        Specification<Book> spec = createBookSpecification(userId, request != null ? request.getFilters() : null);
+        return bookRepository.count(spec);
+    }
+
+    /**
+     * フィルター条件に基づく書籍データのストリーミング取得
+     * 前方向カーソルで書籍IDのみをfetchSize件ずつ読み込み、fetchSize件ごとに関連（読書状況・ジャンル・著者）を
+     * 結合取得した書籍を渡す。処理済みの書籍は永続化コンテキストから切り離すため、ヒープ使用量は総件数に依存しない
+     *
+     * @return 処理件数
+     */
+    @Transactional(readOnly = true)
+    public int streamFilteredBooks(Long userId, ReportRequest request, int fetchSize, int maxRows,
+                                   Consumer<Book> consumer) {
+        int rowLimit = getStreamingMaxRows(request, maxRows);
+        logger.info("書籍データストリーミング取得開始: userId={}, fetchSize={}, maxRows={}", userId, fetchSize, rowLimit);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root.get("id"));
+
+        Specification<Book> spec = createBookSpecification(userId, request != null ? request.getFilters() : null);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(createSort(request != null ? request.getOptions() : null), root, cb));
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query)
+            .setHint("org.hibernate.fetchSize", fetchSize)
+            .setMaxResults(rowLimit);
+
+        int count = 0;
+        List<Long> chunk = new ArrayList<>(fetchSize);
+        try (Stream<Long> stream = typedQuery.getResultStream()) {
+            java.util.Iterator<Long> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= fetchSize) {
+                    count += consumeBooks(chunk, consumer);
+                    chunk.clear();
+                }
+            }
+        }
+        count += consumeBooks(chunk, consumer);
+
+        logger.info("書籍データストリーミング取得完了: userId={}, 処理件数={}", userId, count);
+        return count;
+    }
+
+    /**
+     * @return consumerへ渡した件数（ID取得後に削除された書籍は含まない）
+     */
+    private int consumeBooks(List<Long> bookIds, Consumer<Book> consumer) {
+        int consumed = 0;
+        for (Book book : findBooksForReport(bookIds)) {
+            consumer.accept(book);
+            entityManager.detach(book);
+            consumed++;
+        }
+        return consumed;
+    }
+
+    /**
+     * 帳票出力用の書籍取得
+     * 読書状況・ジャンル・著者を1回のクエリで結合取得し、書籍ごとの関連の追加読み込みを発生させない
+     *
+     * @return 指定したIDの順の書籍
+     */
+    @Transactional(readOnly = true)
+    public List<Book> findBooksForReport(List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Book> books = entityManager.createQuery(
+                "SELECT DISTINCT b FROM Book b " +
+                "LEFT JOIN FETCH b.readStatus " +
+                "LEFT JOIN FETCH b.genre " +
+                "LEFT JOIN FETCH b.bookAuthors ba " +
+                "LEFT JOIN FETCH ba.author " +
+                "WHERE b.id IN :ids", Book.class)
+            .setParameter("ids", bookIds)
+            .setHint("org.hibernate.readOnly", true)
+            .getResultList();
+
+        Map<Long, Book> booksById = new HashMap<>();
+        for (Book book : books) {
+            booksById.put(book.getId(), book);
+        }
+        List<Book> ordered = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            Book book = booksById.get(bookId);
+            if (book != null) {
+                ordered.add(book);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * ストリーミング時の最大取得件数
+     * 帳票の出力件数上限（カスタムオプションのmaxRecords・システム統計の上限）を一括取得時と同じく適用し、
+     * ストリーミングで外れるのは一括取得時のメモリ保護用の上限のみとする
+     */
+    public int getStreamingMaxRows(ReportRequest request, int maxRows) {
+        return Math.min(maxRows, getReportRowLimit(request));
+    }
+
+    /**
+     * 帳票の出力件数上限（取得方法によらず適用、未指定時はInteger.MAX_VALUE）
+     */
+    private int getReportRowLimit(ReportRequest request) {
+        Integer customMaxRecords = getCustomMaxRecords(request);
+        if (customMaxRecords != null) {
+            return customMaxRecords;
+        }
+
+        // SYSTEM権限の場合は管理者向けに1000件に制限してパフォーマンス改善
+        if (request != null && "SYSTEM".equalsIgnoreCase(request.getReportType())) {
+            return SYSTEM_REPORT_MAX_RECORDS;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * カスタムオプションで指定された最大取得件数（未指定時はnull）
+     */
+    private Integer getCustomMaxRecords(ReportRequest request) {
+        if (request != null && request.getOptions() != null &&
+            request.getOptions().getCustomOptions() != null) {
+            Object maxRecords = request.getOptions().getCustomOptions().get("maxRecords");
+            if (maxRecords instanceof Integer) {
+                return (Integer) maxRecords;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * フィルター条件の検索条件取得（キーセットページング等、他サービスからの再利用用）
+     */
+    public Specification<Book> createFilterSpecification(Long userId, ReportRequest.ReportFilters filters) {
+        return createBookSpecification(userId, filters);
+    }
+
     /**
      * 書籍検索条件作成
      */
@@ -87,11 +261,15 @@ public class ReportDataService {
                         "%" + filters.getPublisher().toLowerCase() + "%"));
                 }
 
-                // 著者フィルター
+                // 著者フィルター（複数著者が一致しても書籍が重複しないよう、結合ではなくEXISTSで判定）
                 if (filters.getAuthor() != null && !filters.getAuthor().trim().isEmpty()) {
-                    Join<Object, Object> authorsJoin = root.join("authors", JoinType.LEFT);
-                    predicates.add(cb.like(cb.lower(authorsJoin.get("name")),
-                        "%" + filters.getAuthor().toLowerCase() + "%"));
+                    Subquery<Long> authorMatch = query.subquery(Long.class);
+                    Root<Book> matchedBook = authorMatch.from(Book.class);
+                    Join<Object, Object> authorsJoin = matchedBook.join("authors");
+                    authorMatch.select(matchedBook.get("id")).where(
+                        cb.equal(matchedBook.get("id"), root.get("id")),
+                        cb.like(cb.lower(authorsJoin.get("name")), "%" + filters.getAuthor().toLowerCase() + "%"));
+                    predicates.add(cb.exists(authorMatch));
                 }
 
                 // ジャンルフィルター
@@ -140,6 +318,8 @@ public class ReportDataService {
      */
     private String mapSortField(String sortBy) {
         switch (sortBy.toLowerCase()) {
+            case "id":
+                return "id";
             case "title":
                 return "title";
             case "publisher":
@@ -156,28 +336,14 @@ public class ReportDataService {
     }
 
     /**
-     * 最大取得件数設定
+     * 一括取得時の最大取得件数設定
+     * 帳票の出力件数上限に、メモリ保護用の上限（10,000件）を加える。
+     * 一括取得はストリーミング閾値以下の件数でのみ使われるため、出力件数はストリーミング時と同じ上限で決まる
      */
     private int getMaxRecords(ReportRequest request) {
-        if (request != null && request.getOptions() != null &&
-            request.getOptions().getCustomOptions() != null) {
-            Object maxRecords = request.getOptions().getCustomOptions().get("maxRecords");
-            if (maxRecords instanceof Integer) {
-                int max = (Integer) maxRecords;
-                org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(this.getClass());
-                logger.info("カスタム制限値を使用: maxRecords={}", max);
-                return Math.min(max, 10000); // 最大10,000件制限
-            }
-        }
-
-        // SYSTEM権限の場合は制限を緩和
-        if (request != null && "SYSTEM".equalsIgnoreCase(request.getReportType())) {
-            logger.info("システム統計レポート用制限値を使用: maxRecords=1000");
-            return 1000; // 管理者向けは1000件に制限してパフォーマンス改善
-        }
-
-        // デフォルトは制限なし（実際には10,000件まで）
-        return 10000;
+        int maxRecords = Math.min(getReportRowLimit(request), IN_MEMORY_MAX_RECORDS);
+        logger.debug("最大取得件数: reportType={}, maxRecords={}", request != null ? request.getReportType() : null, maxRecords);
+        return maxRecords;
     }
 
     /**
@@ -204,7 +370,9 @@ public class ReportDataService {
 
     /**
      * システム統計取得
+     * 書籍エンティティは読み込まず、読書状況別・出版社別の集計クエリのみで算出する
      */
+    @Transactional(readOnly = true)
     public SystemStatistics getSystemStatistics(ReportRequest.ReportFilters filters) {
         try {
             logger.info("システム統計取得開始");
@@ -214,18 +382,25 @@ public class ReportDataService {
             long totalUsers = bookRepository.countDistinctUsers();
 
             // ステータス別統計
-            Map<String, Long> statusCounts = bookRepository.findAll().stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                    book -> book.getReadStatus().toString(),
-                    java.util.stream.Collectors.counting()
-                ));
-
-            // 出版社別統計
-            Map<String, Long> publisherCounts = bookRepository.findAll().stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                    Book::getPublisher,
-                    java.util.stream.Collectors.counting()
-                ));
+            Map<String, Long> statusCounts = new LinkedHashMap<>();
+            for (GroupCount row : countByReadStatus(null)) {
+                statusCounts.put(row.getKey(), row.getCount());
+            }
+
+            // 出版社別統計（上位N社＋その他）
+            Map<String, Long> publisherCounts = new LinkedHashMap<>();
+            List<GroupCount> topPublishers = countByPublisher(null, topPublisherLimit);
+            long topTotal = 0;
+            for (GroupCount row : topPublishers) {
+                publisherCounts.put(row.getKey(), row.getCount());
+                topTotal += row.getCount();
+            }
+            if (topPublishers.size() >= topPublisherLimit) {
+                long otherCount = countBooks(null, true) - topTotal;
+                if (otherCount > 0) {
+                    publisherCounts.put(OTHER_PUBLISHERS, otherCount);
+                }
+            }
 
             SystemStatistics statistics = new SystemStatistics(
                 totalBooks, totalUsers, statusCounts, publisherCounts
@@ -243,19 +418,14 @@ public class ReportDataService {
     /**
      * ユーザー別統計取得
      */
+    @Transactional(readOnly = true)
     public List<UserStatistics> getUserStatistics(ReportRequest.ReportFilters filters) {
         try {
             logger.info("ユーザー別統計取得開始");
 
             // ユーザー別の書籍数を集計
-            List<Object[]> userStats = bookRepository.findUserStatistics();
-
-            List<UserStatistics> statistics = userStats.stream()
-                .map(row -> new UserStatistics(
-                    (Long) row[0],      // userId
-                    (String) row[1],    // userName
-                    (Long) row[2]       // bookCount
-                ))
+            List<UserStatistics> statistics = bookRepository.findUserBookCounts().stream()
+                .map(row -> new UserStatistics(row.getUserId(), row.getUsername(), row.getBookCount()))
                 .collect(java.util.stream.Collectors.toList());
 
             logger.info("ユーザー別統計取得完了: userCount={}", statistics.size());
@@ -269,42 +439,28 @@ public class ReportDataService {
 
     /**
      * 書籍統計データ取得
+     * フィルター条件を集計クエリに適用し、書籍エンティティを読み込まずに算出する
      */
     @Transactional(readOnly = true)
     public BookStatistics getBookStatistics(Long userId, ReportRequest.ReportFilters filters) {
-        org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(this.getClass());
-
         try {
             logger.info("書籍統計データ取得開始: userId={}", userId);
 
-            List<Book> books = getFilteredBooks(userId, createRequestForStatistics(filters));
-            logger.debug("統計対象書籍数: {}", books.size());
+            Specification<Book> spec = createBookSpecification(userId, filters);
 
             BookStatistics stats = new BookStatistics();
-            stats.setTotalCount(books.size());
+            stats.setTotalCount((int) countBooks(spec, false));
 
             // 読書状況別集計
-            logger.debug("読書状況別集計開始");
-            books.stream()
-                .filter(book -> book.getReadStatus() != null)
-                .forEach(book -> {
-                    String status = book.getReadStatus().getName();
-                    logger.debug("読書状況: {} - 書籍: {}", status, book.getTitle());
-                    stats.incrementStatusCount(status);
-                });
-
+            for (GroupCount row : countByReadStatus(spec)) {
+                stats.getStatusCounts().put(row.getKey(), (int) row.getCount());
+            }
             logger.info("読書状況別集計結果: {}", stats.getStatusCounts());
 
             // 出版社別集計（上位5社）
-            books.stream()
-                .filter(book -> book.getPublisher() != null && !book.getPublisher().trim().isEmpty())
-                .collect(java.util.stream.Collectors.groupingBy(
-                    Book::getPublisher,
-                    java.util.stream.Collectors.counting()))
-                .entrySet().stream()
-                .sorted(java.util.Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .forEach(entry -> stats.addPublisherCount(entry.getKey(), entry.getValue().intValue()));
+            for (GroupCount row : countByPublisher(spec, 5)) {
+                stats.addPublisherCount(row.getKey(), (int) row.getCount());
+            }
 
             logger.info("書籍統計データ取得完了: userId={}, 総数={}, 状況別数={}, 出版社数={}",
                 userId, stats.getTotalCount(), stats.getStatusCounts().size(), stats.getPublisherCounts().size());
@@ -317,18 +473,98 @@ public class ReportDataService {
     }
 
     /**
-     * 統計用リクエスト作成
+     * 書籍件数集計
+     * 著者フィルターの結合で行が重複するため書籍IDの重複を除いて数える
      */
-    private ReportRequest createRequestForStatistics(ReportRequest.ReportFilters filters) {
-        ReportRequest request = new ReportRequest("STATISTICS", "DATA");
-        request.setFilters(filters);
+    private long countBooks(Specification<Book> spec, boolean withPublisherOnly) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        addSpecification(predicates, spec, root, query, cb);
+        if (withPublisherOnly) {
+            addPublisherPresent(predicates, root, cb);
+        }
+
+        query.select(cb.countDistinct(root.get("id")))
+            .where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
 
-        // 統計用の最大件数設定
-        ReportRequest.ReportOptions options = new ReportRequest.ReportOptions();
-        options.setCustomOptions(java.util.Map.of("maxRecords", 10000));
-        request.setOptions(options);
+    /**
+     * 読書状況別件数集計（read_status_id単位）
+     */
+    private List<GroupCount> countByReadStatus(Specification<Book> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GroupCount> query = cb.createQuery(GroupCount.class);
+        Root<Book> root = query.from(Book.class);
+        Join<Book, ReadStatus> readStatus = root.join("readStatus", JoinType.INNER);
+
+        List<Predicate> predicates = new ArrayList<>();
+        addSpecification(predicates, spec, root, query, cb);
+
+        Expression<Long> count = cb.countDistinct(root.get("id"));
+        query.select(cb.construct(GroupCount.class, readStatus.<String>get("name"), count))
+            .where(predicates.toArray(new Predicate[0]))
+            .groupBy(readStatus.get("id"), readStatus.get("name"))
+            .orderBy(cb.desc(count));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * 出版社別件数集計（件数の多い順に上位limit件）
+     */
+    private List<GroupCount> countByPublisher(Specification<Book> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GroupCount> query = cb.createQuery(GroupCount.class);
+        Root<Book> root = query.from(Book.class);
+        Path<String> publisher = root.get("publisher");
+
+        List<Predicate> predicates = new ArrayList<>();
+        addSpecification(predicates, spec, root, query, cb);
+        addPublisherPresent(predicates, root, cb);
+
+        Expression<Long> count = cb.countDistinct(root.get("id"));
+        query.select(cb.construct(GroupCount.class, publisher, count))
+            .where(predicates.toArray(new Predicate[0]))
+            .groupBy(publisher)
+            .orderBy(cb.desc(count), cb.asc(publisher));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    private void addSpecification(List<Predicate> predicates, Specification<Book> spec,
+                                  Root<Book> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+    }
+
+    private void addPublisherPresent(List<Predicate> predicates, Root<Book> root, CriteriaBuilder cb) {
+        Path<String> publisher = root.get("publisher");
+        predicates.add(cb.isNotNull(publisher));
+        predicates.add(cb.notEqual(cb.trim(publisher), ""));
+    }
+
+    /**
+     * 集計結果（キー・件数）
+     */
+    public static class GroupCount {
+        private final String key;
+        private final long count;
+
+        public GroupCount(String key, Long count) {
+            this.key = key;
+            this.count = count != null ? count : 0L;
+        }
 
-        return request;
+        public String getKey() { return key; }
+        public long getCount() { return count; }
     }
 
     /**
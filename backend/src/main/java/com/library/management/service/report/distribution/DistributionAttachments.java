@@ -0,0 +1,110 @@
+package com.library.management.service.report.distribution;
+
+import com.library.management.entity.ReportDistribution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 配信添付ファイル
+ * 1回の配信実行内で、圧縮・パスワード保護した添付ファイルを設定の組み合わせごとに1度だけ作成し、
+ * 同じ設定の配信（チャネル・配信設定をまたいで）で共有する。close()で作成した一時ファイルを削除する
+ */
+public class DistributionAttachments implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributionAttachments.class);
+
+    private final File reportFile;
+    private final String reportFileName;
+    private final Map<String, File> preparedFiles = new ConcurrentHashMap<>();
+
+    public DistributionAttachments(File reportFile, String reportFileName) {
+        this.reportFile = reportFile;
+        this.reportFileName = reportFileName;
+    }
+
+    public File getReportFile() {
+        return reportFile;
+    }
+
+    public String getReportFileName() {
+        return reportFileName;
+    }
+
+    /**
+     * 配信設定に応じた添付ファイル取得（添付なしの場合はnull）
+     */
+    public File getAttachment(ReportDistribution distribution) throws IOException {
+        if (!Boolean.TRUE.equals(distribution.getAttachFile())) {
+            return null;
+        }
+
+        String password = distribution.getPasswordProtection();
+        if (password != null && !password.trim().isEmpty()) {
+            return prepare("protected:" + password, "protected_");
+        }
+
+        if (Boolean.TRUE.equals(distribution.getCompressFile())) {
+            return prepare("compressed", "compressed_");
+        }
+
+        return reportFile;
+    }
+
+    private File prepare(String key, String prefix) throws IOException {
+        try {
+            return preparedFiles.computeIfAbsent(key, k -> {
+                try {
+                    return createZipFile(prefix);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * ZIPファイル作成
+     * パスワード保護は別途ライブラリが必要なため、現状は圧縮のみ行う
+     */
+    private File createZipFile(String prefix) throws IOException {
+        Path zipPath = Files.createTempFile(reportFile.getAbsoluteFile().getParentFile().toPath(), prefix, ".zip");
+
+        try (OutputStream out = Files.newOutputStream(zipPath);
+             ZipOutputStream zos = new ZipOutputStream(out)) {
+            zos.putNextEntry(new ZipEntry(reportFileName));
+            Files.copy(reportFile.toPath(), zos);
+            zos.closeEntry();
+        }
+
+        logger.info("添付ファイル作成: {}", zipPath.getFileName());
+        return zipPath.toFile();
+    }
+
+    /**
+     * 作成した一時ファイルの削除
+     */
+    @Override
+    public void close() {
+        for (File file : preparedFiles.values()) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                logger.warn("添付一時ファイル削除エラー: {}", file.getName(), e);
+            }
+        }
+        preparedFiles.clear();
+    }
+}
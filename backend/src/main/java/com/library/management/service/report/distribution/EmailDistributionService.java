@@ -13,13 +13,9 @@ import org.springframework.stereotype.Service;
 
 import jakarta.mail.internet.MimeMessage;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * Email配信サービス
@@ -41,10 +37,24 @@ public class EmailDistributionService {
     @Value("${app.mail.enabled:true}")
     private boolean mailEnabled;
 
+    @Value("${app.mail.recipient-batch-size:50}")
+    private int recipientBatchSize;
+
     /**
      * レポートメール送信
      */
     public void sendReport(ReportDistribution distribution, File reportFile, String reportFileName) {
+        try (DistributionAttachments attachments = new DistributionAttachments(reportFile, reportFileName)) {
+            sendReport(distribution, attachments);
+        }
+    }
+
+    /**
+     * レポートメール送信（配信実行内で添付ファイルを共有）
+     * 宛先は一定件数ごとにBCCでまとめ、全メッセージを1回のSMTP接続で送信する
+     */
+    public void sendReport(ReportDistribution distribution, DistributionAttachments attachments) {
+        String reportFileName = attachments.getReportFileName();
         try {
             if (!mailEnabled) {
                 logger.warn("メール送信が無効化されています: distributionId={}", distribution.getId());
@@ -60,21 +70,28 @@ public class EmailDistributionService {
             // 配信設定取得
             Map<String, Object> config = parseDistributionConfig(distribution.getDistributionConfig());
 
-            // 添付ファイル準備
-            File attachmentFile = prepareAttachmentFile(distribution, reportFile, reportFileName);
+            // 添付ファイル準備（同じ設定の配信間で共有）
+            File attachmentFile = attachments.getAttachment(distribution);
 
-            // メール送信
-            for (String recipient : recipients) {
-                sendSingleEmail(distribution, recipient, attachmentFile, reportFileName, config);
+            // 件名・本文は全宛先で共通
+            String subject = buildSubject(distribution, reportFileName);
+            String messageBody = buildMessageBody(distribution, reportFileName, config);
+
+            List<MimeMessage> messages = new ArrayList<>();
+            int batchSize = Math.max(1, recipientBatchSize);
+            for (int i = 0; i < recipients.size(); i += batchSize) {
+                List<String> batch = recipients.subList(i, Math.min(i + batchSize, recipients.size()));
+                messages.add(createMessage(distribution, batch, attachmentFile, reportFileName,
+                    subject, messageBody, config));
             }
 
-            // 一時ファイル削除
-            if (attachmentFile != reportFile && attachmentFile.exists()) {
-                attachmentFile.delete();
+            // メール送信
+            if (!messages.isEmpty()) {
+                mailSender.send(messages.toArray(new MimeMessage[0]));
             }
 
-            logger.info("レポートメール送信完了: distributionId={}, recipientCount={}",
-                distribution.getId(), recipients.size());
+            logger.info("レポートメール送信完了: distributionId={}, recipientCount={}, messageCount={}",
+                distribution.getId(), recipients.size(), messages.size());
 
         } catch (Exception e) {
             logger.error("レポートメール送信エラー: distributionId={}", distribution.getId(), e);
@@ -83,10 +100,12 @@ public class EmailDistributionService {
     }
 
     /**
-     * 単一メール送信
+     * メッセージ作成
+     * 宛先が1件の場合はTo、複数の場合は送信者宛てのToとBCCで送る（宛先同士にアドレスを開示しない）
      */
-    private void sendSingleEmail(ReportDistribution distribution, String recipient,
-                               File attachmentFile, String fileName, Map<String, Object> config) throws Exception {
+    private MimeMessage createMessage(ReportDistribution distribution, List<String> recipients,
+                                      File attachmentFile, String fileName, String subject,
+                                      String messageBody, Map<String, Object> config) throws Exception {
 
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -96,92 +115,24 @@ public class EmailDistributionService {
         helper.setFrom(fromAddress);
 
         // 宛先設定
-        helper.setTo(recipient);
+        if (recipients.size() == 1) {
+            helper.setTo(recipients.get(0));
+        } else {
+            helper.setTo(fromAddress);
+            helper.setBcc(recipients.toArray(new String[0]));
+        }
 
-        // 件名設定
-        String subject = buildSubject(distribution, fileName);
+        // 件名・本文設定
         helper.setSubject(subject);
-
-        // 本文設定
-        String messageBody = buildMessageBody(distribution, fileName, config);
         helper.setText(messageBody, true); // HTML対応
 
         // 添付ファイル設定
-        if (distribution.getAttachFile() && attachmentFile != null && attachmentFile.exists()) {
+        if (attachmentFile != null && attachmentFile.exists()) {
             FileSystemResource fileResource = new FileSystemResource(attachmentFile);
-            helper.addAttachment(getAttachmentFileName(fileName, distribution.getCompressFile()), fileResource);
-        }
-
-        // メール送信
-        mailSender.send(message);
-
-        logger.info("メール送信完了: recipient={}, subject={}", recipient, subject);
-    }
-
-    /**
-     * 添付ファイル準備
-     */
-    private File prepareAttachmentFile(ReportDistribution distribution, File reportFile, String fileName)
-            throws IOException {
-
-        if (!distribution.getAttachFile()) {
-            return null;
-        }
-
-        // パスワード保護が必要な場合
-        if (distribution.getPasswordProtection() != null && !distribution.getPasswordProtection().trim().isEmpty()) {
-            return createPasswordProtectedFile(reportFile, fileName, distribution.getPasswordProtection());
-        }
-
-        // 圧縮が必要な場合
-        if (distribution.getCompressFile()) {
-            return createCompressedFile(reportFile, fileName);
-        }
-
-        return reportFile;
-    }
-
-    /**
-     * パスワード保護ファイル作成
-     */
-    private File createPasswordProtectedFile(File reportFile, String fileName, String password) throws IOException {
-        // 簡易実装：ZIPパスワード保護
-        String zipFileName = fileName.replaceFirst("\\.[^.]+$", ".zip");
-        File zipFile = new File(reportFile.getParent(), "protected_" + zipFileName);
-
-        try (FileOutputStream fos = new FileOutputStream(zipFile);
-             ZipOutputStream zos = new ZipOutputStream(fos)) {
-
-            // 実際のパスワード保護はサードパーティライブラリが必要
-            // ここでは基本的なZIP圧縮のみ実装
-            ZipEntry entry = new ZipEntry(fileName);
-            zos.putNextEntry(entry);
-            Files.copy(reportFile.toPath(), zos);
-            zos.closeEntry();
-        }
-
-        logger.info("パスワード保護ファイル作成: {}", zipFile.getName());
-        return zipFile;
-    }
-
-    /**
-     * 圧縮ファイル作成
-     */
-    private File createCompressedFile(File reportFile, String fileName) throws IOException {
-        String zipFileName = fileName.replaceFirst("\\.[^.]+$", ".zip");
-        File zipFile = new File(reportFile.getParent(), "compressed_" + zipFileName);
-
-        try (FileOutputStream fos = new FileOutputStream(zipFile);
-             ZipOutputStream zos = new ZipOutputStream(fos)) {
-
-            ZipEntry entry = new ZipEntry(fileName);
-            zos.putNextEntry(entry);
-            Files.copy(reportFile.toPath(), zos);
-            zos.closeEntry();
+            helper.addAttachment(getAttachmentFileName(fileName, attachmentFile.getName().endsWith(".zip")), fileResource);
         }
 
-        logger.info("圧縮ファイル作成: {}", zipFile.getName());
-        return zipFile;
+        return message;
     }
 
     /**
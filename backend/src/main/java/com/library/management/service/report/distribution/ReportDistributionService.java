@@ -5,17 +5,25 @@ import com.library.management.repository.ReportDistributionRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 帳票配信サービス
@@ -42,6 +50,30 @@ public class ReportDistributionService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Value("${app.report.distribution.parallelism:4}")
+    private int parallelism;
+
+    private ThreadPoolTaskExecutor distributionExecutor;
+
+    @PostConstruct
+    public void init() {
+        distributionExecutor = new ThreadPoolTaskExecutor();
+        distributionExecutor.setCorePoolSize(parallelism);
+        distributionExecutor.setMaxPoolSize(parallelism);
+        distributionExecutor.setQueueCapacity(100);
+        distributionExecutor.setThreadNamePrefix("Distribution-");
+        // キュー溢れ時は呼び出し元で実行して投入を抑制する
+        distributionExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        distributionExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        distributionExecutor.setAwaitTerminationSeconds(60);
+        distributionExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        distributionExecutor.shutdown();
+    }
+
     /**
      * 配信設定作成
      */
@@ -190,39 +222,51 @@ public class ReportDistributionService {
 
     /**
      * スケジュール配信実行
+     * 配信設定ごとの配信を専用プールで並列実行し、添付ファイルは配信設定間で共有する
      */
     @Async
-    public CompletableFuture<Void> executeDistribution(Long scheduleId, File reportFile, String reportFileName) {
+    public CompletableFuture<DistributionResult> executeDistribution(Long scheduleId, File reportFile, String reportFileName) {
         try {
             logger.info("スケジュール配信実行開始: scheduleId={}, fileName={}", scheduleId, reportFileName);
 
             List<ReportDistribution> distributions = distributionRepository.findByScheduleIdAndIsActiveTrue(scheduleId);
+            DistributionResult result = new DistributionResult();
 
             if (distributions.isEmpty()) {
                 logger.info("配信対象なし: scheduleId={}", scheduleId);
-                return CompletableFuture.completedFuture(null);
+                return CompletableFuture.completedFuture(result);
             }
 
             logger.info("配信実行開始: scheduleId={}, distributionCount={}", scheduleId, distributions.size());
 
-            // 各配信設定に対して配信実行
-            for (ReportDistribution distribution : distributions) {
-                try {
-                    executeSingleDistribution(distribution, reportFile, reportFileName);
+            try (DistributionAttachments attachments = new DistributionAttachments(reportFile, reportFileName)) {
+                // 各配信設定に対して並列に配信実行（個別配信エラーでも他の配信は継続）
+                List<CompletableFuture<Long>> futures = new ArrayList<>();
+                for (ReportDistribution distribution : distributions) {
+                    futures.add(CompletableFuture.supplyAsync(
+                        () -> timedDistribution(distribution, attachments), distributionExecutor));
+                }
+
+                for (int i = 0; i < distributions.size(); i++) {
+                    ReportDistribution distribution = distributions.get(i);
+                    try {
+                        long elapsedMs = futures.get(i).join();
+                        result.record(distribution.getDistributionType(), elapsedMs, true);
 
-                    // 配信記録更新
-                    distribution.setLastDistributionTime(LocalDateTime.now());
-                    distribution.setDistributionCount(distribution.getDistributionCount() + 1);
-                    distributionRepository.save(distribution);
+                        // 配信記録更新
+                        distribution.setLastDistributionTime(LocalDateTime.now());
+                        distribution.setDistributionCount(distribution.getDistributionCount() + 1);
+                        distributionRepository.save(distribution);
 
-                } catch (Exception e) {
-                    logger.error("個別配信エラー: distributionId={}", distribution.getId(), e);
-                    // 個別配信エラーでも他の配信は継続
+                    } catch (CompletionException e) {
+                        logger.error("個別配信エラー: distributionId={}", distribution.getId(), e.getCause());
+                        result.record(distribution.getDistributionType(), 0L, false);
+                    }
                 }
             }
 
-            logger.info("スケジュール配信実行完了: scheduleId={}", scheduleId);
-            return CompletableFuture.completedFuture(null);
+            logger.info("スケジュール配信実行完了: scheduleId={}, チャネル別={}", scheduleId, result.getChannelSummary());
+            return CompletableFuture.completedFuture(result);
 
         } catch (Exception e) {
             logger.error("スケジュール配信実行エラー: scheduleId={}", scheduleId, e);
@@ -230,21 +274,42 @@ public class ReportDistributionService {
         }
     }
 
+    /**
+     * 単一配信実行（処理時間計測付き）
+     *
+     * @return 処理時間（ミリ秒）
+     */
+    private long timedDistribution(ReportDistribution distribution, DistributionAttachments attachments) {
+        long startTime = System.currentTimeMillis();
+        try {
+            executeSingleDistribution(distribution, attachments);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        long elapsedMs = System.currentTimeMillis() - startTime;
+        logger.info("配信処理時間: distributionId={}, type={}, elapsedMs={}",
+            distribution.getId(), distribution.getDistributionType(), elapsedMs);
+        return elapsedMs;
+    }
+
     /**
      * 単一配信実行
      */
-    private void executeSingleDistribution(ReportDistribution distribution, File reportFile, String reportFileName)
+    private void executeSingleDistribution(ReportDistribution distribution, DistributionAttachments attachments)
             throws Exception {
 
         logger.info("単一配信実行開始: distributionId={}, type={}",
             distribution.getId(), distribution.getDistributionType());
 
+        File reportFile = attachments.getReportFile();
+        String reportFileName = attachments.getReportFileName();
+
         switch (distribution.getDistributionType().toUpperCase()) {
             case "EMAIL":
-                emailService.sendReport(distribution, reportFile, reportFileName);
+                emailService.sendReport(distribution, attachments);
                 break;
             case "SLACK":
-                slackService.sendReport(distribution, reportFile, reportFileName);
+                slackService.sendReport(distribution, attachments);
                 break;
             case "FILE":
                 fileService.saveReport(distribution, reportFile, reportFileName);
@@ -270,7 +335,9 @@ public class ReportDistributionService {
             }
 
             ReportDistribution distribution = distributionOpt.get();
-            executeSingleDistribution(distribution, reportFile, reportFileName);
+            try (DistributionAttachments attachments = new DistributionAttachments(reportFile, reportFileName)) {
+                timedDistribution(distribution, attachments);
+            }
 
             // 配信記録更新
             distribution.setLastDistributionTime(LocalDateTime.now());
@@ -281,8 +348,9 @@ public class ReportDistributionService {
             return CompletableFuture.completedFuture(null);
 
         } catch (Exception e) {
-            logger.error("手動配信実行エラー: distributionId={}", distributionId, e);
-            return CompletableFuture.failedFuture(e);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.error("手動配信実行エラー: distributionId={}", distributionId, cause);
+            return CompletableFuture.failedFuture(cause);
         }
     }
 
@@ -425,6 +493,51 @@ public class ReportDistributionService {
         }
     }
 
+    /**
+     * 配信実行結果（チャネル別の件数・処理時間）
+     */
+    public static class DistributionResult {
+        private final Map<String, ChannelStats> channels = new LinkedHashMap<>();
+
+        void record(String channel, long elapsedMs, boolean success) {
+            ChannelStats stats = channels.computeIfAbsent(channel.toUpperCase(), k -> new ChannelStats());
+            if (success) {
+                stats.successCount++;
+                stats.totalElapsedMs += elapsedMs;
+                stats.maxElapsedMs = Math.max(stats.maxElapsedMs, elapsedMs);
+            } else {
+                stats.failureCount++;
+            }
+        }
+
+        public Map<String, ChannelStats> getChannels() { return channels; }
+
+        public String getChannelSummary() {
+            StringBuilder summary = new StringBuilder();
+            channels.forEach((channel, stats) -> summary.append(channel)
+                .append("[成功=").append(stats.successCount)
+                .append(", 失敗=").append(stats.failureCount)
+                .append(", 合計=").append(stats.totalElapsedMs).append("ms")
+                .append(", 最大=").append(stats.maxElapsedMs).append("ms] "));
+            return summary.toString().trim();
+        }
+    }
+
+    /**
+     * チャネル別統計クラス
+     */
+    public static class ChannelStats {
+        private int successCount;
+        private int failureCount;
+        private long totalElapsedMs;
+        private long maxElapsedMs;
+
+        public int getSuccessCount() { return successCount; }
+        public int getFailureCount() { return failureCount; }
+        public long getTotalElapsedMs() { return totalElapsedMs; }
+        public long getMaxElapsedMs() { return maxElapsedMs; }
+    }
+
     /**
      * 配信作成リクエスト
      */
@@ -0,0 +1,259 @@
+package com.library.management.service.report.distribution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slack Web APIクライアント
+ * 1つのHttpClientを共有し、HTTP/2の多重化（HTTP/1.1の場合はkeep-aliveの接続プール）で接続を再利用する。
+ * ファイルは外部アップロード方式（files.getUploadURLExternal → アップロードURLへ送信 → files.completeUploadExternal）で送り、
+ * 本体はディスクから逐次読み出すためメモリに載せない。
+ * API呼び出しはワークスペース（トークン）ごとのトークンバケットで流量を抑え、429応答のRetry-Afterに従って待機・再試行する
+ */
+@Component
+public class SlackApiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlackApiClient.class);
+
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded; charset=UTF-8";
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // ローカルのスタブサーバーで確認する場合は差し替える
+    @Value("${app.slack.api-base-url:https://slack.com/api}")
+    private String apiBaseUrl;
+
+    @Value("${app.slack.connect-timeout-ms:10000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.slack.request-timeout-ms:300000}")
+    private long requestTimeoutMs;
+
+    @Value("${app.slack.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${app.slack.rate-limit.requests-per-minute:20}")
+    private int requestsPerMinute;
+
+    @Value("${app.slack.rate-limit.burst:5}")
+    private int burst;
+
+    private HttpClient httpClient;
+
+    // ワークスペース（トークン）ごとのトークンバケット
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * ファイルアップロード
+     * 1回のアップロードで指定した全チャンネルに共有する
+     *
+     * @return SlackのファイルID
+     */
+    public String uploadFile(String token, Collection<String> channelIds, File file, String fileName,
+                             String title, String initialComment) throws IOException, InterruptedException {
+        // 1. アップロードURL取得
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("filename", fileName);
+        params.put("length", String.valueOf(file.length()));
+        JsonNode uploadUrl = callMethod(token, "files.getUploadURLExternal", params);
+        String fileId = uploadUrl.path("file_id").asText();
+
+        // 2. ファイル本体送信（ディスクから逐次読み出し）
+        sendFile(URI.create(uploadUrl.path("upload_url").asText()), file, fileName);
+
+        // 3. アップロード完了・チャンネル共有
+        Map<String, Object> fileEntry = new LinkedHashMap<>();
+        fileEntry.put("id", fileId);
+        fileEntry.put("title", title != null ? title : fileName);
+
+        Map<String, String> completeParams = new LinkedHashMap<>();
+        completeParams.put("files", objectMapper.writeValueAsString(List.of(fileEntry)));
+        completeParams.put("channels", String.join(",", channelIds));
+        if (initialComment != null && !initialComment.isEmpty()) {
+            completeParams.put("initial_comment", initialComment);
+        }
+        callMethod(token, "files.completeUploadExternal", completeParams);
+
+        logger.info("Slackファイルアップロード完了: fileId={}, channels={}, size={}", fileId, channelIds, file.length());
+        return fileId;
+    }
+
+    /**
+     * Web APIメソッド呼び出し（フォーム形式）
+     *
+     * @return レスポンスJSON（ok=falseの場合は例外）
+     */
+    public JsonNode callMethod(String token, String method, Map<String, String> params)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiBaseUrl + "/" + method))
+            .timeout(Duration.ofMillis(requestTimeoutMs))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", FORM_CONTENT_TYPE)
+            .POST(HttpRequest.BodyPublishers.ofString(encodeForm(params)))
+            .build();
+
+        HttpResponse<String> response = send(token, method, request);
+        if (response.statusCode() / 100 != 2) {
+            throw new SlackApiException(method, "HTTP " + response.statusCode());
+        }
+
+        JsonNode body = objectMapper.readTree(response.body());
+        if (!body.path("ok").asBoolean(false)) {
+            throw new SlackApiException(method, body.path("error").asText("unknown_error"));
+        }
+        return body;
+    }
+
+    /**
+     * アップロードURLへのファイル送信（マルチパート、本体はディスクから逐次読み出し）
+     */
+    private void sendFile(URI uploadUrl, File file, String fileName) throws IOException, InterruptedException {
+        String boundary = "----LibraryReport" + UUID.randomUUID().toString().replace("-", "");
+        String head = "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName.replace("\"", "%22") + "\"\r\n"
+            + "Content-Type: application/octet-stream\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+
+        HttpRequest request = HttpRequest.newBuilder(uploadUrl)
+            .timeout(Duration.ofMillis(requestTimeoutMs))
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofString(head, StandardCharsets.UTF_8),
+                HttpRequest.BodyPublishers.ofFile(file.toPath()),
+                HttpRequest.BodyPublishers.ofString(tail, StandardCharsets.UTF_8)))
+            .build();
+
+        // アップロードURLはWeb APIメソッドではないため流量制御の対象外（429の場合のみ待機して再試行）
+        HttpResponse<String> response = send(null, "upload", request);
+        if (response.statusCode() / 100 != 2) {
+            throw new SlackApiException("upload", "HTTP " + response.statusCode());
+        }
+    }
+
+    /**
+     * 送信（流量制御・429応答の再試行付き）
+     */
+    private HttpResponse<String> send(String token, String method, HttpRequest request)
+            throws IOException, InterruptedException {
+        TokenBucket bucket = token != null ? buckets.computeIfAbsent(token, t -> new TokenBucket(requestsPerMinute, burst)) : null;
+
+        for (int attempt = 0; ; attempt++) {
+            if (bucket != null) {
+                bucket.acquire();
+            }
+
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != TOO_MANY_REQUESTS || attempt >= maxRetries) {
+                return response;
+            }
+
+            long retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(1L);
+            logger.warn("Slackレート制限: method={}, retryAfter={}s, attempt={}", method, retryAfterSeconds, attempt + 1);
+            if (bucket != null) {
+                // 同じワークスペースの他の呼び出しも待機させる
+                bucket.pause(TimeUnit.SECONDS.toNanos(retryAfterSeconds));
+            } else {
+                TimeUnit.SECONDS.sleep(retryAfterSeconds);
+            }
+        }
+    }
+
+    private static String encodeForm(Map<String, String> params) {
+        StringJoiner joiner = new StringJoiner("&");
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            joiner.add(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * ワークスペース単位のトークンバケット
+     * 呼び出しごとに1トークンを予約し、不足分は補充されるまで待機する。Retry-After受信時は指定時間すべての呼び出しを止める
+     */
+    private static class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private long pausedUntil = lastRefill;
+
+        TokenBucket(int requestsPerMinute, int burst) {
+            this.capacity = Math.max(1, burst);
+            this.refillPerNano = Math.max(1, requestsPerMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos = reserve();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+
+        synchronized void pause(long nanos) {
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + nanos);
+            tokens = Math.min(tokens, 0);
+        }
+
+        private synchronized long reserve() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            tokens -= 1;
+
+            long waitNanos = Math.max(0, pausedUntil - now);
+            if (tokens < 0) {
+                waitNanos = Math.max(waitNanos, (long) Math.ceil(-tokens / refillPerNano));
+            }
+            return waitNanos;
+        }
+    }
+
+    /**
+     * Slack API呼び出しエラー
+     */
+    public static class SlackApiException extends IOException {
+        private final String method;
+        private final String error;
+
+        public SlackApiException(String method, String error) {
+            super("Slack API呼び出しに失敗しました: method=" + method + ", error=" + error);
+            this.method = method;
+            this.error = error;
+        }
+
+        public String getMethod() { return method; }
+        public String getError() { return error; }
+    }
+}
@@ -11,9 +11,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Slack配信サービス
@@ -23,22 +25,43 @@ public class SlackDistributionService {
 
     private static final Logger logger = LoggerFactory.getLogger(SlackDistributionService.class);
 
+    // SlackのチャンネルID形式（C:パブリック, G:プライベート, D:DM）
+    private static final Pattern CHANNEL_ID_PATTERN = Pattern.compile("^[CGD][A-Z0-9]{8,}$");
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private SlackApiClient slackApiClient;
+
     @Value("${app.slack.enabled:false}")
     private boolean slackEnabled;
 
     @Value("${app.slack.default-webhook-url:}")
     private String defaultWebhookUrl;
 
+    @Value("${app.slack.bot-token:}")
+    private String defaultBotToken;
+
     /**
      * SlackレポートChattootsukaiつalertType送信
      */
     public void sendReport(ReportDistribution distribution, File reportFile, String reportFileName) {
+        try (DistributionAttachments attachments = new DistributionAttachments(reportFile, reportFileName)) {
+            sendReport(distribution, attachments);
+        }
+    }
+
+    /**
+     * Slackレポート送信（配信実行内で添付ファイルを共有）
+     * 添付ありでボットトークンが設定されている場合は、チャンネルIDが分かる宛先へファイルを1回だけアップロードして共有し、
+     * それ以外の宛先にはWebhookで通知のみ送信する
+     */
+    public void sendReport(ReportDistribution distribution, DistributionAttachments attachments) {
+        String reportFileName = attachments.getReportFileName();
         try {
             if (!slackEnabled) {
                 logger.warn("Slack送信が無効化されています: distributionId={}", distribution.getId());
@@ -54,12 +77,15 @@ public class SlackDistributionService {
             // 配信設定取得
             Map<String, Object> config = parseDistributionConfig(distribution.getDistributionConfig());
 
-            // Webhook URL取得
-            String webhookUrl = getWebhookUrl(config);
+            // ファイルアップロード（チャンネルIDが分かる宛先）
+            List<String> notifyOnly = uploadAttachment(distribution, attachments, recipients, config);
 
             // メッセージ送信
-            for (String recipient : recipients) {
-                sendSlackMessage(distribution, recipient, reportFileName, webhookUrl, config);
+            if (!notifyOnly.isEmpty()) {
+                String webhookUrl = getWebhookUrl(config);
+                for (String recipient : notifyOnly) {
+                    sendSlackMessage(distribution, recipient, reportFileName, webhookUrl, config);
+                }
             }
 
             logger.info("Slackレポート送信完了: distributionId={}, recipientCount={}",
@@ -71,6 +97,73 @@ public class SlackDistributionService {
         }
     }
 
+    /**
+     * 添付ファイルのアップロード
+     *
+     * @return アップロードしなかった宛先（通知のみ送信する宛先）
+     */
+    private List<String> uploadAttachment(ReportDistribution distribution, DistributionAttachments attachments,
+                                          List<String> recipients, Map<String, Object> config) throws Exception {
+        String token = getBotToken(config);
+        File attachmentFile = attachments.getAttachment(distribution);
+        if (attachmentFile == null || token == null) {
+            return recipients;
+        }
+
+        List<String> channelIds = new ArrayList<>();
+        List<String> notifyOnly = new ArrayList<>();
+        for (String recipient : recipients) {
+            String channelId = resolveChannelId(recipient, config);
+            if (channelId != null) {
+                channelIds.add(channelId);
+            } else {
+                notifyOnly.add(recipient);
+            }
+        }
+
+        if (!channelIds.isEmpty()) {
+            String fileName = attachmentFile.getName().endsWith(".zip") && !attachments.getReportFileName().endsWith(".zip")
+                ? attachments.getReportFileName().replaceFirst("\\.[^.]+$", ".zip")
+                : attachments.getReportFileName();
+            slackApiClient.uploadFile(token, channelIds, attachmentFile, fileName, distribution.getName(),
+                buildSlackMessage(distribution, attachments.getReportFileName(), config));
+        }
+        if (!notifyOnly.isEmpty()) {
+            logger.warn("チャンネルIDが不明のため通知のみ送信: distributionId={}, recipients={}",
+                distribution.getId(), notifyOnly);
+        }
+        return notifyOnly;
+    }
+
+    /**
+     * 宛先のチャンネルID解決
+     * 配信設定のchannelIds（宛先 → チャンネルID）を優先し、宛先自体がID形式の場合はそのまま使う
+     */
+    @SuppressWarnings("unchecked")
+    private String resolveChannelId(String recipient, Map<String, Object> config) {
+        Object mapping = config.get("channelIds");
+        if (mapping instanceof Map) {
+            Object channelId = ((Map<String, Object>) mapping).get(recipient);
+            if (channelId instanceof String && !((String) channelId).trim().isEmpty()) {
+                return ((String) channelId).trim();
+            }
+        }
+
+        String name = recipient.startsWith("#") ? recipient.substring(1) : recipient;
+        return CHANNEL_ID_PATTERN.matcher(name).matches() ? name : null;
+    }
+
+    /**
+     * ボットトークン取得（未設定の場合はnull）
+     */
+    private String getBotToken(Map<String, Object> config) {
+        Object token = config.get("botToken");
+        if (token instanceof String && !((String) token).trim().isEmpty()) {
+            return ((String) token).trim();
+        }
+        return defaultBotToken != null && !defaultBotToken.trim().isEmpty() ? defaultBotToken.trim() : null;
+    }
+
     /**
      * Slackメッセージ送信
      */
@@ -224,23 +317,22 @@ public class SlackDistributionService {
 
     /**
      * Slackファイルアップロード
-     * 注意: この機能を使用するにはSlack APIトークンが必要
+     * 注意: この機能を使用するにはSlack APIトークン（files:write権限）が必要
+     *
+     * @param channel チャンネルID
+     * @return SlackのファイルID
      */
-    public void uploadFileToSlack(String channel, File file, String title, String token) {
+    public String uploadFileToSlack(String channel, File file, String title, String token) {
         try {
             logger.info("Slackファイルアップロード開始: channel={}, file={}", channel, file.getName());
+            return slackApiClient.uploadFile(token, List.of(channel), file, file.getName(), title, null);
 
-            // Slack Files API URL
-            String uploadUrl = "https://slack.com/api/files.upload";
-
-            // マルチパートフォームデータの作成は省略
-            // 実装にはSpring WebのMultiValueMapやApache HttpClientなどを使用
-
-            logger.warn("Slackファイルアップロード機能は未実装です。通知のみ送信されました。");
-
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Slackファイルアップロードが中断されました", e);
         } catch (Exception e) {
             logger.error("Slackファイルアップロードエラー: channel={}", channel, e);
             throw new RuntimeException("Slackファイルアップロードに失敗しました", e);
         }
     }
-}
\ No newline at end of file
+}
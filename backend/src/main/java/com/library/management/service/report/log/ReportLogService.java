@@ -3,13 +3,13 @@ package com.library.management.service.report.log;
 import com.library.management.dto.ReportRequest;
 import com.library.management.entity.ReportLog;
 import com.library.management.repository.ReportLogRepository;
+import com.library.management.service.report.ReportWriteJournal;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,7 +22,6 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * 帳票生成ログ管理サービス
@@ -39,8 +38,12 @@ public class ReportLogService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ReportWriteJournal reportWriteJournal;
+
     /**
      * レポート生成開始ログ
+     * 書き込みジャーナル経由で登録し、idは採番済みのものを即時に返す
      */
     public ReportLog startReportGeneration(Long userId, String username, ReportRequest request,
                                           HttpServletRequest httpRequest) {
@@ -62,10 +65,11 @@ public class ReportLogService {
 
             reportLog.setExecutionContext("MANUAL");
 
-            ReportLog savedLog = logRepository.save(reportLog);
-            logger.debug("レポート生成開始ログ記録完了: logId={}", savedLog.getId());
+            reportLog.setId(reportWriteJournal.nextLogId());
+            reportWriteJournal.recordLog(reportLog);
+            logger.debug("レポート生成開始ログ記録完了: logId={}", reportLog.getId());
 
-            return savedLog;
+            return reportLog;
 
         } catch (Exception e) {
             logger.error("レポート生成開始ログ記録エラー: userId={}, reportType={}",
@@ -105,56 +109,37 @@ public class ReportLogService {
     }
 
     /**
-     * レポート生成成功ログ
+     * レポート生成成功ログ（書き込みジャーナル経由）
      */
-    @Async
-    public void completeReportGenerationSuccess(Long logId, String fileName, String filePath,
+    public void completeReportGenerationSuccess(ReportLog reportLog, String fileName, String filePath,
                                               Integer recordCount, Long fileSizeBytes) {
         try {
-            Optional<ReportLog> logOpt = logRepository.findById(logId);
-            if (logOpt.isEmpty()) {
-                logger.warn("ログが見つかりません: logId={}", logId);
-                return;
-            }
-
-            ReportLog reportLog = logOpt.get();
             reportLog.completeSuccess(fileName, filePath, recordCount, fileSizeBytes);
-
-            logRepository.save(reportLog);
+            reportWriteJournal.recordLog(reportLog);
 
             logger.info("レポート生成成功ログ記録: logId={}, fileName={}, recordCount={}, fileSize={}",
-                logId, fileName, recordCount, fileSizeBytes);
+                reportLog.getId(), fileName, recordCount, fileSizeBytes);
 
         } catch (Exception e) {
-            logger.error("レポート生成成功ログ記録エラー: logId={}", logId, e);
+            logger.error("レポート生成成功ログ記録エラー: logId={}", reportLog.getId(), e);
         }
     }
 
     /**
-     * レポート生成失敗ログ
+     * レポート生成失敗ログ（書き込みジャーナル経由）
      */
-    @Async
-    public void completeReportGenerationError(Long logId, Exception exception) {
+    public void completeReportGenerationError(ReportLog reportLog, Exception exception) {
         try {
-            Optional<ReportLog> logOpt = logRepository.findById(logId);
-            if (logOpt.isEmpty()) {
-                logger.warn("ログが見つかりません: logId={}", logId);
-                return;
-            }
-
-            ReportLog reportLog = logOpt.get();
-
             String errorMessage = exception.getMessage();
             String stackTrace = getStackTrace(exception);
 
             reportLog.completeError(errorMessage, stackTrace);
+            reportWriteJournal.recordLog(reportLog);
 
-            logRepository.save(reportLog);
-
-            logger.warn("レポート生成失敗ログ記録: logId={}, error={}", logId, errorMessage);
+            logger.warn("レポート生成失敗ログ記録: logId={}, error={}", reportLog.getId(), errorMessage);
 
         } catch (Exception e) {
-            logger.error("レポート生成失敗ログ記録エラー: logId={}", logId, e);
+            logger.error("レポート生成失敗ログ記録エラー: logId={}", reportLog.getId(), e);
         }
     }
 
@@ -163,6 +148,7 @@ public class ReportLogService {
      */
     public Page<ReportLog> getUserLogs(Long userId, Pageable pageable) {
         try {
+            flushPendingLogs();
             Page<ReportLog> logs = logRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
             logger.debug("ユーザーログ一覧取得: userId={}, count={}", userId, logs.getTotalElements());
             return logs;
@@ -177,6 +163,7 @@ public class ReportLogService {
      */
     public Page<ReportLog> getAllLogs(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
         try {
+            flushPendingLogs();
             Page<ReportLog> logs;
             if (startDate != null && endDate != null) {
                 logs = logRepository.findByDateRange(startDate, endDate, pageable);
@@ -352,6 +339,15 @@ public class ReportLogService {
         return request.getRemoteAddr();
     }
 
+    /**
+     * 一覧取得前に未反映のログを反映
+     */
+    private void flushPendingLogs() {
+        if (reportWriteJournal.hasPendingLogs()) {
+            reportWriteJournal.flush();
+        }
+    }
+
     /**
      * スタックトレース取得
      */
@@ -3,6 +3,7 @@ package com.library.management.service.report.optimization;
 import com.library.management.dto.ReportRequest;
 import com.library.management.entity.Book;
 import com.library.management.repository.BookRepository;
+import com.library.management.service.report.data.ReportDataService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,13 +14,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -37,6 +44,9 @@ public class ReportOptimizationService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private ReportDataService reportDataService;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -88,6 +98,41 @@ public class ReportOptimizationService {
         }
     }
 
+    /**
+     * ストリーミングデータ取得
+     * 結果をリストに蓄積せず1件ずつconsumerへ渡すため、ヒープ使用量はbatchSize件分で頭打ちになる。
+     * ID順の場合はbooks.idのキーセットページング、それ以外のソート順は前方向カーソルで読み込む
+     */
+    @Transactional(readOnly = true)
+    public StreamingDataResult streamOptimizedData(Long userId, ReportRequest request, int maxRows,
+                                                   Consumer<Book> consumer) {
+        logger.info("ストリーミングデータ取得開始: userId={}, maxRows={}, batchSize={}", userId, maxRows, batchSize);
+
+        long startTime = System.currentTimeMillis();
+        int totalRecords;
+        int batchCount;
+
+        // カスタムオプションのmaxRecordsはカーソル・キーセットのどちらの取得でも上限とする
+        int rowLimit = reportDataService.getStreamingMaxRows(request, maxRows);
+
+        Boolean ascending = getIdSortDirection(request);
+        if (ascending != null) {
+            int[] progress = streamBooksByKeyset(userId, request, ascending, rowLimit, consumer);
+            totalRecords = progress[0];
+            batchCount = progress[1];
+        } else {
+            totalRecords = reportDataService.streamFilteredBooks(userId, request, batchSize, rowLimit, consumer);
+            batchCount = (totalRecords + batchSize - 1) / batchSize;
+        }
+
+        long processingTime = System.currentTimeMillis() - startTime;
+
+        logger.info("ストリーミングデータ取得完了: userId={}, 件数={}, バッチ数={}, 処理時間={}ms",
+            userId, totalRecords, batchCount, processingTime);
+
+        return new StreamingDataResult(totalRecords, OptimizationStrategy.STREAMING, processingTime, batchCount);
+    }
+
     /**
      * データ量推定
      */
@@ -262,51 +307,111 @@ public class ReportOptimizationService {
 
     /**
      * ストリーミング戦略実行
+     * 戻り値がリストのため結果は保持するが、取得はキーセットページングで行いOFFSETの再走査は発生しない。
+     * 件数に比例しないメモリで処理したい場合は streamOptimizedData を使用する
      */
     private OptimizedDataResult executeStreamingStrategy(Long userId, ReportRequest request) {
         logger.debug("ストリーミング戦略実行開始");
 
         long startTime = System.currentTimeMillis();
 
-        // ストリーミング処理用の軽量データ構造
         List<Book> streamedBooks = new ArrayList<>();
-        int batchCount = 0;
-        int page = 0;
+        int[] progress = streamBooksByKeyset(userId, request, true, Integer.MAX_VALUE, streamedBooks::add);
 
-        // 必要最小限のフィールドのみ取得
-        while (true) {
-            Pageable pageable = PageRequest.of(page, batchSize);
-            List<Book> batchBooks = getMinimalFieldBooks(userId, request, pageable);
+        long processingTime = System.currentTimeMillis() - startTime;
+
+        logger.debug("ストリーミング戦略実行完了: 総件数={}, バッチ数={}, 処理時間={}ms",
+            streamedBooks.size(), progress[1], processingTime);
 
+        return new OptimizedDataResult(
+            streamedBooks,
+            streamedBooks.size(),
+            OptimizationStrategy.STREAMING,
+            processingTime,
+            progress[1]
+        );
+    }
+
+    /**
+     * books.idのキーセットページングによる逐次取得
+     * 各ページは「id > 直前ページの最終id」で取得するため、ページ位置に関わらず取得コストは一定
+     *
+     * @return [処理件数, バッチ数]
+     */
+    private int[] streamBooksByKeyset(Long userId, ReportRequest request, boolean ascending, int maxRows,
+                                      Consumer<Book> consumer) {
+        Specification<Book> filterSpec = reportDataService.createFilterSpecification(
+            userId, request != null ? request.getFilters() : null);
+
+        Long lastId = null;
+        int totalRecords = 0;
+        int batchCount = 0;
+
+        while (totalRecords < maxRows) {
+            int limit = Math.min(batchSize, maxRows - totalRecords);
+            List<Book> batchBooks = getKeysetPage(filterSpec, lastId, ascending, limit);
             if (batchBooks.isEmpty()) {
                 break;
             }
 
-            streamedBooks.addAll(batchBooks);
+            for (Book book : batchBooks) {
+                consumer.accept(book);
+                // 処理済みの書籍は永続化コンテキストから切り離す
+                entityManager.detach(book);
+            }
+
+            lastId = batchBooks.get(batchBooks.size() - 1).getId();
+            totalRecords += batchBooks.size();
             batchCount++;
 
-            // メモリ効率化のため定期的にクリア
-            if (batchCount % 10 == 0) {
-                entityManager.clear();
-                System.gc(); // ガベージコレクション促進
+            logger.debug("キーセットバッチ {}完了: 件数={}, lastId={}", batchCount, batchBooks.size(), lastId);
+
+            if (batchBooks.size() < limit) {
+                break;
             }
+        }
 
-            logger.debug("ストリーミングバッチ {}完了: 件数={}", batchCount, batchBooks.size());
-            page++;
+        return new int[] {totalRecords, batchCount};
+    }
+
+    /**
+     * キーセットページ取得
+     * キーセット条件で書籍IDのみを取得し、関連はページ単位でまとめて結合取得する（書籍ごとの追加読み込みを避ける）
+     */
+    private List<Book> getKeysetPage(Specification<Book> filterSpec, Long lastId, boolean ascending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root.get("id"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filterPredicate = filterSpec.toPredicate(root, query, cb);
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+        if (lastId != null) {
+            predicates.add(ascending
+                ? cb.greaterThan(root.get("id"), lastId)
+                : cb.lessThan(root.get("id"), lastId));
         }
 
-        long processingTime = System.currentTimeMillis() - startTime;
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(ascending ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
 
-        logger.debug("ストリーミング戦略実行完了: 総件数={}, バッチ数={}, 処理時間={}ms",
-            streamedBooks.size(), batchCount, processingTime);
+        List<Long> bookIds = entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+        return reportDataService.findBooksForReport(bookIds);
+    }
 
-        return new OptimizedDataResult(
-            streamedBooks,
-            streamedBooks.size(),
-            OptimizationStrategy.STREAMING,
-            processingTime,
-            batchCount
-        );
+    /**
+     * ID順ソートの判定（ID順でない場合はnull、昇順ならtrue）
+     */
+    private Boolean getIdSortDirection(ReportRequest request) {
+        if (request == null || request.getOptions() == null || !"id".equalsIgnoreCase(request.getOptions().getSortBy())) {
+            return null;
+        }
+        return !"DESC".equalsIgnoreCase(request.getOptions().getSortOrder());
     }
 
     /**
@@ -334,24 +439,6 @@ public class ReportOptimizationService {
         return bookRepository.findAll(spec, sortedPageable);
     }
 
-    /**
-     * 最小限フィールドのみの書籍データ取得
-     */
-    private List<Book> getMinimalFieldBooks(Long userId, ReportRequest request, Pageable pageable) {
-        // プロジェクションクエリで必要フィールドのみ取得
-        String jpql = "SELECT NEW com.library.management.entity.Book(b.id, b.title, b.publisher, b.readStatus) " +
-                     "FROM Book b WHERE b.userId = :userId ORDER BY b.id";
-
-        Query query = entityManager.createQuery(jpql);
-        query.setParameter("userId", userId);
-        query.setFirstResult(pageable.getPageNumber() * pageable.getPageSize());
-        query.setMaxResults(pageable.getPageSize());
-
-        @SuppressWarnings("unchecked")
-        List<Book> books = query.getResultList();
-        return books;
-    }
-
     /**
      * カウントクエリ構築
      */
@@ -408,6 +495,34 @@ public class ReportOptimizationService {
         }
     }
 
+    /**
+     * ストリーミングデータ結果クラス（データ本体はconsumerへ渡すため保持しない）
+     */
+    public static class StreamingDataResult {
+        private final int totalRecords;
+        private final OptimizationStrategy strategy;
+        private final long processingTimeMs;
+        private final int batchCount;
+
+        public StreamingDataResult(int totalRecords, OptimizationStrategy strategy,
+                                   long processingTimeMs, int batchCount) {
+            this.totalRecords = totalRecords;
+            this.strategy = strategy;
+            this.processingTimeMs = processingTimeMs;
+            this.batchCount = batchCount;
+        }
+
+        // Getters
+        public int getTotalRecords() { return totalRecords; }
+        public OptimizationStrategy getStrategy() { return strategy; }
+        public long getProcessingTimeMs() { return processingTimeMs; }
+        public int getBatchCount() { return batchCount; }
+
+        public int getRecordsPerSecond() {
+            return processingTimeMs > 0 ? (int) (totalRecords * 1000.0 / processingTimeMs) : 0;
+        }
+    }
+
     /**
      * 最適化データ結果クラス
      */
@@ -0,0 +1,252 @@
+package com.library.management.service.report.schedule;
+
+import com.library.management.entity.ReportSchedule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * レポートスケジュール実行ディスパッチャー
+ * 実行対象スケジュールをリース付きで確保し、専用ワーカープールで実行する。
+ * 全体の同時実行数はワーカー数、ユーザーごとの同時実行数は設定値で制限し、
+ * 確保済み（待機中＋実行中）の件数が上限に達している間は新たに確保しない
+ */
+@Component
+public class ReportScheduleDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportScheduleDispatcher.class);
+
+    @Autowired
+    private ReportScheduleService scheduleService;
+
+    @Value("${app.report.schedule.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${app.report.schedule.max-concurrent-per-user:2}")
+    private int maxConcurrentPerUser;
+
+    @Value("${app.report.schedule.max-pending:50}")
+    private int maxPending;
+
+    @Value("${app.report.schedule.lease-seconds:900}")
+    private int leaseSeconds;
+
+    @Value("${app.report.schedule.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+    private ThreadPoolTaskExecutor workerPool;
+
+    // 次回実行時刻順の待機キュー（同時刻は投入順）
+    private final TreeSet<PendingSchedule> pending = new TreeSet<>(
+        Comparator.comparing((PendingSchedule p) -> p.runAt).thenComparingLong(p -> p.sequence));
+    private final Map<Long, Integer> runningByUser = new HashMap<>();
+    private int running;
+    private long sequence;
+
+    // リース保持中のスケジュールID（待機中＋実行中）
+    private final Set<Long> claimedIds = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean shuttingDown;
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId : generateNodeId();
+
+        workerPool = new ThreadPoolTaskExecutor();
+        workerPool.setCorePoolSize(workerThreads);
+        workerPool.setMaxPoolSize(workerThreads);
+        workerPool.setQueueCapacity(workerThreads);
+        workerPool.setThreadNamePrefix("ReportSchedule-");
+        workerPool.setWaitForTasksToCompleteOnShutdown(true);
+        workerPool.setAwaitTerminationSeconds(60);
+        workerPool.initialize();
+
+        logger.info("スケジュール実行ディスパッチャー初期化: nodeId={}, workers={}, perUser={}, maxPending={}",
+            nodeId, workerThreads, maxConcurrentPerUser, maxPending);
+    }
+
+    /**
+     * 実行対象スケジュールを空き容量分だけ確保して投入
+     * 保持中のリースは併せて延長する
+     *
+     * @return 新たに確保した件数
+     */
+    public int dispatchDueSchedules() {
+        if (shuttingDown) {
+            return 0;
+        }
+
+        scheduleService.renewLeases(new ArrayList<>(claimedIds), nodeId, leaseSeconds);
+
+        int capacity = maxPending - claimedIds.size();
+        if (capacity <= 0) {
+            logger.info("スケジュール確保を見送り（処理待ち上限）: claimed={}", claimedIds.size());
+            return 0;
+        }
+
+        List<ReportSchedule> schedules = scheduleService.claimDueSchedules(nodeId, capacity, leaseSeconds);
+        for (ReportSchedule schedule : schedules) {
+            enqueue(schedule);
+        }
+        drain();
+
+        if (!schedules.isEmpty()) {
+            logger.info("スケジュール投入: claimed={}, pending={}, running={}",
+                schedules.size(), pendingCount(), runningCount());
+        }
+        return schedules.size();
+    }
+
+    /**
+     * 単一スケジュールの投入（手動実行）
+     *
+     * @return 投入できた場合true（他で実行中の場合false）
+     */
+    public boolean submit(ReportSchedule schedule) {
+        if (shuttingDown || claimedIds.contains(schedule.getId())
+                || !scheduleService.claimSchedule(schedule.getId(), nodeId, leaseSeconds)) {
+            return false;
+        }
+
+        enqueue(schedule);
+        drain();
+        return true;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    public synchronized int runningCount() {
+        return running;
+    }
+
+    private synchronized void enqueue(ReportSchedule schedule) {
+        claimedIds.add(schedule.getId());
+        LocalDateTime runAt = schedule.getNextRunTime() != null ? schedule.getNextRunTime() : LocalDateTime.MIN;
+        pending.add(new PendingSchedule(schedule, runAt, sequence++));
+    }
+
+    /**
+     * 空きワーカーに待機中スケジュールを割り当て
+     * 同時実行数が上限のユーザーのスケジュールは飛ばし、次のユーザーのものを先に実行する
+     */
+    private synchronized void drain() {
+        while (running < workerThreads && !shuttingDown) {
+            PendingSchedule next = null;
+            for (Iterator<PendingSchedule> it = pending.iterator(); it.hasNext(); ) {
+                PendingSchedule candidate = it.next();
+                if (runningByUser.getOrDefault(candidate.schedule.getUserId(), 0) < maxConcurrentPerUser) {
+                    it.remove();
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+
+            PendingSchedule task = next;
+            running++;
+            runningByUser.merge(task.schedule.getUserId(), 1, Integer::sum);
+            try {
+                workerPool.execute(() -> run(task));
+            } catch (TaskRejectedException e) {
+                running--;
+                runningByUser.computeIfPresent(task.schedule.getUserId(), (userId, count) -> count > 1 ? count - 1 : null);
+                pending.add(task);
+                logger.warn("スケジュール実行の投入が拒否されました: scheduleId={}", task.schedule.getId());
+                return;
+            }
+        }
+    }
+
+    private void run(PendingSchedule task) {
+        ReportSchedule schedule = task.schedule;
+        try {
+            logger.info("スケジュール実行開始: scheduleId={}, name={}, userId={}",
+                schedule.getId(), schedule.getName(), schedule.getUserId());
+            scheduleService.executeSchedule(schedule);
+        } catch (Exception e) {
+            logger.error("スケジュール実行中に予期しないエラー: scheduleId={}", schedule.getId(), e);
+        } finally {
+            synchronized (this) {
+                running--;
+                runningByUser.computeIfPresent(schedule.getUserId(), (userId, count) -> count > 1 ? count - 1 : null);
+            }
+            claimedIds.remove(schedule.getId());
+            drain();
+        }
+    }
+
+    /**
+     * 停止時は未実行のスケジュールのリースを解放し、他ノード・次回起動時に実行させる
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+
+        List<Long> unstarted = new ArrayList<>();
+        synchronized (this) {
+            for (PendingSchedule task : pending) {
+                unstarted.add(task.schedule.getId());
+            }
+            pending.clear();
+        }
+        claimedIds.removeAll(unstarted);
+
+        try {
+            scheduleService.releaseLeases(unstarted, nodeId);
+        } catch (Exception e) {
+            logger.warn("スケジュールリース解放エラー: count={}", unstarted.size(), e);
+        }
+
+        workerPool.shutdown();
+        logger.info("スケジュール実行ディスパッチャー停止: 解放件数={}", unstarted.size());
+    }
+
+    private String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * 待機中スケジュールクラス
+     */
+    private static class PendingSchedule {
+        private final ReportSchedule schedule;
+        private final LocalDateTime runAt;
+        private final long sequence;
+
+        PendingSchedule(ReportSchedule schedule, LocalDateTime runAt, long sequence) {
+            this.schedule = schedule;
+            this.runAt = runAt;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -9,7 +9,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * レポートスケジュール実行器
@@ -23,41 +22,25 @@ public class ReportScheduleExecutor {
     @Autowired
     private ReportScheduleService scheduleService;
 
+    @Autowired
+    private ReportScheduleDispatcher scheduleDispatcher;
+
     /**
      * スケジュール定期実行
-     * 1分ごとに実行対象をチェック
+     * 実行対象をリース付きで確保し、ディスパッチャーの専用ワーカーで実行する
+     * （前回のチェック完了から一定間隔で実行し、チェック同士は重ならない）
      */
-    @Scheduled(fixedRate = 60000) // 60秒間隔
+    @Scheduled(fixedDelayString = "${app.report.schedule.poll-interval-ms:60000}")
     public void executeScheduledReports() {
         try {
             logger.debug("スケジュール実行チェック開始: {}", LocalDateTime.now());
 
-            List<ReportSchedule> schedulesToRun = scheduleService.getSchedulesToRun();
+            int claimed = scheduleDispatcher.dispatchDueSchedules();
 
-            if (schedulesToRun.isEmpty()) {
+            if (claimed == 0) {
                 logger.debug("実行対象スケジュールなし");
-                return;
             }
 
-            logger.info("実行対象スケジュール発見: count={}", schedulesToRun.size());
-
-            // 並行実行
-            List<CompletableFuture<Void>> futures = schedulesToRun.stream()
-                .map(schedule -> {
-                    logger.info("スケジュール実行開始: scheduleId={}, name={}, userId={}",
-                        schedule.getId(), schedule.getName(), schedule.getUserId());
-                    return scheduleService.executeSchedule(schedule);
-                })
-                .toList();
-
-            // 全ての実行完了を待機
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenRun(() -> logger.info("スケジュール一括実行完了: count={}", schedulesToRun.size()))
-                .exceptionally(throwable -> {
-                    logger.error("スケジュール一括実行中にエラー発生", throwable);
-                    return null;
-                });
-
         } catch (Exception e) {
             logger.error("スケジュール定期実行エラー", e);
         }
@@ -81,13 +64,12 @@ public class ReportScheduleExecutor {
 
             logger.info("未実行スケジュール発見: count={}", neverRunSchedules.size());
 
-            // 次回実行時刻が過去の場合は即座に実行
+            // 次回実行時刻が過去のものは定期実行チェックで確保・実行される
             LocalDateTime now = LocalDateTime.now();
             for (ReportSchedule schedule : neverRunSchedules) {
                 if (schedule.getNextRunTime() != null && schedule.getNextRunTime().isBefore(now)) {
-                    logger.info("未実行スケジュールの即座実行: scheduleId={}, name={}",
-                        schedule.getId(), schedule.getName());
-                    scheduleService.executeSchedule(schedule);
+                    logger.info("未実行スケジュール（実行待ち）: scheduleId={}, name={}, leaseOwner={}",
+                        schedule.getId(), schedule.getName(), schedule.getLeaseOwner());
                 }
             }
 
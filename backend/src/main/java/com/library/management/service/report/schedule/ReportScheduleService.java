@@ -8,16 +8,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * 帳票スケジュール管理サービス
@@ -189,11 +190,62 @@ public class ReportScheduleService {
         }
     }
 
+    /**
+     * 実行対象スケジュールの取得とリース確保（次回実行時刻順、最大limit件）
+     * 他ノードがリース中・ロック中のスケジュールは対象外
+     */
+    public List<ReportSchedule> claimDueSchedules(String owner, int limit, int leaseSeconds) {
+        LocalDateTime currentTime = LocalDateTime.now();
+        List<Long> ids = scheduleRepository.lockDueScheduleIds(currentTime, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        scheduleRepository.acquireLeases(ids, owner, currentTime.plusSeconds(leaseSeconds));
+
+        List<ReportSchedule> schedules = new ArrayList<>(scheduleRepository.findAllById(ids));
+        schedules.sort(Comparator.comparing(ReportSchedule::getNextRunTime,
+            Comparator.nullsFirst(Comparator.naturalOrder())));
+        logger.info("実行対象スケジュール確保: count={}, owner={}", schedules.size(), owner);
+        return schedules;
+    }
+
+    /**
+     * 単一スケジュールのリース確保（手動実行用）
+     *
+     * @return 確保できた場合true（実行中の場合false）
+     */
+    public boolean claimSchedule(Long scheduleId, String owner, int leaseSeconds) {
+        LocalDateTime currentTime = LocalDateTime.now();
+        return scheduleRepository.acquireLease(scheduleId, owner, currentTime.plusSeconds(leaseSeconds), currentTime) > 0;
+    }
+
+    /**
+     * 保持中リースの延長
+     */
+    public void renewLeases(Collection<Long> scheduleIds, String owner, int leaseSeconds) {
+        if (!scheduleIds.isEmpty()) {
+            scheduleRepository.renewLeases(scheduleIds, owner, LocalDateTime.now().plusSeconds(leaseSeconds));
+        }
+    }
+
+    /**
+     * 保持中リースの解放（未実行のまま停止する場合）
+     */
+    public void releaseLeases(Collection<Long> scheduleIds, String owner) {
+        if (!scheduleIds.isEmpty()) {
+            scheduleRepository.releaseLeases(scheduleIds, owner);
+        }
+    }
+
     /**
      * スケジュール実行
+     * 呼び出し元スレッドで同期実行する（並行数の制御はReportScheduleDispatcherが行う）。
+     * 完了時に次回実行時刻を更新し、リースを解放する
+     *
+     * @return 成功時true
      */
-    @Async
-    public CompletableFuture<Void> executeSchedule(ReportSchedule schedule) {
+    public boolean executeSchedule(ReportSchedule schedule) {
         try {
             logger.info("スケジュール実行開始: scheduleId={}, name={}", schedule.getId(), schedule.getName());
 
@@ -209,13 +261,15 @@ public class ReportScheduleService {
                 parseScheduleConfig(schedule.getScheduleConfig()),
                 schedule.getScheduleType()
             ));
+            schedule.setLeaseOwner(null);
+            schedule.setLeaseExpiresAt(null);
 
             scheduleRepository.save(schedule);
 
             logger.info("スケジュール実行完了: scheduleId={}, nextRunTime={}",
                 schedule.getId(), schedule.getNextRunTime());
 
-            return CompletableFuture.completedFuture(null);
+            return true;
 
         } catch (Exception e) {
             logger.error("スケジュール実行エラー: scheduleId={}", schedule.getId(), e);
@@ -223,9 +277,11 @@ public class ReportScheduleService {
             // エラー状態更新
             schedule.setStatus("ERROR");
             schedule.setLastRunTime(LocalDateTime.now());
+            schedule.setLeaseOwner(null);
+            schedule.setLeaseExpiresAt(null);
             scheduleRepository.save(schedule);
 
-            return CompletableFuture.failedFuture(e);
+            return false;
         }
     }
 
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -34,6 +35,11 @@ public class JwtUtil {
     @Value("${app.jwtRefreshExpirationMs:604800000}") // 7日間 = 604800000ms
     private int jwtRefreshExpirationMs;
     
+    // 発行時刻（ミリ秒）のクレーム名（標準のiatは秒精度のため失効判定用に併記する）
+    private static final String ISSUED_AT_MS_CLAIM = "iatMs";
+    
+    private volatile JwtParser jwtParser;
+    
     /**
      * 署名用のキーを取得
      */
@@ -42,6 +48,20 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(keyBytes);
     }
     
+    /**
+     * 検証用パーサーを取得（スレッドセーフなため生成後は再利用）
+     */
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+    
     /**
      * アクセストークンを生成
      * @param userDetails ユーザー情報
@@ -64,6 +84,7 @@ public class JwtUtil {
         // ロール情報を含める（ROLE_プレフィックス付き）
         claims.put("authorities", "[{\"authority\":\"ROLE_" + user.getRole().getName().toUpperCase() + "\"}]");
         claims.put("role", user.getRole().getName());
+        claims.put("userId", user.getId());
         return createToken(claims, user.getUsername(), jwtExpirationMs);
     }
     
@@ -88,6 +109,7 @@ public class JwtUtil {
     private String createToken(Map<String, Object> claims, String subject, int expiration) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
+        claims.put(ISSUED_AT_MS_CLAIM, now.getTime());
         
         return Jwts.builder()
                 .setClaims(claims)
@@ -134,9 +156,7 @@ public class JwtUtil {
      * @return すべてのクレーム
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -168,12 +188,19 @@ public class JwtUtil {
      * @return 有効な場合true
      */
     public boolean validateJwtToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+    
+    /**
+     * JWTトークンの形式・署名検証とクレーム取得を1回の解析で実行
+     * @param authToken JWTトークン
+     * @return 有効な場合はクレーム、無効な場合null
+     */
+    public Claims getValidatedClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return getParser()
+                .parseClaimsJws(authToken)
+                .getBody();
         } catch (SecurityException e) {
             System.err.println("Invalid JWT signature: " + e.getMessage());
         } catch (MalformedJwtException e) {
@@ -185,7 +212,22 @@ public class JwtUtil {
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
         }
-        return false;
+        return null;
+    }
+    
+    /**
+     * 発行時刻（ミリ秒）を取得
+     * ミリ秒のクレームを持たない旧形式のトークンは秒精度のiatを使用する
+     * @param claims クレーム情報
+     * @return 発行時刻（エポックミリ秒、不明な場合0）
+     */
+    public long getIssuedAtMillis(Claims claims) {
+        Object issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM);
+        if (issuedAtMs instanceof Number) {
+            return ((Number) issuedAtMs).longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() : 0L;
     }
     
     /**
@@ -0,0 +1,102 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * バッチログ・実行履歴の既存行の補完
+ * 1回のUPDATEでテーブル全体を書き換えると長時間行ロックを保持するため、idの範囲ごとに分けて都度コミットする。
+ * <ul>
+ *   <li>system_logs.job_name: 実行履歴のジョブ名のうち、メッセージ中に単語として完全一致するもの（複数一致時は最長のもの）</li>
+ *   <li>created_at: キーセットページングの並び順に使うため、未設定の行を補完する（実行履歴は開始日時、システムログは最小値として一覧の末尾に並べる）</li>
+ * </ul>
+ */
+public class V20251017_008__Backfill_batch_log_columns extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V20251017_008__Backfill_batch_log_columns.class);
+
+    private static final long BATCH_SIZE = 10000;
+
+    // 英数字・アンダースコア以外で区切られた位置にジョブ名がある行のみ対象とする（正規表現の記号はエスケープ）
+    private static final String JOB_NAME_BACKFILL = """
+        UPDATE system_logs s
+        SET job_name = m.job_name
+        FROM (
+            SELECT DISTINCT ON (l.id) l.id, j.job_name
+            FROM system_logs l
+            JOIN (SELECT DISTINCT job_name FROM batch_execution_logs) j
+              ON l.message ~ ('(^|[^[:alnum:]_])'
+                  || regexp_replace(j.job_name, '([^[:alnum:]_])', '\\\\\\1', 'g')
+                  || '($|[^[:alnum:]_])')
+            WHERE l.id >= ? AND l.id < ? AND l.job_name IS NULL
+            ORDER BY l.id, length(j.job_name) DESC, j.job_name
+        ) m
+        WHERE s.id = m.id
+        """;
+
+    private static final String SYSTEM_LOG_CREATED_AT_BACKFILL =
+        "UPDATE system_logs SET created_at = TIMESTAMP '1970-01-01 00:00:00' "
+            + "WHERE id >= ? AND id < ? AND created_at IS NULL";
+
+    private static final String EXECUTION_LOG_CREATED_AT_BACKFILL =
+        "UPDATE batch_execution_logs SET created_at = start_time "
+            + "WHERE id >= ? AND id < ? AND created_at IS NULL";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        int jobNames = backfill(connection, "system_logs", "job_name IS NULL", JOB_NAME_BACKFILL);
+        int systemLogs = backfill(connection, "system_logs", "created_at IS NULL", SYSTEM_LOG_CREATED_AT_BACKFILL);
+        int executionLogs = backfill(connection, "batch_execution_logs", "created_at IS NULL", EXECUTION_LOG_CREATED_AT_BACKFILL);
+
+        logger.info("バッチログ補完完了: jobName={}件, systemLogsCreatedAt={}件, executionLogsCreatedAt={}件",
+            jobNames, systemLogs, executionLogs);
+    }
+
+    /**
+     * 対象行のidの範囲をBATCH_SIZEずつ更新
+     *
+     * @return 更新件数
+     */
+    private int backfill(Connection connection, String table, String condition, String updateSql) throws SQLException {
+        long minId;
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT MIN(id), MAX(id) FROM " + table + " WHERE " + condition)) {
+            rs.next();
+            minId = rs.getLong(1);
+            if (rs.wasNull()) {
+                return 0;
+            }
+            maxId = rs.getLong(2);
+        }
+
+        int updated = 0;
+        try (PreparedStatement statement = connection.prepareStatement(updateSql)) {
+            for (long from = minId; from <= maxId; from += BATCH_SIZE) {
+                statement.setLong(1, from);
+                statement.setLong(2, from + BATCH_SIZE);
+                updated += statement.executeUpdate();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+            }
+        }
+        return updated;
+    }
+}
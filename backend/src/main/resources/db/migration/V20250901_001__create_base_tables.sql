@@ -0,0 +1,53 @@
+-- 基本テーブル作成（ユーザー・マスタ・書籍）
+-- 以降のマイグレーションが前提とするテーブルで、従来はマイグレーション導入前に作成済みのものを使っていた。
+-- 空のデータベース（ベンチマーク・検証環境）でもマイグレーションのみで構築できるようにする。
+-- 既存の環境では作成済みのため何もしない（out-of-orderで後から適用されても変更しない）
+
+CREATE TABLE IF NOT EXISTS roles (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    role_id BIGINT REFERENCES roles(id),
+    created_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS read_statuses (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS genres (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS authors (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    publisher VARCHAR(255),
+    published_date DATE,
+    isbn VARCHAR(255),
+    read_status_id BIGINT REFERENCES read_statuses(id),
+    user_id BIGINT REFERENCES users(id),
+    created_at TIMESTAMP,
+    genre_id BIGINT REFERENCES genres(id)
+);
+
+CREATE TABLE IF NOT EXISTS book_authors (
+    book_id BIGINT NOT NULL REFERENCES books(id),
+    author_id BIGINT NOT NULL REFERENCES authors(id),
+    PRIMARY KEY (book_id, author_id)
+);
@@ -0,0 +1,34 @@
+-- 帳票ファイル実体テーブル作成（コンテンツアドレス方式）
+CREATE TABLE report_file_objects (
+    id BIGSERIAL PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL,
+    object_path VARCHAR(500) NOT NULL,
+    file_size BIGINT,
+    ref_count INT NOT NULL DEFAULT 0,
+    unreferenced_since TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 一意制約
+ALTER TABLE report_file_objects ADD CONSTRAINT uk_report_file_objects_hash UNIQUE (content_hash);
+
+-- 未参照実体の回収用インデックス（参照数0の行のみ）
+CREATE INDEX idx_report_file_objects_unreferenced ON report_file_objects(unreferenced_since)
+    WHERE ref_count <= 0;
+
+-- 帳票履歴・キャッシュからのハッシュ参照
+ALTER TABLE report_history ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE report_cache ADD COLUMN content_hash VARCHAR(64);
+
+-- PostgreSQL用コメント追加
+COMMENT ON TABLE report_file_objects IS '帳票ファイル実体テーブル';
+COMMENT ON COLUMN report_file_objects.content_hash IS 'ファイル内容のSHA-256（16進）';
+COMMENT ON COLUMN report_file_objects.object_path IS '実体ファイルパス';
+COMMENT ON COLUMN report_file_objects.file_size IS 'ファイルサイズ（バイト）';
+COMMENT ON COLUMN report_file_objects.ref_count IS '参照数（履歴・キャッシュのリンク数）';
+COMMENT ON COLUMN report_file_objects.unreferenced_since IS '参照数が0になった日時';
+COMMENT ON COLUMN report_file_objects.created_at IS '作成日時';
+COMMENT ON COLUMN report_file_objects.updated_at IS '更新日時';
+COMMENT ON COLUMN report_history.content_hash IS 'ファイル内容のSHA-256（16進）';
+COMMENT ON COLUMN report_cache.content_hash IS 'ファイル内容のSHA-256（16進）';
@@ -0,0 +1,50 @@
+-- 書籍日次集計テーブル作成（定期統計の集計元）
+CREATE TABLE book_daily_stats (
+    stat_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    genre_id BIGINT,
+    book_count INT NOT NULL DEFAULT 0,
+    completed_count INT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_book_daily_stats_date ON book_daily_stats(stat_date);
+
+-- 再集計が必要な日付（書籍の登録・更新・削除でトリガーが記録）
+CREATE TABLE book_daily_stats_dirty (
+    stat_date DATE PRIMARY KEY,
+    marked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION mark_book_daily_stats_dirty() RETURNS TRIGGER AS $$
+BEGIN
+    -- 集計中の日付は行ロック解放を待ってから再登録する（DO NOTHINGだと集計後の変更を取りこぼす）
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.created_at IS NOT NULL THEN
+        INSERT INTO book_daily_stats_dirty (stat_date) VALUES (CAST(NEW.created_at AS DATE))
+        ON CONFLICT (stat_date) DO UPDATE SET marked_at = EXCLUDED.marked_at;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.created_at IS NOT NULL
+       AND (TG_OP = 'DELETE' OR CAST(OLD.created_at AS DATE) IS DISTINCT FROM CAST(NEW.created_at AS DATE)) THEN
+        INSERT INTO book_daily_stats_dirty (stat_date) VALUES (CAST(OLD.created_at AS DATE))
+        ON CONFLICT (stat_date) DO UPDATE SET marked_at = EXCLUDED.marked_at;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_books_daily_stats_dirty
+    AFTER INSERT OR UPDATE OF created_at, user_id, genre_id, read_status_id OR DELETE ON books
+    FOR EACH ROW EXECUTE FUNCTION mark_book_daily_stats_dirty();
+
+-- 既存データのバックフィル（初回の集計バッチで全日付を集計）
+INSERT INTO book_daily_stats_dirty (stat_date)
+SELECT DISTINCT CAST(created_at AS DATE) FROM books WHERE created_at IS NOT NULL;
+
+-- PostgreSQL用コメント追加
+COMMENT ON TABLE book_daily_stats IS '書籍日次集計テーブル（登録日・ユーザー・ジャンル単位）';
+COMMENT ON COLUMN book_daily_stats.stat_date IS '登録日';
+COMMENT ON COLUMN book_daily_stats.user_id IS 'ユーザーID';
+COMMENT ON COLUMN book_daily_stats.genre_id IS 'ジャンルID（未設定はNULL）';
+COMMENT ON COLUMN book_daily_stats.book_count IS '登録書籍数';
+COMMENT ON COLUMN book_daily_stats.completed_count IS 'うち読了書籍数';
+COMMENT ON TABLE book_daily_stats_dirty IS '書籍日次集計の再集計待ち日付';
+COMMENT ON COLUMN book_daily_stats_dirty.marked_at IS '最終変更検知日時';
@@ -0,0 +1,11 @@
+-- レポートスケジュール実行リース列追加（複数ノードでの二重実行防止）
+ALTER TABLE report_schedules ADD COLUMN lease_owner VARCHAR(100);
+ALTER TABLE report_schedules ADD COLUMN lease_expires_at TIMESTAMP;
+
+-- 実行対象スケジュールの取得用インデックス（次回実行時刻順）
+CREATE INDEX idx_report_schedules_due ON report_schedules(next_run_time)
+    WHERE status = 'ACTIVE' AND is_active = true;
+
+-- PostgreSQL用コメント追加
+COMMENT ON COLUMN report_schedules.lease_owner IS '実行リース保持ノード';
+COMMENT ON COLUMN report_schedules.lease_expires_at IS '実行リース期限';
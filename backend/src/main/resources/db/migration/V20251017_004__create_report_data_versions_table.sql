@@ -0,0 +1,85 @@
+-- 帳票データバージョンテーブル作成（帳票キャッシュの変更検知用）
+-- ユーザーの書籍が変更されるとそのユーザーの行、ジャンル・読書ステータス・著者が変更されるとuser_id=0の行を
+-- シーケンスの新しい値で更新する。全体のバージョンは全行のversionの最大値
+CREATE SEQUENCE report_data_version_seq;
+
+CREATE TABLE report_data_versions (
+    user_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_report_data_versions_version ON report_data_versions(version);
+CREATE INDEX idx_report_data_versions_updated_at ON report_data_versions(updated_at);
+
+-- キャッシュ生成時点のデータバージョン（NULLは変更検知導入前のエントリ）
+ALTER TABLE report_cache ADD COLUMN data_version BIGINT;
+
+CREATE OR REPLACE FUNCTION bump_report_data_version(target_user_id BIGINT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO report_data_versions (user_id, version, updated_at)
+    VALUES (target_user_id, nextval('report_data_version_seq'), clock_timestamp())
+    ON CONFLICT (user_id) DO UPDATE SET version = EXCLUDED.version, updated_at = EXCLUDED.updated_at;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_report_data_version_for_book() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.user_id IS NOT NULL THEN
+        PERFORM bump_report_data_version(NEW.user_id);
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.user_id IS NOT NULL
+       AND (TG_OP = 'DELETE' OR OLD.user_id IS DISTINCT FROM NEW.user_id) THEN
+        PERFORM bump_report_data_version(OLD.user_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_report_data_version_for_book_author() RETURNS TRIGGER AS $$
+DECLARE
+    owner_id BIGINT;
+BEGIN
+    SELECT user_id INTO owner_id FROM books
+    WHERE id = CASE WHEN TG_OP = 'DELETE' THEN OLD.book_id ELSE NEW.book_id END;
+    IF owner_id IS NOT NULL THEN
+        PERFORM bump_report_data_version(owner_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_report_data_version_for_master() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM bump_report_data_version(0);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_books_report_data_version
+    AFTER INSERT OR UPDATE OR DELETE ON books
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_book();
+
+CREATE TRIGGER trg_book_authors_report_data_version
+    AFTER INSERT OR UPDATE OR DELETE ON book_authors
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_book_author();
+
+-- マスタの追加は参照する書籍の登録時に書籍側で検知されるため、更新・削除のみ対象とする
+CREATE TRIGGER trg_genres_report_data_version
+    AFTER UPDATE OR DELETE ON genres
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_report_data_version_for_master();
+
+CREATE TRIGGER trg_read_statuses_report_data_version
+    AFTER UPDATE OR DELETE ON read_statuses
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_report_data_version_for_master();
+
+CREATE TRIGGER trg_authors_report_data_version
+    AFTER UPDATE OR DELETE ON authors
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_report_data_version_for_master();
+
+-- PostgreSQL用コメント追加
+COMMENT ON TABLE report_data_versions IS '帳票データバージョンテーブル（帳票キャッシュの変更検知用）';
+COMMENT ON COLUMN report_data_versions.user_id IS 'ユーザーID（0は全ユーザー共通のマスタデータ）';
+COMMENT ON COLUMN report_data_versions.version IS 'データバージョン（変更ごとにシーケンスから採番）';
+COMMENT ON COLUMN report_data_versions.updated_at IS '最終変更日時';
+COMMENT ON COLUMN report_cache.data_version IS '生成時点のデータバージョン';
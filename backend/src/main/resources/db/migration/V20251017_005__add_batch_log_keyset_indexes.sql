@@ -0,0 +1,32 @@
+-- バッチログ・実行履歴のキーセットページング用インデックス
+-- 一覧は (created_at, id) の降順で前ページ末尾の行より後ろを読むため、絞り込み列を先頭にした複合インデックスを用意する。
+-- 絞り込み・並び順・件数はインデックスのみで判定でき、本体の行はページの件数分だけ読む
+-- (created_at, id) < (?, ?) の行値比較をインデックス条件にするため昇順で作成し、降順の一覧は逆方向にスキャンする
+
+-- システムログのジョブ名（従来はmessageの部分一致で絞り込んでいた）
+ALTER TABLE system_logs ADD COLUMN IF NOT EXISTS job_name VARCHAR(100);
+
+-- 既存ログのジョブ名を実行履歴のジョブ名から補完
+UPDATE system_logs s
+SET job_name = j.job_name
+FROM (SELECT DISTINCT job_name FROM batch_execution_logs) j
+WHERE s.job_name IS NULL
+  AND s.message LIKE '%' || j.job_name || '%';
+
+CREATE INDEX IF NOT EXISTS idx_system_logs_created_at_id ON system_logs(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_system_logs_job_name_created_at_id ON system_logs(job_name, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_system_logs_level_created_at_id ON system_logs(log_level, created_at, id);
+
+-- 新しい複合インデックスで代替される
+DROP INDEX IF EXISTS idx_system_logs_created_at;
+
+-- 実行履歴
+CREATE INDEX IF NOT EXISTS idx_batch_execution_logs_created_at_id ON batch_execution_logs(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_batch_execution_logs_job_name_created_at_id ON batch_execution_logs(job_name, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_batch_execution_logs_status_created_at_id ON batch_execution_logs(status, created_at, id);
+
+-- 新しい複合インデックスで代替される
+DROP INDEX IF EXISTS idx_batch_execution_logs_job_name;
+
+ANALYZE system_logs;
+ANALYZE batch_execution_logs;
@@ -0,0 +1,52 @@
+-- バッチジョブ日次集計テーブル作成（バッチ管理画面の統計の集計元）
+-- ジョブ終了時にBatchJobExecutionListenerが開始日・ジョブ名の行へ加算する
+CREATE TABLE batch_job_daily_stats (
+    stat_date DATE NOT NULL,
+    job_name VARCHAR(100) NOT NULL,
+    execution_count INT NOT NULL DEFAULT 0,
+    completed_count INT NOT NULL DEFAULT 0,
+    failed_count INT NOT NULL DEFAULT 0,
+    timed_count INT NOT NULL DEFAULT 0,
+    total_duration_ms BIGINT NOT NULL DEFAULT 0,
+    max_duration_ms BIGINT,
+    read_count BIGINT NOT NULL DEFAULT 0,
+    write_count BIGINT NOT NULL DEFAULT 0,
+    last_execution TIMESTAMP,
+    PRIMARY KEY (stat_date, job_name)
+);
+
+-- 既存の実行履歴からのバックフィル
+INSERT INTO batch_job_daily_stats
+    (stat_date, job_name, execution_count, completed_count, failed_count, timed_count,
+     total_duration_ms, max_duration_ms, read_count, write_count, last_execution)
+SELECT
+    CAST(start_time AS DATE),
+    job_name,
+    COUNT(*),
+    COUNT(CASE WHEN status = 'COMPLETED' THEN 1 END),
+    COUNT(CASE WHEN status = 'FAILED' THEN 1 END),
+    COUNT(CASE WHEN end_time IS NOT NULL THEN 1 END),
+    COALESCE(SUM(CASE WHEN end_time IS NOT NULL
+        THEN CAST(EXTRACT(EPOCH FROM (end_time - start_time)) * 1000 AS BIGINT) END), 0),
+    MAX(CASE WHEN end_time IS NOT NULL
+        THEN CAST(EXTRACT(EPOCH FROM (end_time - start_time)) * 1000 AS BIGINT) END),
+    COALESCE(SUM(read_count), 0),
+    COALESCE(SUM(write_count), 0),
+    MAX(start_time)
+FROM batch_execution_logs
+WHERE start_time IS NOT NULL AND status <> 'STARTED'
+GROUP BY CAST(start_time AS DATE), job_name;
+
+-- PostgreSQL用コメント追加
+COMMENT ON TABLE batch_job_daily_stats IS 'バッチジョブ日次集計テーブル（開始日・ジョブ名単位）';
+COMMENT ON COLUMN batch_job_daily_stats.stat_date IS '開始日';
+COMMENT ON COLUMN batch_job_daily_stats.job_name IS 'ジョブ名';
+COMMENT ON COLUMN batch_job_daily_stats.execution_count IS '終了した実行数';
+COMMENT ON COLUMN batch_job_daily_stats.completed_count IS 'うち正常終了数';
+COMMENT ON COLUMN batch_job_daily_stats.failed_count IS 'うち異常終了数';
+COMMENT ON COLUMN batch_job_daily_stats.timed_count IS '実行時間を記録した実行数（平均の分母）';
+COMMENT ON COLUMN batch_job_daily_stats.total_duration_ms IS '実行時間の合計（ミリ秒）';
+COMMENT ON COLUMN batch_job_daily_stats.max_duration_ms IS '最大実行時間（ミリ秒）';
+COMMENT ON COLUMN batch_job_daily_stats.read_count IS '読み込み件数の合計';
+COMMENT ON COLUMN batch_job_daily_stats.write_count IS '書き込み件数の合計';
+COMMENT ON COLUMN batch_job_daily_stats.last_execution IS '最終実行開始日時';
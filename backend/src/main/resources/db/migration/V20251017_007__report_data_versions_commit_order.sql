@@ -0,0 +1,72 @@
+-- 帳票データバージョンをコミット順に採番する
+-- 従来は変更した文の実行時にシーケンスから採番していたため、長時間のトランザクションが小さい値で後からコミットされると、
+-- その間に生成されたキャッシュ（より大きい値を記録）が古いまま有効と判定されていた。
+-- バージョンはスコープ（ユーザー・共通マスタ）ごとのカウンタとし、コミット時に実行される遅延トリガーで行ロックを取って加算する。
+-- 同じスコープの加算はコミット順に直列化されるため、ユーザーのバージョンはユーザーと共通マスタのカウンタの合計、
+-- 全体のバージョンは全スコープのカウンタの合計で比較でき、後からコミットされた変更でも必ず値が増える
+
+CREATE OR REPLACE FUNCTION bump_report_data_version(target_user_id BIGINT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO report_data_versions (user_id, version, updated_at)
+    VALUES (target_user_id, 1, clock_timestamp())
+    ON CONFLICT (user_id) DO UPDATE SET version = report_data_versions.version + 1, updated_at = EXCLUDED.updated_at;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ユーザー名は帳票に出力されるため、変更時はそのユーザーのバージョンを更新する（登録・削除はユーザー数の集計に影響）
+CREATE OR REPLACE FUNCTION bump_report_data_version_for_user() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM bump_report_data_version(OLD.id);
+    ELSIF TG_OP = 'INSERT' OR OLD.username IS DISTINCT FROM NEW.username THEN
+        PERFORM bump_report_data_version(NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 遅延トリガーは行単位のみのため、マスタのトリガーも行単位で作り直す
+DROP TRIGGER IF EXISTS trg_books_report_data_version ON books;
+DROP TRIGGER IF EXISTS trg_book_authors_report_data_version ON book_authors;
+DROP TRIGGER IF EXISTS trg_genres_report_data_version ON genres;
+DROP TRIGGER IF EXISTS trg_read_statuses_report_data_version ON read_statuses;
+DROP TRIGGER IF EXISTS trg_authors_report_data_version ON authors;
+
+CREATE CONSTRAINT TRIGGER trg_books_report_data_version
+    AFTER INSERT OR UPDATE OR DELETE ON books
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_book();
+
+CREATE CONSTRAINT TRIGGER trg_book_authors_report_data_version
+    AFTER INSERT OR UPDATE OR DELETE ON book_authors
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_book_author();
+
+-- マスタの追加は参照する書籍の登録時に書籍側で検知されるため、更新・削除のみ対象とする
+CREATE CONSTRAINT TRIGGER trg_genres_report_data_version
+    AFTER UPDATE OR DELETE ON genres
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_master();
+
+CREATE CONSTRAINT TRIGGER trg_read_statuses_report_data_version
+    AFTER UPDATE OR DELETE ON read_statuses
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_master();
+
+CREATE CONSTRAINT TRIGGER trg_authors_report_data_version
+    AFTER UPDATE OR DELETE ON authors
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_master();
+
+CREATE CONSTRAINT TRIGGER trg_users_report_data_version
+    AFTER INSERT OR UPDATE OF username OR DELETE ON users
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION bump_report_data_version_for_user();
+
+-- 既存の値から加算を続けるため、既存キャッシュの記録値（従来の最大値）は新しい合計値を超えない
+DROP SEQUENCE IF EXISTS report_data_version_seq;
+
+-- PostgreSQL用コメント更新
+COMMENT ON COLUMN report_data_versions.version IS 'データバージョン（スコープごとにコミット時に加算）';
+COMMENT ON COLUMN report_data_versions.updated_at IS '最終変更日時（コミット時）';
+COMMENT ON COLUMN report_cache.data_version IS '生成時点のデータバージョン（対象スコープのカウンタの合計）';
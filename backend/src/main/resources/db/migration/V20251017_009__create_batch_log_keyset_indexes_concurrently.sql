@@ -0,0 +1,41 @@
+-- バッチログ・実行履歴のキーセットページング用インデックス
+-- 一覧は (created_at, id) の降順で前ページ末尾の行より後ろを読むため、絞り込み列を先頭にした複合インデックスを用意する。
+-- 絞り込み・並び順・件数はインデックスのみで判定でき、本体の行はページの件数分だけ読む
+-- (created_at, id) < (?, ?) の行値比較をインデックス条件にするため昇順で作成し、降順の一覧は逆方向にスキャンする
+--
+-- 稼働中のログ書き込みを止めないよう、トランザクション外（V20251017_009__...sql.conf）で CONCURRENTLY を使って作成・削除する。
+-- 作成が途中で失敗した場合は INVALID なインデックスが残り IF NOT EXISTS で飛ばされるため、削除してから再実行すること
+
+-- システムログ
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_system_logs_created_at_id ON system_logs(created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_system_logs_job_name_created_at_id ON system_logs(job_name, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_system_logs_level_created_at_id ON system_logs(log_level, created_at, id);
+
+-- 新しい複合インデックスで代替される
+DROP INDEX CONCURRENTLY IF EXISTS idx_system_logs_created_at;
+
+-- 実行履歴
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_batch_execution_logs_created_at_id ON batch_execution_logs(created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_batch_execution_logs_job_name_created_at_id ON batch_execution_logs(job_name, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_batch_execution_logs_status_created_at_id ON batch_execution_logs(status, created_at, id);
+
+-- 新しい複合インデックスで代替される
+DROP INDEX CONCURRENTLY IF EXISTS idx_batch_execution_logs_job_name;
+
+-- 並び順の created_at を NOT NULL にする（既存の NULL は V20251017_008 で補完済み）
+-- SET NOT NULL は単独では排他ロックのまま全件を走査するため、先に NOT VALID の CHECK 制約を付けて
+-- 書き込みを止めない VALIDATE で検証し、SET NOT NULL にはその制約を使わせて走査を省く（途中で失敗した場合に備え、先に残った制約を削除する）
+ALTER TABLE system_logs DROP CONSTRAINT IF EXISTS chk_system_logs_created_at_not_null;
+ALTER TABLE system_logs ADD CONSTRAINT chk_system_logs_created_at_not_null CHECK (created_at IS NOT NULL) NOT VALID;
+ALTER TABLE system_logs VALIDATE CONSTRAINT chk_system_logs_created_at_not_null;
+ALTER TABLE system_logs ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE system_logs DROP CONSTRAINT chk_system_logs_created_at_not_null;
+
+ALTER TABLE batch_execution_logs DROP CONSTRAINT IF EXISTS chk_batch_execution_logs_created_at_not_null;
+ALTER TABLE batch_execution_logs ADD CONSTRAINT chk_batch_execution_logs_created_at_not_null CHECK (created_at IS NOT NULL) NOT VALID;
+ALTER TABLE batch_execution_logs VALIDATE CONSTRAINT chk_batch_execution_logs_created_at_not_null;
+ALTER TABLE batch_execution_logs ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE batch_execution_logs DROP CONSTRAINT chk_batch_execution_logs_created_at_not_null;
+
+ANALYZE system_logs;
+ANALYZE batch_execution_logs;
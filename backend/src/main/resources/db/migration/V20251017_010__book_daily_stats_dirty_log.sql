@@ -0,0 +1,67 @@
+-- 書籍日次集計の再集計待ちを追記型のログにする
+-- 従来は日付を主キーとする1行を書籍の行ごとに ON CONFLICT DO UPDATE していたため、同じ日の書籍を更新する
+-- トランザクションがコミットまでその1行のロックで直列化されていた。
+-- 変更はトリガーが文単位で対象日付ごとに1行追記し（一意制約なし・行ロックの競合なし）、集計バッチが取得済みの行のみ削除する。
+-- 集計の取得後にコミットされた変更は別の行として残るため、次回の集計で取りこぼさない
+
+CREATE TABLE book_daily_stats_dirty_log (
+    id BIGSERIAL PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    marked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_book_daily_stats_dirty_log_date ON book_daily_stats_dirty_log(stat_date);
+
+-- 変更前後の登録日を記録する（遷移テーブルは単一イベントのトリガーのみ指定できるため、イベントごとにトリガーを作る）
+CREATE OR REPLACE FUNCTION log_book_daily_stats_dirty() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO book_daily_stats_dirty_log (stat_date)
+        SELECT DISTINCT CAST(created_at AS DATE) FROM new_rows WHERE created_at IS NOT NULL;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO book_daily_stats_dirty_log (stat_date)
+        SELECT DISTINCT CAST(created_at AS DATE) FROM old_rows WHERE created_at IS NOT NULL;
+    ELSE
+        -- 遷移テーブルのトリガーは列指定ができないため、集計に使う列が変わった行のみ対象とする
+        INSERT INTO book_daily_stats_dirty_log (stat_date)
+        SELECT DISTINCT d.stat_date FROM (
+            SELECT CAST(o.created_at AS DATE) AS old_date, CAST(n.created_at AS DATE) AS new_date
+            FROM old_rows o JOIN new_rows n ON n.id = o.id
+            WHERE (o.created_at, o.user_id, o.genre_id, o.read_status_id)
+                  IS DISTINCT FROM (n.created_at, n.user_id, n.genre_id, n.read_status_id)
+        ) changed
+        CROSS JOIN LATERAL (VALUES (changed.old_date), (changed.new_date)) d(stat_date)
+        WHERE d.stat_date IS NOT NULL;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_books_daily_stats_dirty ON books;
+DROP FUNCTION IF EXISTS mark_book_daily_stats_dirty();
+
+CREATE TRIGGER trg_books_daily_stats_dirty_insert
+    AFTER INSERT ON books
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION log_book_daily_stats_dirty();
+
+CREATE TRIGGER trg_books_daily_stats_dirty_update
+    AFTER UPDATE ON books
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION log_book_daily_stats_dirty();
+
+CREATE TRIGGER trg_books_daily_stats_dirty_delete
+    AFTER DELETE ON books
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION log_book_daily_stats_dirty();
+
+-- 未集計の日付を引き継ぐ
+INSERT INTO book_daily_stats_dirty_log (stat_date, marked_at)
+SELECT stat_date, marked_at FROM book_daily_stats_dirty;
+
+DROP TABLE book_daily_stats_dirty;
+
+-- PostgreSQL用コメント追加
+COMMENT ON TABLE book_daily_stats_dirty_log IS '書籍日次集計の再集計待ち日付（変更した文ごとに追記）';
+COMMENT ON COLUMN book_daily_stats_dirty_log.stat_date IS '再集計する登録日';
+COMMENT ON COLUMN book_daily_stats_dirty_log.marked_at IS '変更検知日時';
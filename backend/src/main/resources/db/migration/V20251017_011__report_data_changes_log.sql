@@ -0,0 +1,34 @@
+-- 帳票データバージョンの加算を追記のみの変更ログに置き換える
+-- 従来はコミット時の遅延トリガーでスコープごとのカウンタ行を加算していたため、ジャンル・読書ステータス・著者の変更は
+-- すべて共通マスタの行（user_id=0）の行ロックでコミット時に直列化されていた。
+-- 遅延トリガーは変更ログへ1行追記するだけとし（トランザクション内ではスコープごとに1行）、行ロックを取らない。
+-- スコープのバージョンは「集約済みのカウンタ + 未集約の変更ログの件数」で、コミットされた変更ごとに必ず1増えるため、
+-- コミット順によらず後からコミットされた変更でも値が増える。変更ログは定期的にカウンタへ集約する
+
+CREATE TABLE report_data_changes (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX idx_report_data_changes_changed_at ON report_data_changes(changed_at);
+
+-- 記録済みのスコープはトランザクション内の設定値（',0,12,' の形式）で判定し、同じトランザクションでは1回だけ追記する
+CREATE OR REPLACE FUNCTION bump_report_data_version(target_user_id BIGINT) RETURNS VOID AS $$
+DECLARE
+    logged TEXT := coalesce(current_setting('report_data_version.logged_scopes', true), '');
+BEGIN
+    IF position(',' || target_user_id || ',' IN logged) = 0 THEN
+        INSERT INTO report_data_changes (user_id) VALUES (target_user_id);
+        PERFORM set_config('report_data_version.logged_scopes',
+            CASE WHEN logged = '' THEN ',' ELSE logged END || target_user_id || ',', true);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- PostgreSQL用コメント追加・更新
+COMMENT ON TABLE report_data_changes IS '帳票データ変更ログ（コミット時に追記、定期的にreport_data_versionsへ集約）';
+COMMENT ON COLUMN report_data_changes.user_id IS 'ユーザーID（0は全ユーザー共通のマスタデータ）';
+COMMENT ON COLUMN report_data_changes.changed_at IS '変更日時（コミット時）';
+COMMENT ON COLUMN report_data_versions.version IS '集約済みの変更件数（バージョンは未集約の変更ログの件数との合計）';
+COMMENT ON COLUMN report_data_versions.updated_at IS '最終集約日時';
@@ -0,0 +1,200 @@
+package com.library.management.batch;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BatchJobStatsStoreのテストクラス
+ * PostgreSQLコンテナに本番と同じマイグレーションを適用し、記録した実行が統計に反映されることと、
+ * V20251017_006のバックフィル結果がジョブ終了時の加算と一致することを確認する（Dockerがない環境ではスキップ）
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BatchJobStatsStoreTest {
+
+    private static final String BEFORE_STATS_TABLE = "20251017.005";
+
+    @Container
+    private static final PostgreSQLContainer<?> database = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private BatchJobStatsStore batchJobStatsStore;
+
+    private final LocalDate today = LocalDate.now();
+
+    // 終了した実行（開始日・ジョブ名をまたぎ、正常終了・異常終了・停止・終了日時なしを含む）
+    private final List<Execution> finishedExecutions = List.of(
+        new Execution(1L, "bookStatsJob", today.minusDays(1).atTime(10, 0), 1500L, BatchStatus.COMPLETED, 100, 90),
+        new Execution(2L, "bookStatsJob", today.minusDays(1).atTime(12, 0), 2500L, BatchStatus.FAILED, 40, 0),
+        new Execution(3L, "bookStatsJob", today.minusDays(3).atTime(9, 0), 1000L, BatchStatus.COMPLETED, 10, 10),
+        new Execution(4L, "userStatsJob", today.minusDays(1).atTime(11, 0), 750L, BatchStatus.STOPPED, 5, 5),
+        new Execution(5L, "userStatsJob", today.minusDays(2).atTime(8, 0), null, BatchStatus.FAILED, 0, 0));
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+            database.getJdbcUrl(), database.getUsername(), database.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource, null).clean();
+
+        batchJobStatsStore = new BatchJobStatsStore();
+        ReflectionTestUtils.setField(batchJobStatsStore, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(batchJobStatsStore, "periodDays", 30);
+        ReflectionTestUtils.setField(batchJobStatsStore, "snapshotTtlMs", 60000L);
+    }
+
+    @Test
+    void testRecordedExecutionsAppearInStatistics() {
+        flyway(jdbcTemplate.getDataSource(), null).migrate();
+        // 実行中のジョブは実行履歴からのみ数える
+        insertExecutionLog(new Execution(6L, "userStatsJob", LocalDateTime.now().minusMinutes(5), null,
+            BatchStatus.STARTED, 0, 0));
+
+        // テスト実行
+        finishedExecutions.forEach(execution -> batchJobStatsStore.record(execution.toJobExecution()));
+        Map<String, Object> statistics = batchJobStatsStore.getStatistics();
+
+        // 検証（全体）
+        Map<String, Object> jobStatistics = statistics(statistics, "jobStatistics");
+        assertEquals(5L, jobStatistics.get("total_executions"));
+        assertEquals(2L, jobStatistics.get("completed_executions"));
+        assertEquals(2L, jobStatistics.get("failed_executions"));
+        assertEquals(1L, jobStatistics.get("running_executions"));
+        // 平均は実行時間を記録した4件（1500 + 2500 + 1000 + 750）/ 4
+        assertEquals(1438L, jobStatistics.get("avg_execution_time_ms"));
+        assertEquals(155L, jobStatistics.get("total_read_count"));
+        assertEquals(105L, jobStatistics.get("total_write_count"));
+
+        // 検証（ジョブ別、実行数の多い順）
+        List<Map<String, Object>> breakdown = breakdown(statistics);
+        assertEquals(2, breakdown.size());
+        Map<String, Object> bookStats = breakdown.get(0);
+        assertEquals("bookStatsJob", bookStats.get("job_name"));
+        assertEquals(3L, toLong(bookStats.get("execution_count")));
+        assertEquals(2L, toLong(bookStats.get("success_count")));
+        assertEquals(1L, toLong(bookStats.get("failure_count")));
+        assertEquals(2500L, toLong(bookStats.get("max_time_ms")));
+        assertEquals(1667L, toLong(bookStats.get("avg_time_ms")));
+        assertEquals(150L, toLong(bookStats.get("read_count")));
+        Map<String, Object> userStats = breakdown.get(1);
+        assertEquals("userStatsJob", userStats.get("job_name"));
+        assertEquals(2L, toLong(userStats.get("execution_count")));
+        assertEquals(750L, toLong(userStats.get("avg_time_ms")));
+        assertEquals(Timestamp.valueOf(today.minusDays(1).atTime(11, 0)), userStats.get("last_execution"));
+    }
+
+    @Test
+    void testRecordInvalidatesSnapshotAndIgnoresExecutionsBeforePeriod() {
+        flyway(jdbcTemplate.getDataSource(), null).migrate();
+        batchJobStatsStore.record(finishedExecutions.get(0).toJobExecution());
+        assertEquals(1L, statistics(batchJobStatsStore.getStatistics(), "jobStatistics").get("total_executions"));
+
+        // テスト実行（期間内と集計期間より前の実行を追加）
+        batchJobStatsStore.record(finishedExecutions.get(1).toJobExecution());
+        batchJobStatsStore.record(new Execution(7L, "bookStatsJob", today.minusDays(40).atTime(10, 0), 500L,
+            BatchStatus.COMPLETED, 1, 1).toJobExecution());
+
+        // 検証（記録時にスナップショットを破棄し、期間内の実行のみ集計する）
+        Map<String, Object> jobStatistics = statistics(batchJobStatsStore.getStatistics(), "jobStatistics");
+        assertEquals(2L, jobStatistics.get("total_executions"));
+        assertEquals(2000L, jobStatistics.get("avg_execution_time_ms"));
+    }
+
+    @Test
+    void testBackfillMatchesLiveAggregation() {
+        // 集計テーブル作成前の実行履歴を用意してからバックフィル（V20251017_006）を適用
+        flyway(jdbcTemplate.getDataSource(), BEFORE_STATS_TABLE).migrate();
+        finishedExecutions.forEach(this::insertExecutionLog);
+        insertExecutionLog(new Execution(6L, "userStatsJob", LocalDateTime.now().minusMinutes(5), null,
+            BatchStatus.STARTED, 0, 0));
+        flyway(jdbcTemplate.getDataSource(), null).migrate();
+        List<Map<String, Object>> backfilled = dailyStats();
+
+        // テスト実行（同じ実行をジョブ終了時の加算で集計し直す）
+        jdbcTemplate.update("DELETE FROM batch_job_daily_stats");
+        finishedExecutions.forEach(execution -> batchJobStatsStore.record(execution.toJobExecution()));
+
+        // 検証（実行中のジョブを除き、全列が一致する）
+        assertEquals(4, backfilled.size());
+        assertEquals(backfilled, dailyStats());
+    }
+
+    private Flyway flyway(DataSource dataSource, String target) {
+        var configuration = Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .cleanDisabled(false);
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private void insertExecutionLog(Execution execution) {
+        jdbcTemplate.update("""
+            INSERT INTO batch_execution_logs
+                (job_name, job_execution_id, start_time, end_time, status, read_count, write_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """,
+            execution.jobName(), execution.id(), Timestamp.valueOf(execution.startTime()),
+            execution.endTime() != null ? Timestamp.valueOf(execution.endTime()) : null,
+            execution.status().name(), execution.readCount(), execution.writeCount());
+    }
+
+    private List<Map<String, Object>> dailyStats() {
+        return jdbcTemplate.queryForList("SELECT * FROM batch_job_daily_stats ORDER BY stat_date, job_name");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> statistics(Map<String, Object> statistics, String key) {
+        return (Map<String, Object>) statistics.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> breakdown(Map<String, Object> statistics) {
+        return (List<Map<String, Object>>) statistics.get("jobBreakdown");
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private record Execution(long id, String jobName, LocalDateTime startTime, Long durationMs,
+                             BatchStatus status, int readCount, int writeCount) {
+
+        LocalDateTime endTime() {
+            return durationMs != null ? startTime.plusNanos(durationMs * 1_000_000) : null;
+        }
+
+        JobExecution toJobExecution() {
+            JobExecution jobExecution = new JobExecution(new JobInstance(id, jobName), id, new JobParameters());
+            jobExecution.setStartTime(startTime);
+            jobExecution.setEndTime(endTime());
+            jobExecution.setStatus(status);
+            StepExecution stepExecution = jobExecution.createStepExecution("step");
+            stepExecution.setReadCount(readCount);
+            stepExecution.setWriteCount(writeCount);
+            return jobExecution;
+        }
+    }
+}
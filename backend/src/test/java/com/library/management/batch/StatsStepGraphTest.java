@@ -0,0 +1,105 @@
+package com.library.management.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * StatsStepGraphのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+class StatsStepGraphTest {
+
+    @Test
+    void testIndependentStepsShareFirstStage() {
+        // テスト実行
+        StatsStepGraph graph = new StatsStepGraph("statsFlow")
+                .add(step("userStep"))
+                .add(step("genreStep"))
+                .add(step("paceStep"));
+
+        // 検証（登録順のまま1段にまとまる）
+        assertEquals(List.of(List.of("userStep", "genreStep", "paceStep")), graph.getStages());
+    }
+
+    @Test
+    void testDependentStepsRunInLaterStages() {
+        // テスト実行（依存先より前に登録しても依存の深さで段が決まる）
+        StatsStepGraph graph = new StatsStepGraph("statsFlow")
+                .add(step("summaryStep"), "rankingStep", "genreStep")
+                .add(step("userStep"))
+                .add(step("rankingStep"), "userStep")
+                .add(step("genreStep"));
+
+        // 検証
+        assertEquals(List.of(
+                List.of("userStep", "genreStep"),
+                List.of("rankingStep"),
+                List.of("summaryStep")), graph.getStages());
+    }
+
+    @Test
+    void testBuildCreatesNamedFlow() {
+        StatsStepGraph graph = new StatsStepGraph("statsFlow")
+                .add(step("userStep"))
+                .add(step("genreStep"))
+                .add(step("rankingStep"), "userStep");
+
+        // テスト実行
+        Flow flow = graph.build(new SyncTaskExecutor());
+
+        // 検証
+        assertEquals("statsFlow", flow.getName());
+    }
+
+    @Test
+    void testBuildWithoutStepsFails() {
+        StatsStepGraph graph = new StatsStepGraph("statsFlow");
+
+        // テスト実行・検証
+        assertThrows(IllegalStateException.class, () -> graph.build(new SyncTaskExecutor()));
+    }
+
+    @Test
+    void testDuplicateStepFails() {
+        StatsStepGraph graph = new StatsStepGraph("statsFlow").add(step("userStep"));
+
+        // テスト実行・検証
+        assertThrows(IllegalStateException.class, () -> graph.add(step("userStep")));
+    }
+
+    @Test
+    void testMissingDependencyFails() {
+        StatsStepGraph graph = new StatsStepGraph("statsFlow")
+                .add(step("rankingStep"), "userStep");
+
+        // テスト実行・検証
+        IllegalStateException e = assertThrows(IllegalStateException.class, graph::getStages);
+        assertTrue(e.getMessage().contains("userStep"));
+    }
+
+    @Test
+    void testCyclicDependencyFails() {
+        StatsStepGraph graph = new StatsStepGraph("statsFlow")
+                .add(step("firstStep"), "secondStep")
+                .add(step("secondStep"), "firstStep");
+
+        // テスト実行・検証
+        IllegalStateException e = assertThrows(IllegalStateException.class, graph::getStages);
+        assertTrue(e.getMessage().contains("循環"));
+    }
+
+    private Step step(String name) {
+        Step step = mock(Step.class);
+        lenient().when(step.getName()).thenReturn(name);
+        return step;
+    }
+}
@@ -0,0 +1,174 @@
+package com.library.management.controller;
+
+import com.library.management.repository.BatchExecutionRepository;
+import com.library.management.repository.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * BatchControllerのテストクラス（カーソルページングの一覧API）
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchControllerTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 10, 17, 9, 0);
+
+    @Mock
+    private BatchExecutionRepository batchExecutionRepository;
+
+    @InjectMocks
+    private BatchController batchController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(batchController).build();
+    }
+
+    @Test
+    void testGetBatchLogs_EstimateCountByDefault() throws Exception {
+        // モック設定（ページサイズ2に対して3件取得 = 次ページあり）
+        when(batchExecutionRepository.findSystemLogs(isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(rows(3));
+        when(batchExecutionRepository.estimateSystemLogs(null, null)).thenReturn(1000L);
+
+        // テスト実行
+        mockMvc.perform(get("/api/batch/logs").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.logs.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(new KeysetCursor(BASE_TIME.minusMinutes(1), 2L).encode()))
+                .andExpect(jsonPath("$.totalCount").value(1000))
+                .andExpect(jsonPath("$.countType").value("estimate"));
+
+        // 検証
+        verify(batchExecutionRepository, never()).countSystemLogs(any(), any());
+    }
+
+    @Test
+    void testGetBatchLogs_ExactCount() throws Exception {
+        // モック設定
+        when(batchExecutionRepository.findSystemLogs(eq("complexStatsJob"), eq("ERROR"), isNull(), eq(51)))
+                .thenReturn(rows(1));
+        when(batchExecutionRepository.countSystemLogs("complexStatsJob", "ERROR")).thenReturn(1L);
+
+        // テスト実行
+        mockMvc.perform(get("/api/batch/logs")
+                .param("jobName", "complexStatsJob")
+                .param("level", "ERROR")
+                .param("count", "exact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.totalCount").value(1))
+                .andExpect(jsonPath("$.countType").value("exact"));
+
+        // 検証
+        verify(batchExecutionRepository, never()).estimateSystemLogs(any(), any());
+    }
+
+    @Test
+    void testGetExecutionHistory_NoCount() throws Exception {
+        // モック設定
+        when(batchExecutionRepository.findExecutions(isNull(), isNull(), isNull(), eq(21)))
+                .thenReturn(rows(1));
+
+        // テスト実行
+        mockMvc.perform(get("/api/batch/executions").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.executions.length()").value(1))
+                .andExpect(jsonPath("$.totalCount").doesNotExist())
+                .andExpect(jsonPath("$.countType").doesNotExist());
+
+        // 検証（件数は数えない）
+        verify(batchExecutionRepository, never()).countExecutions(any(), any());
+        verify(batchExecutionRepository, never()).estimateExecutions(any(), any());
+    }
+
+    @Test
+    void testGetBatchLogs_InvalidCount() throws Exception {
+        // モック設定
+        when(batchExecutionRepository.findSystemLogs(any(), any(), any(), anyInt())).thenReturn(rows(1));
+
+        // テスト実行
+        mockMvc.perform(get("/api/batch/logs").param("count", "all"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("count")));
+
+        // 検証
+        verify(batchExecutionRepository, never()).countSystemLogs(any(), any());
+        verify(batchExecutionRepository, never()).estimateSystemLogs(any(), any());
+    }
+
+    @Test
+    void testGetExecutionHistory_InvalidCount() throws Exception {
+        // モック設定
+        when(batchExecutionRepository.findExecutions(any(), any(), any(), anyInt())).thenReturn(rows(1));
+
+        // テスト実行
+        mockMvc.perform(get("/api/batch/executions").param("count", "EXACT"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void testGetBatchLogs_InvalidCursor() throws Exception {
+        // テスト実行
+        mockMvc.perform(get("/api/batch/logs").param("cursor", "invalid-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        // 検証
+        verifyNoInteractions(batchExecutionRepository);
+    }
+
+    @Test
+    void testGetBatchLogs_CursorPassedToRepository() throws Exception {
+        // モック設定
+        KeysetCursor cursor = new KeysetCursor(BASE_TIME, 10L);
+        when(batchExecutionRepository.findSystemLogs(isNull(), isNull(), any(KeysetCursor.class), eq(51)))
+                .thenReturn(new ArrayList<>());
+
+        // テスト実行
+        mockMvc.perform(get("/api/batch/logs").param("cursor", cursor.encode()).param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // 検証
+        verify(batchExecutionRepository).findSystemLogs(isNull(), isNull(),
+                argThat(c -> c.getId() == 10L && BASE_TIME.equals(c.getCreatedAt())), eq(51));
+    }
+
+    /**
+     * (created_at, id) の降順の取得行
+     */
+    private List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) (count - i));
+            row.put("created_at", Timestamp.valueOf(BASE_TIME.minusMinutes(i)));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
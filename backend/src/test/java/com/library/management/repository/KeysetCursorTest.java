@@ -0,0 +1,114 @@
+package com.library.management.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * KeysetCursorのテストクラス
+ */
+class KeysetCursorTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 10, 17, 9, 30, 15, 123456000);
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(BASE_TIME, 12345L);
+
+        // テスト実行
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        // 検証（マイクロ秒まで保持される）
+        assertEquals(BASE_TIME, decoded.getCreatedAt());
+        assertEquals(12345L, decoded.getId());
+        assertFalse(cursor.encode().contains("="));
+    }
+
+    @Test
+    void testDecodeBlankReturnsNull() {
+        // テスト実行・検証
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void testDecodeMalformedCursorFails() {
+        String notBase64 = "!!!";
+        String noSeparator = encodeRaw("2025-10-17T09:30");
+        String invalidDate = encodeRaw("2025-13-40T09:30|1");
+        String invalidId = encodeRaw("2025-10-17T09:30|abc");
+
+        // テスト実行・検証
+        for (String cursor : List.of(notBase64, noSeparator, invalidDate, invalidId)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor));
+            assertTrue(e.getMessage().contains(cursor));
+        }
+    }
+
+    @Test
+    void testNextUsesLastRowOfPage() {
+        // 取得行（ページサイズ + 1件）。JDBCの日時はTimestampで返る
+        List<Map<String, Object>> rows = List.of(
+            row(3L, Timestamp.valueOf(BASE_TIME.plusMinutes(2))),
+            row(2L, Timestamp.valueOf(BASE_TIME.plusMinutes(1))),
+            row(1L, Timestamp.valueOf(BASE_TIME)));
+
+        // テスト実行
+        KeysetCursor cursor = KeysetCursor.next(rows, 2);
+
+        // 検証（次ページの判定用の1件ではなく、ページ末尾の行を指す）
+        assertNotNull(cursor);
+        assertEquals(2L, cursor.getId());
+        assertEquals(BASE_TIME.plusMinutes(1), cursor.getCreatedAt());
+    }
+
+    @Test
+    void testNextAcceptsLocalDateTime() {
+        List<Map<String, Object>> rows = List.of(row(2L, BASE_TIME), row(1L, BASE_TIME));
+
+        // テスト実行
+        KeysetCursor cursor = KeysetCursor.next(rows, 1);
+
+        // 検証
+        assertEquals(BASE_TIME, cursor.getCreatedAt());
+        assertEquals(2L, cursor.getId());
+    }
+
+    @Test
+    void testNextWithoutMoreRowsReturnsNull() {
+        List<Map<String, Object>> rows = List.of(row(2L, BASE_TIME), row(1L, BASE_TIME));
+
+        // テスト実行・検証
+        assertNull(KeysetCursor.next(rows, 2));
+        assertNull(KeysetCursor.next(List.of(), 20));
+    }
+
+    @Test
+    void testNextWithNullCreatedAtFails() {
+        List<Map<String, Object>> rows = List.of(row(2L, null), row(1L, BASE_TIME));
+
+        // テスト実行・検証
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> KeysetCursor.next(rows, 1));
+        assertTrue(e.getMessage().contains("id=2"));
+    }
+
+    private Map<String, Object> row(Long id, Object createdAt) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("created_at", createdAt);
+        return row;
+    }
+
+    private String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,201 @@
+package com.library.management.service.report;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReportDownloadServiceのテストクラス
+ * 全体・部分（Range）送信、範囲外の指定、条件付きGETでの応答と送信内容を確認する
+ */
+class ReportDownloadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String STRONG_ETAG = "\"abc123\"";
+
+    @TempDir
+    Path reportDirectory;
+
+    private ReportDownloadService reportDownloadService;
+    private ReportFileService.DownloadTarget target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reportDownloadService = new ReportDownloadService();
+        ReflectionTestUtils.setField(reportDownloadService, "sendfileEnabled", true);
+
+        Path file = reportDirectory.resolve("report.csv");
+        Files.writeString(file, CONTENT, StandardCharsets.US_ASCII);
+
+        target = new ReportFileService.DownloadTarget();
+        target.setPath(file);
+        target.setFileName("report.csv");
+        target.setContentType("text/csv");
+        target.setFileSize(Files.size(file));
+        target.setLastModified(1760000000000L);
+        target.setETag(STRONG_ETAG);
+    }
+
+    @Test
+    void testFullDownload() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // テスト実行
+        int status = reportDownloadService.send(target, "attachment", request, response);
+
+        // 検証
+        assertEquals(HttpServletResponse.SC_OK, status);
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(CONTENT.length(), response.getContentLengthLong());
+        assertEquals(STRONG_ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("attachment; filename=\"report.csv\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void testPartialDownload() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // テスト実行
+        int status = reportDownloadService.send(target, "attachment", request, response);
+
+        // 検証
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, status);
+        assertEquals("56789", response.getContentAsString());
+        assertEquals(5, response.getContentLengthLong());
+        assertEquals("bytes 5-9/" + CONTENT.length(), response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void testSuffixAndOpenEndedRanges() throws Exception {
+        // テスト実行（末尾からのバイト数指定）
+        MockHttpServletRequest suffixRequest = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        suffixRequest.addHeader(HttpHeaders.RANGE, "bytes=-4");
+        MockHttpServletResponse suffixResponse = new MockHttpServletResponse();
+        reportDownloadService.send(target, "attachment", suffixRequest, suffixResponse);
+
+        // テスト実行（終了位置省略・ファイルサイズを超える終了位置）
+        MockHttpServletRequest openRequest = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        openRequest.addHeader(HttpHeaders.RANGE, "bytes=16-100");
+        MockHttpServletResponse openResponse = new MockHttpServletResponse();
+        reportDownloadService.send(target, "attachment", openRequest, openResponse);
+
+        // 検証（いずれもファイル末尾までに切り詰める）
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, suffixResponse.getStatus());
+        assertEquals("ghij", suffixResponse.getContentAsString());
+        assertEquals("bytes 16-19/20", suffixResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, openResponse.getStatus());
+        assertEquals("ghij", openResponse.getContentAsString());
+        assertEquals("bytes 16-19/20", openResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void testRangeBeyondFileIsNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // テスト実行
+        int status = reportDownloadService.send(target, "attachment", request, response);
+
+        // 検証
+        assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, status);
+        assertEquals("bytes */" + CONTENT.length(), response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testMalformedOrMultipleRangesSendWholeFile() throws Exception {
+        for (String range : new String[] { "bytes=9-3", "bytes=0-1,4-5", "items=0-1" }) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/1/download");
+            request.addHeader(HttpHeaders.RANGE, range);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // テスト実行
+            int status = reportDownloadService.send(target, "attachment", request, response);
+
+            // 検証（不正な形式・複数範囲はRangeヘッダーを無視する）
+            assertEquals(HttpServletResponse.SC_OK, status, range);
+            assertEquals(CONTENT, response.getContentAsString(), range);
+        }
+    }
+
+    @Test
+    void testIfRangeMismatchSendsWholeFile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"changed\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // テスト実行
+        int status = reportDownloadService.send(target, "attachment", request, response);
+
+        // 検証（ファイルが変わっている場合は部分送信せず全体を返す）
+        assertEquals(HttpServletResponse.SC_OK, status);
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void testIfNoneMatchReturnsNotModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/" + STRONG_ETAG);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // テスト実行
+        int status = reportDownloadService.send(target, "attachment", request, response);
+
+        // 検証（弱い比較で一致し、本文は送らない）
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, status);
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertNull(response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    @Test
+    void testHeadRequestSendsHeadersOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/api/reports/1/download");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // テスト実行
+        int status = reportDownloadService.send(target, "attachment", request, response);
+
+        // 検証
+        assertEquals(HttpServletResponse.SC_OK, status);
+        assertEquals(CONTENT.length(), response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testSendfileDelegatesRangeToContainer() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/1/download");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // テスト実行
+        int status = reportDownloadService.send(target, "attachment", request, response);
+
+        // 検証（本文は書き込まず、送信範囲をリクエスト属性でコンテナに渡す）
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, status);
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(target.getPath().toAbsolutePath().toString(),
+            request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(2L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(5L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+}
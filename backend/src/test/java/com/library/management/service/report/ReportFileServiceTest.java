@@ -0,0 +1,153 @@
+package com.library.management.service.report;
+
+import com.library.management.entity.ReportHistory;
+import com.library.management.repository.ReportHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReportFileServiceのテストクラス
+ * ダウンロード対象の解決（ファイル情報・ETag）と、未登録・生成中・ファイルなし・期限切れの各エラーを確認する
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportFileServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long REPORT_ID = 10L;
+
+    @Mock
+    private ReportHistoryRepository reportHistoryRepository;
+
+    @Mock
+    private ReportFileStore reportFileStore;
+
+    @Mock
+    private ReportWriteJournal reportWriteJournal;
+
+    @InjectMocks
+    private ReportFileService reportFileService;
+
+    @TempDir
+    Path reportDirectory;
+
+    private Path reportFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        reportFile = reportDirectory.resolve("books.csv");
+        Files.writeString(reportFile, "id,title\n1,テスト書籍\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testGetDownloadTargetWithContentHash() throws IOException {
+        // モック設定
+        ReportHistory report = createReport("COMPLETED", reportFile.toString(), LocalDateTime.now().plusDays(1));
+        report.setContentHash("abc123");
+        mockReport(report);
+
+        // テスト実行
+        ReportFileService.DownloadTarget target = reportFileService.getDownloadTarget(USER_ID, REPORT_ID);
+
+        // 検証（ファイルストアのハッシュを強いETagにする）
+        assertEquals(reportFile, target.getPath());
+        assertEquals("books.csv", target.getFileName());
+        assertEquals(Files.size(reportFile), target.getFileSize());
+        assertEquals(Files.getLastModifiedTime(reportFile).toMillis(), target.getLastModified());
+        assertEquals("\"abc123\"", target.getETag());
+    }
+
+    @Test
+    void testGetDownloadTargetWithoutContentHashUsesWeakETag() throws IOException {
+        // モック設定（有効期限なし）
+        mockReport(createReport("CACHED", reportFile.toString(), null));
+
+        // テスト実行
+        ReportFileService.DownloadTarget target = reportFileService.getDownloadTarget(USER_ID, REPORT_ID);
+
+        // 検証（サイズと更新日時から弱いETagを作成する）
+        assertEquals("W/\"" + Long.toHexString(target.getFileSize()) + "-"
+            + Long.toHexString(target.getLastModified()) + "\"", target.getETag());
+    }
+
+    @Test
+    void testPendingHistoryIsFlushedBeforeLookup() throws IOException {
+        // モック設定（生成直後でジャーナルに未反映）
+        when(reportWriteJournal.isHistoryPending(REPORT_ID)).thenReturn(true);
+        when(reportHistoryRepository.findByIdAndUserId(REPORT_ID, USER_ID))
+            .thenReturn(Optional.of(createReport("COMPLETED", reportFile.toString(), null)));
+
+        // テスト実行
+        reportFileService.getDownloadTarget(USER_ID, REPORT_ID);
+
+        // 検証
+        verify(reportWriteJournal).flush();
+    }
+
+    @Test
+    void testUnknownReportThrowsIllegalArgument() {
+        // モック設定
+        when(reportHistoryRepository.findByIdAndUserId(REPORT_ID, USER_ID)).thenReturn(Optional.empty());
+
+        // テスト実行・検証
+        assertThrows(IllegalArgumentException.class, () -> reportFileService.getDownloadTarget(USER_ID, REPORT_ID));
+    }
+
+    @Test
+    void testReportInProgressThrowsIllegalState() {
+        // モック設定
+        mockReport(createReport("GENERATING", null, null));
+
+        // テスト実行・検証
+        assertThrows(IllegalStateException.class, () -> reportFileService.getDownloadTarget(USER_ID, REPORT_ID));
+    }
+
+    @Test
+    void testMissingFileThrowsIOException() {
+        // モック設定（履歴はあるがファイルが削除済み）
+        mockReport(createReport("COMPLETED", reportDirectory.resolve("deleted.csv").toString(), null));
+
+        // テスト実行・検証
+        IOException e = assertThrows(IOException.class, () -> reportFileService.getDownloadTarget(USER_ID, REPORT_ID));
+        assertEquals("ファイルが見つかりません", e.getMessage());
+    }
+
+    @Test
+    void testExpiredFileThrowsIllegalState() {
+        // モック設定（ファイルは残っているが有効期限切れ）
+        mockReport(createReport("COMPLETED", reportFile.toString(), LocalDateTime.now().minusMinutes(1)));
+
+        // テスト実行・検証
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> reportFileService.getDownloadTarget(USER_ID, REPORT_ID));
+        assertEquals("ファイルの有効期限が切れています", e.getMessage());
+    }
+
+    private void mockReport(ReportHistory report) {
+        when(reportHistoryRepository.findByIdAndUserId(REPORT_ID, USER_ID)).thenReturn(Optional.of(report));
+    }
+
+    private ReportHistory createReport(String status, String filePath, LocalDateTime expiresAt) {
+        ReportHistory report = new ReportHistory();
+        report.setId(REPORT_ID);
+        report.setUserId(USER_ID);
+        report.setStatus(status);
+        report.setFilePath(filePath);
+        report.setExpiresAt(expiresAt);
+        return report;
+    }
+}
@@ -0,0 +1,252 @@
+package com.library.management.service.report;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.management.entity.ReportHistory;
+import com.library.management.entity.ReportLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReportWriteJournalのテストクラス
+ * 停止（反映前の異常終了）を模して、同じディレクトリで起動した新しいインスタンスがセグメントを再適用することを確認する
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportWriteJournalTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchArgs;
+
+    @TempDir
+    Path journalDirectory;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // アプリケーションのObjectMapperと同じく日時型に対応し、未知のプロパティは無視する
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Test
+    void testReplaySegmentsAfterCrash() throws IOException {
+        // 記録のみ行い反映せずに停止
+        ReportWriteJournal crashed = createJournal();
+        crashed.recordHistory(createHistory(1L, "GENERATING"));
+        crashed.recordHistory(createHistory(1L, "COMPLETED"));
+        crashed.recordLog(createLog(5L, "STARTED"));
+        assertEquals(2, crashed.pendingCount());
+
+        // テスト実行（同じディレクトリで再起動）
+        ReportWriteJournal restarted = createJournal();
+
+        // 検証（idごとの最新状態のみ反映され、反映済みセグメントは削除される）
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO report_history"), batchArgs.capture());
+        List<Object[]> histories = batchArgs.getValue();
+        assertEquals(1, histories.size());
+        assertEquals(1L, histories.get(0)[0]);
+        assertEquals("COMPLETED", histories.get(0)[8]);
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO report_logs"), batchArgs.capture());
+        List<Object[]> logs = batchArgs.getValue();
+        assertEquals(1, logs.size());
+        assertEquals(5L, logs.get(0)[0]);
+        assertEquals("STARTED", logs.get(0)[8]);
+
+        assertEquals(0, restarted.pendingCount());
+        assertEquals(List.of(), nonEmptySegments());
+    }
+
+    @Test
+    void testFailedFlushKeepsSegmentsForReplay() throws IOException {
+        // モック設定（DB反映に失敗）
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        ReportWriteJournal journal = createJournal();
+        journal.recordHistory(createHistory(1L, "COMPLETED"));
+
+        // テスト実行
+        int flushed = journal.flush();
+
+        // 検証（更新は未反映のまま残り、セグメントも削除されない）
+        assertEquals(0, flushed);
+        assertTrue(journal.isHistoryPending(1L));
+        assertEquals(1, nonEmptySegments().size());
+
+        // 再起動後に同じ更新が再適用される
+        reset(jdbcTemplate);
+        createJournal();
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO report_history"), batchArgs.capture());
+        assertEquals("COMPLETED", batchArgs.getValue().get(0)[8]);
+        assertEquals(List.of(), nonEmptySegments());
+    }
+
+    @Test
+    void testTruncatedTrailingRecordIsSkipped() throws IOException {
+        ReportWriteJournal crashed = createJournal();
+        crashed.recordHistory(createHistory(1L, "COMPLETED"));
+
+        // 書き込み途中で停止した末尾の行
+        Path segment = nonEmptySegments().get(0);
+        Files.write(segment, "{\"type\":\"HISTORY\",\"id\":2,\"data\":{\"id\":2,\"sta".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        // テスト実行
+        createJournal();
+
+        // 検証（完全な行のみ反映される）
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO report_history"), batchArgs.capture());
+        List<Object[]> histories = batchArgs.getValue();
+        assertEquals(1, histories.size());
+        assertEquals(1L, histories.get(0)[0]);
+    }
+
+    @Test
+    void testConstraintViolationIsolatesFailingRow() throws IOException {
+        // モック設定（id=2の行のみ制約違反）
+        List<Object> written = failOnHistoryId(2L);
+
+        ReportWriteJournal journal = createJournal();
+        for (long id = 1; id <= 4; id++) {
+            journal.recordHistory(createHistory(id, "COMPLETED"));
+        }
+
+        // テスト実行
+        int flushed = journal.flush();
+
+        // 検証（他の行は反映され、失敗した行のみ新しいセグメントに記録し直して次回に再試行する）
+        assertEquals(3, flushed);
+        assertEquals(List.of(1L, 3L, 4L), written.stream().sorted().toList());
+        assertFalse(journal.isHistoryPending(1L));
+        assertTrue(journal.isHistoryPending(2L));
+
+        List<Path> segments = nonEmptySegments();
+        assertEquals(1, segments.size());
+        String segment = Files.readString(segments.get(0), StandardCharsets.UTF_8);
+        assertTrue(segment.contains("\"id\":2,"));
+        assertFalse(segment.contains("\"id\":1,"));
+    }
+
+    @Test
+    void testRepeatedlyFailingRowMovesToDeadLetter() throws IOException {
+        // モック設定（id=2の行は常に制約違反）
+        List<Object> written = failOnHistoryId(2L);
+
+        ReportWriteJournal journal = createJournal();
+        journal.recordHistory(createHistory(1L, "COMPLETED"));
+        journal.recordHistory(createHistory(2L, "COMPLETED"));
+
+        // テスト実行（上限2回）
+        assertEquals(1, journal.flush());
+        assertEquals(0, journal.flush());
+
+        // 検証（デッドレターに移り、以降の反映を妨げない）
+        assertEquals(0, journal.pendingCount());
+        assertEquals(List.of(), nonEmptySegments());
+        String deadLetter = Files.readString(journalDirectory.resolve("dead-letter.log"), StandardCharsets.UTF_8);
+        assertTrue(deadLetter.contains("\"id\":2,"));
+        assertTrue(deadLetter.contains("fk_report_history_user"));
+
+        journal.recordHistory(createHistory(3L, "COMPLETED"));
+        assertEquals(1, journal.flush());
+        assertEquals(List.of(1L, 3L), written.stream().sorted().toList());
+
+        // 再起動してもデッドレターは再適用されない
+        clearInvocations(jdbcTemplate);
+        createJournal();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    /**
+     * 指定idの履歴を含むバッチを制約違反にし、反映できた履歴のidを返す
+     */
+    private List<Object> failOnHistoryId(Long failingId) {
+        List<Object> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO report_history"), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            if (args.stream().anyMatch(row -> failingId.equals(row[0]))) {
+                throw new DataIntegrityViolationException("violates foreign key constraint \"fk_report_history_user\"");
+            }
+            args.forEach(row -> written.add(row[0]));
+            return new int[args.size()];
+        });
+        return written;
+    }
+
+    private ReportWriteJournal createJournal() throws IOException {
+        ReportWriteJournal journal = new ReportWriteJournal();
+        ReflectionTestUtils.setField(journal, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(journal, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(journal, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(journal, "journalDirectory", journalDirectory.toString());
+        ReflectionTestUtils.setField(journal, "maxPending", 10000);
+        ReflectionTestUtils.setField(journal, "idBlockSize", 50);
+        ReflectionTestUtils.setField(journal, "maxAttempts", 2);
+        ReflectionTestUtils.setField(journal, "retryBackoffMs", 5000L);
+        journal.initialize();
+        return journal;
+    }
+
+    private List<Path> nonEmptySegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-")).filter(file -> {
+                try {
+                    return Files.size(file) > 0;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+        }
+    }
+
+    private ReportHistory createHistory(Long id, String status) {
+        ReportHistory history = new ReportHistory(1L, "BOOK_LIST", "PDF", "{}");
+        history.setId(id);
+        history.setStatus(status);
+        history.setCreatedAt(LocalDateTime.of(2025, 10, 17, 9, 0));
+        return history;
+    }
+
+    private ReportLog createLog(Long id, String status) {
+        ReportLog reportLog = new ReportLog(1L, "testuser", "BOOK_LIST", "PDF");
+        reportLog.setId(id);
+        reportLog.setStatus(status);
+        reportLog.setStartTime(LocalDateTime.of(2025, 10, 17, 9, 0));
+        return reportLog;
+    }
+}
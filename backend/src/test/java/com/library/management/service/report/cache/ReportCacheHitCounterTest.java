@@ -0,0 +1,150 @@
+package com.library.management.service.report.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReportCacheHitCounterのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportCacheHitCounterTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 10, 17, 9, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ReportCacheHitCounter hitCounter;
+
+    @Test
+    void testFlushAggregatesHitsIntoSingleUpdate() {
+        // モック設定
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2);
+
+        hitCounter.record(1L, BASE_TIME);
+        hitCounter.record(1L, BASE_TIME.plusMinutes(5));
+        hitCounter.record(1L, BASE_TIME.plusMinutes(2));
+        hitCounter.record(2L, BASE_TIME);
+
+        // テスト実行
+        int updated = hitCounter.flush();
+
+        // 検証（エントリごとのヒット数と最新のアクセス時刻を1回のUPDATEで反映）
+        assertEquals(2, updated);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(sql.capture(), args.capture());
+        assertTrue(sql.getValue().startsWith("UPDATE report_cache"));
+
+        Map<Object, Object[]> rows = toRows(args.getValue());
+        assertEquals(2, rows.size());
+        assertEquals(3L, rows.get(1L)[1]);
+        assertEquals(BASE_TIME.plusMinutes(5), rows.get(1L)[2]);
+        assertEquals(1L, rows.get(2L)[1]);
+
+        assertEquals(0L, hitCounter.getTotalPendingHits());
+    }
+
+    @Test
+    void testFlushWithoutHitsSkipsUpdate() {
+        hitCounter.record(1L, BASE_TIME);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        hitCounter.flush();
+
+        // テスト実行（前回以降ヒットなし）
+        int updated = hitCounter.flush();
+
+        // 検証
+        assertEquals(0, updated);
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void testFlushFailureRequeuesHits() {
+        // モック設定（DB反映に失敗）
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        hitCounter.record(1L, BASE_TIME);
+        hitCounter.record(1L, BASE_TIME.plusMinutes(1));
+
+        // テスト実行
+        int updated = hitCounter.flush();
+
+        // 検証（未反映分は戻され、反映中に記録されたヒットと合算される）
+        assertEquals(0, updated);
+        assertEquals(2L, hitCounter.getPendingHits(1L));
+        hitCounter.record(1L, BASE_TIME.plusMinutes(2));
+        assertEquals(3L, hitCounter.getPendingHits(1L));
+        assertEquals(BASE_TIME.plusMinutes(2), hitCounter.getLastAccessTime(1L, BASE_TIME));
+    }
+
+    @Test
+    void testFlushSplitsIntoBatches() {
+        // モック設定（1回のUPDATEで2エントリまで）
+        ReflectionTestUtils.setField(hitCounter, "flushBatchSize", 2);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+            .thenAnswer(invocation -> (invocation.getArguments().length - 1) / 3);
+
+        for (long id = 1; id <= 5; id++) {
+            hitCounter.record(id, BASE_TIME);
+        }
+
+        // テスト実行
+        int updated = hitCounter.flush();
+
+        // 検証
+        assertEquals(5, updated);
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void testDiscardDropsPendingHits() {
+        hitCounter.record(1L, BASE_TIME);
+
+        // テスト実行
+        hitCounter.discard(1L);
+
+        // 検証
+        assertEquals(0L, hitCounter.getPendingHits(1L));
+        assertEquals(0, hitCounter.flush());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void testLastAccessTimeUsesNewerOfPendingAndPersisted() {
+        hitCounter.record(1L, BASE_TIME.plusMinutes(10));
+
+        // 検証
+        assertEquals(BASE_TIME.plusMinutes(10), hitCounter.getLastAccessTime(1L, BASE_TIME));
+        assertEquals(BASE_TIME.plusMinutes(20), hitCounter.getLastAccessTime(1L, BASE_TIME.plusMinutes(20)));
+        assertEquals(BASE_TIME, hitCounter.getLastAccessTime(2L, BASE_TIME));
+    }
+
+    /**
+     * UPDATEのバインド値を (id, hits, access_time) の行に分解
+     */
+    private Map<Object, Object[]> toRows(Object[] args) {
+        Map<Object, Object[]> rows = new HashMap<>();
+        for (int i = 0; i < args.length; i += 3) {
+            rows.put(args[i], new Object[] { args[i], args[i + 1], args[i + 2] });
+        }
+        return rows;
+    }
+}
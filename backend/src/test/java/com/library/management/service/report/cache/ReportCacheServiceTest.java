@@ -3,6 +3,7 @@ package com.library.management.service.report.cache;
 import com.library.management.dto.ReportRequest;
 import com.library.management.entity.ReportCache;
 import com.library.management.repository.ReportCacheRepository;
+import com.library.management.service.report.ReportFileStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,15 @@ class ReportCacheServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private ReportFileStore reportFileStore;
+
+    @Mock
+    private ReportCacheHitCounter hitCounter;
+
+    @Mock
+    private ReportDataVersionTracker dataVersionTracker;
+
     @InjectMocks
     private ReportCacheService reportCacheService;
 
@@ -100,8 +110,8 @@ class ReportCacheServiceTest {
             // 検証
             assertTrue(result.isHit());
             assertEquals(testFilePath, result.getFilePath());
-            verify(cacheRepository).save(testCache);
-            assertEquals(1, testCache.getHitCount());
+            verify(hitCounter).record(eq(1L), any(LocalDateTime.class));
+            verify(cacheRepository, never()).save(any());
         } finally {
             // クリーンアップ
             tempFile.delete();
@@ -273,6 +283,54 @@ class ReportCacheServiceTest {
         assertEquals(3L, typeStatistics.get("READING_STATS"));
     }
 
+    @Test
+    void testMemoryCacheHitAfterDatabaseHit() throws IOException {
+        // モック設定
+        when(cacheRepository.findValidCache(eq(testUserId), eq("BOOK_LIST"), eq("PDF"), anyString(), any(LocalDateTime.class)))
+            .thenReturn(Optional.of(testCache));
+
+        File tempFile = new File(testFilePath);
+        tempFile.getParentFile().mkdirs();
+        tempFile.createNewFile();
+
+        try {
+            // 1回目はDB、2回目はインメモリキャッシュから取得
+            assertTrue(reportCacheService.getCachedReport(testUserId, testRequest).isHit());
+            assertTrue(reportCacheService.getCachedReport(testUserId, testRequest).isHit());
+
+            // 検証
+            verify(cacheRepository, times(1)).findValidCache(any(), any(), any(), any(), any());
+            ReportCacheService.CacheStatistics stats = reportCacheService.getCacheStatistics();
+            assertEquals(1, stats.getMemoryCacheSize());
+            assertEquals(1L, stats.getDatabaseHitCount());
+            assertEquals(1L, stats.getMemoryHitCount());
+            verify(hitCounter, times(2)).record(eq(1L), any(LocalDateTime.class));
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    void testGenerationCoalescing() {
+        // 同一リクエストの同時生成
+        ReportCacheService.GenerationTicket leader = reportCacheService.beginGeneration(testUserId, testRequest);
+        ReportCacheService.GenerationTicket follower = reportCacheService.beginGeneration(testUserId, testRequest);
+
+        assertTrue(leader.isLeader());
+        assertFalse(follower.isLeader());
+
+        // 先行生成の完了後は後続の待機が解除される
+        leader.release();
+        assertTrue(follower.awaitLeader());
+
+        // 完了後の新規リクエストは再び先行扱い
+        ReportCacheService.GenerationTicket next = reportCacheService.beginGeneration(testUserId, testRequest);
+        assertTrue(next.isLeader());
+        next.release();
+
+        assertEquals(1L, reportCacheService.getCacheStatistics().getCoalescedCount());
+    }
+
     @Test
     void testCacheCapacityCheck() throws IOException {
         // ユーザーの制限を超過する設定
@@ -0,0 +1,113 @@
+package com.library.management.service.report.distribution;
+
+import com.library.management.entity.ReportDistribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DistributionAttachmentsのテストクラス
+ * 配信設定ごとの添付ファイルの選択（パスワード保護 → 圧縮 → 元ファイル）と、同じ設定間での共有・一時ファイルの削除を確認する
+ */
+class DistributionAttachmentsTest {
+
+    private static final String REPORT_CONTENT = "id,title\n1,テスト書籍\n";
+
+    @TempDir
+    Path reportDirectory;
+
+    private File reportFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        reportFile = reportDirectory.resolve("report.csv").toFile();
+        Files.writeString(reportFile.toPath(), REPORT_CONTENT, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testNoAttachmentWhenAttachFileDisabled() throws IOException {
+        try (DistributionAttachments attachments = new DistributionAttachments(reportFile, "report.csv")) {
+            // テスト実行・検証
+            assertNull(attachments.getAttachment(createDistribution(false, true, "secret")));
+        }
+    }
+
+    @Test
+    void testOriginalFileWithoutCompressionOrPassword() throws IOException {
+        try (DistributionAttachments attachments = new DistributionAttachments(reportFile, "report.csv")) {
+            // テスト実行
+            File attachment = attachments.getAttachment(createDistribution(true, false, null));
+
+            // 検証（一時ファイルを作らず元ファイルをそのまま添付する）
+            assertEquals(reportFile, attachment);
+        }
+        assertTrue(reportFile.exists());
+    }
+
+    @Test
+    void testCompressedAttachmentIsSharedAndDeletedOnClose() throws IOException {
+        File first;
+        try (DistributionAttachments attachments = new DistributionAttachments(reportFile, "report.csv")) {
+            // テスト実行（同じ設定の配信2件）
+            first = attachments.getAttachment(createDistribution(true, true, null));
+            File second = attachments.getAttachment(createDistribution(true, true, " "));
+
+            // 検証（空白のみのパスワードは未指定として圧縮のみ、ZIPは1度だけ作成して共有する）
+            assertSame(first, second);
+            assertNotEquals(reportFile, first);
+            assertTrue(first.getName().startsWith("compressed_"));
+            assertEquals(REPORT_CONTENT, readSingleEntry(first, "report.csv"));
+        }
+
+        // 作成した一時ファイルのみ削除される
+        assertFalse(first.exists());
+        assertTrue(reportFile.exists());
+    }
+
+    @Test
+    void testPasswordProtectionTakesPrecedenceOverCompression() throws IOException {
+        try (DistributionAttachments attachments = new DistributionAttachments(reportFile, "report.csv")) {
+            // テスト実行
+            File compressed = attachments.getAttachment(createDistribution(true, true, null));
+            File protectedFile = attachments.getAttachment(createDistribution(true, true, "secret"));
+            File samePassword = attachments.getAttachment(createDistribution(true, false, "secret"));
+            File otherPassword = attachments.getAttachment(createDistribution(true, false, "other"));
+
+            // 検証（パスワードが指定されていれば圧縮指定によらず保護用のファイルを使い、パスワードごとに共有する）
+            assertTrue(protectedFile.getName().startsWith("protected_"));
+            assertNotEquals(compressed, protectedFile);
+            assertSame(protectedFile, samePassword);
+            assertNotEquals(protectedFile, otherPassword);
+            assertEquals(REPORT_CONTENT, readSingleEntry(protectedFile, "report.csv"));
+        }
+    }
+
+    private ReportDistribution createDistribution(boolean attachFile, boolean compressFile, String password) {
+        ReportDistribution distribution = new ReportDistribution();
+        distribution.setAttachFile(attachFile);
+        distribution.setCompressFile(compressFile);
+        distribution.setPasswordProtection(password);
+        return distribution;
+    }
+
+    private String readSingleEntry(File zipFile, String expectedName) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zipFile.toPath()))) {
+            ZipEntry entry = zis.getNextEntry();
+            assertNotNull(entry);
+            assertEquals(expectedName, entry.getName());
+            String content = new String(zis.readAllBytes(), StandardCharsets.UTF_8);
+            assertNull(zis.getNextEntry());
+            return content;
+        }
+    }
+}
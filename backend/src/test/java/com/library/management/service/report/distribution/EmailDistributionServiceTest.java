@@ -0,0 +1,206 @@
+package com.library.management.service.report.distribution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.entity.ReportDistribution;
+import jakarta.mail.Address;
+import jakarta.mail.BodyPart;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * EmailDistributionServiceのテストクラス
+ * 宛先のBCCでのまとめ方（バッチ件数ちょうど・1件超過）と、配信設定に応じた添付ファイルを確認する
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailDistributionServiceTest {
+
+    private static final String FROM_ADDRESS = "noreply@library.system";
+    private static final int BATCH_SIZE = 50;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @InjectMocks
+    private EmailDistributionService emailDistributionService;
+
+    @TempDir
+    Path reportDirectory;
+
+    private File reportFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(emailDistributionService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(emailDistributionService, "defaultFromAddress", FROM_ADDRESS);
+        ReflectionTestUtils.setField(emailDistributionService, "mailEnabled", true);
+        ReflectionTestUtils.setField(emailDistributionService, "recipientBatchSize", BATCH_SIZE);
+
+        reportFile = reportDirectory.resolve("report.csv").toFile();
+        Files.writeString(reportFile.toPath(), "id,title\n1,テスト書籍\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testExactlyBatchSizeRecipientsSendOneMessage() throws Exception {
+        // モック設定
+        mockCreateMimeMessage();
+
+        // テスト実行
+        emailDistributionService.sendReport(createDistribution(recipients(BATCH_SIZE), false), reportFile, "report.csv");
+
+        // 検証（1通のBCCにまとめ、Toは送信者自身）
+        List<MimeMessage> messages = sentMessages();
+        assertEquals(1, messages.size());
+        assertEquals(List.of(FROM_ADDRESS), addresses(messages.get(0), Message.RecipientType.TO));
+        assertEquals(recipients(BATCH_SIZE), addresses(messages.get(0), Message.RecipientType.BCC));
+    }
+
+    @Test
+    void testOneOverBatchSizeSplitsIntoTwoMessages() throws Exception {
+        // モック設定
+        mockCreateMimeMessage();
+        List<String> recipients = recipients(BATCH_SIZE + 1);
+
+        // テスト実行
+        emailDistributionService.sendReport(createDistribution(recipients, false), reportFile, "report.csv");
+
+        // 検証（先頭のバッチ件数分をBCC、残りの1件はToで送り、1回の送信呼び出しにまとめる）
+        List<MimeMessage> messages = sentMessages();
+        assertEquals(2, messages.size());
+        assertEquals(recipients.subList(0, BATCH_SIZE), addresses(messages.get(0), Message.RecipientType.BCC));
+        assertEquals(List.of(recipients.get(BATCH_SIZE)), addresses(messages.get(1), Message.RecipientType.TO));
+        assertTrue(addresses(messages.get(1), Message.RecipientType.BCC).isEmpty());
+    }
+
+    @Test
+    void testNoRecipientsSendsNothing() throws Exception {
+        // テスト実行
+        emailDistributionService.sendReport(createDistribution(List.of(), false), reportFile, "report.csv");
+
+        // 検証
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    void testCompressedAttachmentIsSharedAcrossBatches() throws Exception {
+        // モック設定
+        mockCreateMimeMessage();
+
+        // テスト実行
+        emailDistributionService.sendReport(createDistribution(recipients(BATCH_SIZE + 1), true), reportFile, "report.csv");
+
+        // 検証（全メッセージにZIP名で添付し、送信後に一時ファイルは削除される）
+        List<MimeMessage> messages = sentMessages();
+        assertEquals(2, messages.size());
+        for (MimeMessage message : messages) {
+            assertEquals(List.of("report.zip"), attachmentNames(message));
+        }
+        try (var files = Files.list(reportDirectory)) {
+            assertEquals(List.of("report.csv"), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void testMissingReportFileFallsBackToMessageWithoutAttachment() throws Exception {
+        // モック設定
+        mockCreateMimeMessage();
+        Files.delete(reportFile.toPath());
+
+        // テスト実行
+        emailDistributionService.sendReport(createDistribution(recipients(1), false), reportFile, "report.csv");
+
+        // 検証（添付できないファイルは付けずに本文のみ送信する）
+        List<MimeMessage> messages = sentMessages();
+        assertEquals(1, messages.size());
+        assertTrue(attachmentNames(messages.get(0)).isEmpty());
+    }
+
+    @Test
+    void testMailDisabledSkipsSending() {
+        // モック設定
+        ReflectionTestUtils.setField(emailDistributionService, "mailEnabled", false);
+
+        // テスト実行
+        emailDistributionService.sendReport(createDistribution(recipients(3), false), reportFile, "report.csv");
+
+        // 検証
+        verifyNoInteractions(mailSender);
+    }
+
+    private void mockCreateMimeMessage() {
+        Session session = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+    }
+
+    private List<MimeMessage> sentMessages() {
+        ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(mailSender).send(captor.capture());
+        return Arrays.asList(captor.getValue());
+    }
+
+    private ReportDistribution createDistribution(List<String> recipients, boolean compressFile) {
+        ReportDistribution distribution = new ReportDistribution();
+        distribution.setId(1L);
+        distribution.setDistributionType("EMAIL");
+        try {
+            distribution.setRecipients(new ObjectMapper().writeValueAsString(recipients));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        distribution.setAttachFile(true);
+        distribution.setCompressFile(compressFile);
+        return distribution;
+    }
+
+    private List<String> recipients(int count) {
+        List<String> recipients = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            recipients.add("user" + i + "@example.com");
+        }
+        return recipients;
+    }
+
+    private List<String> addresses(MimeMessage message, Message.RecipientType type) throws Exception {
+        Address[] addresses = message.getRecipients(type);
+        if (addresses == null) {
+            return List.of();
+        }
+        return Arrays.stream(addresses).map(Address::toString).toList();
+    }
+
+    private List<String> attachmentNames(MimeMessage message) throws Exception {
+        MimeMultipart multipart = (MimeMultipart) message.getContent();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < multipart.getCount(); i++) {
+            BodyPart part = multipart.getBodyPart(i);
+            if (part.getFileName() != null) {
+                names.add(part.getFileName());
+            }
+        }
+        return names;
+    }
+}
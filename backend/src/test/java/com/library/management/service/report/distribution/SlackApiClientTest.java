@@ -0,0 +1,238 @@
+package com.library.management.service.report.distribution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SlackApiClientのテストクラス
+ * ローカルのスタブHTTPサーバーに対して実際に送信し、リクエストの順序と内容、429応答時の待機を確認する
+ */
+class SlackApiClientTest {
+
+    private static final String TOKEN = "xoxb-test";
+
+    @TempDir
+    Path tempDirectory;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private SlackApiClient client;
+
+    // スタブサーバーが受信したリクエスト
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        client = new SlackApiClient();
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(client, "apiBaseUrl", baseUrl() + "/api");
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(client, "requestTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(client, "maxRetries", 3);
+        // 流量制御自体では待たない設定（429応答による待機のみを確認する）
+        ReflectionTestUtils.setField(client, "requestsPerMinute", 6000);
+        ReflectionTestUtils.setField(client, "burst", 100);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testUploadFileSendsExternalUploadSequence() throws Exception {
+        // スタブ設定
+        String uploadPath = "/upload/F123";
+        respond("/api/files.getUploadURLExternal",
+            "{\"ok\":true,\"file_id\":\"F123\",\"upload_url\":\"" + baseUrl() + uploadPath + "\"}");
+        respond(uploadPath, "OK - 20");
+        respond("/api/files.completeUploadExternal", "{\"ok\":true,\"files\":[{\"id\":\"F123\"}]}");
+
+        File file = tempDirectory.resolve("report.csv").toFile();
+        Files.writeString(file.toPath(), "id,title\n1,テスト書籍\n", StandardCharsets.UTF_8);
+
+        // テスト実行
+        String fileId = client.uploadFile(TOKEN, List.of("C1", "C2"), file, "report.csv", "月次帳票", "送付します");
+
+        // 検証（URL取得 → 本体送信 → 完了の順に1回ずつ呼ばれる）
+        assertEquals("F123", fileId);
+        assertEquals(List.of("/api/files.getUploadURLExternal", uploadPath, "/api/files.completeUploadExternal"),
+            received.stream().map(Received::path).toList());
+
+        Received getUrl = received.get(0);
+        assertEquals("Bearer " + TOKEN, getUrl.authorization());
+        Map<String, String> getUrlParams = getUrl.form();
+        assertEquals("report.csv", getUrlParams.get("filename"));
+        assertEquals(String.valueOf(file.length()), getUrlParams.get("length"));
+
+        // アップロードURLへはトークンを付けず、マルチパートで本体を送る
+        Received upload = received.get(1);
+        assertNull(upload.authorization());
+        assertTrue(upload.contentType().startsWith("multipart/form-data; boundary="));
+        String boundary = upload.contentType().substring(upload.contentType().indexOf('=') + 1);
+        String uploadBody = upload.bodyText();
+        assertTrue(uploadBody.startsWith("--" + boundary + "\r\n"));
+        assertTrue(uploadBody.contains("filename=\"report.csv\""));
+        assertTrue(uploadBody.contains("id,title\n1,テスト書籍\n"));
+        assertTrue(uploadBody.endsWith("\r\n--" + boundary + "--\r\n"));
+
+        Map<String, String> completeParams = received.get(2).form();
+        assertEquals("C1,C2", completeParams.get("channels"));
+        assertEquals("送付します", completeParams.get("initial_comment"));
+        assertEquals("[{\"id\":\"F123\",\"title\":\"月次帳票\"}]", completeParams.get("files"));
+    }
+
+    @Test
+    void testTooManyRequestsPausesWorkspaceBucket() throws Exception {
+        // スタブ設定（初回のみ429、Retry-After 2秒）
+        CountDownLatch rateLimited = new CountDownLatch(1);
+        AtomicInteger postCount = new AtomicInteger();
+        server.createContext("/api/chat.postMessage", exchange -> {
+            Received request = record(exchange);
+            if (postCount.getAndIncrement() == 0) {
+                exchange.getResponseHeaders().add("Retry-After", "2");
+                send(exchange, 429, "");
+                rateLimited.countDown();
+            } else {
+                send(exchange, 200, "{\"ok\":true,\"ts\":\"" + request.receivedAt() + "\"}");
+            }
+        });
+        respond("/api/auth.test", "{\"ok\":true}");
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // テスト実行
+            Future<?> post = callers.submit(() ->
+                client.callMethod(TOKEN, "chat.postMessage", Map.of("channel", "C1", "text", "hello")));
+            assertTrue(rateLimited.await(5, TimeUnit.SECONDS));
+            // 429応答を受けたクライアントがバケットを止めるまで待つ
+            Thread.sleep(300);
+
+            // 同じワークスペースの別メソッドと、別ワークスペースの呼び出し
+            Future<?> sameWorkspace = callers.submit(() -> client.callMethod(TOKEN, "auth.test", Map.of()));
+            client.callMethod("xoxb-other", "auth.test", Map.of());
+            post.get(10, TimeUnit.SECONDS);
+            sameWorkspace.get(10, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // 検証
+        long firstPost = receivedAt("/api/chat.postMessage", null, 0);
+        long retriedPost = receivedAt("/api/chat.postMessage", null, 1);
+        long sameWorkspaceCall = receivedAt("/api/auth.test", "Bearer " + TOKEN, 0);
+        long otherWorkspaceCall = receivedAt("/api/auth.test", "Bearer xoxb-other", 0);
+
+        assertEquals(2, postCount.get());
+        // 再試行はRetry-Afterの経過後
+        assertTrue(retriedPost - firstPost >= TimeUnit.SECONDS.toNanos(2) - TimeUnit.MILLISECONDS.toNanos(100));
+        // 同じワークスペースの他の呼び出しも待機する
+        assertTrue(sameWorkspaceCall - firstPost >= TimeUnit.SECONDS.toNanos(2) - TimeUnit.MILLISECONDS.toNanos(100));
+        // 別ワークスペースは待たない
+        assertTrue(otherWorkspaceCall - firstPost < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void testErrorResponseThrowsSlackApiException() {
+        // スタブ設定
+        respond("/api/files.getUploadURLExternal", "{\"ok\":false,\"error\":\"invalid_auth\"}");
+
+        // テスト実行・検証
+        SlackApiClient.SlackApiException e = assertThrows(SlackApiClient.SlackApiException.class,
+            () -> client.callMethod(TOKEN, "files.getUploadURLExternal", Map.of("filename", "a.csv", "length", "1")));
+        assertEquals("files.getUploadURLExternal", e.getMethod());
+        assertEquals("invalid_auth", e.getError());
+    }
+
+    private String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void respond(String path, String body) {
+        server.createContext(path, exchange -> {
+            record(exchange);
+            send(exchange, 200, body);
+        });
+    }
+
+    private Received record(HttpExchange exchange) throws IOException {
+        Received request = new Received(System.nanoTime(), exchange.getRequestURI().getPath(),
+            exchange.getRequestHeaders().getFirst("Authorization"),
+            exchange.getRequestHeaders().getFirst("Content-Type"),
+            exchange.getRequestBody().readAllBytes());
+        received.add(request);
+        return request;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private long receivedAt(String path, String authorization, int index) {
+        return received.stream()
+            .filter(request -> request.path().equals(path))
+            .filter(request -> authorization == null || authorization.equals(request.authorization()))
+            .skip(index)
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("リクエストが届いていません: " + path))
+            .receivedAt();
+    }
+
+    private record Received(long receivedAt, String path, String authorization, String contentType, byte[] body) {
+
+        String bodyText() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+
+        Map<String, String> form() {
+            Map<String, String> params = new ConcurrentHashMap<>();
+            for (String pair : bodyText().split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+            return params;
+        }
+    }
+}
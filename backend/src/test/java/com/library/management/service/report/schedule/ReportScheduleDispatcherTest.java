@@ -0,0 +1,172 @@
+package com.library.management.service.report.schedule;
+
+import com.library.management.entity.ReportSchedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReportScheduleDispatcherのテストクラス
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportScheduleDispatcherTest {
+
+    private static final String NODE_ID = "node-1";
+
+    @Mock
+    private ReportScheduleService scheduleService;
+
+    @InjectMocks
+    private ReportScheduleDispatcher dispatcher;
+
+    // 実行中のスケジュールを完了させるまで保持する
+    private final CountDownLatch releaseWorkers = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        // ワーカー2、ユーザーごとに1件、確保は最大3件
+        ReflectionTestUtils.setField(dispatcher, "workerThreads", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxConcurrentPerUser", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxPending", 3);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 900);
+        ReflectionTestUtils.setField(dispatcher, "configuredNodeId", NODE_ID);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseWorkers.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testDispatchClaimsUpToMaxPendingAndRenewsLeases() {
+        // モック設定（3件確保、実行は完了させない）
+        ReportSchedule first = createSchedule(1L, 10L, 3);
+        ReportSchedule second = createSchedule(2L, 20L, 2);
+        ReportSchedule third = createSchedule(3L, 30L, 1);
+        when(scheduleService.claimDueSchedules(NODE_ID, 3, 900)).thenReturn(List.of(first, second, third));
+        blockExecution();
+
+        // テスト実行
+        int claimed = dispatcher.dispatchDueSchedules();
+        int claimedAgain = dispatcher.dispatchDueSchedules();
+
+        // 検証（上限に達している間は新たに確保せず、保持中のリースのみ延長する）
+        assertEquals(3, claimed);
+        assertEquals(0, claimedAgain);
+        verify(scheduleService, times(1)).claimDueSchedules(anyString(), anyInt(), anyInt());
+        verify(scheduleService).renewLeases(argThat(ids -> ids.containsAll(List.of(1L, 2L, 3L)) && ids.size() == 3),
+            eq(NODE_ID), eq(900));
+        verify(scheduleService, timeout(1000).times(2)).executeSchedule(any());
+        assertEquals(2, dispatcher.runningCount());
+        assertEquals(1, dispatcher.pendingCount());
+    }
+
+    @Test
+    void testPerUserLimitSkipsToNextUser() {
+        // モック設定（ユーザー10のスケジュールが2件、ユーザー20が1件）
+        ReportSchedule firstOfUser10 = createSchedule(1L, 10L, 3);
+        ReportSchedule secondOfUser10 = createSchedule(2L, 10L, 2);
+        ReportSchedule user20 = createSchedule(3L, 20L, 1);
+        when(scheduleService.claimDueSchedules(NODE_ID, 3, 900))
+            .thenReturn(List.of(firstOfUser10, secondOfUser10, user20));
+        blockExecution();
+
+        // テスト実行
+        dispatcher.dispatchDueSchedules();
+
+        // 検証（ユーザー10の2件目は待機し、後ろのユーザー20が先に実行される）
+        verify(scheduleService, timeout(1000)).executeSchedule(firstOfUser10);
+        verify(scheduleService, timeout(1000)).executeSchedule(user20);
+        verify(scheduleService, never()).executeSchedule(secondOfUser10);
+        assertEquals(1, dispatcher.pendingCount());
+
+        // 1件目の完了後に2件目が実行される
+        releaseWorkers.countDown();
+        verify(scheduleService, timeout(1000)).executeSchedule(secondOfUser10);
+    }
+
+    @Test
+    void testSubmitRefusedWhileLeased() {
+        // モック設定（他ノードがリース中）
+        ReportSchedule schedule = createSchedule(1L, 10L, 0);
+        when(scheduleService.claimSchedule(1L, NODE_ID, 900)).thenReturn(false);
+
+        // テスト実行
+        boolean submitted = dispatcher.submit(schedule);
+
+        // 検証
+        assertFalse(submitted);
+        verify(scheduleService, never()).executeSchedule(any());
+    }
+
+    @Test
+    void testSubmitRefusedWhileClaimedByThisNode() {
+        // モック設定（定期実行で確保済み）
+        ReportSchedule schedule = createSchedule(1L, 10L, 0);
+        when(scheduleService.claimDueSchedules(NODE_ID, 3, 900)).thenReturn(List.of(schedule));
+        blockExecution();
+        dispatcher.dispatchDueSchedules();
+        verify(scheduleService, timeout(1000)).executeSchedule(schedule);
+
+        // テスト実行
+        boolean submitted = dispatcher.submit(schedule);
+
+        // 検証（リースの再取得を試みない）
+        assertFalse(submitted);
+        verify(scheduleService, never()).claimSchedule(anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void testShutdownReleasesUnstartedLeases() throws InterruptedException {
+        // モック設定（ユーザー10の2件目が待機中）
+        ReportSchedule running = createSchedule(1L, 10L, 2);
+        ReportSchedule waiting = createSchedule(2L, 10L, 1);
+        when(scheduleService.claimDueSchedules(NODE_ID, 3, 900)).thenReturn(List.of(running, waiting));
+        blockExecution();
+        dispatcher.dispatchDueSchedules();
+        verify(scheduleService, timeout(1000)).executeSchedule(running);
+
+        // テスト実行（停止は実行中のスケジュールの完了を待つため別スレッドで行う）
+        Thread stopper = new Thread(dispatcher::shutdown);
+        stopper.start();
+
+        // 検証（未実行分のみ解放し、停止後は実行しない）
+        verify(scheduleService, timeout(1000)).releaseLeases(List.of(2L), NODE_ID);
+        releaseWorkers.countDown();
+        stopper.join(5000);
+        verify(scheduleService, never()).executeSchedule(waiting);
+        assertEquals(0, dispatcher.pendingCount());
+    }
+
+    private void blockExecution() {
+        when(scheduleService.executeSchedule(any())).thenAnswer(invocation -> {
+            releaseWorkers.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+    }
+
+    private ReportSchedule createSchedule(Long id, Long userId, int minutesAgo) {
+        ReportSchedule schedule = new ReportSchedule();
+        schedule.setId(id);
+        schedule.setUserId(userId);
+        schedule.setName("schedule-" + id);
+        schedule.setNextRunTime(LocalDateTime.now().minusMinutes(minutesAgo));
+        return schedule;
+    }
+}
@@ -110,16 +110,18 @@ class BatchService {
 
   // データ取得関連
   async getExecutions(params?: {
-    page?: number;
+    cursor?: string;
     size?: number;
     jobName?: string;
     status?: string;
+    count?: 'exact' | 'estimate' | 'none';
   }): Promise<{
     executions: BatchExecution[];
-    totalCount: number;
-    currentPage: number;
+    nextCursor: string | null;
+    hasMore: boolean;
     pageSize: number;
-    totalPages: number;
+    totalCount?: number;
+    countType?: 'exact' | 'estimate';
   }> {
     const response = await api.get('/batch/executions', { params });
     return response.data;
@@ -291,23 +293,26 @@ class BatchService {
 
   // ログ取得
   async getLogs(params?: {
-    page?: number;
+    cursor?: string;
     size?: number;
     jobName?: string;
     level?: string;
+    count?: 'exact' | 'estimate' | 'none';
   }): Promise<{
     logs: Array<{
       id: number;
       log_level: string;
+      job_name?: string;
       message: string;
       user_id?: number;
       ip_address?: string;
       created_at: string;
     }>;
-    totalCount: number;
-    currentPage: number;
+    nextCursor: string | null;
+    hasMore: boolean;
     pageSize: number;
-    totalPages: number;
+    totalCount?: number;
+    countType?: 'exact' | 'estimate';
   }> {
     const response = await api.get('/batch/logs', { params });
     return response.data;